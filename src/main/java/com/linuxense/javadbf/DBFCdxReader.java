@@ -0,0 +1,479 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads FoxPro compound index files (.cdx).
+ *
+ * A compound index has several tags, each one a B-tree of 512 bytes nodes.
+ * The leaf nodes are compressed (the bytes shared with the previous key and
+ * the trailing blanks are not stored) and linked, so range scans walk the
+ * leaves from left to right. Nodes are read with positional reads through a
+ * {@link DBFIndexPageCache} shared by all the tags.
+ *
+ * The key expressions are not evaluated: lookups take the value of the key,
+ * a String for character keys (as the expression builds it, for example in
+ * upper case for UPPER(NAME)), a Number for integer and numeric keys, a Date
+ * for date keys or a Boolean for logical keys. Lookups return record numbers
+ * starting at 0, in ascending order of the keys, to be read with
+ * {@link DBFSeekableReader}.
+ */
+public final class DBFCdxReader implements Closeable {
+
+	private static final int PAGE_SIZE = 512;
+	private static final int OPTION_UNIQUE = 0x01;
+	private static final int OPTION_NULLABLE = 0x02;
+	private static final int OPTION_COMPACT = 0x20;
+	private static final int OPTION_COMPOUND = 0x40;
+	private static final int NODE_LEAF = 0x02;
+
+	private final FileChannel channel;
+	private final DBFIndexPageCache cache;
+	private final Charset charset;
+	private final Map<String, Tag> tags = new LinkedHashMap<>();
+
+	/**
+	 * Opens the structural index of a dbf file: the .cdx file with the same
+	 * name, that FoxPro opens with the table.
+	 * @param dbfFile the dbf file
+	 * @return the index, or null if the header of the dbf file says it has no structural index
+	 */
+	public static DBFCdxReader openStructuralIndex(File dbfFile) {
+		DBFHeader header = DBFUtils.readHeader(dbfFile);
+		if (!header.hasStructuralIndex()) {
+			return null;
+		}
+		File cdxFile = findSibling(dbfFile, "cdx");
+		if (cdxFile == null) {
+			throw new DBFException("Structural index of " + dbfFile.getName() + " not found");
+		}
+		return new DBFCdxReader(cdxFile, header.getUsedCharset(), DBFIndexPageCache.DEFAULT_MAX_PAGES);
+	}
+
+	/**
+	 * Opens a compound index file, with the default charset and page cache size
+	 * @param cdxFile the index file
+	 */
+	public DBFCdxReader(File cdxFile) {
+		this(cdxFile, null, DBFIndexPageCache.DEFAULT_MAX_PAGES);
+	}
+
+	/**
+	 * Opens a compound index file
+	 * @param cdxFile the index file
+	 * @param charset charset of the character keys, null for the default one (ISO-8859-1)
+	 * @param cachePages maximum number of pages kept in memory
+	 */
+	public DBFCdxReader(File cdxFile, Charset charset, int cachePages) {
+		this.charset = charset != null ? charset : DBFBase.DEFAULT_CHARSET;
+		try {
+			this.channel = FileChannel.open(cdxFile.toPath(), StandardOpenOption.READ);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		try {
+			this.cache = new DBFIndexPageCache(this.channel, PAGE_SIZE, cachePages);
+			ByteBuffer header = this.cache.getPage(0);
+			int options = header.get(14) & 0xFF;
+			if ((options & (OPTION_COMPACT | OPTION_COMPOUND)) != (OPTION_COMPACT | OPTION_COMPOUND)) {
+				throw new DBFException("Not a compound index file: " + cdxFile.getName());
+			}
+			// the tags are the keys of the tag directory, with the offset of their header as record number
+			final List<String> names = new ArrayList<>();
+			final DBFRecordList offsets = new DBFRecordList();
+			Tag directory = new Tag("", 0);
+			directory.scan(null, null, (byte) 0, new KeyVisitor() {
+				@Override
+				void visit(byte[] key, int record) {
+					names.add(new String(key, DBFCdxReader.this.charset).trim());
+					offsets.add(record);
+				}
+			});
+			int[] headerOffsets = offsets.toArray();
+			for (int i = 0; i < headerOffsets.length; i++) {
+				Tag tag = new Tag(names.get(i), headerOffsets[i]);
+				this.tags.put(tag.name.toUpperCase(), tag);
+			}
+		}
+		catch (RuntimeException e) {
+			DBFUtils.close(this.channel);
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the names of the tags
+	 * @return the names of the tags, in the order of the tag directory
+	 */
+	public List<String> getTagNames() {
+		List<String> names = new ArrayList<>();
+		for (Tag tag : this.tags.values()) {
+			names.add(tag.name);
+		}
+		return Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Gets a tag
+	 * @param name name of the tag (case insensitive)
+	 * @return the tag
+	 */
+	public Tag getTag(String name) {
+		Tag tag = this.tags.get(name.toUpperCase());
+		if (tag == null) {
+			throw new DBFException("Tag " + name + " not found");
+		}
+		return tag;
+	}
+
+	/**
+	 * Gets the page cache of the index
+	 * @return the page cache
+	 */
+	public DBFIndexPageCache getPageCache() {
+		return this.cache;
+	}
+
+	@Override
+	public void close() {
+		DBFUtils.close(this.channel);
+	}
+
+	/**
+	 * Finds a file with the same name as a dbf file and another extension, in any case
+	 */
+	static File findSibling(File dbfFile, String extension) {
+		String name = dbfFile.getName();
+		int dot = name.lastIndexOf('.');
+		String baseName = dot >= 0 ? name.substring(0, dot) : name;
+		File directory = dbfFile.getAbsoluteFile().getParentFile();
+		String[] files = directory.list();
+		if (files != null) {
+			for (String file : files) {
+				if (file.equalsIgnoreCase(baseName + "." + extension)) {
+					return new File(directory, file);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static int readBigEndianInt(ByteBuffer page, int offset) {
+		return Integer.reverseBytes(page.getInt(offset));
+	}
+
+	private abstract static class KeyVisitor {
+		abstract void visit(byte[] key, int record);
+	}
+
+	/**
+	 * A tag of the compound index
+	 */
+	public final class Tag {
+		private final String name;
+		private final int root;
+		private final int keyLength;
+		private final int options;
+		private final boolean descending;
+		private final String keyExpression;
+		private final String forExpression;
+
+		Tag(String name, int headerOffset) {
+			ByteBuffer header = DBFCdxReader.this.cache.getPage(headerOffset / PAGE_SIZE);
+			this.name = name;
+			this.root = header.getInt(0);
+			this.keyLength = header.getShort(12) & 0xFFFF;
+			this.options = header.get(14) & 0xFF;
+			this.descending = header.getShort(502) != 0;
+			int forLength = header.getShort(506) & 0xFFFF;
+			int keyExpressionLength = header.getShort(510) & 0xFFFF;
+			if (this.keyLength == 0 || this.keyLength > 240 || keyExpressionLength + forLength > PAGE_SIZE) {
+				throw new DBFException("Invalid index header at " + headerOffset);
+			}
+			ByteBuffer pool = DBFCdxReader.this.cache.getPage(headerOffset / PAGE_SIZE + 1);
+			this.keyExpression = readExpression(pool, 0, keyExpressionLength);
+			this.forExpression = readExpression(pool, keyExpressionLength, forLength);
+		}
+
+		/**
+		 * Gets the name of the tag
+		 * @return the name of the tag
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Gets the key expression, as stored in the file
+		 * @return the key expression
+		 */
+		public String getKeyExpression() {
+			return this.keyExpression;
+		}
+
+		/**
+		 * Gets the FOR expression (filter) of the tag
+		 * @return the FOR expression, or an empty string if the tag has no filter
+		 */
+		public String getForExpression() {
+			return this.forExpression;
+		}
+
+		/**
+		 * Gets the length of the keys (including the null flag of nullable keys)
+		 * @return length of the keys in bytes
+		 */
+		public int getKeyLength() {
+			return this.keyLength;
+		}
+
+		/**
+		 * Checks if the tag is unique
+		 * @return true for unique tags
+		 */
+		public boolean isUnique() {
+			return (this.options & OPTION_UNIQUE) != 0;
+		}
+
+		/**
+		 * Checks if the tag was created in descending order. Lookups always
+		 * return the records in ascending order of the keys.
+		 * @return true for descending tags
+		 */
+		public boolean isDescending() {
+			return this.descending;
+		}
+
+		/**
+		 * Finds the records with a key
+		 * @param value the key
+		 * @return the record numbers (starting at 0) with the key
+		 */
+		public int[] find(Object value) {
+			return findRange(value, value);
+		}
+
+		/**
+		 * Finds the records with a key in a range
+		 * @param from the lowest key (inclusive), null for no lower limit
+		 * @param to the highest key (inclusive), null for no upper limit
+		 * @return the record numbers (starting at 0), in the order of the keys
+		 */
+		public int[] findRange(Object from, Object to) {
+			Object sample = from != null ? from : to;
+			byte fill = sample == null || sample instanceof String ? (byte) ' ' : (byte) 0;
+			final DBFRecordList records = new DBFRecordList();
+			scan(from != null ? toKey(from) : null, to != null ? toKey(to) : null, fill, new KeyVisitor() {
+				@Override
+				void visit(byte[] key, int record) {
+					records.add(record - 1);
+				}
+			});
+			return records.toArray();
+		}
+
+		/**
+		 * Gets all the records, in the order of the keys
+		 * @return the record numbers (starting at 0)
+		 */
+		public int[] getAll() {
+			return findRange(null, null);
+		}
+
+		@Override
+		public String toString() {
+			return this.name + " (" + this.keyExpression + ")";
+		}
+
+		/**
+		 * Goes down to the first leaf that can have keys from low, and walks the
+		 * leaves to the right until a key bigger than high
+		 * @param fill byte of the trailing bytes not stored in the leaves
+		 */
+		void scan(byte[] low, byte[] high, byte fill, KeyVisitor visitor) {
+			DBFIndexPageCache pages = DBFCdxReader.this.cache;
+			int node = this.root;
+			for (int depth = 0;; depth++) {
+				if (depth > 64) {
+					throw new DBFException("Index file is corrupted: cycle in the tree");
+				}
+				ByteBuffer page = pages.getPage(node / PAGE_SIZE);
+				if ((page.getShort(0) & NODE_LEAF) != 0) {
+					break;
+				}
+				int count = page.getShort(2) & 0xFFFF;
+				int child = -1;
+				for (int i = 0; i < count; i++) {
+					// the key of an interior entry is the highest key of its child
+					int entry = 12 + i * (this.keyLength + 8);
+					if (low == null || compare(page, entry, low) >= 0) {
+						child = readBigEndianInt(page, entry + this.keyLength + 4);
+						break;
+					}
+				}
+				if (child < 0) {
+					return;
+				}
+				node = child;
+			}
+
+			byte[] key = new byte[this.keyLength];
+			long maxNodes = getNodeCount();
+			for (long visited = 0; node != -1; visited++) {
+				if (visited > maxNodes) {
+					throw new DBFException("Index file is corrupted: cycle in the leaves");
+				}
+				ByteBuffer page = pages.getPage(node / PAGE_SIZE);
+				int count = page.getShort(2) & 0xFFFF;
+				long recordMask = page.getInt(14) & 0xFFFFFFFFL;
+				int duplicateMask = page.get(18) & 0xFF;
+				int trailMask = page.get(19) & 0xFF;
+				int recordBits = page.get(20) & 0xFF;
+				int duplicateBits = page.get(21) & 0xFF;
+				int entryBytes = page.get(23) & 0xFF;
+				if (entryBytes == 0 || entryBytes > 8 || 24 + count * entryBytes > PAGE_SIZE) {
+					throw new DBFException("Index file is corrupted: node " + node);
+				}
+				int keyEnd = PAGE_SIZE;
+				for (int i = 0; i < count; i++) {
+					long info = 0;
+					for (int j = entryBytes - 1; j >= 0; j--) {
+						info = (info << 8) | (page.get(24 + i * entryBytes + j) & 0xFF);
+					}
+					int record = (int) (info & recordMask);
+					int duplicates = (int) (info >>> recordBits) & duplicateMask;
+					int trail = (int) (info >>> (recordBits + duplicateBits)) & trailMask;
+					int stored = this.keyLength - duplicates - trail;
+					keyEnd -= stored;
+					if (stored < 0 || keyEnd < 24 + count * entryBytes) {
+						throw new DBFException("Index file is corrupted: node " + node);
+					}
+					for (int j = 0; j < stored; j++) {
+						key[duplicates + j] = page.get(keyEnd + j);
+					}
+					for (int j = this.keyLength - trail; j < this.keyLength; j++) {
+						key[j] = fill;
+					}
+					if (low != null && compare(key, low) < 0) {
+						continue;
+					}
+					if (high != null && compare(key, high) > 0) {
+						return;
+					}
+					visitor.visit(key, record);
+				}
+				node = page.getInt(8);
+			}
+		}
+
+		private long getNodeCount() {
+			try {
+				return DBFCdxReader.this.channel.size() / PAGE_SIZE;
+			}
+			catch (IOException e) {
+				throw new DBFException(e.getMessage(), e);
+			}
+		}
+
+		private int compare(ByteBuffer page, int offset, byte[] value) {
+			for (int i = 0; i < this.keyLength; i++) {
+				int a = page.get(offset + i) & 0xFF;
+				int b = value[i] & 0xFF;
+				if (a != b) {
+					return a - b;
+				}
+			}
+			return 0;
+		}
+
+		private int compare(byte[] key, byte[] value) {
+			for (int i = 0; i < this.keyLength; i++) {
+				int a = key[i] & 0xFF;
+				int b = value[i] & 0xFF;
+				if (a != b) {
+					return a - b;
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * Builds the key of a value, as FoxPro stores it
+		 */
+		private byte[] toKey(Object value) {
+			byte[] key = new byte[this.keyLength];
+			int offset = 0;
+			if ((this.options & OPTION_NULLABLE) != 0) {
+				key[0] = (byte) 0x80;
+				offset = 1;
+			}
+			int length = this.keyLength - offset;
+			ByteBuffer data = ByteBuffer.wrap(key, offset, length);
+			if (value instanceof String || value instanceof Boolean) {
+				String text = value instanceof Boolean ? ((Boolean) value ? "T" : "F") : (String) value;
+				byte[] bytes = text.getBytes(DBFCdxReader.this.charset);
+				for (int i = 0; i < length; i++) {
+					key[offset + i] = i < bytes.length ? bytes[i] : (byte) ' ';
+				}
+			}
+			else if (value instanceof Number && length == 4) {
+				data.putInt(((Number) value).intValue() ^ Integer.MIN_VALUE);
+			}
+			else if ((value instanceof Number || value instanceof Date) && length == 8) {
+				double number = value instanceof Date
+						? DBFNdxReader.toJulianDay((Date) value)
+						: ((Number) value).doubleValue();
+				long bits = Double.doubleToLongBits(number);
+				data.putLong(bits >= 0 ? bits ^ Long.MIN_VALUE : ~bits);
+			}
+			else {
+				throw new DBFException("Invalid key for tag " + this.name + ": " + value);
+			}
+			return key;
+		}
+
+		private String readExpression(ByteBuffer pool, int offset, int length) {
+			int end = offset;
+			while (end < offset + length && pool.get(end) != 0) {
+				end++;
+			}
+			byte[] text = new byte[end - offset];
+			for (int i = 0; i < text.length; i++) {
+				text[i] = pool.get(offset + i);
+			}
+			return new String(text, DBFCdxReader.this.charset).trim();
+		}
+	}
+}
@@ -0,0 +1,302 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends records to an existing dbf file from several threads.
+ *
+ * Each record gets a slot from an atomic counter, and it is encoded and
+ * written to its position in the file by the calling thread, without any
+ * lock shared by the producers.
+ *
+ * The record count of the header is updated periodically, and on close, with
+ * a watermark: the lowest slot still being written by any producer. Every
+ * record below it is complete, so readers never see a record being written.
+ * Records added after the last update are not visible to readers until then.
+ *
+ * The file should not be modified by other writers while the appender is open.
+ */
+public class DBFConcurrentAppender extends DBFBase implements java.io.Closeable {
+
+	private static final int DEFAULT_PUBLISH_INTERVAL = 1000;
+
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+	private final DBFHeader header;
+	private final int recordLength;
+	private final long dataStart;
+	private final int publishInterval;
+
+	private final AtomicLong nextSlot;
+	// every writer, to compute the watermark; only grows when all of them are busy
+	private final List<RecordWriter> writers = new CopyOnWriteArrayList<>();
+	private final Queue<RecordWriter> idleWriters = new ConcurrentLinkedQueue<>();
+	private final Object completion = new Object();
+	private final ReentrantLock publishLock = new ReentrantLock();
+	private long publishedCount;
+	private volatile boolean closed = false;
+	private volatile Exception failure;
+
+	/**
+	 * Opens a dbf file to append records, using iso-8859-1 if the charset is not set in the header.
+	 * The fields of the file should be already defined (with {@link DBFWriter#setFields(DBFField[])}).
+	 * @param dbfFile the file
+	 */
+	public DBFConcurrentAppender(File dbfFile) {
+		this(dbfFile, null, DEFAULT_PUBLISH_INTERVAL);
+	}
+
+	/**
+	 * Opens a dbf file to append records.
+	 * The fields of the file should be already defined (with {@link DBFWriter#setFields(DBFField[])}).
+	 * @param dbfFile the file
+	 * @param charset the charset to use, null to use the one of the header
+	 * @param publishInterval update the header every this number of records
+	 */
+	@SuppressWarnings("deprecation") // setCharset is the way subclasses of DBFBase set the charset
+	public DBFConcurrentAppender(File dbfFile, Charset charset, int publishInterval) {
+		super();
+		if (publishInterval <= 0) {
+			throw new IllegalArgumentException("Publish interval must be a positive number");
+		}
+		if (!dbfFile.exists() || dbfFile.length() == 0) {
+			throw new DBFException("The file " + dbfFile + " should be a dbf file with fields defined");
+		}
+		try {
+			this.raf = new RandomAccessFile(dbfFile, "rw");
+		}
+		catch (FileNotFoundException e) {
+			throw new DBFException("Specified file is not found. " + e.getMessage(), e);
+		}
+		try {
+			this.header = new DBFHeader();
+			this.header.read(this.raf, charset, false);
+		}
+		catch (IOException e) {
+			DBFUtils.close(this.raf);
+			throw new DBFException(e.getMessage() + " while reading header", e);
+		}
+		setCharset(this.header.getUsedCharset());
+		this.channel = this.raf.getChannel();
+		this.recordLength = this.header.recordLength;
+		this.dataStart = this.header.headerLength;
+		this.publishedCount = this.header.numberOfRecords;
+		this.nextSlot = new AtomicLong(this.header.numberOfRecords);
+		this.publishInterval = publishInterval;
+	}
+
+	/**
+	 * Add a record. This method can be called from several threads at the same time.
+	 * @param values fields of the record
+	 */
+	public void addRecord(Object[] values) {
+		if (this.closed) {
+			throw new IllegalStateException("You can add records a closed DBFConcurrentAppender");
+		}
+		if (values == null) {
+			throw new DBFException("Null cannot be added as row");
+		}
+		if (values.length != this.header.fieldArray.length) {
+			throw new DBFException("Invalid record. Invalid number of fields in row");
+		}
+		RecordWriter recordWriter = takeWriter();
+		long slot;
+		try {
+			recordWriter.encoder.validate(values);
+			do {
+				slot = this.nextSlot.get();
+				if (slot >= Integer.MAX_VALUE) {
+					throw new DBFException("Exceded record limit of a dbf file");
+				}
+				// set before taking the slot (and never above it), so the watermark doesn't pass it
+				recordWriter.inFlight = slot;
+			} while (!this.nextSlot.compareAndSet(slot, slot + 1));
+			try {
+				recordWriter.write(values, this.dataStart + slot * this.recordLength);
+			}
+			catch (IOException | RuntimeException e) {
+				// the slot is left unwritten, the header is not updated any more
+				this.failure = e;
+				throw new DBFException("Error occured while writing record. " + e.getMessage(), e);
+			}
+		}
+		finally {
+			recordWriter.inFlight = Long.MAX_VALUE;
+			this.idleWriters.offer(recordWriter);
+			if (this.closed) {
+				synchronized (this.completion) {
+					this.completion.notifyAll();
+				}
+			}
+		}
+		if (this.failure == null && (slot + 1) % this.publishInterval == 0) {
+			publishCount(false);
+		}
+	}
+
+	/**
+	 * Gets the number of records of the file, including the ones not written yet
+	 * @return number of records
+	 */
+	public long getRecordCount() {
+		return this.nextSlot.get();
+	}
+
+	/**
+	 * Gets the number of writers created, at most the number of producers
+	 * that have added records at the same time
+	 * @return number of writers
+	 */
+	int getWriterCount() {
+		return this.writers.size();
+	}
+
+	/**
+	 * Waits for the records being written, updates the header and closes the file.
+	 * No record should be added after calling this method.
+	 */
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		try {
+			synchronized (this.completion) {
+				while (getWatermark() < this.nextSlot.get()) {
+					this.completion.wait();
+				}
+			}
+			if (this.failure != null) {
+				throw new DBFException("Error occured while writing records. " + this.failure.getMessage(), this.failure);
+			}
+			long count = this.nextSlot.get();
+			ByteBuffer endOfData = ByteBuffer.allocate(1);
+			endOfData.put((byte) END_OF_DATA);
+			endOfData.flip();
+			while (endOfData.hasRemaining()) {
+				this.channel.write(endOfData, this.dataStart + count * this.recordLength);
+			}
+			publishCount(true);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBFException("Interrupted while waiting for the records being written", e);
+		}
+		finally {
+			DBFUtils.close(this.raf);
+		}
+	}
+
+	/**
+	 * Takes an idle writer, or creates one if all of them are in use, so there
+	 * are only as many writers as producers adding records at the same time.
+	 */
+	private RecordWriter takeWriter() {
+		RecordWriter recordWriter = this.idleWriters.poll();
+		if (recordWriter == null) {
+			recordWriter = new RecordWriter();
+			this.writers.add(recordWriter);
+		}
+		return recordWriter;
+	}
+
+	/**
+	 * Gets the number of records completely written: every slot below the
+	 * lowest one being written by a producer.
+	 */
+	private long getWatermark() {
+		// the slots are read before the producers: a slot taken later is above the value read
+		long watermark = this.nextSlot.get();
+		for (RecordWriter recordWriter : this.writers) {
+			watermark = Math.min(watermark, recordWriter.inFlight);
+		}
+		return watermark;
+	}
+
+	/**
+	 * Writes the watermark as the record count of the header, if it has grown.
+	 * @param wait wait for other thread updating the header, instead of skipping the update
+	 */
+	private void publishCount(boolean wait) {
+		if (wait) {
+			this.publishLock.lock();
+		}
+		else if (!this.publishLock.tryLock()) {
+			return;
+		}
+		try {
+			long watermark = getWatermark();
+			// a failed slot below the watermark is not written
+			if (watermark <= this.publishedCount || this.failure != null) {
+				return;
+			}
+			ByteBuffer count = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			count.putInt((int) watermark);
+			count.flip();
+			while (count.hasRemaining()) {
+				this.channel.write(count, 4 + count.position());
+			}
+			this.publishedCount = watermark;
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		finally {
+			this.publishLock.unlock();
+		}
+	}
+
+	/**
+	 * Encoder and buffer used by one producer at a time
+	 */
+	private class RecordWriter {
+		private final DBFRecordEncoder encoder = new DBFRecordEncoder(DBFConcurrentAppender.this.header.fieldArray, getCharset());
+		private final ByteBuffer buffer = ByteBuffer.allocate(DBFConcurrentAppender.this.recordLength);
+		// slot being written, or Long.MAX_VALUE
+		private volatile long inFlight = Long.MAX_VALUE;
+
+		void write(Object[] values, long position) throws IOException {
+			this.buffer.clear();
+			this.encoder.encode(values, this.buffer.array(), 0);
+			while (this.buffer.hasRemaining()) {
+				DBFConcurrentAppender.this.channel.write(this.buffer, position + this.buffer.position());
+			}
+		}
+	}
+}
@@ -0,0 +1,472 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a copy of a dbf file without the records that repeat the value of
+ * some key fields (or the whole record, if no key fields are given).
+ *
+ * The keys of the records (see {@link DBFSortKey}) are stored in a hash set
+ * outside of the java heap. With {@link Keep#FIRST} the file is read once and
+ * the records are written as their key is found for the first time; with
+ * {@link Keep#LAST} a first pass finds the last record of each key and a second
+ * one writes them. In both cases the records keep their order.
+ *
+ * If the hash set doesn't fit in the memory budget, the file is sorted by the
+ * key instead (see {@link DBFSorter}) and the duplicates are removed from the
+ * sorted file; then the records of the new file are ordered by the key.
+ *
+ * Deleted records are not copied, and are not taken into account.
+ */
+public final class DBFDeduplicator {
+
+	/**
+	 * Which record of each key is kept
+	 */
+	public enum Keep {
+		/**
+		 * The first record with each key
+		 */
+		FIRST,
+		/**
+		 * The last record with each key
+		 */
+		LAST
+	}
+
+	private static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+	private static final int BUFFER_SIZE = 1024 * 1024;
+
+	private final String[] keyFields;
+	private Keep keep = Keep.FIRST;
+	private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+	private File tempDirectory = null;
+	private boolean sorted = false;
+
+	/**
+	 * Creates a deduplicator
+	 * @param keyFields names of the key fields, none to compare whole records
+	 */
+	public DBFDeduplicator(String... keyFields) {
+		this.keyFields = keyFields.clone();
+	}
+
+	/**
+	 * Sets which record of each key is kept. Default is {@link Keep#FIRST}.
+	 * @param keep the record to keep
+	 */
+	public void setKeep(Keep keep) {
+		if (keep == null) {
+			throw new IllegalArgumentException("Keep cannot be null");
+		}
+		this.keep = keep;
+	}
+
+	/**
+	 * Sets the memory used for the hash set of keys, or for sorting if it
+	 * doesn't fit. Default is 64 MB.
+	 * @param memoryBudget bytes of memory
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+		if (memoryBudget <= 0) {
+			throw new IllegalArgumentException("Memory budget must be positive");
+		}
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Sets the directory of the temporary files used when sorting.
+	 * @param tempDirectory the directory, or null to use the default one
+	 */
+	public void setTempDirectory(File tempDirectory) {
+		this.tempDirectory = tempDirectory;
+	}
+
+	/**
+	 * Checks if the last file was deduplicated by sorting it
+	 * @return true if the records of the last file were sorted by the key
+	 */
+	public boolean isSorted() {
+		return this.sorted;
+	}
+
+	/**
+	 * Writes a copy of a dbf file without duplicates.
+	 * The target file is overwritten if it exists.
+	 * @param dbfFile the source file
+	 * @param targetDbfFile the file to create
+	 * @return the number of records of the new file
+	 */
+	public int deduplicate(File dbfFile, File targetDbfFile) {
+		DBFHeader header = DBFUtils.readHeader(dbfFile);
+		DBFSortKey key = new DBFSortKey(header, this.keyFields);
+		this.sorted = false;
+		try {
+			KeyTable table = new KeyTable(key.getLength(), this.memoryBudget);
+			int records = this.keep == Keep.FIRST
+					? keepFirst(dbfFile, header, key, table, targetDbfFile)
+					: keepLast(dbfFile, header, key, table, targetDbfFile);
+			if (records >= 0) {
+				return records;
+			}
+			this.sorted = true;
+			return deduplicateSorted(dbfFile, header, key, targetDbfFile);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return the number of records written, or -1 if the keys don't fit in the memory budget
+	 */
+	private static int keepFirst(File dbfFile, DBFHeader header, final DBFSortKey key, final KeyTable table,
+			File targetDbfFile) throws IOException {
+		try (FileChannel source = FileChannel.open(dbfFile.toPath(), StandardOpenOption.READ);
+				final RecordOutput out = new RecordOutput(source, header, targetDbfFile)) {
+			final byte[] keyData = new byte[key.getLength()];
+			boolean completed = scan(source, header, new RecordVisitor() {
+				@Override
+				boolean visit(byte[] data, int offset, int record) throws IOException {
+					key.extract(data, offset, keyData, 0);
+					int previous = table.put(keyData, record, false);
+					if (previous == KeyTable.FULL) {
+						return false;
+					}
+					if (previous == KeyTable.NOT_FOUND) {
+						out.write(data, offset);
+					}
+					return true;
+				}
+			});
+			return completed ? out.count : -1;
+		}
+	}
+
+	/**
+	 * @return the number of records written, or -1 if the keys don't fit in the memory budget
+	 */
+	private static int keepLast(File dbfFile, DBFHeader header, final DBFSortKey key, final KeyTable table,
+			File targetDbfFile) throws IOException {
+		try (FileChannel source = FileChannel.open(dbfFile.toPath(), StandardOpenOption.READ)) {
+			final byte[] keyData = new byte[key.getLength()];
+			boolean completed = scan(source, header, new RecordVisitor() {
+				@Override
+				boolean visit(byte[] data, int offset, int record) throws IOException {
+					key.extract(data, offset, keyData, 0);
+					return table.put(keyData, record, true) != KeyTable.FULL;
+				}
+			});
+			if (!completed) {
+				return -1;
+			}
+			try (final RecordOutput out = new RecordOutput(source, header, targetDbfFile)) {
+				scan(source, header, new RecordVisitor() {
+					@Override
+					boolean visit(byte[] data, int offset, int record) throws IOException {
+						key.extract(data, offset, keyData, 0);
+						if (table.get(keyData) == record) {
+							out.write(data, offset);
+						}
+						return true;
+					}
+				});
+				return out.count;
+			}
+		}
+	}
+
+	private int deduplicateSorted(File dbfFile, DBFHeader header, final DBFSortKey key, File targetDbfFile) throws IOException {
+		File sortedFile = File.createTempFile("javadbf-dedupe", ".dbf", this.tempDirectory);
+		try {
+			DBFSorter sorter = new DBFSorter(this.keyFields, true);
+			sorter.setMemoryBudget(this.memoryBudget);
+			sorter.setTempDirectory(this.tempDirectory);
+			sorter.sort(dbfFile, sortedFile);
+
+			final boolean keepFirst = this.keep == Keep.FIRST;
+			final int keyLength = key.getLength();
+			final byte[] previousKey = new byte[keyLength];
+			final byte[] currentKey = new byte[keyLength];
+			final byte[] pending = new byte[header.recordLength];
+			try (FileChannel source = FileChannel.open(sortedFile.toPath(), StandardOpenOption.READ);
+					final RecordOutput out = new RecordOutput(source, header, targetDbfFile)) {
+				final boolean[] hasPrevious = new boolean[1];
+				scan(source, header, new RecordVisitor() {
+					@Override
+					boolean visit(byte[] data, int offset, int record) throws IOException {
+						key.extract(data, offset, currentKey, 0);
+						boolean newKey = !hasPrevious[0] || DBFSortKey.compare(previousKey, 0, currentKey, 0, keyLength) != 0;
+						if (keepFirst) {
+							if (newKey) {
+								out.write(data, offset);
+							}
+						}
+						else {
+							if (newKey && hasPrevious[0]) {
+								out.write(pending, 0);
+							}
+							System.arraycopy(data, offset, pending, 0, pending.length);
+						}
+						System.arraycopy(currentKey, 0, previousKey, 0, keyLength);
+						hasPrevious[0] = true;
+						return true;
+					}
+				});
+				if (!keepFirst && hasPrevious[0]) {
+					out.write(pending, 0);
+				}
+				return out.count;
+			}
+		}
+		finally {
+			sortedFile.delete();
+		}
+	}
+
+	/**
+	 * Reads the records in chunks, and passes the ones that are not deleted to the visitor
+	 * @return false if the visitor stopped the scan
+	 */
+	private static boolean scan(FileChannel source, DBFHeader header, RecordVisitor visitor) throws IOException {
+		int recordLength = header.recordLength;
+		int chunkRecords = Math.max(1, BUFFER_SIZE / recordLength);
+		ByteBuffer chunk = ByteBuffer.allocate(chunkRecords * recordLength);
+		byte[] data = chunk.array();
+		long position = header.headerLength;
+		int record = 0;
+		while (record < header.numberOfRecords) {
+			int count = Math.min(chunkRecords, header.numberOfRecords - record);
+			chunk.clear();
+			chunk.limit(count * recordLength);
+			DBFUtils.readFully(source, chunk, position);
+			for (int i = 0; i < count; i++) {
+				if (data[i * recordLength] != '*' && !visitor.visit(data, i * recordLength, record + i)) {
+					return false;
+				}
+			}
+			position += (long) count * recordLength;
+			record += count;
+		}
+		return true;
+	}
+
+	private abstract static class RecordVisitor {
+		/**
+		 * @return false to stop the scan
+		 */
+		abstract boolean visit(byte[] data, int offset, int record) throws IOException;
+	}
+
+	/**
+	 * Writes the header of the source file, the records and, when closed, the
+	 * end of data mark and the record count
+	 */
+	private static final class RecordOutput implements AutoCloseable {
+		private final FileOutputStream file;
+		private final OutputStream out;
+		private final int recordLength;
+		private int count = 0;
+		private boolean closed = false;
+
+		RecordOutput(FileChannel source, DBFHeader header, File target) throws IOException {
+			ByteBuffer headerData = ByteBuffer.allocate(header.headerLength);
+			DBFUtils.readFully(source, headerData, 0);
+			// the production index doesn't match the new file
+			headerData.put(28, (byte) 0);
+			this.recordLength = header.recordLength;
+			this.file = new FileOutputStream(target);
+			this.out = new BufferedOutputStream(this.file, 64 * 1024);
+			this.out.write(headerData.array());
+		}
+
+		void write(byte[] data, int offset) throws IOException {
+			this.out.write(data, offset, this.recordLength);
+			this.count++;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			try {
+				this.out.write(DBFBase.END_OF_DATA);
+				this.out.flush();
+				ByteBuffer recordCount = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+				recordCount.putInt(this.count);
+				recordCount.flip();
+				this.file.getChannel().write(recordCount, 4);
+			}
+			finally {
+				this.out.close();
+			}
+		}
+	}
+
+	/**
+	 * Open addressing hash set of keys, with a record number for each key,
+	 * stored in a direct buffer. Each slot has the hash of the key (0 if the
+	 * slot is empty), the record number and the key.
+	 */
+	private static final class KeyTable {
+		static final int NOT_FOUND = -1;
+		static final int FULL = -2;
+
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private final int keyLength;
+		private final int slotSize;
+		private final long memoryBudget;
+		private ByteBuffer slots;
+		private int capacity;
+		private int size = 0;
+
+		KeyTable(int keyLength, long memoryBudget) {
+			this.keyLength = keyLength;
+			this.slotSize = 8 + keyLength;
+			this.memoryBudget = memoryBudget;
+			this.capacity = INITIAL_CAPACITY;
+			while (this.capacity > 1 && (long) this.capacity * this.slotSize > memoryBudget) {
+				this.capacity /= 2;
+			}
+			this.slots = allocate(this.capacity);
+		}
+
+		/**
+		 * Adds a key if it isn't in the set.
+		 * @param key the key
+		 * @param record record number of the key
+		 * @param replace if true and the key is in the set, sets its record number
+		 * @return the previous record number of the key, NOT_FOUND if the key is new,
+		 * or FULL if the set would exceed the memory budget
+		 */
+		int put(byte[] key, int record, boolean replace) {
+			if ((this.size + 1) * 2L > this.capacity && !grow()) {
+				return FULL;
+			}
+			int hash = hash(key);
+			int mask = this.capacity - 1;
+			for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+				int position = slot * this.slotSize;
+				int stored = this.slots.getInt(position);
+				if (stored == 0) {
+					this.slots.putInt(position, hash);
+					this.slots.putInt(position + 4, record);
+					for (int i = 0; i < this.keyLength; i++) {
+						this.slots.put(position + 8 + i, key[i]);
+					}
+					this.size++;
+					return NOT_FOUND;
+				}
+				if (stored == hash && equalKey(position, key)) {
+					int previous = this.slots.getInt(position + 4);
+					if (replace) {
+						this.slots.putInt(position + 4, record);
+					}
+					return previous;
+				}
+			}
+		}
+
+		/**
+		 * @return the record number of a key, or NOT_FOUND
+		 */
+		int get(byte[] key) {
+			int hash = hash(key);
+			int mask = this.capacity - 1;
+			for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+				int position = slot * this.slotSize;
+				int stored = this.slots.getInt(position);
+				if (stored == 0) {
+					return NOT_FOUND;
+				}
+				if (stored == hash && equalKey(position, key)) {
+					return this.slots.getInt(position + 4);
+				}
+			}
+		}
+
+		private boolean equalKey(int position, byte[] key) {
+			for (int i = 0; i < this.keyLength; i++) {
+				if (this.slots.get(position + 8 + i) != key[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean grow() {
+			long newCapacity = this.capacity * 2L;
+			// both tables are in memory while copying
+			if ((newCapacity + this.capacity) * this.slotSize > this.memoryBudget
+					|| newCapacity * this.slotSize > Integer.MAX_VALUE) {
+				return false;
+			}
+			ByteBuffer old = this.slots;
+			int oldCapacity = this.capacity;
+			this.capacity = (int) newCapacity;
+			this.slots = allocate(this.capacity);
+			int mask = this.capacity - 1;
+			for (int i = 0; i < oldCapacity; i++) {
+				int position = i * this.slotSize;
+				int hash = old.getInt(position);
+				if (hash == 0) {
+					continue;
+				}
+				int slot = hash & mask;
+				while (this.slots.getInt(slot * this.slotSize) != 0) {
+					slot = (slot + 1) & mask;
+				}
+				for (int j = 0; j < this.slotSize; j++) {
+					this.slots.put(slot * this.slotSize + j, old.get(position + j));
+				}
+			}
+			return true;
+		}
+
+		private ByteBuffer allocate(int slotCount) {
+			return ByteBuffer.allocateDirect(slotCount * this.slotSize);
+		}
+
+		private static int hash(byte[] key) {
+			int hash = 1;
+			for (byte b : key) {
+				hash = 31 * hash + b;
+			}
+			// spread the bits, 0 marks the empty slots
+			hash ^= hash >>> 16;
+			hash *= 0x85EBCA6B;
+			hash ^= hash >>> 13;
+			return hash == 0 ? 1 : hash;
+		}
+	}
+}
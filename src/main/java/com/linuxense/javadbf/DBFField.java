@@ -90,6 +90,7 @@ public class DBFField {
 	private byte[] reserv4 = new byte[7]; /* 24-30 */
 	private byte indexFieldFlag; /* 31 */
 	private String name;
+	private int nextAutoIncrement; /* dBASE 7: 40-43 */
 
 	/**
 	 * Default constructor
@@ -113,6 +114,7 @@ public class DBFField {
 		System.arraycopy(origin.reserv4, 0, this.reserv4, 0, 7);
 		this.indexFieldFlag = origin.indexFieldFlag;
 		this.name = origin.name;
+		this.nextAutoIncrement = origin.nextAutoIncrement;
 	}
 
 	/**
@@ -241,7 +243,7 @@ public class DBFField {
 		field.reserv2 = DBFUtils.readLittleEndianShort(in); /* 35-36 */
 		field.workAreaId = in.readByte(); /* 37 */
 		field.reserv3 = DBFUtils.readLittleEndianShort(in); /* 38-39 */
-		in.readInt(); // 40-43 nextAuto
+		field.nextAutoIncrement = DBFUtils.readLittleEndianInt(in); /* 40-43 */
 		in.readInt(); // 44-47 reserv
 
 		adjustLengthForLongCharSupport(field);
@@ -269,6 +271,19 @@ public class DBFField {
 	 * @throws IOException  if any stream related issues occur.
 	 */
 	protected void write(DataOutput out, Charset charset) throws IOException {
+		write(out, charset, 0);
+	}
+
+	/**
+	 * Writes the content of DBFField object into the stream as per DBF format
+	 * specifications.
+	 *
+	 * @param out OutputStream
+	 * @param charset charset to use
+	 * @param displacement position of the field inside the record (used by Visual FoxPro)
+	 * @throws IOException if any stream related issues occur.
+	 */
+	void write(DataOutput out, Charset charset, int displacement) throws IOException {
 		// Field Name
 		byte[] fieldBytes = this.name.getBytes(charset);
 		if (fieldBytes.length > 10) {
@@ -279,7 +294,7 @@ public class DBFField {
 
 		// data type
 		out.writeByte(this.type.getCode()); /* 11 */
-		out.writeInt(0x00); /* 12-15 */
+		out.writeInt(DBFUtils.littleEndian(displacement)); /* 12-15 */
 		out.writeByte(this.length); /* 16 */
 		out.writeByte(this.decimalCount); /* 17 */
 		out.writeShort((short) 0x00); /* 18-19 */
@@ -290,6 +305,32 @@ public class DBFField {
 		out.writeByte((byte) 0x00); /* 31 */
 	}
 
+	/**
+	 * Writes the content of DBFField object into the stream as per dBASE 7 format
+	 * specifications (48 bytes for each field).
+	 *
+	 * @param out OutputStream
+	 * @param charset charset to use
+	 * @throws IOException if any stream related issues occur.
+	 */
+	void writeDB7(DataOutput out, Charset charset) throws IOException {
+		byte[] fieldBytes = this.name.getBytes(charset);
+		if (fieldBytes.length > 31) {
+			throw new IOException("Field name:" + name + " exceds allowed length");
+		}
+		out.write(fieldBytes); /* 0-31 */
+		out.write(new byte[32 - fieldBytes.length]);
+
+		out.writeByte(this.type.getCode()); /* 32 */
+		out.writeByte(this.length); /* 33 */
+		out.writeByte(this.decimalCount); /* 34 */
+		out.writeShort((short) 0x00); /* 35-36 */
+		out.writeByte((byte) 0x00); /* 37 */
+		out.writeShort((short) 0x00); /* 38-39 */
+		out.writeInt(DBFUtils.littleEndian(this.nextAutoIncrement)); /* 40-43 */
+		out.writeInt(0x00); /* 44-47 */
+	}
+
 	/**
 	 * Returns the name of the field.
 	 *
@@ -0,0 +1,344 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Hash index of a field of a dbf file, stored in a sidecar file built by
+ * {@link DBFHashIndexer}.
+ *
+ * The sidecar file is an open addressing hash table (linear probing) of
+ * slots of two longs: the 64 bits hash of the raw bytes of the field, and the
+ * record number. It is mapped in memory, so lookups only read the pages of
+ * the slots they probe. Keys with the same 64 bits hash are not told apart.
+ *
+ * The sidecar file keeps the size and the modification time of the dbf file
+ * it was built from. If the dbf file has changed, the index can't be opened
+ * until it is built again. Writers appending records can keep it up to date
+ * with a {@link DBFHashIndexMaintainer}.
+ */
+public final class DBFHashIndex implements Closeable {
+
+	static final String EXTENSION = "hix";
+	static final long MAGIC = 0x5844494846424A44L; // "JDBFHIDX" in little endian
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 128;
+	static final int SLOT_SIZE = 16;
+	static final int MIN_SLOTS = 16;
+	static final int MAX_SLOTS = 1 << 26;
+
+	// offsets of the header
+	static final int CAPACITY = 12;
+	static final int ENTRIES = 16;
+	static final int RECORD_COUNT = 20;
+	static final int DBF_SIZE = 24;
+	static final int DBF_MODIFIED = 32;
+	static final int FIELD_OFFSET = 40;
+	static final int FIELD_LENGTH = 44;
+	static final int FIELD_NAME = 64;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer table;
+	private final DBFField field;
+	private final DBFRecordEncoder encoder;
+	private final int capacity;
+	private final int recordCount;
+
+	/**
+	 * Opens the index of a field, from its default sidecar file (see {@link #getSidecarFile(File, String)})
+	 * @param dbfFile the dbf file
+	 * @param fieldName name of the indexed field
+	 * @return the index
+	 */
+	public static DBFHashIndex open(File dbfFile, String fieldName) {
+		return new DBFHashIndex(dbfFile, getSidecarFile(dbfFile, fieldName));
+	}
+
+	/**
+	 * Gets the default sidecar file of the index of a field: the name of the
+	 * dbf file with the name of the field and the extension hix (table.name.hix
+	 * for the field NAME of table.dbf)
+	 * @param dbfFile the dbf file
+	 * @param fieldName name of the indexed field
+	 * @return the sidecar file
+	 */
+	public static File getSidecarFile(File dbfFile, String fieldName) {
+		String name = dbfFile.getName();
+		int dot = name.lastIndexOf('.');
+		String baseName = dot >= 0 ? name.substring(0, dot) : name;
+		return new File(dbfFile.getAbsoluteFile().getParentFile(),
+				baseName + "." + fieldName.toLowerCase() + "." + EXTENSION);
+	}
+
+	/**
+	 * Checks if a sidecar file is an index of the current contents of a dbf file
+	 * @param dbfFile the dbf file
+	 * @param sidecarFile the sidecar file
+	 * @return true if the sidecar file exists and the dbf file has not changed since it was built
+	 */
+	public static boolean isCurrent(File dbfFile, File sidecarFile) {
+		if (!sidecarFile.isFile() || sidecarFile.length() < HEADER_SIZE) {
+			return false;
+		}
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		try (FileChannel sidecar = FileChannel.open(sidecarFile.toPath(), StandardOpenOption.READ)) {
+			DBFUtils.readFully(sidecar, header, 0);
+		}
+		catch (EOFException e) {
+			return false;
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		return isCurrent(header, dbfFile);
+	}
+
+	/**
+	 * Opens an index
+	 * @param dbfFile the dbf file
+	 * @param sidecarFile the sidecar file of the index
+	 */
+	public DBFHashIndex(File dbfFile, File sidecarFile) {
+		DBFHeader dbfHeader = DBFUtils.readHeader(dbfFile);
+		try {
+			this.channel = FileChannel.open(sidecarFile.toPath(), StandardOpenOption.READ);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		try {
+			if (this.channel.size() < HEADER_SIZE) {
+				throw new DBFException("Not a hash index file: " + sidecarFile.getName());
+			}
+			this.table = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.channel.size());
+			this.table.order(ByteOrder.LITTLE_ENDIAN);
+			this.field = checkTable(this.table, dbfHeader, sidecarFile, dbfFile);
+			this.capacity = this.table.getInt(CAPACITY);
+			this.recordCount = this.table.getInt(RECORD_COUNT);
+			if (!isCurrent(this.table, dbfFile)) {
+				throw new DBFException("Hash index " + sidecarFile.getName() + " is out of date, " + dbfFile.getName() + " has changed");
+			}
+			this.encoder = new DBFRecordEncoder(new DBFField[] { this.field }, dbfHeader.getUsedCharset());
+		}
+		catch (IOException e) {
+			DBFUtils.close(this.channel);
+			throw new DBFException(e.getMessage(), e);
+		}
+		catch (RuntimeException e) {
+			DBFUtils.close(this.channel);
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the name of the indexed field
+	 * @return the name of the field
+	 */
+	public String getFieldName() {
+		return this.field.getName();
+	}
+
+	/**
+	 * Gets the number of records of the dbf file when the index was built or last updated
+	 * @return the number of records
+	 */
+	public int getRecordCount() {
+		return this.recordCount;
+	}
+
+	/**
+	 * Finds the records with a value in the indexed field. The value is
+	 * encoded as {@link DBFWriter} writes it, and compared with the bytes
+	 * stored in the file.
+	 * @param value the value
+	 * @return the record numbers (starting at 0), in ascending order
+	 */
+	public int[] find(Object value) {
+		this.encoder.validateField(0, value);
+		byte[] key = new byte[this.field.getLength()];
+		synchronized (this.encoder) {
+			this.encoder.encodeField(0, value, key, 0);
+		}
+		return findRaw(key);
+	}
+
+	/**
+	 * Finds the records with some bytes in the indexed field
+	 * @param key the bytes of the field, as they are stored in the file
+	 * @return the record numbers (starting at 0), in ascending order
+	 */
+	public int[] findRaw(byte[] key) {
+		if (key.length != this.field.getLength()) {
+			return new int[0];
+		}
+		long hash = hash(key, 0, key.length);
+		int mask = this.capacity - 1;
+		DBFRecordList records = new DBFRecordList();
+		for (int slot = (int) hash & mask, probes = 0; probes < this.capacity; slot = (slot + 1) & mask, probes++) {
+			int position = HEADER_SIZE + slot * SLOT_SIZE;
+			long stored = this.table.getLong(position);
+			if (stored == 0) {
+				break;
+			}
+			if (stored == hash) {
+				records.add((int) this.table.getLong(position + 8));
+			}
+		}
+		int[] result = records.toArray();
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Closes the sidecar file. The mapping is released when it is garbage collected.
+	 */
+	@Override
+	public void close() {
+		DBFUtils.close(this.channel);
+	}
+
+	/**
+	 * 64 bits hash of some bytes (FNV-1a with a final mix), never 0
+	 */
+	static long hash(byte[] data, int offset, int length) {
+		long hash = 0xCBF29CE484222325L;
+		for (int i = offset; i < offset + length; i++) {
+			hash ^= data[i] & 0xFF;
+			hash *= 0x100000001B3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		return hash == 0 ? 1 : hash;
+	}
+
+	/**
+	 * Adds a record to a hash table, which must have free slots
+	 */
+	static void insert(ByteBuffer table, int capacity, long hash, int record) {
+		int mask = capacity - 1;
+		int slot = (int) hash & mask;
+		while (table.getLong(HEADER_SIZE + slot * SLOT_SIZE) != 0) {
+			slot = (slot + 1) & mask;
+		}
+		table.putLong(HEADER_SIZE + slot * SLOT_SIZE, hash);
+		table.putLong(HEADER_SIZE + slot * SLOT_SIZE + 8, record);
+	}
+
+	/**
+	 * Number of slots for a number of entries, with a load factor up to 0.5
+	 */
+	static int capacityFor(long entries) {
+		int capacity = MIN_SLOTS;
+		while (capacity < entries * 2) {
+			if (capacity >= MAX_SLOTS) {
+				throw new DBFException("Too many records for a hash index: " + entries);
+			}
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Writes the size and the modification time of the dbf file to the header of the index
+	 */
+	static void setDbfState(ByteBuffer header, File dbfFile) {
+		header.putLong(DBF_SIZE, dbfFile.length());
+		header.putLong(DBF_MODIFIED, dbfFile.lastModified());
+	}
+
+	static boolean isCurrent(ByteBuffer header, File dbfFile) {
+		return header.getLong(0) == MAGIC
+				&& header.getLong(DBF_SIZE) == dbfFile.length()
+				&& header.getLong(DBF_MODIFIED) == dbfFile.lastModified();
+	}
+
+	/**
+	 * Checks that a mapped sidecar file is a hash index of a field of a dbf file
+	 * @return the indexed field
+	 */
+	static DBFField checkTable(ByteBuffer table, DBFHeader dbfHeader, File sidecarFile, File dbfFile) {
+		if (table.getLong(0) != MAGIC || table.getInt(8) != VERSION) {
+			throw new DBFException("Not a hash index file: " + sidecarFile.getName());
+		}
+		int capacity = table.getInt(CAPACITY);
+		if (Integer.bitCount(capacity) != 1 || table.capacity() != HEADER_SIZE + (long) capacity * SLOT_SIZE) {
+			throw new DBFException("Hash index file is corrupted: " + sidecarFile.getName());
+		}
+		DBFField field = findField(dbfHeader, readFieldName(table));
+		if (table.getInt(FIELD_OFFSET) != getFieldOffset(dbfHeader, field) || table.getInt(FIELD_LENGTH) != field.getLength()) {
+			throw new DBFException("Hash index " + sidecarFile.getName() + " does not match the fields of " + dbfFile.getName());
+		}
+		return field;
+	}
+
+	static DBFField findField(DBFHeader header, String fieldName) {
+		for (DBFField field : header.fieldArray) {
+			if (field.getName().equalsIgnoreCase(fieldName)) {
+				return field;
+			}
+		}
+		throw new DBFException("Field " + fieldName + " does not exist");
+	}
+
+	/**
+	 * Position of a field inside the records, after the deleted flag
+	 */
+	static int getFieldOffset(DBFHeader header, DBFField field) {
+		int offset = 1;
+		for (DBFField f : header.fieldArray) {
+			if (f == field) {
+				return offset;
+			}
+			offset += f.getLength();
+		}
+		throw new DBFException("Field " + field.getName() + " does not exist");
+	}
+
+	static void writeFieldName(ByteBuffer header, String fieldName) {
+		byte[] name = fieldName.toUpperCase().getBytes(StandardCharsets.US_ASCII);
+		for (int i = 0; i < HEADER_SIZE - FIELD_NAME; i++) {
+			header.put(FIELD_NAME + i, i < name.length ? name[i] : 0);
+		}
+	}
+
+	static String readFieldName(ByteBuffer header) {
+		int end = FIELD_NAME;
+		while (end < HEADER_SIZE && header.get(end) != 0) {
+			end++;
+		}
+		byte[] name = new byte[end - FIELD_NAME];
+		for (int i = 0; i < name.length; i++) {
+			name[i] = header.get(FIELD_NAME + i);
+		}
+		return new String(name, StandardCharsets.US_ASCII);
+	}
+}
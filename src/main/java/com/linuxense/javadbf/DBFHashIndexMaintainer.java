@@ -0,0 +1,238 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Keeps a {@link DBFHashIndex} up to date while records are appended to its
+ * dbf file. Register it with {@link DBFWriter#addIndexMaintainer(DBFIndexMaintainer)}.
+ *
+ * The hashes of the added records are kept in memory and added to the mapped
+ * sidecar file in batches. When the writer writes the header, the pending
+ * hashes are added and the size and the modification time of the dbf file
+ * are stored, so the index can be opened again. The table grows when it
+ * is three quarters full.
+ *
+ * If the index doesn't match the dbf file before records are appended (it was
+ * changed without maintaining the index), the maintainer stops updating it and
+ * the index has to be built again with {@link DBFHashIndexer}. While there are
+ * pending updates the index is marked as out of date, so it is not used if
+ * the process ends before flushing them.
+ */
+public final class DBFHashIndexMaintainer implements DBFIndexMaintainer {
+
+	private static final int BATCH_SIZE = 8192;
+
+	private final File dbfFile;
+	private final FileChannel channel;
+	private final int fieldOffset;
+	private final int fieldLength;
+	private MappedByteBuffer table;
+	private int capacity;
+	private int entries;
+	private int recordCount;
+	private boolean maintained = true;
+
+	private final long[] pendingHashes = new long[BATCH_SIZE];
+	private final int[] pendingRecords = new int[BATCH_SIZE];
+	private int pendingCount = 0;
+
+	/**
+	 * Opens the index of a field in its default sidecar file (see {@link DBFHashIndex#getSidecarFile(File, String)})
+	 * @param dbfFile the dbf file
+	 * @param fieldName name of the indexed field
+	 */
+	public DBFHashIndexMaintainer(File dbfFile, String fieldName) {
+		this(dbfFile, DBFHashIndex.getSidecarFile(dbfFile, fieldName));
+	}
+
+	/**
+	 * Opens an index, built with {@link DBFHashIndexer}
+	 * @param dbfFile the dbf file
+	 * @param sidecarFile the sidecar file of the index
+	 */
+	public DBFHashIndexMaintainer(File dbfFile, File sidecarFile) {
+		this.dbfFile = dbfFile;
+		DBFHeader dbfHeader = DBFUtils.readHeader(dbfFile);
+		try {
+			this.channel = FileChannel.open(sidecarFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		try {
+			if (this.channel.size() < DBFHashIndex.HEADER_SIZE) {
+				throw new DBFException("Not a hash index file: " + sidecarFile.getName());
+			}
+			map(this.channel.size());
+			DBFField field = DBFHashIndex.checkTable(this.table, dbfHeader, sidecarFile, dbfFile);
+			this.fieldOffset = DBFHashIndex.getFieldOffset(dbfHeader, field);
+			this.fieldLength = field.getLength();
+			this.capacity = this.table.getInt(DBFHashIndex.CAPACITY);
+			this.entries = this.table.getInt(DBFHashIndex.ENTRIES);
+			this.recordCount = this.table.getInt(DBFHashIndex.RECORD_COUNT);
+		}
+		catch (IOException e) {
+			DBFUtils.close(this.channel);
+			throw new DBFException(e.getMessage(), e);
+		}
+		catch (RuntimeException e) {
+			DBFUtils.close(this.channel);
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks if the index is being updated. It is not if it didn't match the
+	 * dbf file before records were appended.
+	 * @return true if the index is being updated
+	 */
+	public boolean isMaintained() {
+		return this.maintained;
+	}
+
+	@Override
+	public void beforeAppend() {
+		if (!this.maintained || this.pendingCount > 0) {
+			return;
+		}
+		if (!DBFHashIndex.isCurrent(this.table, this.dbfFile)) {
+			this.maintained = false;
+			return;
+		}
+		// other writers of the file may have updated the index
+		try {
+			if (this.channel.size() != this.table.capacity()) {
+				map(this.channel.size());
+			}
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		this.capacity = this.table.getInt(DBFHashIndex.CAPACITY);
+		this.entries = this.table.getInt(DBFHashIndex.ENTRIES);
+		this.recordCount = this.table.getInt(DBFHashIndex.RECORD_COUNT);
+	}
+
+	@Override
+	public void recordAppended(int recordNumber, byte[] data, int offset) {
+		if (!this.maintained) {
+			return;
+		}
+		this.recordCount = Math.max(this.recordCount, recordNumber + 1);
+		if (data[offset] == '*') {
+			return;
+		}
+		if (this.pendingCount == BATCH_SIZE) {
+			addPending();
+		}
+		this.pendingHashes[this.pendingCount] = DBFHashIndex.hash(data, offset + this.fieldOffset, this.fieldLength);
+		this.pendingRecords[this.pendingCount] = recordNumber;
+		this.pendingCount++;
+	}
+
+	@Override
+	public void flush(boolean force) {
+		if (!this.maintained) {
+			return;
+		}
+		addPending();
+		this.table.putInt(DBFHashIndex.ENTRIES, this.entries);
+		this.table.putInt(DBFHashIndex.RECORD_COUNT, this.recordCount);
+		DBFHashIndex.setDbfState(this.table, this.dbfFile);
+		if (force) {
+			this.table.force();
+		}
+	}
+
+	@Override
+	public void close() {
+		DBFUtils.close(this.channel);
+	}
+
+	/**
+	 * Adds the pending hashes to the table, growing it if needed
+	 */
+	private void addPending() {
+		if (this.pendingCount == 0) {
+			return;
+		}
+		// out of date until the header of the dbf file is written
+		this.table.putLong(DBFHashIndex.DBF_SIZE, -1);
+		if ((long) (this.entries + this.pendingCount) * 4 > (long) this.capacity * 3) {
+			grow(DBFHashIndex.capacityFor(this.entries + this.pendingCount));
+		}
+		for (int i = 0; i < this.pendingCount; i++) {
+			DBFHashIndex.insert(this.table, this.capacity, this.pendingHashes[i], this.pendingRecords[i]);
+		}
+		this.entries += this.pendingCount;
+		this.pendingCount = 0;
+	}
+
+	/**
+	 * Extends the sidecar file and adds again the entries of the table
+	 */
+	private void grow(int newCapacity) {
+		long[] hashes = new long[this.entries];
+		int[] records = new int[this.entries];
+		int n = 0;
+		for (int slot = 0; slot < this.capacity; slot++) {
+			int position = DBFHashIndex.HEADER_SIZE + slot * DBFHashIndex.SLOT_SIZE;
+			long hash = this.table.getLong(position);
+			if (hash != 0 && n < hashes.length) {
+				hashes[n] = hash;
+				records[n] = (int) this.table.getLong(position + 8);
+				n++;
+			}
+		}
+		long size = DBFHashIndex.HEADER_SIZE + (long) newCapacity * DBFHashIndex.SLOT_SIZE;
+		try {
+			ByteBuffer last = ByteBuffer.allocate(1);
+			while (last.hasRemaining()) {
+				this.channel.write(last, size - 1);
+			}
+			map(size);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		for (int position = DBFHashIndex.HEADER_SIZE; position < DBFHashIndex.HEADER_SIZE + this.capacity * DBFHashIndex.SLOT_SIZE; position += 8) {
+			this.table.putLong(position, 0);
+		}
+		for (int i = 0; i < n; i++) {
+			DBFHashIndex.insert(this.table, newCapacity, hashes[i], records[i]);
+		}
+		this.capacity = newCapacity;
+		this.entries = n;
+		this.table.putInt(DBFHashIndex.CAPACITY, newCapacity);
+	}
+
+	private void map(long size) throws IOException {
+		this.table = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		this.table.order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
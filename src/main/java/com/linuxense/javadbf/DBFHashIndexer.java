@@ -0,0 +1,257 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds the sidecar file of a {@link DBFHashIndex}.
+ *
+ * The records are read with positional reads, split in ranges scanned by a
+ * pool of threads that hash the raw bytes of the field. Then the hashes are
+ * added to the table in record order. Deleted records are not indexed.
+ *
+ * The sidecar file is written to a temporary file and then renamed, so an
+ * existing index is replaced only when the new one is complete.
+ */
+public final class DBFHashIndexer {
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+
+	private final String fieldName;
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Creates an indexer
+	 * @param fieldName name of the field to index
+	 */
+	public DBFHashIndexer(String fieldName) {
+		if (fieldName == null) {
+			throw new IllegalArgumentException("Field name can not be null");
+		}
+		this.fieldName = fieldName;
+	}
+
+	/**
+	 * Sets the number of threads used to read the records. Default is the number of processors.
+	 * @param threads number of threads
+	 */
+	public void setThreads(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads must be positive");
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Builds the index in its default sidecar file (see {@link DBFHashIndex#getSidecarFile(File, String)})
+	 * @param dbfFile the dbf file
+	 * @return the sidecar file
+	 */
+	public File build(File dbfFile) {
+		File sidecarFile = DBFHashIndex.getSidecarFile(dbfFile, this.fieldName);
+		build(dbfFile, sidecarFile);
+		return sidecarFile;
+	}
+
+	/**
+	 * Builds the index in its default sidecar file, if it doesn't exist or the dbf file has changed
+	 * @param dbfFile the dbf file
+	 * @return true if the index has been built
+	 */
+	public boolean buildIfNeeded(File dbfFile) {
+		File sidecarFile = DBFHashIndex.getSidecarFile(dbfFile, this.fieldName);
+		if (DBFHashIndex.isCurrent(dbfFile, sidecarFile)) {
+			return false;
+		}
+		build(dbfFile, sidecarFile);
+		return true;
+	}
+
+	/**
+	 * Builds the index. The sidecar file is overwritten if it exists.
+	 * @param dbfFile the dbf file
+	 * @param sidecarFile the sidecar file
+	 */
+	public void build(File dbfFile, File sidecarFile) {
+		DBFHeader header = DBFUtils.readHeader(dbfFile);
+		DBFField field = DBFHashIndex.findField(header, this.fieldName);
+		int fieldOffset = DBFHashIndex.getFieldOffset(header, field);
+		// taken before reading, so changes while reading leave the index out of date
+		long dbfSize = dbfFile.length();
+		long dbfModified = dbfFile.lastModified();
+
+		long[] hashes = new long[header.numberOfRecords];
+		int entries = scan(dbfFile, header, fieldOffset, field.getLength(), hashes);
+		int capacity = DBFHashIndex.capacityFor(entries);
+
+		File tempFile = new File(sidecarFile.getAbsoluteFile().getParentFile(), sidecarFile.getName() + ".tmp");
+		try {
+			// the table is written without mapping the file, that could not be renamed while mapped in some systems
+			ByteBuffer table = ByteBuffer.allocate(DBFHashIndex.HEADER_SIZE + capacity * DBFHashIndex.SLOT_SIZE)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < hashes.length; i++) {
+				if (hashes[i] != 0) {
+					DBFHashIndex.insert(table, capacity, hashes[i], i);
+				}
+			}
+			table.putLong(0, DBFHashIndex.MAGIC);
+			table.putInt(8, DBFHashIndex.VERSION);
+			table.putInt(DBFHashIndex.CAPACITY, capacity);
+			table.putInt(DBFHashIndex.ENTRIES, entries);
+			table.putInt(DBFHashIndex.RECORD_COUNT, header.numberOfRecords);
+			table.putLong(DBFHashIndex.DBF_SIZE, dbfSize);
+			table.putLong(DBFHashIndex.DBF_MODIFIED, dbfModified);
+			table.putInt(DBFHashIndex.FIELD_OFFSET, fieldOffset);
+			table.putInt(DBFHashIndex.FIELD_LENGTH, field.getLength());
+			DBFHashIndex.writeFieldName(table, field.getName());
+			try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				while (table.hasRemaining()) {
+					channel.write(table);
+				}
+				channel.force(false);
+			}
+			Files.move(tempFile.toPath(), sidecarFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		finally {
+			tempFile.delete();
+		}
+	}
+
+	/**
+	 * Hashes the field of every record, 0 for deleted records
+	 * @return the number of records not deleted
+	 */
+	private int scan(File dbfFile, DBFHeader header, int fieldOffset, int fieldLength, long[] hashes) {
+		int recordCount = header.numberOfRecords;
+		int chunkRecords = Math.max(1, BUFFER_SIZE / header.recordLength);
+		int workers = (int) Math.min(this.threads, ((long) recordCount + chunkRecords - 1) / chunkRecords);
+		try (FileChannel source = FileChannel.open(dbfFile.toPath(), StandardOpenOption.READ)) {
+			if (workers <= 1) {
+				return new RangeScanner(source, header, fieldOffset, fieldLength, hashes, 0, recordCount).call();
+			}
+			ExecutorService executor = Executors.newFixedThreadPool(workers);
+			try {
+				List<Future<Integer>> futures = new ArrayList<>();
+				int rangeRecords = (recordCount + workers - 1) / workers;
+				for (int first = 0; first < recordCount; first += rangeRecords) {
+					int count = Math.min(rangeRecords, recordCount - first);
+					futures.add(executor.submit(new RangeScanner(source, header, fieldOffset, fieldLength, hashes, first, count)));
+				}
+				int entries = 0;
+				for (Future<Integer> future : futures) {
+					entries += getResult(future);
+				}
+				return entries;
+			}
+			finally {
+				executor.shutdown();
+			}
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
+
+	private static int getResult(Future<Integer> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBFException("Interrupted while indexing", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof DBFException) {
+				throw (DBFException) cause;
+			}
+			throw new DBFException(cause.getMessage(), cause);
+		}
+	}
+
+	/**
+	 * Hashes the field of a range of records
+	 */
+	private static final class RangeScanner implements Callable<Integer> {
+		private final FileChannel source;
+		private final DBFHeader header;
+		private final int fieldOffset;
+		private final int fieldLength;
+		private final long[] hashes;
+		private final int first;
+		private final int count;
+
+		RangeScanner(FileChannel source, DBFHeader header, int fieldOffset, int fieldLength, long[] hashes, int first, int count) {
+			this.source = source;
+			this.header = header;
+			this.fieldOffset = fieldOffset;
+			this.fieldLength = fieldLength;
+			this.hashes = hashes;
+			this.first = first;
+			this.count = count;
+		}
+
+		@Override
+		public Integer call() throws IOException {
+			int recordLength = this.header.recordLength;
+			int chunkRecords = Math.max(1, Math.min(BUFFER_SIZE / recordLength, this.count));
+			ByteBuffer chunk = ByteBuffer.allocate(chunkRecords * recordLength);
+			byte[] data = chunk.array();
+			int entries = 0;
+			int record = this.first;
+			int end = this.first + this.count;
+			while (record < end) {
+				int n = Math.min(chunkRecords, end - record);
+				chunk.clear();
+				chunk.limit(n * recordLength);
+				DBFUtils.readFully(this.source, chunk, this.header.headerLength + (long) record * recordLength);
+				for (int i = 0; i < n; i++) {
+					int start = i * recordLength;
+					if (data[start] == '*') {
+						continue;
+					}
+					this.hashes[record + i] = DBFHashIndex.hash(data, start + this.fieldOffset, this.fieldLength);
+					entries++;
+				}
+				record += n;
+			}
+			return entries;
+		}
+	}
+}
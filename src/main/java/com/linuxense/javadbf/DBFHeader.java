@@ -40,6 +40,8 @@ import java.util.List;
 public class DBFHeader {
 
 	public static final byte SIG_DBASE_III = (byte) 0x03;
+	static final byte SIG_DBASE_7 = (byte) 0x04;
+	static final byte SIG_VISUAL_FOXPRO = (byte) 0x30;
 	/* DBF structure start here */
 
 	private byte signature;              /* 0 */
@@ -62,12 +64,17 @@ public class DBFHeader {
 	DBFField[] userFieldArray;
 	private byte terminator1;            /* n+1 */
 
+	private byte[] languageDriverName = new byte[32]; /* dBASE 7: 32-63 */
+	private int reserv5;                 /* dBASE 7: 64-67 */
+	private boolean writeBacklink;
+
 	private Charset detectedCharset;
 	private Charset usedCharset;
 
 
 
 	private static final int DBASE_LEVEL_7 = 4;
+	private static final int VFP_BACKLINK_SIZE = 263;
 
 	protected DBFHeader() {
 		this.signature = SIG_DBASE_III;
@@ -103,11 +110,8 @@ public class DBFHeader {
 		this.detectedCharset = DBFCharsetHelper.getCharsetByByte(this.languageDriver);
 
 		if (isDB7()) {
-			byte[] languageName = new byte[32];
-			dataInput.readFully(languageName);
-//			this.languageDriverName =  new String (languageName, StandardCharsets.US_ASCII);
-//			this.reserv5 =  dataInput.readInt();
-			dataInput.readInt();
+			dataInput.readFully(this.languageDriverName); /* 32-63 */
+			this.reserv5 = dataInput.readInt();           /* 64-67 */
 		}
 
 		List<DBFField> v_fields = new ArrayList<>();
@@ -170,6 +174,61 @@ public class DBFHeader {
 		return (this.signature & 0x7) == DBASE_LEVEL_7;
 	}
 
+	/**
+	 * Checks the flag of the structural index (.cdx for FoxPro, production .mdx for dBase IV and 7)
+	 * @return true if the file has a structural index
+	 */
+	boolean hasStructuralIndex() {
+		return (this.mdxFlag & 0x01) != 0;
+	}
+
+	private boolean isVisualFoxPro() {
+		return this.signature == 0x30 || this.signature == 0x31 || this.signature == 0x32;
+	}
+
+	/**
+	 * Chooses the file format for a new file, depending on the types of the fields:
+	 * Visual FoxPro for binary types (I, O, Y, T) and dBASE 7 for autoincrement and
+	 * timestamp (+, @). Other fields are written as dBASE III.
+	 * @param fields the fields of the new file
+	 * @throws DBFException if the fields can not be stored in the same file
+	 */
+	void setSignatureForFields(DBFField[] fields) {
+		boolean foxpro = false;
+		boolean dbase7 = false;
+		boolean binary = false;
+		for (DBFField field : fields) {
+			switch (field.getType()) {
+			case CURRENCY:
+			case TIMESTAMP:
+				foxpro = true;
+				break;
+			case AUTOINCREMENT:
+			case TIMESTAMP_DBASE7:
+				dbase7 = true;
+				break;
+			case LONG:
+			case DOUBLE:
+				binary = true;
+				break;
+			default:
+				break;
+			}
+		}
+		if (foxpro && dbase7) {
+			throw new DBFException("Fields of type CURRENCY or TIMESTAMP (Visual FoxPro) can not be mixed with AUTOINCREMENT or TIMESTAMP_DBASE7 (dBASE 7)");
+		}
+		if (dbase7) {
+			this.signature = SIG_DBASE_7;
+		}
+		else if (foxpro || binary) {
+			this.signature = SIG_VISUAL_FOXPRO;
+		}
+		else {
+			this.signature = SIG_DBASE_III;
+		}
+	}
+
 	void write(DataOutput dataOutput) throws IOException {
 		dataOutput.writeByte(this.signature); /* 0 */
 
@@ -189,6 +248,10 @@ public class DBFHeader {
 		short newHeaderLength = findHeaderLength();
 		if (oldHeaderLength == 0) {
 			this.headerLength = newHeaderLength;
+			if (isVisualFoxPro()) {
+				this.headerLength += VFP_BACKLINK_SIZE;
+				this.writeBacklink = true;
+			}
 		}
 		else if (newHeaderLength > oldHeaderLength) {
 			throw new DBFException("Invalid header length");
@@ -216,13 +279,36 @@ public class DBFHeader {
 			dataOutput.writeByte(0);
 		}
 		dataOutput.writeShort(DBFUtils.littleEndian(this.reserv4)); /* 30-31 */
-		for (DBFField field : this.fieldArray) {
-			field.write(dataOutput,getUsedCharset());
+		if (isDB7()) {
+			dataOutput.write(this.languageDriverName); /* 32-63 */
+			dataOutput.writeInt(this.reserv5); /* 64-67 */
+			for (DBFField field : this.fieldArray) {
+				field.writeDB7(dataOutput, getUsedCharset());
+			}
+		}
+		else if (isVisualFoxPro()) {
+			int displacement = 1;
+			for (DBFField field : this.fieldArray) {
+				field.write(dataOutput, getUsedCharset(), displacement);
+				displacement += field.getLength();
+			}
+		}
+		else {
+			for (DBFField field : this.fieldArray) {
+				field.write(dataOutput,getUsedCharset());
+			}
 		}
 		dataOutput.writeByte(this.terminator1); /* n+1 */
+		if (this.writeBacklink) {
+			// backlink to the database container, only for new files
+			dataOutput.write(new byte[VFP_BACKLINK_SIZE]);
+		}
 	}
 
 	private short findHeaderLength() {
+		if (isDB7()) {
+			return (short) (getTableHeaderSize() + (getFieldDescriptorSize() * this.fieldArray.length) + 1);
+		}
 
 		return (short)(
 		1+
@@ -0,0 +1,62 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.Closeable;
+
+/**
+ * Keeps a persisted index of a dbf file up to date while a {@link DBFWriter}
+ * or a {@link DBFLockWriter} appends records to the file.
+ * See {@link DBFWriter#addIndexMaintainer(DBFIndexMaintainer)}.
+ *
+ * The writer reports every record it adds, and calls {@link #flush(boolean)}
+ * every time it writes the record count of the header, so the index can
+ * batch its updates until then.
+ */
+public interface DBFIndexMaintainer extends Closeable {
+
+	/**
+	 * Called before records are added: when the maintainer is registered in a
+	 * DBFWriter, or with the file locked before every append of a DBFLockWriter.
+	 * Checks that the index matches the current contents of the file.
+	 */
+	void beforeAppend();
+
+	/**
+	 * Called for every record added
+	 * @param recordNumber number of the record, starting at 0
+	 * @param data array with the record, as it is stored in the file
+	 * @param offset position of the record in data
+	 */
+	void recordAppended(int recordNumber, byte[] data, int offset);
+
+	/**
+	 * Called after the header of the file is written, with the records
+	 * reported so far already in the file
+	 * @param force if the index should be forced to the storage device
+	 */
+	void flush(boolean force);
+
+	/**
+	 * Closes the index, without writing pending updates
+	 */
+	@Override
+	void close();
+}
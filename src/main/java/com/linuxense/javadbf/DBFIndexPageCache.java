@@ -0,0 +1,136 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the pages of an index file, read with positional reads.
+ *
+ * Keeps the most recently used pages, up to a maximum number of pages. The
+ * pages are returned as read-only little endian buffers. It's thread safe.
+ */
+public final class DBFIndexPageCache {
+
+	/**
+	 * Default number of pages of the cache
+	 */
+	public static final int DEFAULT_MAX_PAGES = 256;
+
+	private final FileChannel channel;
+	private final int pageSize;
+	private final Map<Long, ByteBuffer> pages;
+	private long hits = 0;
+	private long misses = 0;
+
+	/**
+	 * Creates a cache
+	 * @param channel the index file
+	 * @param pageSize size of the pages
+	 * @param maxPages maximum number of pages kept in memory
+	 */
+	public DBFIndexPageCache(FileChannel channel, int pageSize, final int maxPages) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("Page size must be positive");
+		}
+		if (maxPages <= 0) {
+			throw new IllegalArgumentException("Number of pages must be positive");
+		}
+		this.channel = channel;
+		this.pageSize = pageSize;
+		this.pages = new LinkedHashMap<Long, ByteBuffer>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, ByteBuffer> eldest) {
+				return size() > maxPages;
+			}
+		};
+	}
+
+	/**
+	 * Gets a page. If the end of the file is reached, the rest of the page is filled with zeros.
+	 * @param pageNumber number of the page (its offset divided by the page size)
+	 * @return the data of the page
+	 */
+	public synchronized ByteBuffer getPage(long pageNumber) {
+		ByteBuffer page = this.pages.get(pageNumber);
+		if (page != null) {
+			this.hits++;
+			return page.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		}
+		this.misses++;
+		ByteBuffer data = ByteBuffer.allocate(this.pageSize);
+		long position = pageNumber * this.pageSize;
+		try {
+			while (data.hasRemaining()) {
+				if (this.channel.read(data, position + data.position()) < 0) {
+					if (data.position() == 0) {
+						throw new DBFException("Page " + pageNumber + " is out of the index file");
+					}
+					break;
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		data.clear();
+		page = data.asReadOnlyBuffer();
+		this.pages.put(pageNumber, page);
+		return page.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Gets the size of the pages
+	 * @return size of the pages in bytes
+	 */
+	public int getPageSize() {
+		return this.pageSize;
+	}
+
+	/**
+	 * Gets the number of pages found in the cache
+	 * @return number of hits
+	 */
+	public synchronized long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Gets the number of pages read from the file
+	 * @return number of misses
+	 */
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Removes all the pages from the cache
+	 */
+	public synchronized void clear() {
+		this.pages.clear();
+	}
+}
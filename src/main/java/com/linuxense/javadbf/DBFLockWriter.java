@@ -21,16 +21,30 @@ package com.linuxense.javadbf;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
 
 
 /**
  * DBFWriter which obtain a lock on the file prior writting on it.
  *
+ * Several processes can append records to the same file: while the lock is
+ * held the record count is read from the header, the records are written after
+ * the last record and the header is updated, so records added by other
+ * processes are kept. Use {@link #addRecords(List)} to add many records
+ * with only one lock.
+ *
+ * Registered index maintainers are checked and updated while the lock is held,
+ * after every append.
  */
 public class DBFLockWriter extends DBFWriter {
 
+	private ByteBuffer batchBuffer = null;
 
 	public DBFLockWriter(File dbfFile) {
 		super(dbfFile);
@@ -42,19 +56,47 @@ public class DBFLockWriter extends DBFWriter {
 
 	@Override
 	public void addRecord(Object[] values) {
+		addRecords(Collections.singletonList(values));
+	}
+
+	/**
+	 * Add several records, locking the file only once.
+	 * All the records are validated before writing any of them.
+	 * @param records the records to add
+	 */
+	public void addRecords(List<Object[]> records) {
 		if (this.isClosed()) {
 			throw new IllegalStateException("You can add records a closed DBFWriter");
 		}
-		try {
-			FileLock lock = this.getRamdonAccessFile().getChannel().lock();
-			super.addRecord(values);
-			if (lock.isValid()) {
-				lock.release();
-			}
+		if (records.isEmpty()) {
+			return;
 		}
-		catch (IOException ioe) {
-			throw new DBFException(ioe.getMessage(), ioe);
+		for (Object[] values : records) {
+			checkRecord(values);
+		}
+		DBFRecordEncoder encoder = getEncoder();
+		int recordLength = encoder.getRecordLength();
+		ByteBuffer data = getBatchBuffer(records.size() * recordLength + 1);
+		int offset = 0;
+		for (Object[] values : records) {
+			encoder.encode(values, data.array(), offset);
+			offset += recordLength;
 		}
+		data.put(offset, (byte) END_OF_DATA);
+		data.limit(offset + 1);
+		appendLocked(data, records.size());
+	}
+
+	@Override
+	void addEncodedRecord(byte[] record) {
+		if (this.isClosed()) {
+			throw new IllegalStateException("You can add records a closed DBFWriter");
+		}
+		ByteBuffer data = getBatchBuffer(record.length + 1);
+		data.put(record);
+		data.put((byte) END_OF_DATA);
+		data.flip();
+		appendLocked(data, 1);
 	}
 
 	@Override
@@ -62,11 +104,66 @@ public class DBFLockWriter extends DBFWriter {
 		if (this.isClosed()) {
 			return;
 		}
+		try {
+			if (getHeader().fieldArray != null) {
+				finishLocked();
+			}
+		}
+		finally {
+			// every record is already written and counted in the header
+			closeWithoutHeaderUpdate();
+		}
+	}
+
+	@Override
+	void prepareIndexMaintainer(DBFIndexMaintainer indexMaintainer) {
+		// checked with the file locked, before every append
+	}
 
+	private void appendLocked(ByteBuffer data, int count) {
+		DBFHeader header = getHeader();
+		FileChannel channel = this.getRamdonAccessFile().getChannel();
+		List<DBFIndexMaintainer> indexMaintainers = getIndexMaintainers();
 		try {
-			FileLock lock = this.getRamdonAccessFile().getChannel().lock();
-			super.close();
-			if (lock.isValid()) {
+			FileLock lock = channel.lock();
+			try {
+				for (DBFIndexMaintainer indexMaintainer : indexMaintainers) {
+					indexMaintainer.beforeAppend();
+				}
+				ByteBuffer recordCount = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+				while (recordCount.hasRemaining()) {
+					if (channel.read(recordCount, 4 + recordCount.position()) < 0) {
+						throw new DBFException("Unexpected end of file while reading header");
+					}
+				}
+				int currentCount = recordCount.getInt(0);
+				long position = header.headerLength + (long) currentCount * header.recordLength;
+				while (data.hasRemaining()) {
+					channel.write(data, position + data.position());
+				}
+				if (getSyncPolicy().isForce()) {
+					// the records must be on disk before a count that includes them
+					channel.force(false);
+				}
+				recordCount.clear();
+				recordCount.putInt(currentCount + count);
+				recordCount.flip();
+				while (recordCount.hasRemaining()) {
+					channel.write(recordCount, 4 + recordCount.position());
+				}
+				if (getSyncPolicy().isForce()) {
+					channel.force(false);
+				}
+				if (!indexMaintainers.isEmpty()) {
+					for (int i = 0; i < count; i++) {
+						for (DBFIndexMaintainer indexMaintainer : indexMaintainers) {
+							indexMaintainer.recordAppended(currentCount + i, data.array(), i * header.recordLength);
+						}
+					}
+					flushIndexMaintainers();
+				}
+			}
+			finally {
 				lock.release();
 			}
 		}
@@ -75,4 +172,46 @@ public class DBFLockWriter extends DBFWriter {
 		}
 	}
 
+	/**
+	 * Updates the date of last update and writes the END_OF_DATA mark if it is
+	 * missing, as in a file created without records.
+	 */
+	private void finishLocked() {
+		DBFHeader header = getHeader();
+		FileChannel channel = this.getRamdonAccessFile().getChannel();
+		try {
+			FileLock lock = channel.lock();
+			try {
+				ByteBuffer buffer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+				DBFUtils.readFully(channel, buffer, 0);
+				long end = header.headerLength + (long) buffer.getInt(4) * header.recordLength;
+				if (channel.size() == end) {
+					channel.write(ByteBuffer.wrap(new byte[] { (byte) END_OF_DATA }), end);
+				}
+				DBFUtils.putHeaderDate(buffer, 1);
+				buffer.position(1).limit(4);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer, buffer.position());
+				}
+				if (getSyncPolicy().isForce()) {
+					channel.force(false);
+				}
+			}
+			finally {
+				lock.release();
+			}
+		}
+		catch (IOException ioe) {
+			throw new DBFException(ioe.getMessage(), ioe);
+		}
+	}
+
+	private ByteBuffer getBatchBuffer(int size) {
+		if (this.batchBuffer == null || this.batchBuffer.capacity() < size) {
+			this.batchBuffer = ByteBuffer.allocate(size);
+		}
+		this.batchBuffer.clear();
+		return this.batchBuffer;
+	}
+
 }
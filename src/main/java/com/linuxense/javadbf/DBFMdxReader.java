@@ -0,0 +1,494 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads dBase IV / dBase 7 multiple index files (.mdx).
+ *
+ * A multiple index has up to 47 tags, each one a B-tree of blocks (1024 bytes
+ * by default). Blocks are read with positional reads through a
+ * {@link DBFIndexPageCache} shared by all the tags.
+ *
+ * The key expressions are not evaluated: lookups take the value of the key, a
+ * String for character keys (as the expression builds it, for example in upper
+ * case for UPPER(NAME)), a Number for numeric keys or a Date for date keys.
+ * Lookups return record numbers starting at 0, in the order of the tag
+ * (descending for descending tags), to be read with {@link DBFSeekableReader}.
+ */
+public final class DBFMdxReader implements Closeable {
+
+	private static final int PAGE_SIZE = 512;
+	private static final int TAG_TABLE_OFFSET = 544;
+	private static final int MAX_TAGS = 47;
+	private static final int FORMAT_DESCENDING = 0x08;
+	private static final int FORMAT_UNIQUE = 0x40;
+	private static final int BCD_EXPONENT_BASE = 0x34;
+
+	private final FileChannel channel;
+	private final DBFIndexPageCache cache;
+	private final Charset charset;
+	private final int blockSize;
+	private final Map<String, Tag> tags = new LinkedHashMap<>();
+
+	/**
+	 * Opens the production index of a dbf file: the .mdx file with the same
+	 * name, that dBase opens with the table.
+	 * @param dbfFile the dbf file
+	 * @return the index, or null if the header of the dbf file says it has no production index
+	 */
+	public static DBFMdxReader openStructuralIndex(File dbfFile) {
+		DBFHeader header = DBFUtils.readHeader(dbfFile);
+		if (!header.hasStructuralIndex()) {
+			return null;
+		}
+		File mdxFile = DBFCdxReader.findSibling(dbfFile, "mdx");
+		if (mdxFile == null) {
+			throw new DBFException("Production index of " + dbfFile.getName() + " not found");
+		}
+		return new DBFMdxReader(mdxFile, header.getUsedCharset(), DBFIndexPageCache.DEFAULT_MAX_PAGES);
+	}
+
+	/**
+	 * Opens a multiple index file, with the default charset and page cache size
+	 * @param mdxFile the index file
+	 */
+	public DBFMdxReader(File mdxFile) {
+		this(mdxFile, null, DBFIndexPageCache.DEFAULT_MAX_PAGES);
+	}
+
+	/**
+	 * Opens a multiple index file
+	 * @param mdxFile the index file
+	 * @param charset charset of the character keys, null for the default one (ISO-8859-1)
+	 * @param cachePages maximum number of blocks kept in memory
+	 */
+	public DBFMdxReader(File mdxFile, Charset charset, int cachePages) {
+		this.charset = charset != null ? charset : DBFBase.DEFAULT_CHARSET;
+		try {
+			this.channel = FileChannel.open(mdxFile.toPath(), StandardOpenOption.READ);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		try {
+			ByteBuffer header = ByteBuffer.allocate(TAG_TABLE_OFFSET + MAX_TAGS * 32).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(header, 0);
+			int size = header.getShort(22) & 0xFFFF;
+			if (size == 0) {
+				size = (header.getShort(20) & 0xFFFF) * PAGE_SIZE;
+			}
+			int tagCount = header.getShort(28) & 0xFFFF;
+			int entryLength = header.get(26) & 0xFF;
+			if (size < PAGE_SIZE || size % PAGE_SIZE != 0 || tagCount > MAX_TAGS || entryLength != 32) {
+				throw new DBFException("Not a multiple index file: " + mdxFile.getName());
+			}
+			this.blockSize = size;
+			this.cache = new DBFIndexPageCache(this.channel, this.blockSize, cachePages);
+			for (int i = 0; i < tagCount; i++) {
+				int entry = TAG_TABLE_OFFSET + i * entryLength;
+				int end = entry + 4;
+				while (end < entry + 15 && header.get(end) != 0) {
+					end++;
+				}
+				byte[] name = new byte[end - entry - 4];
+				header.position(entry + 4);
+				header.get(name);
+				Tag tag = new Tag(new String(name, this.charset).trim(), header.getInt(entry), (char) header.get(entry + 20));
+				this.tags.put(tag.name.toUpperCase(), tag);
+			}
+		}
+		catch (RuntimeException e) {
+			DBFUtils.close(this.channel);
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the names of the tags
+	 * @return the names of the tags, in the order of the tag table
+	 */
+	public List<String> getTagNames() {
+		List<String> names = new ArrayList<>();
+		for (Tag tag : this.tags.values()) {
+			names.add(tag.name);
+		}
+		return Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Gets a tag
+	 * @param name name of the tag (case insensitive)
+	 * @return the tag
+	 */
+	public Tag getTag(String name) {
+		Tag tag = this.tags.get(name.toUpperCase());
+		if (tag == null) {
+			throw new DBFException("Tag " + name + " not found");
+		}
+		return tag;
+	}
+
+	/**
+	 * Gets the size of the blocks of the file
+	 * @return size of the blocks in bytes
+	 */
+	public int getBlockSize() {
+		return this.blockSize;
+	}
+
+	/**
+	 * Gets the page cache of the index, with a page for each block
+	 * @return the page cache
+	 */
+	public DBFIndexPageCache getPageCache() {
+		return this.cache;
+	}
+
+	@Override
+	public void close() {
+		DBFUtils.close(this.channel);
+	}
+
+	private void readFully(ByteBuffer buffer, long position) {
+		try {
+			DBFUtils.readFully(this.channel, buffer, position);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Gets the block at a pointer of the file (pointers count 512 bytes pages)
+	 */
+	private ByteBuffer getBlock(int pointer) {
+		long offset = (long) pointer * PAGE_SIZE;
+		if (pointer <= 0 || offset % this.blockSize != 0) {
+			throw new DBFException("Index file is corrupted: invalid block " + pointer);
+		}
+		return this.cache.getPage(offset / this.blockSize);
+	}
+
+	/**
+	 * Decodes a numeric key: 12 bytes with the exponent, the sign and 20 BCD digits
+	 */
+	static BigDecimal decodeNumber(ByteBuffer page, int offset) {
+		StringBuilder digits = new StringBuilder(20);
+		for (int i = 2; i < 12; i++) {
+			int b = page.get(offset + i) & 0xFF;
+			if ((b >> 4) > 9 || (b & 0x0F) > 9) {
+				throw new DBFException("Index file is corrupted: invalid numeric key");
+			}
+			digits.append((char) ('0' + (b >> 4))).append((char) ('0' + (b & 0x0F)));
+		}
+		int exponent = (page.get(offset) & 0xFF) - BCD_EXPONENT_BASE;
+		BigDecimal number = new BigDecimal(digits.toString()).movePointLeft(20 - exponent);
+		return (page.get(offset + 1) & 0x80) != 0 ? number.negate() : number;
+	}
+
+	/**
+	 * Compares a numeric key with a value, without decoding the key
+	 * @return a negative number, zero or a positive number if the key is lower, equal or greater than the value
+	 */
+	static int compareNumber(ByteBuffer page, int offset, NumericKey value) {
+		int first = -1;
+		for (int i = 0; i < 20 && first < 0; i++) {
+			if (getDigit(page, offset, i) != 0) {
+				first = i;
+			}
+		}
+		int signum = first < 0 ? 0 : (page.get(offset + 1) & 0x80) != 0 ? -1 : 1;
+		if (signum != value.signum || signum == 0) {
+			return Integer.compare(signum, value.signum);
+		}
+		int exponent = (page.get(offset) & 0xFF) - BCD_EXPONENT_BASE - first;
+		int magnitude = Integer.compare(exponent, value.exponent);
+		int length = Math.max(20 - first, value.digits.length);
+		for (int i = 0; i < length && magnitude == 0; i++) {
+			int digit = first + i < 20 ? getDigit(page, offset, first + i) : 0;
+			magnitude = Integer.compare(digit, i < value.digits.length ? value.digits[i] : 0);
+		}
+		return signum * magnitude;
+	}
+
+	private static int getDigit(ByteBuffer page, int offset, int index) {
+		int b = page.get(offset + 2 + index / 2) & 0xFF;
+		int digit = index % 2 == 0 ? b >> 4 : b & 0x0F;
+		if (digit > 9) {
+			throw new DBFException("Index file is corrupted: invalid numeric key");
+		}
+		return digit;
+	}
+
+	/**
+	 * A number in the form of the numeric keys: 0.digits times 10 raised to the exponent
+	 */
+	static final class NumericKey {
+		private final int signum;
+		private final int exponent;
+		private final byte[] digits;
+
+		NumericKey(BigDecimal value) {
+			String unscaled = value.unscaledValue().abs().toString();
+			this.signum = value.signum();
+			this.exponent = unscaled.length() - value.scale();
+			this.digits = new byte[unscaled.length()];
+			for (int i = 0; i < this.digits.length; i++) {
+				this.digits[i] = (byte) (unscaled.charAt(i) - '0');
+			}
+		}
+	}
+
+	/**
+	 * A tag of the multiple index
+	 */
+	public final class Tag {
+		private final String name;
+		private final char keyType;
+		private final int root;
+		private final int format;
+		private final int keyLength;
+		private final int maxKeys;
+		private final int itemLength;
+		private final boolean unique;
+		private final String keyExpression;
+
+		Tag(String name, int headerPointer, char keyType) {
+			ByteBuffer header = getBlock(headerPointer);
+			this.name = name;
+			this.keyType = keyType;
+			this.root = header.getInt(0);
+			this.format = header.get(8) & 0xFF;
+			this.keyLength = header.getShort(12) & 0xFFFF;
+			this.maxKeys = header.getShort(14) & 0xFFFF;
+			this.itemLength = header.getShort(18) & 0xFFFF;
+			this.unique = header.get(23) != 0 || (this.format & FORMAT_UNIQUE) != 0;
+			int end = 24;
+			while (end < 244 && header.get(end) != 0) {
+				end++;
+			}
+			byte[] expression = new byte[end - 24];
+			header.position(24);
+			header.get(expression);
+			this.keyExpression = new String(expression, DBFMdxReader.this.charset).trim();
+			if (this.keyLength == 0 || this.itemLength < 4 + this.keyLength
+					|| 8 + this.maxKeys * this.itemLength + 4 > DBFMdxReader.this.blockSize
+					|| (keyType == 'N' && this.keyLength != 12) || (keyType == 'D' && this.keyLength != 8)) {
+				throw new DBFException("Invalid header of tag " + name);
+			}
+		}
+
+		/**
+		 * Gets the name of the tag
+		 * @return the name of the tag
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Gets the key expression, as stored in the file
+		 * @return the key expression
+		 */
+		public String getKeyExpression() {
+			return this.keyExpression;
+		}
+
+		/**
+		 * Gets the type of the keys
+		 * @return 'C' for character keys, 'N' for numeric keys, 'D' for date keys
+		 */
+		public char getKeyType() {
+			return this.keyType;
+		}
+
+		/**
+		 * Gets the length of the keys
+		 * @return length of the keys in bytes
+		 */
+		public int getKeyLength() {
+			return this.keyLength;
+		}
+
+		/**
+		 * Checks if the tag is unique
+		 * @return true for unique tags
+		 */
+		public boolean isUnique() {
+			return this.unique;
+		}
+
+		/**
+		 * Checks if the tag is in descending order
+		 * @return true for descending tags
+		 */
+		public boolean isDescending() {
+			return (this.format & FORMAT_DESCENDING) != 0;
+		}
+
+		/**
+		 * Finds the records with a key
+		 * @param value the key
+		 * @return the record numbers (starting at 0) with the key
+		 */
+		public int[] find(Object value) {
+			return findRange(value, value);
+		}
+
+		/**
+		 * Finds the records with a key in a range
+		 * @param from the lowest key (inclusive), null for no lower limit
+		 * @param to the highest key (inclusive), null for no upper limit
+		 * @return the record numbers (starting at 0), in the order of the tag
+		 */
+		public int[] findRange(Object from, Object to) {
+			Object low = from != null ? toKey(from) : null;
+			Object high = to != null ? toKey(to) : null;
+			DBFRecordList records = new DBFRecordList();
+			if (isDescending()) {
+				collect(this.root, high, low, records, 0);
+			}
+			else {
+				collect(this.root, low, high, records, 0);
+			}
+			return records.toArray();
+		}
+
+		/**
+		 * Gets all the records, in the order of the tag
+		 * @return the record numbers (starting at 0)
+		 */
+		public int[] getAll() {
+			return findRange(null, null);
+		}
+
+		@Override
+		public String toString() {
+			return this.name + " (" + this.keyExpression + ")";
+		}
+
+		/**
+		 * Adds the records of the keys in the range (in the order of the tag)
+		 * from a block and its children
+		 * @return false if a key after the range was found
+		 */
+		private boolean collect(int pointer, Object first, Object last, DBFRecordList records, int depth) {
+			if (depth > 64) {
+				throw new DBFException("Index file is corrupted: cycle in the tree");
+			}
+			ByteBuffer block = getBlock(pointer);
+			int count = block.getInt(0);
+			if (count < 0 || count > this.maxKeys) {
+				throw new DBFException("Index file is corrupted: block " + pointer);
+			}
+			// interior blocks have a pointer after the last key
+			boolean leaf = block.getInt(8 + count * this.itemLength) == 0;
+			for (int i = 0; i < count; i++) {
+				int entry = 8 + i * this.itemLength;
+				if (first != null && compare(block, entry + 4, first) < 0) {
+					continue;
+				}
+				if (leaf) {
+					if (last != null && compare(block, entry + 4, last) > 0) {
+						return false;
+					}
+					records.add(block.getInt(entry) - 1);
+				}
+				else {
+					if (!collect(block.getInt(entry), first, last, records, depth + 1)) {
+						return false;
+					}
+					if (last != null && compare(block, entry + 4, last) > 0) {
+						return false;
+					}
+				}
+			}
+			if (!leaf) {
+				return collect(block.getInt(8 + count * this.itemLength), first, last, records, depth + 1);
+			}
+			return true;
+		}
+
+		/**
+		 * Compares a key of a block with a value, in the order of the tag
+		 */
+		private int compare(ByteBuffer block, int offset, Object value) {
+			int result;
+			if (this.keyType == 'N') {
+				result = compareNumber(block, offset, (NumericKey) value);
+			}
+			else if (this.keyType == 'D') {
+				result = Double.compare(block.getDouble(offset), (Double) value);
+			}
+			else {
+				byte[] key = (byte[]) value;
+				result = 0;
+				for (int i = 0; i < this.keyLength && result == 0; i++) {
+					result = (block.get(offset + i) & 0xFF) - (key[i] & 0xFF);
+				}
+			}
+			return isDescending() ? -result : result;
+		}
+
+		/**
+		 * Converts a value to the form compared with the keys
+		 */
+		private Object toKey(Object value) {
+			if (this.keyType == 'N') {
+				if (!(value instanceof Number)) {
+					throw new DBFException("Invalid key for tag " + this.name + ": " + value);
+				}
+				// converted once, the keys are compared without decoding them
+				return new NumericKey(new BigDecimal(value.toString()));
+			}
+			if (this.keyType == 'D') {
+				if (value instanceof Date) {
+					return (double) DBFNdxReader.toJulianDay((Date) value);
+				}
+				if (value instanceof Number) {
+					return ((Number) value).doubleValue();
+				}
+				throw new DBFException("Invalid key for tag " + this.name + ": " + value);
+			}
+			byte[] text = value.toString().getBytes(DBFMdxReader.this.charset);
+			byte[] key = new byte[this.keyLength];
+			for (int i = 0; i < key.length; i++) {
+				key[i] = i < text.length ? text[i] : (byte) ' ';
+			}
+			return key;
+		}
+	}
+}
@@ -0,0 +1,530 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Rewrites a DBF file and its memo file (DBT or FPT) keeping only the memo
+ * blocks referenced by the records.
+ *
+ * Records are streamed from the source DBF to the target DBF, and every
+ * referenced memo entry is copied to the target memo file, with the pointers
+ * of the records updated to the new block numbers. Optionally identical
+ * entries can be stored only once.
+ *
+ * Only one entry per distinct memo is kept in memory (its new block number,
+ * and its hash when deduplicating), in tables of primitives with a limit of
+ * entries (about 28 MB), so big files can be processed. Once the limit is
+ * reached, memos not seen before are copied without being tracked: entries
+ * shared by several records, or identical to others, are copied again and
+ * the target memo file is bigger, but still correct.
+ */
+public final class DBFMemoCompactor {
+
+	private static final int MEMO_HEADER_SIZE = 512;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	static final int MAX_TRACKED_MEMOS = 1 << 19;
+
+	private DBFMemoCompactor() {
+		throw new AssertionError("No instances of this class are allowed");
+	}
+
+	/**
+	 * Compacts a DBF file and its memo file.
+	 * Target files are overwritten if they exists.
+	 * @param dbfFile the source DBF file
+	 * @param memoFile the source memo file (DBT or FPT)
+	 * @param targetDbfFile the DBF file to create
+	 * @param targetMemoFile the memo file to create
+	 * @param deduplicate if entries with the same content should be stored only once
+	 */
+	public static void compact(File dbfFile, File memoFile, File targetDbfFile, File targetMemoFile, boolean deduplicate) {
+		compact(dbfFile, memoFile, targetDbfFile, targetMemoFile, deduplicate, false);
+	}
+
+	/**
+	 * Compacts a DBF file and its memo file, optionally removing the deleted records.
+	 * Target files are overwritten if they exists.
+	 * @param dbfFile the source DBF file
+	 * @param memoFile the source memo file (DBT or FPT)
+	 * @param targetDbfFile the DBF file to create
+	 * @param targetMemoFile the memo file to create
+	 * @param deduplicate if entries with the same content should be stored only once
+	 * @param skipDeleted if deleted records (and their memos) should be removed
+	 * @return the number of records of the new file
+	 */
+	static int compact(File dbfFile, File memoFile, File targetDbfFile, File targetMemoFile, boolean deduplicate,
+			boolean skipDeleted) {
+		return compact(dbfFile, memoFile, targetDbfFile, targetMemoFile, deduplicate, skipDeleted, null);
+	}
+
+	/**
+	 * Compacts a DBF file and its memo file, transforming the text of the memo fields.
+	 * Target files are overwritten if they exists.
+	 * @param dbfFile the source DBF file
+	 * @param memoFile the source memo file (DBT or FPT)
+	 * @param targetDbfFile the DBF file to create
+	 * @param targetMemoFile the memo file to create
+	 * @param deduplicate if entries with the same content should be stored only once
+	 * @param skipDeleted if deleted records (and their memos) should be removed
+	 * @param textTransformer transforms the text of the memo (M) fields, null to copy them as they are
+	 * @return the number of records of the new file
+	 */
+	static int compact(File dbfFile, File memoFile, File targetDbfFile, File targetMemoFile, boolean deduplicate,
+			boolean skipDeleted, MemoTextTransformer textTransformer) {
+		if (!memoFile.exists()) {
+			throw new DBFException("Memo file " + memoFile.getName() + " not exists");
+		}
+		DBFMemoFile sourceMemo = null;
+		RandomAccessFile dbf = null;
+		DataInputStream records = null;
+		OutputStream dbfOut = null;
+		FileOutputStream dbfStream = null;
+		FileOutputStream memoStream = null;
+		try {
+			dbf = new RandomAccessFile(dbfFile, "r");
+			DBFHeader header = new DBFHeader();
+			header.read(dbf, null, false);
+
+			sourceMemo = new DBFMemoFile(memoFile, StandardCharsets.ISO_8859_1, false);
+			int blockSize = sourceMemo.getBlockSize();
+			int firstBlock = (MEMO_HEADER_SIZE + blockSize - 1) / blockSize;
+
+			memoStream = new FileOutputStream(targetMemoFile);
+			OutputStream memoOut = new BufferedOutputStream(memoStream, BUFFER_SIZE);
+			memoOut.write(readMemoHeader(memoFile, firstBlock * blockSize));
+
+			byte[] dbfHeaderData = new byte[header.headerLength];
+			dbf.seek(0);
+			dbf.readFully(dbfHeaderData);
+			dbfStream = new FileOutputStream(targetDbfFile);
+			dbfOut = new BufferedOutputStream(dbfStream, BUFFER_SIZE);
+			dbfOut.write(dbfHeaderData);
+
+			FileInputStream fis = new FileInputStream(dbfFile);
+			records = new DataInputStream(new BufferedInputStream(fis, BUFFER_SIZE));
+			fis.getChannel().position(header.headerLength);
+
+			MemoCopier copier = new MemoCopier(sourceMemo, memoOut, firstBlock, deduplicate, textTransformer);
+			int[] memoOffsets = getMemoFieldOffsets(header.fieldArray);
+			byte[] record = new byte[header.recordLength];
+			int written = 0;
+			for (int i = 0; i < header.numberOfRecords; i++) {
+				records.readFully(record);
+				if (skipDeleted && record[0] == '*') {
+					continue;
+				}
+				written++;
+				for (int j = 0; j < header.fieldArray.length; j++) {
+					if (memoOffsets[j] >= 0) {
+						relocatePointer(record, memoOffsets[j], header.fieldArray[j].getLength(), copier,
+								header.fieldArray[j].getType() == DBFDataType.MEMO);
+					}
+				}
+				dbfOut.write(record);
+			}
+			dbfOut.write(DBFBase.END_OF_DATA);
+			dbfOut.flush();
+			memoOut.flush();
+			if (written != header.numberOfRecords) {
+				ByteBuffer count = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+				count.putInt(written);
+				count.flip();
+				dbfStream.getChannel().write(count, 4);
+			}
+
+			ByteBuffer nextBlock = ByteBuffer.allocate(4);
+			nextBlock.order(sourceMemo.isFPT() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+			nextBlock.putInt(copier.getNextBlock());
+			nextBlock.flip();
+			memoStream.getChannel().write(nextBlock, 0);
+			return written;
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		finally {
+			DBFUtils.close(records);
+			DBFUtils.close(dbf);
+			DBFUtils.close(sourceMemo);
+			DBFUtils.close(dbfOut);
+			DBFUtils.close(dbfStream);
+			DBFUtils.close(memoStream);
+		}
+	}
+
+	/**
+	 * Compacts a DBF file and its memo file.
+	 * Target files are overwritten if they exists.
+	 * @param dbfFile the source DBF file
+	 * @param memoFile the source memo file (DBT or FPT)
+	 * @param targetDbfFile the DBF file to create
+	 * @param targetMemoFile the memo file to create
+	 */
+	public static void compact(File dbfFile, File memoFile, File targetDbfFile, File targetMemoFile) {
+		compact(dbfFile, memoFile, targetDbfFile, targetMemoFile, false);
+	}
+
+	static boolean isMemoPointer(DBFField field) {
+		switch (field.getType()) {
+		case MEMO:
+		case GENERAL_OLE:
+		case PICTURE:
+		case BLOB:
+			return true;
+		case BINARY:
+			return field.getLength() != 8;
+		default:
+			return false;
+		}
+	}
+
+	private static int[] getMemoFieldOffsets(DBFField[] fields) {
+		int[] offsets = new int[fields.length];
+		int offset = 1;
+		for (int i = 0; i < fields.length; i++) {
+			offsets[i] = isMemoPointer(fields[i]) ? offset : -1;
+			offset += fields[i].getLength();
+		}
+		return offsets;
+	}
+
+	private static byte[] readMemoHeader(File memoFile, int size) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(memoFile, "r");
+		try {
+			byte[] data = new byte[size];
+			raf.readFully(data, 0, (int) Math.min(size, raf.length()));
+			return data;
+		}
+		finally {
+			DBFUtils.close(raf);
+		}
+	}
+
+	private static void relocatePointer(byte[] record, int offset, int length, MemoCopier copier, boolean text)
+			throws IOException {
+		if (length == 4) {
+			int block = ByteBuffer.wrap(record, offset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+			if (block > 0) {
+				ByteBuffer.wrap(record, offset, 4).order(ByteOrder.LITTLE_ENDIAN).putInt(copier.copy(block, text));
+			}
+			return;
+		}
+		int block = 0;
+		boolean hasDigits = false;
+		for (int i = offset; i < offset + length; i++) {
+			byte b = record[i];
+			if (b >= '0' && b <= '9') {
+				block = block * 10 + (b - '0');
+				hasDigits = true;
+			}
+			else if (b != ' ' && b != 0) {
+				// not a block number, leave it as is
+				return;
+			}
+		}
+		if (!hasDigits || block == 0) {
+			return;
+		}
+		byte padding = record[offset] == '0' ? (byte) '0' : (byte) ' ';
+		int newBlock = copier.copy(block, text);
+		for (int i = offset + length - 1; i >= offset; i--) {
+			if (newBlock > 0) {
+				record[i] = (byte) ('0' + newBlock % 10);
+				newBlock /= 10;
+			}
+			else {
+				record[i] = padding;
+			}
+		}
+	}
+
+	/**
+	 * Transforms the text of memo entries
+	 */
+	interface MemoTextTransformer {
+		/**
+		 * Transforms the text of a memo entry
+		 * @param text the text, without the entry header or terminator
+		 * @return the new text
+		 */
+		byte[] transform(byte[] text);
+	}
+
+	private static final class MemoCopier {
+		private final DBFMemoFile source;
+		private final OutputStream out;
+		private final int blockSize;
+		private final MessageDigest digest;
+		private final BlockTable relocatedBlocks = new BlockTable(MAX_TRACKED_MEMOS);
+		private final HashTable blocksByHash = new HashTable(MAX_TRACKED_MEMOS);
+		private int nextBlock;
+		private final MemoTextTransformer textTransformer;
+		private int pendingPadding = 0;
+		private final byte[] padding;
+
+		MemoCopier(DBFMemoFile source, OutputStream out, int firstBlock, boolean deduplicate,
+				MemoTextTransformer textTransformer) {
+			this.source = source;
+			this.textTransformer = textTransformer;
+			this.out = out;
+			this.blockSize = source.getBlockSize();
+			this.padding = new byte[this.blockSize];
+			this.nextBlock = firstBlock;
+			try {
+				this.digest = deduplicate ? MessageDigest.getInstance("SHA-256") : null;
+			}
+			catch (NoSuchAlgorithmException e) {
+				throw new DBFException(e.getMessage(), e);
+			}
+		}
+
+		int copy(int block, boolean text) throws IOException {
+			int relocated = this.relocatedBlocks.get(block);
+			if (relocated != 0) {
+				return relocated;
+			}
+			byte[] data = this.source.readRawData(block);
+			if (text && this.textTransformer != null) {
+				data = transformText(data);
+			}
+			ByteBuffer hash = null;
+			if (this.digest != null) {
+				hash = ByteBuffer.wrap(this.digest.digest(data));
+				int existing = this.blocksByHash.get(hash.getLong(0), hash.getLong(8));
+				if (existing != 0) {
+					this.relocatedBlocks.put(block, existing);
+					return existing;
+				}
+			}
+			int newBlock = this.nextBlock;
+			// the last entry is not padded, like dBase and FoxPro do
+			this.out.write(this.padding, 0, this.pendingPadding);
+			this.out.write(data);
+			int blocks = Math.max(1, (data.length + this.blockSize - 1) / this.blockSize);
+			this.pendingPadding = blocks * this.blockSize - data.length;
+			this.nextBlock += blocks;
+			this.relocatedBlocks.put(block, newBlock);
+			if (hash != null) {
+				this.blocksByHash.put(hash.getLong(0), hash.getLong(8), newBlock);
+			}
+			return newBlock;
+		}
+
+		/**
+		 * Transforms the text of a raw memo entry, keeping its header or terminator
+		 */
+		private byte[] transformText(byte[] data) {
+			if (this.source.isFPT()) {
+				if (data.length < 8 || ByteBuffer.wrap(data, 0, 4).getInt() != 1) {
+					// not a text entry
+					return data;
+				}
+				int length = Math.min(ByteBuffer.wrap(data, 4, 4).getInt(), data.length - 8);
+				byte[] text = this.textTransformer.transform(Arrays.copyOfRange(data, 8, 8 + length));
+				ByteBuffer entry = ByteBuffer.allocate(8 + text.length);
+				entry.put(data, 0, 4);
+				entry.putInt(text.length);
+				entry.put(text);
+				return entry.array();
+			}
+			if (data.length >= 8 && data[0] == (byte) 0xFF && data[1] == (byte) 0xFF && data[2] == 0x08 && data[3] == 0x00) {
+				int length = Math.min(ByteBuffer.wrap(data, 4, 4).order(ByteOrder.LITTLE_ENDIAN).getInt(), data.length);
+				byte[] text = this.textTransformer.transform(Arrays.copyOfRange(data, 8, Math.max(8, length)));
+				ByteBuffer entry = ByteBuffer.allocate(8 + text.length).order(ByteOrder.LITTLE_ENDIAN);
+				entry.put(data, 0, 4);
+				entry.putInt(8 + text.length);
+				entry.put(text);
+				return entry.array();
+			}
+			// dBase III: the text ends with two 0x1A marks
+			int length = data.length;
+			if (length >= 2 && data[length - 1] == 0x1A && data[length - 2] == 0x1A) {
+				length -= 2;
+			}
+			byte[] text = this.textTransformer.transform(Arrays.copyOf(data, length));
+			byte[] entry = Arrays.copyOf(text, text.length + 2);
+			entry[text.length] = 0x1A;
+			entry[text.length + 1] = 0x1A;
+			return entry;
+		}
+
+		int getNextBlock() {
+			return this.nextBlock;
+		}
+	}
+
+	/**
+	 * Open addressing table (linear probing) of positive block numbers, from
+	 * the old block of an entry to the new one. Grows up to a number of
+	 * entries; then new entries are not added.
+	 */
+	static final class BlockTable {
+		private final int maxEntries;
+		private int[] keys = new int[64];
+		private int[] values = new int[64];
+		private int size = 0;
+
+		BlockTable(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		/**
+		 * @return the value, 0 if not found
+		 */
+		int get(int key) {
+			int mask = this.keys.length - 1;
+			for (int slot = mix(key) & mask; this.keys[slot] != 0; slot = (slot + 1) & mask) {
+				if (this.keys[slot] == key) {
+					return this.values[slot];
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * @return false if the table is full and the entry was not added
+		 */
+		boolean put(int key, int value) {
+			if (this.size >= this.maxEntries) {
+				return false;
+			}
+			if ((this.size + 1) * 4L > this.keys.length * 3L) {
+				int[] oldKeys = this.keys;
+				int[] oldValues = this.values;
+				this.keys = new int[oldKeys.length * 2];
+				this.values = new int[oldKeys.length * 2];
+				for (int i = 0; i < oldKeys.length; i++) {
+					if (oldKeys[i] != 0) {
+						insert(oldKeys[i], oldValues[i]);
+					}
+				}
+			}
+			if (insert(key, value)) {
+				this.size++;
+			}
+			return true;
+		}
+
+		private boolean insert(int key, int value) {
+			int mask = this.keys.length - 1;
+			int slot = mix(key) & mask;
+			while (this.keys[slot] != 0) {
+				if (this.keys[slot] == key) {
+					this.values[slot] = value;
+					return false;
+				}
+				slot = (slot + 1) & mask;
+			}
+			this.keys[slot] = key;
+			this.values[slot] = value;
+			return true;
+		}
+
+		private static int mix(int key) {
+			int h = key * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+	}
+
+	/**
+	 * Open addressing table (linear probing) from the first 128 bits of the
+	 * SHA-256 hash of an entry to its positive block number. Grows up to a
+	 * number of entries; then new entries are not added.
+	 */
+	static final class HashTable {
+		private final int maxEntries;
+		private long[] keys = new long[2 * 64];
+		private int[] values = new int[64];
+		private int size = 0;
+
+		HashTable(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		/**
+		 * @return the value, 0 if not found
+		 */
+		int get(long high, long low) {
+			int mask = this.values.length - 1;
+			for (int slot = (int) high & mask; this.values[slot] != 0; slot = (slot + 1) & mask) {
+				if (this.keys[2 * slot] == high && this.keys[2 * slot + 1] == low) {
+					return this.values[slot];
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * @return false if the table is full and the entry was not added
+		 */
+		boolean put(long high, long low, int value) {
+			if (this.size >= this.maxEntries) {
+				return false;
+			}
+			if ((this.size + 1) * 4L > this.values.length * 3L) {
+				long[] oldKeys = this.keys;
+				int[] oldValues = this.values;
+				this.keys = new long[oldKeys.length * 2];
+				this.values = new int[oldValues.length * 2];
+				for (int i = 0; i < oldValues.length; i++) {
+					if (oldValues[i] != 0) {
+						insert(oldKeys[2 * i], oldKeys[2 * i + 1], oldValues[i]);
+					}
+				}
+			}
+			if (insert(high, low, value)) {
+				this.size++;
+			}
+			return true;
+		}
+
+		private boolean insert(long high, long low, int value) {
+			int mask = this.values.length - 1;
+			int slot = (int) high & mask;
+			while (this.values[slot] != 0) {
+				if (this.keys[2 * slot] == high && this.keys[2 * slot + 1] == low) {
+					this.values[slot] = value;
+					return false;
+				}
+				slot = (slot + 1) & mask;
+			}
+			this.keys[2 * slot] = high;
+			this.keys[2 * slot + 1] = low;
+			this.values[slot] = value;
+			return true;
+		}
+	}
+}
@@ -122,9 +122,17 @@ public class DBFMemoFile implements Closeable {
 		}		
 	}
 
-	private boolean isFPT() {
+	boolean isFPT() {
 		return this.fpt;
 	}
+
+	/**
+	 * Gets the size of the blocks of this memo file
+	 * @return block size in bytes
+	 */
+	protected int getBlockSize() {
+		return this.blockSize;
+	}
 	/**
 	 * Only for testing purposes
 	 * @param block position of first block of this field
@@ -207,6 +215,55 @@ public class DBFMemoFile implements Closeable {
 			throw new DBFException(ex.getMessage(), ex);
 		}
 	}
+	/**
+	 * Reads the data of a memo entry exactly as stored in the file, including
+	 * its header (FPT and dBase IV) or its end mark (dBase III)
+	 * @param block position of first block of this field
+	 * @return stored bytes of the entry
+	 */
+	protected byte[] readRawData(int block) {
+		long blockStart = this.blockSize * (long) block;
+		try {
+			seek(blockStart);
+			byte[] blockData = new byte[this.blockSize];
+			int readed = read(blockData);
+			if (readed <= 0) {
+				throw new DBFException("Memo block " + block + " is out of file");
+			}
+			int entrySize = -1;
+			if (isFPT() && readed >= 8) {
+				entrySize = ByteBuffer.wrap(blockData, 4, 4).getInt() + 8;
+			}
+			else if (readed >= 8 && isMagicDBase4(blockData)) {
+				entrySize = ByteBuffer.wrap(new byte[]{blockData[7], blockData[6], blockData[5], blockData[4]}).getInt();
+			}
+			ByteArrayOutputStream baos = new ByteArrayOutputStream(this.blockSize);
+			if (entrySize >= 0) {
+				baos.write(blockData, 0, Math.min(entrySize, readed));
+				while (baos.size() < entrySize && (readed = read(blockData)) > 0) {
+					baos.write(blockData, 0, Math.min(entrySize - baos.size(), readed));
+				}
+				return baos.toByteArray();
+			}
+			// dBase III: data ends with two 0x1A marks
+			byte previous = 0;
+			while (readed > 0) {
+				for (int i = 0; i < readed; i++) {
+					baos.write(blockData[i]);
+					if (blockData[i] == 0x1A && previous == 0x1A) {
+						return baos.toByteArray();
+					}
+					previous = blockData[i];
+				}
+				readed = read(blockData);
+			}
+			return baos.toByteArray();
+		}
+		catch (IOException ex) {
+			throw new DBFException(ex.getMessage(), ex);
+		}
+	}
+
 	private boolean isMagicDBase4(byte[] blockData) {
 		return blockData[0] == (byte) 0xFF && blockData[1] == (byte) 0xFF && blockData[2] == 0x08 && blockData[3] == 0x00;
 	}
@@ -0,0 +1,213 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Concatenates dbf files with the same structure into a new file.
+ *
+ * Records are not decoded: the header of the first file is written with the
+ * sum of the record counts, and the records of each file are copied with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+ * without the end of data mark. Optionally the deleted records are skipped;
+ * then the records are read in big chunks and the runs of live records of each
+ * chunk are written at once.
+ *
+ * All the files must have the same fields (name, type, length and decimal
+ * count) and the same charset. Files with memo fields are rejected, as the
+ * memo pointers would need to be relocated to a merged memo file.
+ */
+public final class DBFMerger {
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+
+	private DBFMerger() {
+		throw new AssertionError("No instances of this class are allowed");
+	}
+
+	/**
+	 * Concatenates dbf files into a new file.
+	 * The target file is overwritten if it exists.
+	 * @param sources the files to merge, in order
+	 * @param targetDbfFile the file to create
+	 * @return the number of records of the new file
+	 */
+	public static int merge(List<File> sources, File targetDbfFile) {
+		return merge(sources, targetDbfFile, false);
+	}
+
+	/**
+	 * Concatenates dbf files into a new file.
+	 * The target file is overwritten if it exists.
+	 * @param sources the files to merge, in order
+	 * @param targetDbfFile the file to create
+	 * @param skipDeleted if true, deleted records are not copied
+	 * @return the number of records of the new file
+	 */
+	public static int merge(List<File> sources, File targetDbfFile, boolean skipDeleted) {
+		if (sources.isEmpty()) {
+			throw new DBFException("No files to merge");
+		}
+		DBFHeader[] headers = new DBFHeader[sources.size()];
+		long totalRecords = 0;
+		for (int i = 0; i < headers.length; i++) {
+			headers[i] = DBFUtils.readHeader(sources.get(i));
+			checkCompatible(headers[0], headers[i], sources.get(i));
+			totalRecords += headers[i].numberOfRecords;
+		}
+		if (totalRecords > Integer.MAX_VALUE) {
+			throw new DBFException("Too many records: " + totalRecords);
+		}
+
+		try (FileChannel target = FileChannel.open(targetDbfFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			writeHeader(sources.get(0), headers[0].headerLength, target);
+			ByteBuffer chunk = null;
+			if (skipDeleted) {
+				int recordLength = headers[0].recordLength;
+				chunk = ByteBuffer.allocate(Math.max(1, BUFFER_SIZE / recordLength) * recordLength);
+			}
+			int written = 0;
+			for (int i = 0; i < headers.length; i++) {
+				try (FileChannel source = FileChannel.open(sources.get(i).toPath(), StandardOpenOption.READ)) {
+					if (skipDeleted) {
+						written += copyLiveRecords(source, headers[i], target, chunk);
+					}
+					else {
+						copyRecords(source, headers[i], target);
+						written += headers[i].numberOfRecords;
+					}
+				}
+			}
+			ByteBuffer end = ByteBuffer.allocate(1);
+			end.put((byte) DBFBase.END_OF_DATA);
+			end.flip();
+			target.write(end);
+
+			ByteBuffer recordCount = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			recordCount.putInt(written);
+			recordCount.flip();
+			target.write(recordCount, 4);
+			return written;
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
+
+	private static void checkCompatible(DBFHeader first, DBFHeader header, File file) {
+		for (DBFField field : header.fieldArray) {
+			if (DBFMemoCompactor.isMemoPointer(field)) {
+				throw new DBFException("Cannot merge files with memo fields: " + file);
+			}
+		}
+		if (header == first) {
+			return;
+		}
+		if (first.recordLength != header.recordLength || first.fieldArray.length != header.fieldArray.length) {
+			throw new DBFException("The structure of " + file + " is different");
+		}
+		for (int i = 0; i < first.fieldArray.length; i++) {
+			DBFField a = first.fieldArray[i];
+			DBFField b = header.fieldArray[i];
+			if (!a.getName().equalsIgnoreCase(b.getName()) || a.getType() != b.getType()
+					|| a.getLength() != b.getLength() || a.getDecimalCount() != b.getDecimalCount()) {
+				throw new DBFException("The structure of " + file + " is different: " + a.getName() + " vs " + b.getName());
+			}
+		}
+		if (!first.getUsedCharset().equals(header.getUsedCharset())) {
+			throw new DBFException("The charset of " + file + " is different: " + header.getUsedCharset());
+		}
+	}
+
+	/**
+	 * Writes the header of the first file, with today's date and without the
+	 * production index flag (the index of the first file doesn't match the
+	 * merged file). The record count is written at the end.
+	 */
+	private static void writeHeader(File dbfFile, int headerLength, FileChannel target) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(headerLength);
+		try (FileChannel source = FileChannel.open(dbfFile.toPath(), StandardOpenOption.READ)) {
+			DBFUtils.readFully(source, header, 0);
+		}
+		DBFUtils.putHeaderDate(header, 1);
+		header.put(28, (byte) 0);
+		header.flip();
+		while (header.hasRemaining()) {
+			target.write(header);
+		}
+	}
+
+	private static void copyRecords(FileChannel source, DBFHeader header, FileChannel target) throws IOException {
+		long position = header.headerLength;
+		long remaining = (long) header.numberOfRecords * header.recordLength;
+		while (remaining > 0) {
+			long transferred = source.transferTo(position, remaining, target);
+			if (transferred <= 0) {
+				throw new DBFException("Unexpected end of file");
+			}
+			position += transferred;
+			remaining -= transferred;
+		}
+	}
+
+	private static int copyLiveRecords(FileChannel source, DBFHeader header, FileChannel target, ByteBuffer chunk) throws IOException {
+		int recordLength = header.recordLength;
+		int chunkRecords = chunk.capacity() / recordLength;
+		byte[] data = chunk.array();
+		long position = header.headerLength;
+		int written = 0;
+		int record = 0;
+		while (record < header.numberOfRecords) {
+			int count = Math.min(chunkRecords, header.numberOfRecords - record);
+			chunk.clear();
+			chunk.limit(count * recordLength);
+			DBFUtils.readFully(source, chunk, position);
+
+			int i = 0;
+			while (i < count) {
+				if (data[i * recordLength] == '*') {
+					i++;
+					continue;
+				}
+				int start = i;
+				while (i < count && data[i * recordLength] != '*') {
+					i++;
+				}
+				chunk.limit(i * recordLength);
+				chunk.position(start * recordLength);
+				while (chunk.hasRemaining()) {
+					target.write(chunk);
+				}
+				written += i - start;
+			}
+			position += (long) count * recordLength;
+			record += count;
+		}
+		return written;
+	}
+}
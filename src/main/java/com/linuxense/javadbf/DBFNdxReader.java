@@ -0,0 +1,279 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Reads dBase III / IV single index files (.ndx).
+ *
+ * The file is a B-tree of 512 bytes pages, read with positional reads through
+ * a {@link DBFIndexPageCache}. Keys are character (compared byte by byte) or
+ * numeric (a double, also used for dates as julian days).
+ *
+ * The key expression is not evaluated: lookups take the value of the key as
+ * the index stores it (for example, in upper case for an UPPER(NAME) index).
+ * Lookups return record numbers starting at 0, in the order of the index, to
+ * be read with {@link DBFSeekableReader}.
+ */
+public final class DBFNdxReader implements Closeable {
+
+	private static final int PAGE_SIZE = 512;
+	private static final long JULIAN_DAY_1970 = 2440588;
+
+	private final FileChannel channel;
+	private final DBFIndexPageCache cache;
+	private final Charset charset;
+	private final int rootPage;
+	private final int keyLength;
+	private final int maxKeys;
+	private final boolean numeric;
+	private final int entrySize;
+	private final boolean unique;
+	private final String keyExpression;
+
+	/**
+	 * Opens an index file, with the default charset and page cache size
+	 * @param ndxFile the index file
+	 */
+	public DBFNdxReader(File ndxFile) {
+		this(ndxFile, null, DBFIndexPageCache.DEFAULT_MAX_PAGES);
+	}
+
+	/**
+	 * Opens an index file
+	 * @param ndxFile the index file
+	 * @param charset charset of the character keys, null for the default one (ISO-8859-1)
+	 * @param cachePages maximum number of pages kept in memory
+	 */
+	public DBFNdxReader(File ndxFile, Charset charset, int cachePages) {
+		this.charset = charset != null ? charset : DBFBase.DEFAULT_CHARSET;
+		try {
+			this.channel = FileChannel.open(ndxFile.toPath(), StandardOpenOption.READ);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		try {
+			this.cache = new DBFIndexPageCache(this.channel, PAGE_SIZE, cachePages);
+			ByteBuffer header = this.cache.getPage(0);
+			this.rootPage = header.getInt(0);
+			this.keyLength = header.getShort(12) & 0xFFFF;
+			this.maxKeys = header.getShort(14) & 0xFFFF;
+			this.numeric = header.getShort(16) != 0;
+			this.entrySize = header.getShort(18) & 0xFFFF;
+			this.unique = header.get(23) != 0;
+			int end = 24;
+			while (end < PAGE_SIZE && header.get(end) != 0) {
+				end++;
+			}
+			byte[] expression = new byte[end - 24];
+			header.position(24);
+			header.get(expression);
+			this.keyExpression = new String(expression, this.charset).trim();
+			if (this.keyLength == 0 || this.entrySize < 8 + this.keyLength || 4 + this.maxKeys * this.entrySize > PAGE_SIZE) {
+				throw new DBFException("Invalid index file " + ndxFile.getName());
+			}
+		}
+		catch (RuntimeException e) {
+			DBFUtils.close(this.channel);
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the key expression of the index, as stored in the file
+	 * @return the key expression
+	 */
+	public String getKeyExpression() {
+		return this.keyExpression;
+	}
+
+	/**
+	 * Gets the length of the keys
+	 * @return length of the keys in bytes
+	 */
+	public int getKeyLength() {
+		return this.keyLength;
+	}
+
+	/**
+	 * Checks if the keys are numeric (numbers or dates)
+	 * @return true for numeric keys, false for character keys
+	 */
+	public boolean isNumeric() {
+		return this.numeric;
+	}
+
+	/**
+	 * Checks if the index was created as unique
+	 * @return true for unique indexes
+	 */
+	public boolean isUnique() {
+		return this.unique;
+	}
+
+	/**
+	 * Gets the page cache of the index
+	 * @return the page cache
+	 */
+	public DBFIndexPageCache getPageCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Finds the records with a key
+	 * @param value the key: a String for character indexes, a Number or a Date for numeric ones
+	 * @return the record numbers (starting at 0) with the key
+	 */
+	public int[] find(Object value) {
+		return findRange(value, value);
+	}
+
+	/**
+	 * Finds the records with a key in a range
+	 * @param from the lowest key (inclusive), null for no lower limit
+	 * @param to the highest key (inclusive), null for no upper limit
+	 * @return the record numbers (starting at 0), in the order of the index
+	 */
+	public int[] findRange(Object from, Object to) {
+		byte[] low = from != null ? toKey(from) : null;
+		byte[] high = to != null ? toKey(to) : null;
+		DBFRecordList records = new DBFRecordList();
+		collect(this.rootPage, low, high, records, 0);
+		return records.toArray();
+	}
+
+	/**
+	 * Gets all the records, in the order of the index
+	 * @return the record numbers (starting at 0)
+	 */
+	public int[] getAll() {
+		return findRange(null, null);
+	}
+
+	@Override
+	public void close() {
+		DBFUtils.close(this.channel);
+	}
+
+	/**
+	 * Adds the records of the keys in the range from a page and its children
+	 * @return false if a key higher than the range was found
+	 */
+	private boolean collect(int pageNumber, byte[] low, byte[] high, DBFRecordList records, int depth) {
+		if (depth > 64) {
+			throw new DBFException("Index file is corrupted: cycle in the tree");
+		}
+		ByteBuffer page = this.cache.getPage(pageNumber);
+		int count = page.getInt(0);
+		if (count < 0 || count > this.maxKeys) {
+			throw new DBFException("Index file is corrupted: page " + pageNumber);
+		}
+		boolean leaf = count == 0 || page.getInt(4) == 0;
+		for (int i = 0; i < count; i++) {
+			int entry = 4 + i * this.entrySize;
+			if (low != null && compare(page, entry + 8, low) < 0) {
+				continue;
+			}
+			if (leaf) {
+				if (high != null && compare(page, entry + 8, high) > 0) {
+					return false;
+				}
+				records.add(page.getInt(entry + 4) - 1);
+			}
+			else {
+				// the key of a branch entry is the highest key of its child
+				if (!collect(page.getInt(entry), low, high, records, depth + 1)) {
+					return false;
+				}
+				if (high != null && compare(page, entry + 8, high) > 0) {
+					return false;
+				}
+			}
+		}
+		if (!leaf) {
+			// the pointer after the last key
+			return collect(page.getInt(4 + count * this.entrySize), low, high, records, depth + 1);
+		}
+		return true;
+	}
+
+	private int compare(ByteBuffer page, int offset, byte[] key) {
+		if (this.numeric) {
+			return Double.compare(page.getDouble(offset), ByteBuffer.wrap(key).order(page.order()).getDouble());
+		}
+		for (int i = 0; i < this.keyLength; i++) {
+			int a = page.get(offset + i) & 0xFF;
+			int b = key[i] & 0xFF;
+			if (a != b) {
+				return a - b;
+			}
+		}
+		return 0;
+	}
+
+	private byte[] toKey(Object value) {
+		if (this.numeric) {
+			double number;
+			if (value instanceof Number) {
+				number = ((Number) value).doubleValue();
+			}
+			else if (value instanceof Date) {
+				number = toJulianDay((Date) value);
+			}
+			else {
+				throw new DBFException("Numeric index, invalid key: " + value);
+			}
+			byte[] key = new byte[8];
+			ByteBuffer.wrap(key).order(ByteOrder.LITTLE_ENDIAN).putDouble(number);
+			return key;
+		}
+		byte[] text = value.toString().getBytes(this.charset);
+		byte[] key = new byte[this.keyLength];
+		for (int i = 0; i < key.length; i++) {
+			key[i] = i < text.length ? text[i] : (byte) ' ';
+		}
+		return key;
+	}
+
+	/**
+	 * Julian day of the date, in the default time zone (as DBFReader reads dates)
+	 */
+	static long toJulianDay(Date date) {
+		Calendar local = new GregorianCalendar();
+		local.setTime(date);
+		Calendar utc = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+		utc.clear();
+		utc.set(local.get(Calendar.YEAR), local.get(Calendar.MONTH), local.get(Calendar.DAY_OF_MONTH));
+		return utc.getTimeInMillis() / (24L * 60 * 60 * 1000) + JULIAN_DAY_1970;
+	}
+}
@@ -0,0 +1,238 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Formats numbers to the fixed width, right aligned representation used by
+ * numeric and float fields.
+ *
+ * The output is the same as {@link DBFUtils#doubleFormating(Number, Charset, int, int)},
+ * but values are written directly to the destination array without creating a
+ * DecimalFormat. Values that can not be handled exactly with long arithmetic
+ * (ties in the rounding, very big numbers, NaN, infinity...) are delegated to
+ * DBFUtils.doubleFormating.
+ *
+ * Instances are not thread safe.
+ */
+final class DBFNumberFormatter {
+
+	private static final int MAX_DECIMALS = 18;
+	private static final double MAX_FAST_SCALED_VALUE = 1e15;
+
+	private static final long[] LONG_POWERS_OF_TEN = new long[MAX_DECIMALS + 1];
+	private static final double[] DOUBLE_POWERS_OF_TEN = new double[MAX_DECIMALS + 1];
+	static {
+		long power = 1;
+		for (int i = 0; i <= MAX_DECIMALS; i++) {
+			LONG_POWERS_OF_TEN[i] = power;
+			DOUBLE_POWERS_OF_TEN[i] = power;
+			power *= 10;
+		}
+	}
+
+	private static final byte[] ASCII_CHARS = " -.0123456789".getBytes(StandardCharsets.US_ASCII);
+
+	private final Charset charset;
+	private final boolean asciiCompatible;
+	// sign + 19 digits + decimal point + 18 decimals
+	private final byte[] buffer = new byte[1 + 19 + 1 + MAX_DECIMALS];
+
+	DBFNumberFormatter(Charset charset) {
+		this.charset = charset;
+		this.asciiCompatible = Arrays.equals(ASCII_CHARS, new String(ASCII_CHARS, StandardCharsets.US_ASCII).getBytes(charset));
+	}
+
+	/**
+	 * Formats a number, choosing the representation the same way DecimalFormat does
+	 * @param value the number to format
+	 * @param dest array to write the number to
+	 * @param offset position of dest where the field starts
+	 * @param length length of the field
+	 * @param decimalCount number of decimals of the field
+	 */
+	void format(Number value, byte[] dest, int offset, int length, int decimalCount) {
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+				|| value instanceof AtomicInteger || value instanceof AtomicLong) {
+			format(value.longValue(), dest, offset, length, decimalCount);
+		}
+		else if (value instanceof BigDecimal) {
+			format((BigDecimal) value, dest, offset, length, decimalCount);
+		}
+		else if (value instanceof BigInteger) {
+			if (((BigInteger) value).bitLength() < 64) {
+				format(value.longValue(), dest, offset, length, decimalCount);
+			}
+			else {
+				fallback(value, dest, offset, length, decimalCount);
+			}
+		}
+		else {
+			format(value.doubleValue(), dest, offset, length, decimalCount);
+		}
+	}
+
+	/**
+	 * Formats a long value
+	 * @param value the number to format
+	 * @param dest array to write the number to
+	 * @param offset position of dest where the field starts
+	 * @param length length of the field
+	 * @param decimalCount number of decimals of the field
+	 */
+	void format(long value, byte[] dest, int offset, int length, int decimalCount) {
+		int decimals = Math.max(decimalCount, 0);
+		if (!this.asciiCompatible || decimals > MAX_DECIMALS || value == Long.MIN_VALUE) {
+			fallback(value, dest, offset, length, decimalCount);
+			return;
+		}
+		int end = writeInteger(value < 0, Math.abs(value), length, decimals);
+		if (decimals > 0) {
+			this.buffer[end++] = '.';
+			Arrays.fill(this.buffer, end, end + decimals, (byte) '0');
+			end += decimals;
+		}
+		copy(end, dest, offset, length);
+	}
+
+	/**
+	 * Formats a double value, rounding it with RoundingMode.HALF_EVEN
+	 * @param value the number to format
+	 * @param dest array to write the number to
+	 * @param offset position of dest where the field starts
+	 * @param length length of the field
+	 * @param decimalCount number of decimals of the field
+	 */
+	void format(double value, byte[] dest, int offset, int length, int decimalCount) {
+		int decimals = Math.max(decimalCount, 0);
+		if (!this.asciiCompatible || decimals > MAX_DECIMALS || Double.isNaN(value) || Double.isInfinite(value)) {
+			fallback(value, dest, offset, length, decimalCount);
+			return;
+		}
+		boolean negative = value < 0.0 || (value == 0.0 && 1 / value < 0.0);
+		double scaled = Math.abs(value) * DOUBLE_POWERS_OF_TEN[decimals];
+		if (!(scaled < MAX_FAST_SCALED_VALUE)) {
+			fallback(value, dest, offset, length, decimalCount);
+			return;
+		}
+		double floor = Math.floor(scaled);
+		double distanceToHalf = scaled - floor - 0.5;
+		// The multiplication is not exact, so values too close to a tie can not be
+		// rounded safely here
+		if (Math.abs(distanceToHalf) <= 2 * Math.ulp(scaled)) {
+			fallback(value, dest, offset, length, decimalCount);
+			return;
+		}
+		long rounded = (long) floor + (distanceToHalf > 0 ? 1 : 0);
+		writeScaled(negative, rounded, dest, offset, length, decimals);
+	}
+
+	/**
+	 * Formats a BigDecimal value, rounding it with RoundingMode.HALF_EVEN
+	 * @param value the number to format
+	 * @param dest array to write the number to
+	 * @param offset position of dest where the field starts
+	 * @param length length of the field
+	 * @param decimalCount number of decimals of the field
+	 */
+	void format(BigDecimal value, byte[] dest, int offset, int length, int decimalCount) {
+		int decimals = Math.max(decimalCount, 0);
+		if (!this.asciiCompatible || decimals > MAX_DECIMALS) {
+			fallback(value, dest, offset, length, decimalCount);
+			return;
+		}
+		BigDecimal rounded = value.setScale(decimals, RoundingMode.HALF_EVEN);
+		if (rounded.precision() > MAX_DECIMALS) {
+			fallback(value, dest, offset, length, decimalCount);
+			return;
+		}
+		writeScaled(value.signum() < 0, Math.abs(rounded.unscaledValue().longValue()), dest, offset, length, decimals);
+	}
+
+	private void writeScaled(boolean negative, long scaledValue, byte[] dest, int offset, int length, int decimals) {
+		long power = LONG_POWERS_OF_TEN[decimals];
+		int end = writeInteger(negative, scaledValue / power, length, decimals);
+		if (decimals > 0) {
+			this.buffer[end++] = '.';
+			long fraction = scaledValue % power;
+			for (int i = end + decimals - 1; i >= end; i--) {
+				this.buffer[i] = (byte) ('0' + fraction % 10);
+				fraction /= 10;
+			}
+			end += decimals;
+		}
+		copy(end, dest, offset, length);
+	}
+
+	/**
+	 * Writes the sign and the integer part of the number to the buffer
+	 * @return the position of the buffer after the integer part
+	 */
+	private int writeInteger(boolean negative, long integerPart, int length, int decimals) {
+		int pos = 0;
+		if (negative) {
+			this.buffer[pos++] = '-';
+		}
+		int sizeWholePart = length - (decimals > 0 ? decimals + 1 : 0);
+		// the pattern of DBFUtils.doubleFormating has no mandatory integer digit
+		// when there is no room for it
+		if (integerPart == 0 && sizeWholePart <= 0 && decimals > 0) {
+			return pos;
+		}
+		int digits = 1;
+		for (long remaining = integerPart / 10; remaining != 0; remaining /= 10) {
+			digits++;
+		}
+		long remaining = integerPart;
+		for (int i = pos + digits - 1; i >= pos; i--) {
+			this.buffer[i] = (byte) ('0' + remaining % 10);
+			remaining /= 10;
+		}
+		return pos + digits;
+	}
+
+	/**
+	 * Copies the formatted number to the field aligned to the right, keeping
+	 * only the first characters if it does not fit in the field
+	 */
+	private void copy(int size, byte[] dest, int offset, int length) {
+		if (size >= length) {
+			System.arraycopy(this.buffer, 0, dest, offset, length);
+		}
+		else {
+			int padding = length - size;
+			Arrays.fill(dest, offset, offset + padding, (byte) ' ');
+			System.arraycopy(this.buffer, 0, dest, offset + padding, size);
+		}
+	}
+
+	private void fallback(Number value, byte[] dest, int offset, int length, int decimalCount) {
+		byte[] data = DBFUtils.doubleFormating(value, this.charset, length, decimalCount);
+		System.arraycopy(data, 0, dest, offset, data.length);
+	}
+}
@@ -0,0 +1,286 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Removes the deleted records of a dbf file (like the PACK command of dBase).
+ *
+ * Records are not decoded: the data is read in big chunks, the live records
+ * of each chunk are moved together and written with a single write. The number
+ * of records and the date of the header are updated.
+ *
+ * If the file has memo fields, the memo file should be packed too, so the
+ * memos of the deleted records are removed and the pointers of the remaining
+ * records updated (see {@link DBFMemoCompactor}).
+ *
+ * Files packed in place are written to sidecar files (the name of the file
+ * followed by ".pack"), forced to disk and then renamed. With a memo file,
+ * renaming the dbf file is the commit point: the old memo file is kept until
+ * it succeeds, and the new one is renamed after it. If the process dies
+ * between both renames, {@link #recover(File, File)} (also called by
+ * {@link #pack(File, File)}) renames the memo file left behind.
+ */
+public final class DBFPacker {
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+
+	private DBFPacker() {
+		throw new AssertionError("No instances of this class are allowed");
+	}
+
+	/**
+	 * Writes a copy of a dbf file without the deleted records.
+	 * The target file is overwritten if it exists.
+	 * @param dbfFile the source file
+	 * @param targetDbfFile the file to create
+	 * @return the number of records of the new file
+	 */
+	public static int packTo(File dbfFile, File targetDbfFile) {
+		try (FileChannel source = FileChannel.open(dbfFile.toPath(), StandardOpenOption.READ);
+				FileChannel target = FileChannel.open(targetDbfFile.toPath(), StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			return copyLiveRecords(dbfFile, source, target);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Writes a copy of a dbf file and its memo file without the deleted records.
+	 * Only the memos referenced by the remaining records are copied.
+	 * Target files are overwritten if they exist.
+	 * @param dbfFile the source file
+	 * @param memoFile the source memo file (DBT or FPT)
+	 * @param targetDbfFile the file to create
+	 * @param targetMemoFile the memo file to create
+	 * @return the number of records of the new file
+	 */
+	public static int packTo(File dbfFile, File memoFile, File targetDbfFile, File targetMemoFile) {
+		int records = DBFMemoCompactor.compact(dbfFile, memoFile, targetDbfFile, targetMemoFile, false, true);
+		try (FileChannel target = FileChannel.open(targetDbfFile.toPath(), StandardOpenOption.WRITE)) {
+			writeDate(target);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		return records;
+	}
+
+	/**
+	 * Removes the deleted records of a dbf file.
+	 * The file is packed to a sidecar file in the same directory, and then renamed.
+	 * @param dbfFile the file
+	 * @return the number of records of the packed file
+	 */
+	public static int pack(File dbfFile) {
+		File packedDbf = getPackFile(dbfFile);
+		try {
+			int records = packTo(dbfFile, packedDbf);
+			force(packedDbf);
+			replace(packedDbf, dbfFile);
+			return records;
+		}
+		finally {
+			packedDbf.delete();
+		}
+	}
+
+	/**
+	 * Removes the deleted records of a dbf file and its memo file.
+	 * Both files are packed to sidecar files in the same directory and forced
+	 * to disk. Then the dbf file is replaced, and after it the memo file.
+	 * A pack interrupted before is completed or discarded first (see {@link #recover(File, File)}).
+	 * @param dbfFile the file
+	 * @param memoFile the memo file (DBT or FPT)
+	 * @return the number of records of the packed file
+	 */
+	public static int pack(File dbfFile, File memoFile) {
+		recover(dbfFile, memoFile);
+		File packedDbf = getPackFile(dbfFile);
+		File packedMemo = getPackFile(memoFile);
+		try {
+			// while the packed dbf file exists the pack is not committed, so it is created first
+			Files.deleteIfExists(packedDbf.toPath());
+			Files.createFile(packedDbf.toPath());
+			DBFUtils.syncDirectory(packedDbf.getAbsoluteFile().getParentFile());
+
+			int records = packTo(dbfFile, memoFile, packedDbf, packedMemo);
+			force(packedMemo);
+			force(packedDbf);
+			DBFUtils.syncDirectory(packedMemo.getAbsoluteFile().getParentFile());
+
+			replace(packedDbf, dbfFile);
+			replace(packedMemo, memoFile);
+			return records;
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		finally {
+			// both were renamed unless the pack failed before the commit
+			if (packedDbf.exists()) {
+				packedDbf.delete();
+				packedMemo.delete();
+			}
+		}
+	}
+
+	/**
+	 * Completes or discards a pack of a dbf file and its memo file interrupted
+	 * by a crash. It should be called before opening the files if a pack may
+	 * have been interrupted. If the dbf file was already replaced, the packed
+	 * memo file is renamed; if not, the sidecar files are deleted.
+	 * @param dbfFile the dbf file
+	 * @param memoFile the memo file (DBT or FPT)
+	 * @return true if an interrupted pack has been completed
+	 */
+	public static boolean recover(File dbfFile, File memoFile) {
+		File packedDbf = getPackFile(dbfFile);
+		File packedMemo = getPackFile(memoFile);
+		try {
+			if (packedDbf.exists()) {
+				Files.deleteIfExists(packedMemo.toPath());
+				Files.delete(packedDbf.toPath());
+				return false;
+			}
+			if (packedMemo.exists()) {
+				replace(packedMemo, memoFile);
+				return true;
+			}
+			return false;
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
+
+	private static int copyLiveRecords(File dbfFile, FileChannel source, FileChannel target) throws IOException {
+		DBFHeader header = DBFUtils.readHeader(dbfFile);
+		int recordLength = header.recordLength;
+		int totalRecords = header.numberOfRecords;
+
+		ByteBuffer headerData = ByteBuffer.allocate(header.headerLength);
+		DBFUtils.readFully(source, headerData, 0);
+		headerData.flip();
+		while (headerData.hasRemaining()) {
+			target.write(headerData);
+		}
+
+		int chunkRecords = Math.max(1, BUFFER_SIZE / recordLength);
+		ByteBuffer chunk = ByteBuffer.allocate(chunkRecords * recordLength);
+		byte[] data = chunk.array();
+		long position = header.headerLength;
+		int written = 0;
+		int record = 0;
+		while (record < totalRecords) {
+			int count = Math.min(chunkRecords, totalRecords - record);
+			chunk.clear();
+			chunk.limit(count * recordLength);
+			DBFUtils.readFully(source, chunk, position);
+
+			// move the live records to the beginning of the chunk, run by run
+			int size = 0;
+			int i = 0;
+			while (i < count) {
+				if (data[i * recordLength] == '*') {
+					i++;
+					continue;
+				}
+				int start = i;
+				while (i < count && data[i * recordLength] != '*') {
+					i++;
+				}
+				int runLength = (i - start) * recordLength;
+				if (size != start * recordLength) {
+					System.arraycopy(data, start * recordLength, data, size, runLength);
+				}
+				size += runLength;
+			}
+			chunk.position(0);
+			chunk.limit(size);
+			while (chunk.hasRemaining()) {
+				target.write(chunk);
+			}
+			written += size / recordLength;
+			position += (long) count * recordLength;
+			record += count;
+		}
+		ByteBuffer end = ByteBuffer.allocate(1);
+		end.put((byte) DBFBase.END_OF_DATA);
+		end.flip();
+		target.write(end);
+
+		ByteBuffer recordCount = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+		recordCount.putInt(written);
+		recordCount.flip();
+		target.write(recordCount, 4);
+		writeDate(target);
+		return written;
+	}
+
+	private static void writeDate(FileChannel target) throws IOException {
+		ByteBuffer date = ByteBuffer.allocate(3);
+		DBFUtils.putHeaderDate(date, 0);
+		target.write(date, 1);
+	}
+
+	private static File getPackFile(File file) {
+		return new File(file.getPath() + ".pack");
+	}
+
+	private static void force(File file) {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Renames a file replacing the target, atomically if the file system supports
+	 * it, and forces the directory so the rename survives a crash
+	 */
+	private static void replace(File source, File target) {
+		try {
+			try {
+				Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			DBFUtils.syncDirectory(target.getAbsoluteFile().getParentFile());
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
+}
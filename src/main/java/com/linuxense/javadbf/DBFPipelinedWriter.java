@@ -0,0 +1,379 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes dbf files encoding the records in several threads.
+ *
+ * Records are grouped in batches. Each batch is encoded by a pool of worker
+ * threads, and a single thread writes the encoded batches to the file in the
+ * same order they were added. The number of batches waiting to be written is
+ * bounded, so addRecord blocks if the workers or the disk can not keep up.
+ *
+ * The values are validated when added, but encoded later in another thread,
+ * so the arrays and their values should not be modified once added.
+ *
+ * The number of records is written to the header when the writer is closed.
+ * Instances should be used from a single thread.
+ */
+public class DBFPipelinedWriter extends DBFBase implements java.io.Closeable {
+
+	private static final int DEFAULT_BATCH_SIZE = 1000;
+
+	private final DBFHeader header;
+	private final SeekableByteChannel channel;
+	private final long headerPosition;
+	private final DBFRecordEncoder validator;
+	private final int recordLength;
+	private final int batchSize;
+
+	private final ExecutorService workers;
+	private final ThreadLocal<DBFRecordEncoder> encoders;
+	private final BlockingQueue<Future<byte[]>> pendingBatches;
+	private final ConcurrentLinkedQueue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+	private final Thread sequencer;
+	private volatile Throwable failure;
+
+	private Object[][] currentBatch;
+	private int currentBatchSize = 0;
+	private int recordCount = 0;
+	private boolean closed = false;
+
+	/**
+	 * Creates a new dbf file, using the number of available processors as worker threads.
+	 * @param file the file to create, if it exists it is overwritten
+	 * @param fields fields definition
+	 * @param charset charset used to encode field names and field contents
+	 */
+	public DBFPipelinedWriter(File file, DBFField[] fields, Charset charset) {
+		this(file, fields, charset, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a new dbf file.
+	 * @param file the file to create, if it exists it is overwritten
+	 * @param fields fields definition
+	 * @param charset charset used to encode field names and field contents
+	 * @param threads number of threads used to encode records
+	 * @param batchSize number of records encoded together
+	 */
+	public DBFPipelinedWriter(File file, DBFField[] fields, Charset charset, int threads, int batchSize) {
+		this(openFile(file, fields, charset, threads, batchSize), fields, charset, threads, batchSize);
+	}
+
+	/**
+	 * Creates a dbf file in a channel, starting at its current position.
+	 * The channel is closed when this writer is closed, or if it can't be created.
+	 * @param channel channel to write the data to
+	 * @param fields fields definition
+	 * @param charset charset used to encode field names and field contents
+	 * @param threads number of threads used to encode records
+	 * @param batchSize number of records encoded together
+	 */
+	@SuppressWarnings("deprecation") // setCharset is the way subclasses of DBFBase set the charset
+	public DBFPipelinedWriter(SeekableByteChannel channel, DBFField[] fields, Charset charset, int threads, int batchSize) {
+		super();
+		try {
+			checkArguments(fields, charset, threads, batchSize);
+			setCharset(charset);
+
+			this.header = new DBFHeader();
+			this.header.setUsedCharset(charset);
+			this.header.setSignatureForFields(fields);
+			this.header.fieldArray = new DBFField[fields.length];
+			for (int i = 0; i < fields.length; i++) {
+				this.header.fieldArray[i] = new DBFField(fields[i]);
+			}
+			this.channel = channel;
+			this.headerPosition = channel.position();
+			ByteArrayOutputStream headerData = new ByteArrayOutputStream();
+			this.header.write(new DataOutputStream(headerData));
+			writeFully(ByteBuffer.wrap(headerData.toByteArray()));
+
+			final DBFField[] fieldArray = this.header.fieldArray;
+			final Charset usedCharset = charset;
+			this.validator = new DBFRecordEncoder(fieldArray, usedCharset);
+			this.recordLength = this.validator.getRecordLength();
+			this.batchSize = batchSize;
+			this.currentBatch = new Object[batchSize][];
+			this.encoders = new ThreadLocal<DBFRecordEncoder>() {
+				@Override
+				protected DBFRecordEncoder initialValue() {
+					return new DBFRecordEncoder(fieldArray, usedCharset);
+				}
+			};
+			this.workers = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("javadbf-encoder"));
+			// one batch per worker being encoded, and as many waiting to be written
+			this.pendingBatches = new ArrayBlockingQueue<>(threads * 2);
+			this.sequencer = new DaemonThreadFactory("javadbf-sequencer").newThread(new Runnable() {
+				@Override
+				public void run() {
+					writeBatches();
+				}
+			});
+			this.sequencer.start();
+		}
+		catch (IOException e) {
+			DBFUtils.close(channel);
+			throw new DBFException(e.getMessage(), e);
+		}
+		catch (RuntimeException e) {
+			DBFUtils.close(channel);
+			throw e;
+		}
+	}
+
+	private static void checkArguments(DBFField[] fields, Charset charset, int threads, int batchSize) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads must be a positive number");
+		}
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be a positive number");
+		}
+		if (DBFCharsetHelper.getDBFCodeForCharset(charset) == 0) {
+			throw new DBFException("Unssuported charset " + charset);
+		}
+		DBFWriter.checkFields(fields);
+	}
+
+	/**
+	 * Add a record.
+	 * @param values fields of the record
+	 */
+	public void addRecord(Object[] values) {
+		if (this.closed) {
+			throw new IllegalStateException("You can add records a closed DBFPipelinedWriter");
+		}
+		checkFailure();
+		if (values == null) {
+			throw new DBFException("Null cannot be added as row");
+		}
+		if (values.length != this.header.fieldArray.length) {
+			throw new DBFException("Invalid record. Invalid number of fields in row");
+		}
+		this.validator.validate(values);
+		this.currentBatch[this.currentBatchSize++] = values.clone();
+		this.recordCount++;
+		if (this.currentBatchSize == this.batchSize) {
+			submitBatch();
+		}
+	}
+
+	/**
+	 * Gets the number of records added to this writer
+	 * @return the number of records
+	 */
+	public int getRecordCount() {
+		return this.recordCount;
+	}
+
+	/**
+	 * Waits until all the records are written, updates the header and closes the file.
+	 */
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		try {
+			if (this.failure == null && this.currentBatchSize > 0) {
+				submitBatch();
+			}
+			enqueue(endOfBatches());
+			this.sequencer.join();
+			checkFailure();
+
+			ByteBuffer endOfData = ByteBuffer.allocate(1);
+			endOfData.put((byte) END_OF_DATA);
+			endOfData.flip();
+			writeFully(endOfData);
+
+			ByteBuffer count = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			count.putInt(this.recordCount);
+			count.flip();
+			this.channel.position(this.headerPosition + 4);
+			writeFully(count);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBFException("Interrupted while writing records", e);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		finally {
+			this.workers.shutdownNow();
+			DBFUtils.close(this.channel);
+		}
+	}
+
+	private void submitBatch() {
+		final Object[][] batch = this.currentBatch;
+		final int size = this.currentBatchSize;
+		this.currentBatch = new Object[this.batchSize][];
+		this.currentBatchSize = 0;
+		enqueue(this.workers.submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() {
+				return encodeBatch(batch, size);
+			}
+		}));
+	}
+
+	private void enqueue(Future<byte[]> batch) {
+		try {
+			// the sequencer stops taking batches if it fails
+			while (!this.pendingBatches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+				checkFailure();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBFException("Interrupted while adding records", e);
+		}
+	}
+
+	private byte[] encodeBatch(Object[][] batch, int size) {
+		byte[] buffer = this.freeBuffers.poll();
+		if (buffer == null) {
+			buffer = new byte[this.batchSize * this.recordLength];
+		}
+		DBFRecordEncoder encoder = this.encoders.get();
+		for (int i = 0; i < size; i++) {
+			encoder.encode(batch[i], buffer, i * this.recordLength);
+		}
+		// the last batch can be smaller
+		if (size < this.batchSize) {
+			byte[] data = new byte[size * this.recordLength];
+			System.arraycopy(buffer, 0, data, 0, data.length);
+			this.freeBuffers.offer(buffer);
+			return data;
+		}
+		return buffer;
+	}
+
+	private void writeBatches() {
+		try {
+			while (true) {
+				byte[] data = this.pendingBatches.take().get();
+				if (data == null) {
+					return;
+				}
+				writeFully(ByteBuffer.wrap(data));
+				if (data.length == this.batchSize * this.recordLength) {
+					this.freeBuffers.offer(data);
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			this.failure = e;
+		}
+		catch (ExecutionException e) {
+			this.failure = e.getCause();
+		}
+		catch (Throwable e) {
+			this.failure = e;
+		}
+	}
+
+	private void writeFully(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			this.channel.write(buffer);
+		}
+	}
+
+	private void checkFailure() {
+		Throwable e = this.failure;
+		if (e != null) {
+			if (e instanceof DBFException) {
+				throw (DBFException) e;
+			}
+			throw new DBFException("Error occured while writing records. " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Marks the end of the batches for the sequencer thread
+	 */
+	private static Future<byte[]> endOfBatches() {
+		FutureTask<byte[]> task = new FutureTask<>(new Callable<byte[]>() {
+			@Override
+			public byte[] call() {
+				return null;
+			}
+		});
+		task.run();
+		return task;
+	}
+
+	/**
+	 * Opens the file once the arguments are validated, so an existing file is not truncated if they are not valid
+	 */
+	private static SeekableByteChannel openFile(File file, DBFField[] fields, Charset charset, int threads, int batchSize) {
+		checkArguments(fields, charset, threads, batchSize);
+		try {
+			return Files.newByteChannel(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger counter = new AtomicInteger();
+
+		DaemonThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, this.prefix + "-" + this.counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
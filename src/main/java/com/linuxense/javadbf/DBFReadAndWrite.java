@@ -9,7 +9,6 @@ import java.io.File;
 //import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.RandomAccessFile;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 //import java.nio.channels.FileChannel;
@@ -47,6 +46,7 @@ public class DBFReadAndWrite extends DBFBase implements Closeable {
 
     private String dbfPath = null;
     private int recordStartIndex = -1;
+    private DBFUpdater updater = null;
 
     /**
      * Intializes a DBFReader object.
@@ -128,6 +128,14 @@ public class DBFReadAndWrite extends DBFBase implements Closeable {
         }
     }
 
+    /**
+     * Updates the value of a field in the file.
+     * The file is kept open until this object is closed.
+     *
+     * @param rowIdx      index of the record, starting at 0
+     * @param columeName  name of the column
+     * @param objectValue the new value
+     */
     public void writeItem(int rowIdx, String columeName, Object objectValue) {
         if (columeName == null) {
             throw new DBFException("wirteItem, colume name null");
@@ -138,231 +146,21 @@ public class DBFReadAndWrite extends DBFBase implements Closeable {
         if (rowIdx < 0 || rowIdx > getRecordCount() - 1) {
             throw new DBFException("wirteItem, rowIdx error, rowIdx: " + rowIdx);
         }
-        boolean hasColume = false;
-        DBFField rightField = null;
-        for (int i = 0; i < this.header.fieldArray.length; i++) {
-            DBFField field = this.header.fieldArray[i];
-            if (columeName.equals(field.getName())) {
-                hasColume = true;
-                rightField = field;
-            }
-        }
-        if (!hasColume) {
-            throw new DBFException("wirteItem, not has this colume: " + columeName);
-        }
-
-        int fieldIdx = getFieldValueBeginIndex(rowIdx, columeName);
-        //Log.i(TAG, "writeItem, fieldIdx: " + fieldIdx);
-        if (fieldIdx < 0) {
-            return;
-        }
-
-        if (rightField == null) {
-            return;
-        }
-
-        RandomAccessFile raf = null;
-        try {
-            raf = new RandomAccessFile(dbfPath, "rw");
-            //byte[] buffer = new byte[1];
-            //int pos = getRowDataBeginIndex(9);
-            raf.seek(fieldIdx - 1);
-//            for (int i = 0; i < rightField.getLength(); i++) {
-//                raf.read(buffer, 0, buffer.length);
-//                Log.i(TAG, "writeItem, " + i + " get item: " + (char) buffer[0]);
-//            }
-
-            switch (rightField.getType()) {
-
-                case CHARACTER:
-                    String strValue = "";
-                    if (objectValue != null) {
-                        strValue = objectValue.toString();
-                    }
-                    raf.write(DBFUtils.textPadding(strValue, getCharset(), rightField.getLength(), DBFAlignment.LEFT, (byte) ' '));
-
-                    break;
-
-                case DATE:
-                    if (objectValue != null) {
-                        GregorianCalendar calendar = new GregorianCalendar();
-                        calendar.setTime((Date) objectValue);
-                        raf.write(String.valueOf(calendar.get(Calendar.YEAR)).getBytes(StandardCharsets.US_ASCII));
-                        raf.write(DBFUtils.textPadding(String.valueOf(calendar.get(Calendar.MONTH) + 1),
-                                StandardCharsets.US_ASCII, 2, DBFAlignment.RIGHT, (byte) '0'));
-                        raf.write(DBFUtils.textPadding(String.valueOf(calendar.get(Calendar.DAY_OF_MONTH)),
-                                StandardCharsets.US_ASCII, 2, DBFAlignment.RIGHT, (byte) '0'));
-                    } else {
-                        raf.write(("        ".getBytes(StandardCharsets.US_ASCII)));
-                    }
-
-                    break;
-                case NUMERIC:
-                case FLOATING_POINT:
-
-                    if (objectValue != null) {
-                        raf.write(DBFUtils.doubleFormating((Number) objectValue, getCharset(),
-                                rightField.getLength(), rightField.getDecimalCount()));
-                    } else {
-                        raf.write(DBFUtils.textPadding(" ", getCharset(), rightField.getLength(), DBFAlignment.RIGHT, (byte) ' '));
-                    }
-
-                    break;
-
-                case LOGICAL:
-                    byte[] data = new byte[1];
-                    if (objectValue instanceof Boolean) {
-
-                        if ((Boolean) objectValue) {
-                            data[0] = 'T';
-                            raf.write((data));
-                        } else {
-                            data[0] = 'F';
-                            raf.write((data));
-                        }
-                    } else {
-                        data[0] = '?';
-                        raf.write((data));
-                    }
-
-                    break;
-
-                default:
-                    throw new DBFException("Unknown field type " + rightField.getType());
-            }
-        } catch (IOException e) {
-            //Log.i(TAG, "error: " + e.getMessage());
-            e.printStackTrace();
-        } finally {
-            try {
-                if (raf != null) {
-                    raf.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-        /*
-        FileOutputStream dataOutput = null;
-        try {
-            dataOutput = new FileOutputStream(dbfPath);
-
-            FileChannel ch = dataOutput.getChannel();
-
-            ch.position(filedIdx);
-
-            switch (rightField.getType()) {
-
-                case CHARACTER:
-                    String strValue = "";
-                    if (objectValue != null) {
-                        strValue = objectValue.toString();
-                    }
-                    ch.write(ByteBuffer.wrap(DBFUtils.textPadding(strValue, getCharset(), rightField.getLength(), DBFAlignment.LEFT, (byte) ' ')));
-
-                    break;
-
-                case DATE:
-                    if (objectValue != null) {
-                        GregorianCalendar calendar = new GregorianCalendar();
-                        calendar.setTime((Date) objectValue);
-                        ch.write(ByteBuffer.wrap(String.valueOf(calendar.get(Calendar.YEAR)).getBytes(StandardCharsets.US_ASCII)));
-                        ch.write(ByteBuffer.wrap(DBFUtils.textPadding(String.valueOf(calendar.get(Calendar.MONTH) + 1),
-                                StandardCharsets.US_ASCII, 2, DBFAlignment.RIGHT, (byte) '0')));
-                        ch.write(ByteBuffer.wrap(DBFUtils.textPadding(String.valueOf(calendar.get(Calendar.DAY_OF_MONTH)),
-                                StandardCharsets.US_ASCII, 2, DBFAlignment.RIGHT, (byte) '0')));
-                    } else {
-                        ch.write(ByteBuffer.wrap("        ".getBytes(StandardCharsets.US_ASCII)));
-                    }
-
-                    break;
-                case NUMERIC:
-                case FLOATING_POINT:
-
-                    if (objectValue != null) {
-                        ch.write(ByteBuffer.wrap(DBFUtils.doubleFormating((Number) objectValue, getCharset(),
-                                rightField.getLength(), rightField.getDecimalCount())));
-                    } else {
-                        ch.write(ByteBuffer.wrap(DBFUtils.textPadding(" ", getCharset(), rightField.getLength(), DBFAlignment.RIGHT, (byte) ' ')));
-                    }
-
-                    break;
-
-                case LOGICAL:
-                    byte[] data = new byte[1];
-                    if (objectValue instanceof Boolean) {
-
-                        if ((Boolean) objectValue) {
-                            data[0] = 'T';
-                            ch.write(ByteBuffer.wrap(data));
-                        } else {
-                            data[0] = 'F';
-                            ch.write(ByteBuffer.wrap(data));
-                        }
-                    } else {
-                        data[0] = '?';
-                        ch.write(ByteBuffer.wrap(data));
-                    }
-
-                    break;
-
-                default:
-                    throw new DBFException("Unknown field type " + rightField.getType());
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                if (dataOutput != null) {
-                    dataOutput.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-        */
+        DBFUpdater dbfUpdater = getUpdater();
+        dbfUpdater.update(rowIdx, dbfUpdater.getColumnIndex(columeName), objectValue);
+        dbfUpdater.flush();
     }
 
-
-    private int getRowDataBeginIndex(int rowIdx) {
-        int idx = -1;
-        int rowDataLength = 0;
-        for (int i = 0; i < this.header.fieldArray.length; i++) {
-            rowDataLength = rowDataLength + this.header.fieldArray[i].getLength();
-        }
-        // every one data row begins with one space
-        rowDataLength = rowDataLength + 1;
-        //Log.i(TAG, "getRowDataBeginIndex, dataStartIndex: " + recordStartIndex + ", rowDataLength: " + rowDataLength);
-        idx = this.recordStartIndex + rowIdx * rowDataLength;
-        return idx;
-    }
-
-    private int getFieldValueBeginIndex(int rowIdx, String columeName) {
-        if (columeName == null) {
-            throw new DBFException("getFieldValueBeginIndex, colume name null, columeName");
-        }
-        if (rowIdx < 0 || rowIdx > getRecordCount() - 1) {
-            throw new DBFException("getFieldValueBeginIndex, rowIdx error, rowIdx: " + rowIdx);
-        }
-
-        int rowDataIdx = getRowDataBeginIndex(rowIdx);
-       // Log.i(TAG, "getFieldValueBeginIndex, rowDataIdx: " + rowDataIdx);
-        int offset = rowDataIdx;
-
-        boolean hasField = false;
-        for (int i = 0; i < this.header.fieldArray.length; i++) {
-            offset = offset + this.header.fieldArray[i].getLength();
-            if (columeName.equals(this.header.fieldArray[i].getName())) {
-                hasField = true;
-                offset = offset - this.header.fieldArray[i].getLength();
-                break;
-            }
-        }
-        if (hasField) {
-            return (offset + 1);
-        } else {
-            return -1;
+    /**
+     * Gets the updater used to write to the file, opening it the first time
+     *
+     * @return the updater
+     */
+    protected DBFUpdater getUpdater() {
+        if (this.updater == null) {
+            this.updater = new DBFUpdater(new File(dbfPath), getCharset());
         }
+        return this.updater;
     }
 
     private Map<String, Integer> createMapFieldNames(DBFField[] fieldArray) {
@@ -511,7 +309,7 @@ public class DBFReadAndWrite extends DBFBase implements Closeable {
         if (record == null) {
             return null;
         }
-        return new DBFRow(record, mapFieldNames, this.header.fieldArray);
+        return new DBFRow(record, mapFieldNames, this.header.userFieldArray);
     }
 
     protected Object getFieldValue(DBFField field) throws IOException {
@@ -580,13 +378,9 @@ public class DBFReadAndWrite extends DBFBase implements Closeable {
                 int data = DBFUtils.readLittleEndianInt(this.dataInputStream);
                 return data;
             case CURRENCY:
-                int c_data = DBFUtils.readLittleEndianInt(this.dataInputStream);
-                String s_data = String.format("%05d", c_data);
-                String x1 = s_data.substring(0, s_data.length() - 4);
-                String x2 = s_data.substring(s_data.length() - 4);
-
-                skip(field.getLength() - 4);
-                return new BigDecimal(x1 + "." + x2);
+                long c_data = DBFUtils.readLittleEndianLong(this.dataInputStream);
+                skip(field.getLength() - 8);
+                return BigDecimal.valueOf(c_data, 4);
             case TIMESTAMP:
             case TIMESTAMP_DBASE7:
                 int days = DBFUtils.readLittleEndianInt(this.dataInputStream);
@@ -733,6 +527,7 @@ public class DBFReadAndWrite extends DBFBase implements Closeable {
         this.closed = true;
         DBFUtils.close(this.dataInputStream);
         DBFUtils.close(this.memoFile);
+        DBFUtils.close(this.updater);
     }
 
     @Override
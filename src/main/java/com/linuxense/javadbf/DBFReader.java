@@ -379,7 +379,7 @@ public class DBFReader extends DBFBase implements Closeable {
 		if (record == null) {
 			return null;
 		}
-		return new DBFRow(record, mapFieldNames, this.header.fieldArray);
+		return new DBFRow(record, mapFieldNames, this.header.userFieldArray);
 	}
 
 	protected Object getFieldValue(DBFField field) throws IOException {
@@ -449,13 +449,9 @@ public class DBFReader extends DBFBase implements Closeable {
 			int data = DBFUtils.readLittleEndianInt(this.dataInputStream);
 			return data;
 		case CURRENCY:
-			int c_data = DBFUtils.readLittleEndianInt(this.dataInputStream);
-			String s_data = String.format("%05d", c_data);
-			String x1 = s_data.substring(0, s_data.length() - 4);
-			String x2 = s_data.substring(s_data.length() - 4);
-
-			skip(field.getLength() - 4);
-			return new BigDecimal(x1 + "." + x2);
+			long c_data = DBFUtils.readLittleEndianLong(this.dataInputStream);
+			skip(field.getLength() - 8);
+			return BigDecimal.valueOf(c_data, 4);
 		case TIMESTAMP:
 		case TIMESTAMP_DBASE7:
 			int days = DBFUtils.readLittleEndianInt(this.dataInputStream);
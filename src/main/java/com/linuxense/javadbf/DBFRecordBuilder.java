@@ -0,0 +1,163 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+/**
+ * Builds records for a {@link DBFWriter} setting the values one by one.
+ *
+ * Values are encoded as they are set, so primitive values are not boxed and
+ * there is no need to create an array for every record. Columns can be
+ * resolved once by name with {@link #getColumn(String)}.
+ *
+ * <pre>
+ * DBFRecordBuilder builder = writer.newRecordBuilder();
+ * int name = builder.getColumn("name");
+ * int salary = builder.getColumn("salary");
+ * for (...) {
+ *     builder.setString(name, "John");
+ *     builder.setDouble(salary, 1000.25);
+ *     builder.commit();
+ * }
+ * </pre>
+ *
+ * Fields not set before commit are written as null values.
+ * Instances are not thread safe.
+ */
+public final class DBFRecordBuilder {
+
+	private final DBFWriter writer;
+	private final DBFRecordEncoder encoder;
+	private final byte[] record;
+	private final byte[] emptyRecord;
+
+	DBFRecordBuilder(DBFWriter writer, DBFRecordEncoder encoder) {
+		this.writer = writer;
+		this.encoder = encoder;
+		this.emptyRecord = new byte[encoder.getRecordLength()];
+		this.emptyRecord[0] = (byte) ' ';
+		for (int i = 0; i < encoder.getFieldCount(); i++) {
+			encoder.encodeNull(i, this.emptyRecord, encoder.getOffset(i));
+		}
+		this.record = this.emptyRecord.clone();
+	}
+
+	/**
+	 * Gets the index of a column, to be used in the setters of this builder
+	 * @param name name of the column (case insensitive)
+	 * @return index of the column
+	 * @throws DBFFieldNotFoundException if there is no column with that name
+	 */
+	public int getColumn(String name) {
+		for (int i = 0; i < this.encoder.getFieldCount(); i++) {
+			if (this.encoder.getField(i).getName().equalsIgnoreCase(name)) {
+				return i;
+			}
+		}
+		throw new DBFFieldNotFoundException("No field found for:" + name);
+	}
+
+	/**
+	 * Sets the value of a character field
+	 * @param column index of the column
+	 * @param value the value, null is allowed
+	 * @return this builder
+	 */
+	public DBFRecordBuilder setString(int column, CharSequence value) {
+		if (value == null) {
+			return setNull(column);
+		}
+		this.encoder.encodeString(column, value, this.record, this.encoder.getOffset(column));
+		return this;
+	}
+
+	/**
+	 * Sets the value of a numeric, long, double or currency field
+	 * @param column index of the column
+	 * @param value the value
+	 * @return this builder
+	 */
+	public DBFRecordBuilder setLong(int column, long value) {
+		this.encoder.encodeLong(column, value, this.record, this.encoder.getOffset(column));
+		return this;
+	}
+
+	/**
+	 * Sets the value of a numeric, double or currency field
+	 * @param column index of the column
+	 * @param value the value
+	 * @return this builder
+	 */
+	public DBFRecordBuilder setDouble(int column, double value) {
+		this.encoder.encodeDouble(column, value, this.record, this.encoder.getOffset(column));
+		return this;
+	}
+
+	/**
+	 * Sets the value of a date field
+	 * @param column index of the column
+	 * @param epochDay the date as number of days since 1970-01-01
+	 * @return this builder
+	 */
+	public DBFRecordBuilder setDate(int column, long epochDay) {
+		this.encoder.encodeDate(column, epochDay, this.record, this.encoder.getOffset(column));
+		return this;
+	}
+
+	/**
+	 * Sets the value of a timestamp field
+	 * @param column index of the column
+	 * @param epochMillis the timestamp as milliseconds since 1970-01-01T00:00:00Z
+	 * @return this builder
+	 */
+	public DBFRecordBuilder setTimestamp(int column, long epochMillis) {
+		this.encoder.encodeTimestamp(column, epochMillis, this.record, this.encoder.getOffset(column));
+		return this;
+	}
+
+	/**
+	 * Sets the value of a logical field
+	 * @param column index of the column
+	 * @param value the value
+	 * @return this builder
+	 */
+	public DBFRecordBuilder setBoolean(int column, boolean value) {
+		this.encoder.encodeBoolean(column, value, this.record, this.encoder.getOffset(column));
+		return this;
+	}
+
+	/**
+	 * Sets a field to null
+	 * @param column index of the column
+	 * @return this builder
+	 */
+	public DBFRecordBuilder setNull(int column) {
+		int offset = this.encoder.getOffset(column);
+		System.arraycopy(this.emptyRecord, offset, this.record, offset, this.encoder.getField(column).getLength());
+		return this;
+	}
+
+	/**
+	 * Adds the record to the writer, and resets all the fields of this builder to null
+	 */
+	public void commit() {
+		this.writer.addEncodedRecord(this.record);
+		System.arraycopy(this.emptyRecord, 0, this.record, 0, this.record.length);
+	}
+}
@@ -0,0 +1,447 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Encodes records to the bytes stored in a dbf file.
+ *
+ * Instances are not thread safe, each writer has its own encoder.
+ */
+final class DBFRecordEncoder {
+
+	private final DBFField[] fields;
+	private final int[] offsets;
+	private final int recordLength;
+	private static final long CURRENCY_SCALE = 10000;
+	private static final BigDecimal MAX_CURRENCY = BigDecimal.valueOf(Long.MAX_VALUE, 4);
+	private static final long MILLISECS_PER_DAY = 24 * 60 * 60 * 1000;
+	private static final long TIME_MILLIS_1_1_4713_BC = -210866803200000L;
+
+	private final GregorianCalendar calendar = new GregorianCalendar();
+	private final TimeZone timeZone = TimeZone.getDefault();
+	private final DBFNumberFormatter numberFormatter;
+	private final DBFTextEncoder textEncoder;
+
+	DBFRecordEncoder(DBFField[] fields, Charset charset) {
+		this.fields = fields;
+		this.numberFormatter = new DBFNumberFormatter(charset);
+		this.textEncoder = new DBFTextEncoder(charset);
+		this.offsets = new int[fields.length];
+		int offset = 1;
+		for (int i = 0; i < fields.length; i++) {
+			this.offsets[i] = offset;
+			offset += fields[i].getLength();
+		}
+		this.recordLength = offset;
+	}
+
+	/**
+	 * Gets the length of the encoded records, including the deleted flag
+	 * @return the length of the records
+	 */
+	int getRecordLength() {
+		return this.recordLength;
+	}
+
+	/**
+	 * Gets the position of a field inside the record
+	 * @param index index of the field
+	 * @return the offset of the field from the beginning of the record
+	 */
+	int getOffset(int index) {
+		return this.offsets[index];
+	}
+
+	/**
+	 * Checks that the values of a record can be written to the fields
+	 * @param values the values of the fields
+	 * @throws DBFException if some value is not valid for its field
+	 */
+	void validate(Object[] values) {
+		for (int i = 0; i < this.fields.length; i++) {
+			validateField(i, values[i]);
+		}
+	}
+
+	/**
+	 * Checks that a value can be written to a field
+	 * @param i index of the field
+	 * @param value the value, null is always valid
+	 * @throws DBFException if the value is not valid for the field
+	 */
+	void validateField(int i, Object value) {
+		if (value == null) {
+			return;
+		}
+
+		switch (this.fields[i].getType()) {
+
+		case CHARACTER:
+			if (!(value instanceof String)) {
+				throw new DBFException("Invalid value for field " + i + ":" + value);
+			}
+			break;
+
+		case LOGICAL:
+			if (!(value instanceof Boolean)) {
+				throw new DBFException("Invalid value for field " + i + ":" + value);
+			}
+			break;
+
+		case DATE:
+			if (!(value instanceof Date)) {
+				throw new DBFException("Invalid value for field " + i + ":" + value);
+			}
+			break;
+		case NUMERIC:
+		case FLOATING_POINT:
+		case DOUBLE:
+			if (!(value instanceof Number)) {
+				throw new DBFException("Invalid value for field " + i + ":" + value);
+			}
+			break;
+		case LONG:
+		case AUTOINCREMENT:
+			if (!(value instanceof Number) || !isValidInt((Number) value)) {
+				throw new DBFException("Invalid value for field " + i + ":" + value);
+			}
+			break;
+		case CURRENCY:
+			if (!(value instanceof Number) || !isValidCurrency((Number) value)) {
+				throw new DBFException("Invalid value for field " + i + ":" + value);
+			}
+			break;
+		case TIMESTAMP:
+		case TIMESTAMP_DBASE7:
+			if (!(value instanceof Date)) {
+				throw new DBFException("Invalid value for field " + i + ":" + value);
+			}
+			break;
+		default:
+			throw new DBFException("Unsupported writting of field type " + i + " "
+					+ this.fields[i].getType());
+		}
+	}
+
+	/**
+	 * Encodes a record.
+	 * @param values the values of the fields, already validated
+	 * @param dest array to write the record to
+	 * @param offset position of dest where the record starts
+	 */
+	void encode(Object[] values, byte[] dest, int offset) {
+		dest[offset] = (byte) ' ';
+		for (int i = 0; i < this.fields.length; i++) {
+			encodeField(i, values[i], dest, offset + this.offsets[i]);
+		}
+	}
+
+	/**
+	 * Encodes the value of a field.
+	 * @param index index of the field
+	 * @param value the value, already validated
+	 * @param dest array to write the field to
+	 * @param offset position of dest where the field starts
+	 */
+	void encodeField(int index, Object value, byte[] dest, int offset) {
+		DBFField field = this.fields[index];
+		int length = field.getLength();
+		switch (field.getType()) {
+		case CHARACTER:
+			if (value != null) {
+				this.textEncoder.write(value.toString(), dest, offset, length, DBFAlignment.LEFT, (byte) ' ');
+			} else {
+				Arrays.fill(dest, offset, offset + length, (byte) ' ');
+			}
+			break;
+
+		case DATE:
+			if (value != null) {
+				this.calendar.setTime((Date) value);
+				writeDigits(this.calendar.get(Calendar.YEAR), dest, offset, 4);
+				writeDigits(this.calendar.get(Calendar.MONTH) + 1, dest, offset + 4, 2);
+				writeDigits(this.calendar.get(Calendar.DAY_OF_MONTH), dest, offset + 6, 2);
+			} else {
+				Arrays.fill(dest, offset, offset + 8, (byte) ' ');
+			}
+			break;
+
+		case NUMERIC:
+		case FLOATING_POINT:
+			if (value != null) {
+				this.numberFormatter.format((Number) value, dest, offset, length, field.getDecimalCount());
+			} else {
+				Arrays.fill(dest, offset, offset + length, (byte) ' ');
+			}
+			break;
+
+		case LOGICAL:
+			if (value instanceof Boolean) {
+				dest[offset] = ((Boolean) value) ? (byte) 'T' : (byte) 'F';
+			} else {
+				dest[offset] = (byte) '?';
+			}
+			break;
+
+		case LONG:
+		case AUTOINCREMENT:
+			writeLittleEndian(value != null ? ((Number) value).intValue() : 0, dest, offset, 4);
+			break;
+
+		case DOUBLE:
+			writeLittleEndian(value != null ? Double.doubleToLongBits(((Number) value).doubleValue()) : 0, dest, offset, 8);
+			break;
+
+		case CURRENCY:
+			writeLittleEndian(value != null ? toCurrencyUnits((Number) value) : 0, dest, offset, 8);
+			break;
+
+		case TIMESTAMP:
+		case TIMESTAMP_DBASE7:
+			if (value != null) {
+				writeTimestamp(((Date) value).getTime(), dest, offset);
+			} else {
+				Arrays.fill(dest, offset, offset + 8, (byte) 0);
+			}
+			break;
+
+		default:
+			throw new DBFException("Unknown field type " + field.getType());
+		}
+	}
+
+	/**
+	 * Gets the definition of a field
+	 * @param index index of the field
+	 * @return the definition of the field
+	 */
+	DBFField getField(int index) {
+		return this.fields[index];
+	}
+
+	/**
+	 * Gets the number of fields of the records
+	 * @return number of fields
+	 */
+	int getFieldCount() {
+		return this.fields.length;
+	}
+
+	void encodeString(int index, CharSequence value, byte[] dest, int offset) {
+		checkType(index, DBFDataType.CHARACTER);
+		this.textEncoder.write(value, dest, offset, this.fields[index].getLength(), DBFAlignment.LEFT, (byte) ' ');
+	}
+
+	void encodeLong(int index, long value, byte[] dest, int offset) {
+		DBFField field = this.fields[index];
+		switch (field.getType()) {
+		case NUMERIC:
+		case FLOATING_POINT:
+			this.numberFormatter.format(value, dest, offset, field.getLength(), field.getDecimalCount());
+			break;
+		case LONG:
+		case AUTOINCREMENT:
+			if (value != (int) value) {
+				throw new DBFException("Invalid value for field " + index + ":" + value);
+			}
+			writeLittleEndian(value, dest, offset, 4);
+			break;
+		case DOUBLE:
+			writeLittleEndian(Double.doubleToLongBits(value), dest, offset, 8);
+			break;
+		case CURRENCY:
+			if (value > Long.MAX_VALUE / CURRENCY_SCALE || value < Long.MIN_VALUE / CURRENCY_SCALE) {
+				throw new DBFException("Invalid value for field " + index + ":" + value);
+			}
+			writeLittleEndian(value * CURRENCY_SCALE, dest, offset, 8);
+			break;
+		default:
+			throw new DBFException("Invalid value for field " + index + ":" + value);
+		}
+	}
+
+	void encodeDouble(int index, double value, byte[] dest, int offset) {
+		DBFField field = this.fields[index];
+		switch (field.getType()) {
+		case NUMERIC:
+		case FLOATING_POINT:
+			this.numberFormatter.format(value, dest, offset, field.getLength(), field.getDecimalCount());
+			break;
+		case DOUBLE:
+			writeLittleEndian(Double.doubleToLongBits(value), dest, offset, 8);
+			break;
+		case CURRENCY:
+			if (!isValidCurrency(value)) {
+				throw new DBFException("Invalid value for field " + index + ":" + value);
+			}
+			writeLittleEndian(toCurrencyUnits(value), dest, offset, 8);
+			break;
+		default:
+			throw new DBFException("Invalid value for field " + index + ":" + value);
+		}
+	}
+
+	/**
+	 * Encodes a timestamp given as milliseconds since 1970-01-01T00:00:00Z
+	 * @param index index of the field
+	 * @param epochMillis the timestamp
+	 * @param dest array to write the field to
+	 * @param offset position of dest where the field starts
+	 */
+	void encodeTimestamp(int index, long epochMillis, byte[] dest, int offset) {
+		DBFDataType type = this.fields[index].getType();
+		if (type != DBFDataType.TIMESTAMP && type != DBFDataType.TIMESTAMP_DBASE7) {
+			throw new DBFException("Field " + index + " is of type " + type + ", not a timestamp");
+		}
+		writeTimestamp(epochMillis, dest, offset);
+	}
+
+	void encodeBoolean(int index, boolean value, byte[] dest, int offset) {
+		checkType(index, DBFDataType.LOGICAL);
+		dest[offset] = value ? (byte) 'T' : (byte) 'F';
+	}
+
+	/**
+	 * Encodes a date given as the number of days since 1970-01-01 (proleptic gregorian calendar)
+	 * @param index index of the field
+	 * @param epochDay number of days since 1970-01-01
+	 * @param dest array to write the field to
+	 * @param offset position of dest where the field starts
+	 */
+	void encodeDate(int index, long epochDay, byte[] dest, int offset) {
+		checkType(index, DBFDataType.DATE);
+		// civil from days, see http://howardhinnant.github.io/date_algorithms.html
+		long z = epochDay + 719468;
+		long era = (z >= 0 ? z : z - 146096) / 146097;
+		long doe = z - era * 146097;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doy + 2) / 153;
+		long day = doy - (153 * mp + 2) / 5 + 1;
+		long month = mp < 10 ? mp + 3 : mp - 9;
+		long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+		if (year < 0 || year > 9999) {
+			throw new DBFException("Invalid value for field " + index + ": year " + year + " out of range");
+		}
+		writeDigits(year, dest, offset, 4);
+		writeDigits(month, dest, offset + 4, 2);
+		writeDigits(day, dest, offset + 6, 2);
+	}
+
+	void encodeNull(int index, byte[] dest, int offset) {
+		encodeField(index, null, dest, offset);
+	}
+
+	private void checkType(int index, DBFDataType type) {
+		if (this.fields[index].getType() != type) {
+			throw new DBFException("Field " + index + " is of type " + this.fields[index].getType() + ", not " + type);
+		}
+	}
+
+	/**
+	 * Checks that a number can be stored in a currency field
+	 * @param value the number
+	 * @return true if the value is finite and in the range of a currency field
+	 */
+	static boolean isValidCurrency(Number value) {
+		if (value instanceof Double || value instanceof Float) {
+			double d = value.doubleValue();
+			if (Double.isNaN(d) || Double.isInfinite(d)) {
+				return false;
+			}
+		}
+		return toCurrencyDecimal(value).abs().compareTo(MAX_CURRENCY) <= 0;
+	}
+
+	/**
+	 * Checks if a number is an integer in the range of an int, so it can be
+	 * stored in a LONG field without losing its fractional part
+	 */
+	static boolean isValidInt(Number value) {
+		if (value instanceof Double || value instanceof Float) {
+			double d = value.doubleValue();
+			return d == Math.rint(d) && d >= Integer.MIN_VALUE && d <= Integer.MAX_VALUE;
+		}
+		if (value instanceof BigDecimal) {
+			try {
+				((BigDecimal) value).intValueExact();
+				return true;
+			}
+			catch (ArithmeticException e) {
+				return false;
+			}
+		}
+		if (value instanceof BigInteger) {
+			return ((BigInteger) value).bitLength() < 32;
+		}
+		return value.longValue() == value.intValue();
+	}
+
+	/**
+	 * Stores the timestamp as local time, as DBFReader reads it: the julian day
+	 * number and the milliseconds since midnight.
+	 */
+	private void writeTimestamp(long epochMillis, byte[] dest, int offset) {
+		long localMillis = epochMillis + this.timeZone.getOffset(epochMillis) - TIME_MILLIS_1_1_4713_BC;
+		writeLittleEndian(localMillis / MILLISECS_PER_DAY, dest, offset, 4);
+		writeLittleEndian(localMillis % MILLISECS_PER_DAY, dest, offset + 4, 4);
+	}
+
+	private static long toCurrencyUnits(Number value) {
+		return toCurrencyDecimal(value).movePointRight(4).setScale(0, RoundingMode.HALF_EVEN).longValue();
+	}
+
+	private static BigDecimal toCurrencyDecimal(Number value) {
+		if (value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		}
+		if (value instanceof BigInteger) {
+			return new BigDecimal((BigInteger) value);
+		}
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return BigDecimal.valueOf(value.longValue());
+		}
+		return BigDecimal.valueOf(value.doubleValue());
+	}
+
+	private static void writeLittleEndian(long value, byte[] dest, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			dest[offset + i] = (byte) (value >>> (8 * i));
+		}
+	}
+
+	private static void writeDigits(long value, byte[] dest, int offset, int length) {
+		long remaining = value;
+		for (int i = offset + length - 1; i >= offset; i--) {
+			dest[i] = (byte) ('0' + remaining % 10);
+			remaining /= 10;
+		}
+	}
+}
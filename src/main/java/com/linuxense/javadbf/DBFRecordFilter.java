@@ -0,0 +1,34 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+/**
+ * Selects records of a dbf file by their bytes as they are stored in the
+ * file, without decoding them. See {@link DBFUpdater#deleteWhere(DBFRecordFilter)}.
+ */
+public interface DBFRecordFilter {
+
+	/**
+	 * Checks if a record is selected
+	 * @param data array with the record
+	 * @param offset position of the record in data, where its deleted flag is
+	 * @return true if the record is selected
+	 */
+	boolean accept(byte[] data, int offset);
+}
@@ -0,0 +1,46 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of record numbers, without boxing
+ */
+final class DBFRecordList {
+
+	private int[] records = new int[16];
+	private int size = 0;
+
+	void add(int record) {
+		if (this.size == this.records.length) {
+			this.records = Arrays.copyOf(this.records, this.size * 2);
+		}
+		this.records[this.size++] = record;
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	int[] toArray() {
+		return Arrays.copyOf(this.records, this.size);
+	}
+}
@@ -0,0 +1,214 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * DBFReader over a file that can read any record by its number, for example
+ * the records found with an index.
+ *
+ * After {@link #seek(int)}, {@link #nextRecord()} and {@link #nextRow()} go on
+ * reading from that record.
+ */
+public class DBFSeekableReader extends DBFReader {
+
+	private final ChannelInputStream channelInput;
+
+	/**
+	 * Opens a dbf file
+	 * @param file the file
+	 */
+	public DBFSeekableReader(File file) {
+		this(file, null);
+	}
+
+	/**
+	 * Opens a dbf file
+	 * @param file the file
+	 * @param charset charset used to decode field names and field contents. If null, then is autedetected from dbf file
+	 */
+	public DBFSeekableReader(File file, Charset charset) {
+		super(new ChannelInputStream(file), charset, false);
+		this.channelInput = (ChannelInputStream) this.inputStream;
+	}
+
+	/**
+	 * Moves to a record, so it's the next one read
+	 * @param recordNumber number of the record, starting at 0
+	 */
+	public void seek(int recordNumber) {
+		checkRecordNumber(recordNumber);
+		this.channelInput.position(getRecordPosition(recordNumber));
+	}
+
+	/**
+	 * Reads a record
+	 * @param recordNumber number of the record, starting at 0
+	 * @return the values of the record, or null if the record is deleted
+	 */
+	public Object[] getRecord(int recordNumber) {
+		if (isDeleted(recordNumber)) {
+			return null;
+		}
+		seek(recordNumber);
+		return nextRecord();
+	}
+
+	/**
+	 * Reads a record
+	 * @param recordNumber number of the record, starting at 0
+	 * @return the record, or null if the record is deleted
+	 */
+	public DBFRow getRow(int recordNumber) {
+		if (isDeleted(recordNumber)) {
+			return null;
+		}
+		seek(recordNumber);
+		return nextRow();
+	}
+
+	/**
+	 * Checks if a record is deleted
+	 * @param recordNumber number of the record, starting at 0
+	 * @return true if the record is deleted
+	 */
+	public boolean isDeleted(int recordNumber) {
+		checkRecordNumber(recordNumber);
+		return this.channelInput.readByte(getRecordPosition(recordNumber)) == '*';
+	}
+
+	private long getRecordPosition(int recordNumber) {
+		return getHeader().headerLength + (long) recordNumber * getHeader().recordLength;
+	}
+
+	private void checkRecordNumber(int recordNumber) {
+		if (recordNumber < 0 || recordNumber >= getRecordCount()) {
+			throw new DBFException("Invalid record number: " + recordNumber);
+		}
+	}
+
+	/**
+	 * Buffered input stream over a file channel, that can be moved to any position
+	 */
+	private static final class ChannelInputStream extends InputStream {
+		private static final int BUFFER_SIZE = 8192;
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		private long position = 0;
+
+		ChannelInputStream(File file) {
+			try {
+				this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			}
+			catch (IOException e) {
+				throw new DBFException(e.getMessage(), e);
+			}
+			this.buffer.limit(0);
+		}
+
+		void position(long newPosition) {
+			this.position = newPosition;
+			this.buffer.limit(0);
+		}
+
+		int readByte(long offset) {
+			ByteBuffer data = ByteBuffer.allocate(1);
+			try {
+				if (this.channel.read(data, offset) <= 0) {
+					throw new DBFException("Unexpected end of file");
+				}
+			}
+			catch (IOException e) {
+				throw new DBFException(e.getMessage(), e);
+			}
+			return data.get(0);
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!fill()) {
+				return -1;
+			}
+			return this.buffer.get() & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			int n = Math.min(len, this.buffer.remaining());
+			this.buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			if (n <= 0) {
+				return 0;
+			}
+			int buffered = this.buffer.remaining();
+			if (n <= buffered) {
+				this.buffer.position(this.buffer.position() + (int) n);
+				return n;
+			}
+			long newPosition = Math.min(this.position + (n - buffered), this.channel.size());
+			long skipped = buffered + (newPosition - this.position);
+			position(newPosition);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return this.buffer.remaining();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.channel.close();
+		}
+
+		private boolean fill() throws IOException {
+			if (this.buffer.hasRemaining()) {
+				return true;
+			}
+			this.buffer.clear();
+			int read = this.channel.read(this.buffer, this.position);
+			if (read <= 0) {
+				this.buffer.limit(0);
+				return false;
+			}
+			this.position += read;
+			this.buffer.flip();
+			return true;
+		}
+	}
+}
@@ -0,0 +1,270 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds binary keys from the raw bytes of a record, such that comparing two
+ * keys byte by byte (unsigned) gives the order of the values of the fields.
+ *
+ * <ul>
+ * <li>Character, date and logical fields are used as they are stored.</li>
+ * <li>Numeric and float fields (stored as text) are aligned on the decimal point,
+ * with a leading byte for the sign; blank values go first.</li>
+ * <li>Binary numbers (long, autoincrement, currency, double, timestamp) are
+ * converted to big endian, with the sign adjusted.</li>
+ * </ul>
+ * Without key fields, the key is the whole record without the deleted flag.
+ */
+final class DBFSortKey {
+
+	private static final byte NULL_NUMBER = 0;
+	private static final byte NEGATIVE_NUMBER = 1;
+	private static final byte POSITIVE_NUMBER = 2;
+
+	private final DBFField[] fields;
+	private final int[] offsets;
+	private final int length;
+
+	DBFSortKey(DBFHeader header, String[] fieldNames) {
+		if (fieldNames.length == 0) {
+			this.fields = new DBFField[] { null };
+			this.offsets = new int[] { 1 };
+			this.length = header.recordLength - 1;
+			return;
+		}
+		this.fields = new DBFField[fieldNames.length];
+		this.offsets = new int[fieldNames.length];
+		int keyLength = 0;
+		for (int i = 0; i < fieldNames.length; i++) {
+			int offset = 1;
+			for (DBFField field : header.fieldArray) {
+				if (field.getName().equalsIgnoreCase(fieldNames[i])) {
+					this.fields[i] = field;
+					this.offsets[i] = offset;
+					break;
+				}
+				offset += field.getLength();
+			}
+			if (this.fields[i] == null) {
+				throw new DBFException("Field " + fieldNames[i] + " does not exist");
+			}
+			if (DBFMemoCompactor.isMemoPointer(this.fields[i])) {
+				throw new DBFException("Cannot use memo field " + fieldNames[i] + " as key");
+			}
+			keyLength += getKeyLength(this.fields[i]);
+		}
+		this.length = keyLength;
+	}
+
+	int getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Writes the key of a record
+	 * @param record the data of the record (starting with the deleted flag)
+	 * @param recordOffset offset of the record in the array
+	 * @param key where to write the key
+	 * @param keyOffset offset of the key in the array
+	 */
+	void extract(byte[] record, int recordOffset, byte[] key, int keyOffset) {
+		int position = keyOffset;
+		for (int i = 0; i < this.fields.length; i++) {
+			DBFField field = this.fields[i];
+			int offset = recordOffset + this.offsets[i];
+			if (field == null) {
+				System.arraycopy(record, offset, key, position, this.length);
+				return;
+			}
+			switch (field.getType()) {
+			case NUMERIC:
+			case FLOATING_POINT:
+				writeNumber(record, offset, field.getLength(), key, position);
+				break;
+			case LONG:
+			case AUTOINCREMENT:
+				writeBigEndian(record, offset, 4, true, key, position);
+				break;
+			case CURRENCY:
+				writeBigEndian(record, offset, 8, true, key, position);
+				break;
+			case TIMESTAMP:
+			case TIMESTAMP_DBASE7:
+				writeBigEndian(record, offset, 4, false, key, position);
+				writeBigEndian(record, offset + 4, 4, false, key, position + 4);
+				break;
+			case DOUBLE:
+				writeDouble(record, offset, key, position);
+				break;
+			default:
+				System.arraycopy(record, offset, key, position, field.getLength());
+				break;
+			}
+			position += getKeyLength(field);
+		}
+	}
+
+	/**
+	 * Compares two keys byte by byte, as unsigned values
+	 */
+	static int compare(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			int x = a[aOffset + i] & 0xFF;
+			int y = b[bOffset + i] & 0xFF;
+			if (x != y) {
+				return x - y;
+			}
+		}
+		return 0;
+	}
+
+	private static int getKeyLength(DBFField field) {
+		switch (field.getType()) {
+		case NUMERIC:
+		case FLOATING_POINT:
+			// sign, integer digits and decimal digits
+			return 1 + 2 * field.getLength();
+		default:
+			return field.getLength();
+		}
+	}
+
+	private static void writeBigEndian(byte[] data, int offset, int size, boolean signed, byte[] key, int position) {
+		for (int i = 0; i < size; i++) {
+			key[position + i] = data[offset + size - 1 - i];
+		}
+		if (signed) {
+			key[position] ^= (byte) 0x80;
+		}
+	}
+
+	private static void writeDouble(byte[] data, int offset, byte[] key, int position) {
+		writeBigEndian(data, offset, 8, false, key, position);
+		if ((key[position] & 0x80) != 0) {
+			for (int i = 0; i < 8; i++) {
+				key[position + i] = (byte) ~key[position + i];
+			}
+		}
+		else {
+			key[position] ^= (byte) 0x80;
+		}
+	}
+
+	/**
+	 * Writes a number stored as text: a byte for the sign, the integer digits
+	 * aligned to the right and the decimal digits aligned to the left. The
+	 * digits of negative numbers are inverted so bigger absolute values go first.
+	 * Values with more integer digits than the field, only possible with an
+	 * exponent, go after (or before, if negative) every other value.
+	 */
+	private static void writeNumber(byte[] data, int offset, int size, byte[] key, int position) {
+		byte[] text = data;
+		int start = offset;
+		int end = offset + size;
+		for (int i = offset; i < end; i++) {
+			byte b = data[i];
+			if (b != ' ' && b != '-' && b != '+' && b != '.' && (b < '0' || b > '9')) {
+				// exponent or overflow mark
+				try {
+					String plain = new BigDecimal(new String(data, offset, size, StandardCharsets.US_ASCII).trim()).toPlainString();
+					text = plain.getBytes(StandardCharsets.US_ASCII);
+					start = 0;
+					end = text.length;
+				}
+				catch (NumberFormatException e) {
+					text = null;
+				}
+				break;
+			}
+		}
+
+		int digits = 1 + 2 * size;
+		if (text == null) {
+			for (int i = position; i < position + digits; i++) {
+				key[i] = NULL_NUMBER;
+			}
+			return;
+		}
+		for (int i = position; i < position + digits; i++) {
+			key[i] = '0';
+		}
+		boolean negative = false;
+		boolean empty = true;
+		boolean zero = true;
+		int point = end;
+		int intStart = -1;
+		for (int i = start; i < end; i++) {
+			byte b = text[i];
+			if (b == '-') {
+				negative = true;
+			}
+			else if (b == '.') {
+				point = i;
+				break;
+			}
+			else if (b >= '0' && b <= '9') {
+				if (intStart < 0) {
+					intStart = i;
+				}
+				empty = false;
+				zero &= b == '0';
+			}
+		}
+		if (intStart >= 0) {
+			while (intStart < point && text[intStart] == '0') {
+				intStart++;
+			}
+			int count = point - intStart;
+			if (count > size) {
+				// written with an exponent, bigger than any value that fits in the field
+				key[position] = negative ? NEGATIVE_NUMBER : POSITIVE_NUMBER;
+				for (int i = position + 1; i < position + digits; i++) {
+					key[i] = negative ? 0 : (byte) 0xFF;
+				}
+				return;
+			}
+			System.arraycopy(text, intStart, key, position + 1 + size - count, count);
+		}
+		int fraction = position + 1 + size;
+		for (int i = point + 1; i < end && text[i] >= '0' && text[i] <= '9' && fraction < position + digits; i++) {
+			key[fraction++] = text[i];
+			empty = false;
+			zero &= text[i] == '0';
+		}
+		if (empty) {
+			for (int i = position; i < position + digits; i++) {
+				key[i] = NULL_NUMBER;
+			}
+			return;
+		}
+		if (negative && !zero) {
+			key[position] = NEGATIVE_NUMBER;
+			for (int i = position + 1; i < position + digits; i++) {
+				key[i] = (byte) ~key[i];
+			}
+		}
+		else {
+			key[position] = POSITIVE_NUMBER;
+		}
+	}
+}
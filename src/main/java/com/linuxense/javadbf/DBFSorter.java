@@ -0,0 +1,388 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sorts the records of a dbf file by one or more fields, without loading the
+ * whole file in memory (external merge sort).
+ *
+ * The source file is read sequentially in runs that fit in the memory budget.
+ * Each run is sorted by binary keys built from the raw bytes of the key fields
+ * (see {@link DBFSortKey}) in a pool of threads and written to a temporary file.
+ * Then the runs are merged into the new file. Each run being merged has a read
+ * buffer, so the number of runs merged at once (the fan-in) is limited by the
+ * memory budget and by the number of open files; with more runs, groups of
+ * runs are merged first into bigger ones, in as many passes as needed. If the
+ * whole file fits in the memory budget it is sorted in memory, without
+ * temporary files.
+ *
+ * The sort is stable. Deleted records are sorted like the rest. Memo pointers
+ * are kept, so the sorted file uses the same memo file as the source one.
+ */
+public final class DBFSorter {
+
+	private static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	// open files while merging, under the usual limit of 1024 per process
+	private static final int MAX_FAN_IN = 512;
+
+	private final String[] keyFields;
+	private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+	private File tempDirectory = null;
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Creates a sorter
+	 * @param keyFields names of the fields to sort by, in order of precedence
+	 */
+	public DBFSorter(String... keyFields) {
+		this(keyFields, false);
+	}
+
+	/**
+	 * Creates a sorter
+	 * @param keyFields names of the fields to sort by, in order of precedence
+	 * @param wholeRecord if true and there are no key fields, sorts by the whole record
+	 */
+	DBFSorter(String[] keyFields, boolean wholeRecord) {
+		if (keyFields == null || (keyFields.length == 0 && !wholeRecord)) {
+			throw new IllegalArgumentException("At least one key field is needed");
+		}
+		this.keyFields = keyFields.clone();
+	}
+
+	/**
+	 * Sets the memory used for the records being sorted. Default is 64 MB.
+	 * @param memoryBudget bytes of memory
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+		if (memoryBudget <= 0) {
+			throw new IllegalArgumentException("Memory budget must be positive");
+		}
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Sets the directory of the temporary files. Default is the directory of
+	 * the system (java.io.tmpdir).
+	 * @param tempDirectory the directory, or null to use the default one
+	 */
+	public void setTempDirectory(File tempDirectory) {
+		this.tempDirectory = tempDirectory;
+	}
+
+	/**
+	 * Sets the number of threads used to sort the runs. Default is the number of processors.
+	 * @param threads number of threads
+	 */
+	public void setThreads(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads must be positive");
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Writes a sorted copy of a dbf file.
+	 * The target file is overwritten if it exists.
+	 * @param dbfFile the file to sort
+	 * @param targetDbfFile the file to create
+	 * @return the number of records
+	 */
+	public int sort(File dbfFile, File targetDbfFile) {
+		DBFHeader header = DBFUtils.readHeader(dbfFile);
+		DBFSortKey key = new DBFSortKey(header, this.keyFields);
+		int recordLength = header.recordLength;
+		// the runs being sorted and the one being read
+		long runMemory = this.memoryBudget / (this.threads + 1);
+		int runRecords = (int) Math.max(1, Math.min(runMemory / (recordLength + key.getLength() + 16),
+				Integer.MAX_VALUE / Math.max(recordLength, key.getLength())));
+
+		List<File> runs = new ArrayList<>();
+		List<File> mergedRuns = new ArrayList<>();
+		List<Future<File>> futures = new ArrayList<>();
+		ExecutorService executor = null;
+		try (FileChannel source = FileChannel.open(dbfFile.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer headerData = ByteBuffer.allocate(header.headerLength);
+			DBFUtils.readFully(source, headerData, 0);
+			// the production index doesn't match the sorted file
+			headerData.put(28, (byte) 0);
+
+			if (header.numberOfRecords <= runRecords) {
+				byte[] data = readRun(source, header, 0, header.numberOfRecords);
+				try (OutputStream out = new BufferedOutputStream(new FileOutputStream(targetDbfFile), BUFFER_SIZE)) {
+					out.write(headerData.array());
+					writeSorted(data, header.numberOfRecords, recordLength, key, out);
+					out.write(DBFBase.END_OF_DATA);
+				}
+				return header.numberOfRecords;
+			}
+
+			executor = Executors.newFixedThreadPool(this.threads);
+			int record = 0;
+			while (record < header.numberOfRecords) {
+				if (futures.size() - runs.size() >= this.threads) {
+					runs.add(getResult(futures.get(runs.size())));
+				}
+				int count = Math.min(runRecords, header.numberOfRecords - record);
+				futures.add(executor.submit(new RunSorter(readRun(source, header, record, count), count, recordLength, key)));
+				record += count;
+			}
+			while (runs.size() < futures.size()) {
+				runs.add(getResult(futures.get(runs.size())));
+			}
+			executor.shutdown();
+
+			List<File> lastRuns = mergePasses(runs, getFanIn(this.memoryBudget), recordLength, key, mergedRuns);
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(targetDbfFile), BUFFER_SIZE)) {
+				out.write(headerData.array());
+				merge(lastRuns, recordLength, key, out);
+				out.write(DBFBase.END_OF_DATA);
+			}
+			return header.numberOfRecords;
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+			for (File run : runs) {
+				run.delete();
+			}
+			for (File run : mergedRuns) {
+				run.delete();
+			}
+			// runs not collected after a failure
+			for (int i = runs.size(); i < futures.size(); i++) {
+				try {
+					futures.get(i).get().delete();
+				}
+				catch (InterruptedException | ExecutionException e) { //NOPMD
+					// nop
+				}
+			}
+		}
+	}
+
+	private static byte[] readRun(FileChannel source, DBFHeader header, int firstRecord, int count) throws IOException {
+		byte[] data = new byte[count * header.recordLength];
+		DBFUtils.readFully(source, ByteBuffer.wrap(data), header.headerLength + (long) firstRecord * header.recordLength);
+		return data;
+	}
+
+	private static File getResult(Future<File> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBFException("Interrupted while sorting", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof DBFException) {
+				throw (DBFException) cause;
+			}
+			throw new DBFException(cause.getMessage(), cause);
+		}
+	}
+
+	/**
+	 * Sorts the records of a run and writes them
+	 */
+	static void writeSorted(final byte[] data, int count, int recordLength, DBFSortKey key, OutputStream out) throws IOException {
+		final int keyLength = key.getLength();
+		final byte[] keys = new byte[count * keyLength];
+		int[] order = new int[count];
+		for (int i = 0; i < count; i++) {
+			key.extract(data, i * recordLength, keys, i * keyLength);
+			order[i] = i;
+		}
+		// stable sort
+		new DBFStableSort() {
+			@Override
+			int compare(int a, int b) {
+				return DBFSortKey.compare(keys, a * keyLength, keys, b * keyLength, keyLength);
+			}
+		}.sort(order, new int[count], count);
+		for (int i : order) {
+			out.write(data, i * recordLength, recordLength);
+		}
+	}
+
+	/**
+	 * Gets the number of runs merged at once: one read buffer for each run
+	 * and one for the output must fit in the memory budget
+	 */
+	static int getFanIn(long memoryBudget) {
+		return (int) Math.max(2, Math.min(MAX_FAN_IN, memoryBudget / BUFFER_SIZE - 1));
+	}
+
+	/**
+	 * Merges groups of consecutive runs into temporary files until there are
+	 * no more than fanIn runs. The runs merged are deleted.
+	 * @param mergedRuns the files created are added to it
+	 * @return the runs left, in order
+	 */
+	private List<File> mergePasses(List<File> runs, int fanIn, int recordLength, DBFSortKey key, List<File> mergedRuns) throws IOException {
+		List<File> current = runs;
+		while (current.size() > fanIn) {
+			List<File> next = new ArrayList<>();
+			for (int i = 0; i < current.size(); i += fanIn) {
+				List<File> group = current.subList(i, Math.min(i + fanIn, current.size()));
+				if (group.size() == 1) {
+					next.add(group.get(0));
+					continue;
+				}
+				File run = File.createTempFile("javadbf-sort", ".run", this.tempDirectory);
+				mergedRuns.add(run);
+				try (OutputStream out = new BufferedOutputStream(new FileOutputStream(run), BUFFER_SIZE)) {
+					merge(group, recordLength, key, out);
+				}
+				for (File merged : group) {
+					merged.delete();
+				}
+				next.add(run);
+			}
+			current = next;
+		}
+		return current;
+	}
+
+	/**
+	 * Merges sorted runs. Ties are resolved by the order of the runs, to keep the sort stable.
+	 */
+	static void merge(List<File> runs, int recordLength, final DBFSortKey key, OutputStream out) throws IOException {
+		PriorityQueue<RunReader> queue = new PriorityQueue<>(runs.size(), new Comparator<RunReader>() {
+			@Override
+			public int compare(RunReader a, RunReader b) {
+				int result = DBFSortKey.compare(a.key, 0, b.key, 0, key.getLength());
+				return result != 0 ? result : a.index - b.index;
+			}
+		});
+		List<RunReader> readers = new ArrayList<>();
+		try {
+			for (int i = 0; i < runs.size(); i++) {
+				RunReader reader = new RunReader(runs.get(i), i, recordLength, key);
+				readers.add(reader);
+				if (reader.next()) {
+					queue.add(reader);
+				}
+			}
+			while (!queue.isEmpty()) {
+				RunReader reader = queue.poll();
+				out.write(reader.record);
+				if (reader.next()) {
+					queue.add(reader);
+				}
+			}
+		}
+		finally {
+			for (RunReader reader : readers) {
+				DBFUtils.close(reader.in);
+			}
+		}
+	}
+
+	private final class RunSorter implements Callable<File> {
+		private final byte[] data;
+		private final int count;
+		private final int recordLength;
+		private final DBFSortKey key;
+
+		RunSorter(byte[] data, int count, int recordLength, DBFSortKey key) {
+			this.data = data;
+			this.count = count;
+			this.recordLength = recordLength;
+			this.key = key;
+		}
+
+		@Override
+		public File call() throws IOException {
+			File run = File.createTempFile("javadbf-sort", ".run", DBFSorter.this.tempDirectory);
+			boolean done = false;
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(run), BUFFER_SIZE)) {
+				writeSorted(this.data, this.count, this.recordLength, this.key, out);
+				done = true;
+			}
+			finally {
+				if (!done) {
+					run.delete();
+				}
+			}
+			return run;
+		}
+	}
+
+	private static final class RunReader {
+		private final DataInputStream in;
+		private final int index;
+		private final DBFSortKey keyBuilder;
+		private final byte[] record;
+		private final byte[] key;
+
+		RunReader(File run, int index, int recordLength, DBFSortKey keyBuilder) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(run), BUFFER_SIZE));
+			this.index = index;
+			this.keyBuilder = keyBuilder;
+			this.record = new byte[recordLength];
+			this.key = new byte[keyBuilder.getLength()];
+		}
+
+		boolean next() throws IOException {
+			int read = 0;
+			while (read < this.record.length) {
+				int n = this.in.read(this.record, read, this.record.length - read);
+				if (n < 0) {
+					if (read == 0) {
+						return false;
+					}
+					throw new DBFException("Unexpected end of file");
+				}
+				read += n;
+			}
+			this.keyBuilder.extract(this.record, 0, this.key, 0);
+			return true;
+		}
+	}
+}
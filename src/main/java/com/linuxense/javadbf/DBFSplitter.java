@@ -0,0 +1,209 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Splits a dbf file in several files (shards) with the same structure.
+ *
+ * The source file is read once, sequentially, and the records are not decoded.
+ * Each shard gets the header of the source file with its own record count.
+ * <ul>
+ * <li>{@link #splitByRange(File, File[])} divides the records in consecutive
+ * ranges of the same size, copied with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.</li>
+ * <li>{@link #splitByHash(File, String, File[])} sends each record to the shard
+ * chosen by the hash of the raw bytes of a key field, so all the records with the
+ * same key end in the same shard. Records are read in chunks and written through a
+ * buffer per shard, so the memory used doesn't depend on the size of the file.</li>
+ * </ul>
+ * Deleted records are copied like the rest. Files with memo fields are rejected.
+ */
+public final class DBFSplitter {
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+	private static final int SHARD_BUFFER_SIZE = 64 * 1024;
+
+	private DBFSplitter() {
+		throw new AssertionError("No instances of this class are allowed");
+	}
+
+	/**
+	 * Splits a dbf file in consecutive ranges of records.
+	 * The first shards get one record more if the records can't be divided evenly.
+	 * Target files are overwritten if they exist.
+	 * @param dbfFile the file to split
+	 * @param targets the shards to create
+	 * @return the number of records of each shard
+	 */
+	public static int[] splitByRange(File dbfFile, File[] targets) {
+		DBFHeader header = readHeader(dbfFile, targets);
+		int[] counts = new int[targets.length];
+		for (int i = 0; i < targets.length; i++) {
+			counts[i] = header.numberOfRecords / targets.length + (i < header.numberOfRecords % targets.length ? 1 : 0);
+		}
+		try (FileChannel source = FileChannel.open(dbfFile.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer headerData = readHeaderData(source, header);
+			long position = header.headerLength;
+			for (int i = 0; i < targets.length; i++) {
+				try (FileChannel target = FileChannel.open(targets[i].toPath(), StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+					headerData.putInt(4, counts[i]);
+					headerData.rewind();
+					while (headerData.hasRemaining()) {
+						target.write(headerData);
+					}
+					long remaining = (long) counts[i] * header.recordLength;
+					while (remaining > 0) {
+						long transferred = source.transferTo(position, remaining, target);
+						if (transferred <= 0) {
+							throw new DBFException("Unexpected end of file");
+						}
+						position += transferred;
+						remaining -= transferred;
+					}
+					ByteBuffer end = ByteBuffer.allocate(1);
+					end.put((byte) DBFBase.END_OF_DATA);
+					end.flip();
+					target.write(end);
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		return counts;
+	}
+
+	/**
+	 * Splits a dbf file by the hash of a field.
+	 * The hash is computed from the bytes of the field as they are stored in the file.
+	 * Target files are overwritten if they exist.
+	 * @param dbfFile the file to split
+	 * @param fieldName name of the key field
+	 * @param targets the shards to create
+	 * @return the number of records of each shard
+	 */
+	public static int[] splitByHash(File dbfFile, String fieldName, File[] targets) {
+		DBFHeader header = readHeader(dbfFile, targets);
+		int recordLength = header.recordLength;
+		int keyOffset = 1;
+		int keyLength = -1;
+		for (DBFField field : header.fieldArray) {
+			if (field.getName().equalsIgnoreCase(fieldName)) {
+				keyLength = field.getLength();
+				break;
+			}
+			keyOffset += field.getLength();
+		}
+		if (keyLength < 0) {
+			throw new DBFException("Field " + fieldName + " does not exist");
+		}
+
+		int[] counts = new int[targets.length];
+		FileOutputStream[] files = new FileOutputStream[targets.length];
+		OutputStream[] outputs = new OutputStream[targets.length];
+		try (FileChannel source = FileChannel.open(dbfFile.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer headerData = readHeaderData(source, header);
+			for (int i = 0; i < targets.length; i++) {
+				files[i] = new FileOutputStream(targets[i]);
+				outputs[i] = new BufferedOutputStream(files[i], SHARD_BUFFER_SIZE);
+				outputs[i].write(headerData.array());
+			}
+
+			int chunkRecords = Math.max(1, BUFFER_SIZE / recordLength);
+			ByteBuffer chunk = ByteBuffer.allocate(chunkRecords * recordLength);
+			byte[] data = chunk.array();
+			long position = header.headerLength;
+			int record = 0;
+			while (record < header.numberOfRecords) {
+				int count = Math.min(chunkRecords, header.numberOfRecords - record);
+				chunk.clear();
+				chunk.limit(count * recordLength);
+				DBFUtils.readFully(source, chunk, position);
+				for (int i = 0; i < count; i++) {
+					int start = i * recordLength;
+					int hash = 1;
+					for (int j = start + keyOffset; j < start + keyOffset + keyLength; j++) {
+						hash = 31 * hash + data[j];
+					}
+					int shard = (hash & 0x7FFFFFFF) % targets.length;
+					outputs[shard].write(data, start, recordLength);
+					counts[shard]++;
+				}
+				position += (long) count * recordLength;
+				record += count;
+			}
+
+			ByteBuffer recordCount = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < targets.length; i++) {
+				outputs[i].write(DBFBase.END_OF_DATA);
+				outputs[i].flush();
+				recordCount.clear();
+				recordCount.putInt(counts[i]);
+				recordCount.flip();
+				files[i].getChannel().write(recordCount, 4);
+			}
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		finally {
+			for (int i = 0; i < targets.length; i++) {
+				DBFUtils.close(outputs[i] != null ? outputs[i] : files[i]);
+			}
+		}
+		return counts;
+	}
+
+	private static DBFHeader readHeader(File dbfFile, File[] targets) {
+		if (targets.length == 0) {
+			throw new DBFException("No target files");
+		}
+		DBFHeader header = DBFUtils.readHeader(dbfFile);
+		for (DBFField field : header.fieldArray) {
+			if (DBFMemoCompactor.isMemoPointer(field)) {
+				throw new DBFException("Cannot split files with memo fields");
+			}
+		}
+		return header;
+	}
+
+	/**
+	 * Reads the header of the source file, without the production index flag
+	 * (the index doesn't match the shards)
+	 */
+	private static ByteBuffer readHeaderData(FileChannel source, DBFHeader header) throws IOException {
+		ByteBuffer headerData = ByteBuffer.allocate(header.headerLength).order(ByteOrder.LITTLE_ENDIAN);
+		DBFUtils.readFully(source, headerData, 0);
+		headerData.put(28, (byte) 0);
+		headerData.flip();
+		return headerData;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+/**
+ * Stable merge sort of an array of indexes, without boxing them.
+ * Subclasses compare the elements the indexes point to.
+ */
+abstract class DBFStableSort {
+
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+
+	/**
+	 * Compares the elements of two indexes
+	 * @param a first index
+	 * @param b second index
+	 * @return a negative number, zero or a positive number if the first element is lower, equal or greater than the second
+	 */
+	abstract int compare(int a, int b);
+
+	/**
+	 * Sorts the first count indexes, keeping the order of the equal elements
+	 * @param order the indexes to sort
+	 * @param scratch array of at least count elements used while sorting
+	 * @param count number of indexes to sort
+	 */
+	void sort(int[] order, int[] scratch, int count) {
+		System.arraycopy(order, 0, scratch, 0, count);
+		mergeSort(scratch, order, 0, count);
+	}
+
+	/**
+	 * Sorts the range of dest, using src as scratch. Both arrays have the same
+	 * elements in the range when called.
+	 */
+	private void mergeSort(int[] src, int[] dest, int from, int to) {
+		if (to - from <= INSERTION_SORT_THRESHOLD) {
+			for (int i = from + 1; i < to; i++) {
+				int value = dest[i];
+				int j = i - 1;
+				while (j >= from && compare(dest[j], value) > 0) {
+					dest[j + 1] = dest[j];
+					j--;
+				}
+				dest[j + 1] = value;
+			}
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(dest, src, from, middle);
+		mergeSort(dest, src, middle, to);
+		if (compare(src[middle - 1], src[middle]) <= 0) {
+			// already in order
+			System.arraycopy(src, from, dest, from, to - from);
+			return;
+		}
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if (right >= to || (left < middle && compare(src[left], src[right]) <= 0)) {
+				dest[i] = src[left++];
+			}
+			else {
+				dest[i] = src[right++];
+			}
+		}
+	}
+}
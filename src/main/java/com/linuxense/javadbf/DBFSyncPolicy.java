@@ -0,0 +1,133 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+/**
+ * Defines when a {@link DBFWriter} appending records to a file writes the
+ * pending records and the record count of the header to the file.
+ *
+ * By default the header is only updated when the writer is closed (relaxed
+ * mode), so if the process crashes the header does not include the last
+ * records. With a policy that syncs every N records or every T milliseconds
+ * the header is rewritten periodically, and optionally the file is forced to
+ * the storage device.
+ *
+ * Instances are immutable.
+ */
+public final class DBFSyncPolicy {
+
+	/**
+	 * Only updates the header when the writer is closed
+	 */
+	public static final DBFSyncPolicy RELAXED = new DBFSyncPolicy(0, 0, false);
+
+	private final int recordInterval;
+	private final long timeInterval;
+	private final boolean force;
+
+	/**
+	 * Creates a sync policy
+	 * @param recordInterval sync after this number of records, 0 to ignore the number of records
+	 * @param timeInterval sync when a record is added and this number of milliseconds have
+	 *        passed since the last sync, 0 to ignore the time
+	 * @param force if the file should be forced to the storage device on every sync
+	 */
+	public DBFSyncPolicy(int recordInterval, long timeInterval, boolean force) {
+		if (recordInterval < 0) {
+			throw new IllegalArgumentException("Record interval should be a positive number");
+		}
+		if (timeInterval < 0) {
+			throw new IllegalArgumentException("Time interval should be a positive number");
+		}
+		this.recordInterval = recordInterval;
+		this.timeInterval = timeInterval;
+		this.force = force;
+	}
+
+	/**
+	 * Creates a policy that syncs every number of records, without forcing the file to disk
+	 * @param records number of records
+	 * @return the sync policy
+	 */
+	public static DBFSyncPolicy everyRecords(int records) {
+		if (records <= 0) {
+			throw new IllegalArgumentException("Record interval should be a positive number");
+		}
+		return new DBFSyncPolicy(records, 0, false);
+	}
+
+	/**
+	 * Creates a policy that syncs every number of milliseconds, without forcing the file to disk
+	 * @param millis number of milliseconds
+	 * @return the sync policy
+	 */
+	public static DBFSyncPolicy everyMillis(long millis) {
+		if (millis <= 0) {
+			throw new IllegalArgumentException("Time interval should be a positive number");
+		}
+		return new DBFSyncPolicy(0, millis, false);
+	}
+
+	/**
+	 * Creates a policy like this one that also forces the file to the storage device on every sync
+	 * @return the sync policy
+	 */
+	public DBFSyncPolicy withForce() {
+		return new DBFSyncPolicy(this.recordInterval, this.timeInterval, true);
+	}
+
+	/**
+	 * Gets the number of records between syncs
+	 * @return the number of records, 0 if not used
+	 */
+	public int getRecordInterval() {
+		return this.recordInterval;
+	}
+
+	/**
+	 * Gets the number of milliseconds between syncs
+	 * @return the number of milliseconds, 0 if not used
+	 */
+	public long getTimeInterval() {
+		return this.timeInterval;
+	}
+
+	/**
+	 * Checks if the file is forced to the storage device on every sync
+	 * @return true if the file is forced
+	 */
+	public boolean isForce() {
+		return this.force;
+	}
+
+	/**
+	 * Checks if this policy never syncs before close
+	 * @return true if the header is only updated on close
+	 */
+	public boolean isRelaxed() {
+		return this.recordInterval == 0 && this.timeInterval == 0;
+	}
+
+	@Override
+	public String toString() {
+		return "DBFSyncPolicy [recordInterval=" + this.recordInterval + ", timeInterval=" + this.timeInterval
+				+ ", force=" + this.force + "]";
+	}
+}
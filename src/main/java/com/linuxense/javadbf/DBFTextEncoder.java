@@ -0,0 +1,127 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * Encodes text into fixed length fields.
+ *
+ * The text is encoded once directly into the field, stopping when the field is
+ * full without splitting multibyte characters, and the rest of the field is
+ * padded in place. Malformed or unmappable characters are replaced, as
+ * String.getBytes does.
+ *
+ * Instances are not thread safe.
+ */
+final class DBFTextEncoder {
+
+	private final CharsetEncoder encoder;
+	private char[] chars = new char[256];
+	private CharBuffer charBuffer = CharBuffer.wrap(this.chars);
+	private byte[] lastDest;
+	private ByteBuffer byteBuffer;
+	private boolean truncated = false;
+
+	DBFTextEncoder(Charset charset) {
+		this.encoder = charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Writes text to a field, truncating it if it doesn't fit.
+	 * @param text the text to write
+	 * @param dest array to write the field to
+	 * @param offset position of dest where the field starts
+	 * @param length length of the field
+	 * @param alignment alignment of the text inside the field
+	 * @param paddingByte byte used to fill the rest of the field
+	 * @return number of bytes of text written, without the padding
+	 */
+	int write(CharSequence text, byte[] dest, int offset, int length, DBFAlignment alignment, byte paddingByte) {
+		CharBuffer in = wrap(text);
+		ByteBuffer out = wrap(dest, offset, length);
+		this.encoder.reset();
+		this.encoder.encode(in, out, true);
+		this.encoder.flush(out);
+		this.truncated = in.hasRemaining();
+		int written = out.position() - offset;
+
+		if (alignment == DBFAlignment.RIGHT && written < length) {
+			int padding = length - written;
+			System.arraycopy(dest, offset, dest, offset + padding, written);
+			Arrays.fill(dest, offset, offset + padding, paddingByte);
+		}
+		else {
+			Arrays.fill(dest, offset + written, offset + length, paddingByte);
+		}
+		return written;
+	}
+
+	/**
+	 * Checks if the text of the last write didn't fit in the field
+	 * @return true if the last text was truncated
+	 */
+	boolean isTruncated() {
+		return this.truncated;
+	}
+
+	private CharBuffer wrap(CharSequence text) {
+		int size = text.length();
+		if (size > this.chars.length) {
+			this.chars = new char[Math.max(size, this.chars.length * 2)];
+			this.charBuffer = CharBuffer.wrap(this.chars);
+		}
+		if (text instanceof String) {
+			((String) text).getChars(0, size, this.chars, 0);
+		}
+		else if (text instanceof StringBuilder) {
+			((StringBuilder) text).getChars(0, size, this.chars, 0);
+		}
+		else if (text instanceof CharBuffer) {
+			((CharBuffer) text).duplicate().get(this.chars, 0, size);
+		}
+		else {
+			for (int i = 0; i < size; i++) {
+				this.chars[i] = text.charAt(i);
+			}
+		}
+		this.charBuffer.clear();
+		this.charBuffer.limit(size);
+		return this.charBuffer;
+	}
+
+	private ByteBuffer wrap(byte[] dest, int offset, int length) {
+		if (dest != this.lastDest) {
+			this.lastDest = dest;
+			this.byteBuffer = ByteBuffer.wrap(dest);
+		}
+		this.byteBuffer.clear();
+		this.byteBuffer.position(offset);
+		this.byteBuffer.limit(offset + length);
+		return this.byteBuffer;
+	}
+}
@@ -0,0 +1,345 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * Converts the text of a dbf file to another charset.
+ *
+ * The structure of the file is kept. Only the character (C) and varchar (V)
+ * fields, and the memo (M) entries, are decoded and encoded again; the rest
+ * of the fields are copied byte for byte. The language driver of the header is
+ * set to the code of the new charset (0 if it has no code, as UTF-8).
+ *
+ * Text that doesn't fit in its field after encoding it with the new charset is
+ * truncated without splitting characters, or rejected, depending on the
+ * {@link Overflow} policy. Field names are not converted.
+ *
+ * Instances reuse their buffers, so they are not thread safe.
+ */
+public final class DBFTranscoder {
+
+	/**
+	 * What to do when a text doesn't fit in its field
+	 */
+	public enum Overflow {
+		/**
+		 * Truncate the text
+		 */
+		TRUNCATE,
+		/**
+		 * Stop with a DBFException
+		 */
+		FAIL
+	}
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Charset sourceCharset;
+	private final Charset targetCharset;
+	private final Overflow overflow;
+	private final DBFTextEncoder encoder;
+	private final CharsetEncoder memoEncoder;
+	private CharsetDecoder decoder;
+	private CharBuffer chars = CharBuffer.allocate(256);
+	private ByteBuffer memoBytes = ByteBuffer.allocate(1024);
+	private int truncatedValues = 0;
+
+	/**
+	 * Creates a transcoder
+	 * @param sourceCharset charset of the source files, null to use the one of their header
+	 * @param targetCharset charset of the new files
+	 * @param overflow what to do when a text doesn't fit in its field
+	 */
+	public DBFTranscoder(Charset sourceCharset, Charset targetCharset, Overflow overflow) {
+		if (targetCharset == null) {
+			throw new IllegalArgumentException("Target charset cannot be null");
+		}
+		if (overflow == null) {
+			throw new IllegalArgumentException("Overflow policy cannot be null");
+		}
+		this.sourceCharset = sourceCharset;
+		this.targetCharset = targetCharset;
+		this.overflow = overflow;
+		this.encoder = new DBFTextEncoder(targetCharset);
+		this.memoEncoder = targetCharset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Converts a dbf file without memo fields.
+	 * The target file is overwritten if it exists.
+	 * @param dbfFile the source file
+	 * @param targetDbfFile the file to create
+	 * @return the number of records
+	 */
+	public int transcode(File dbfFile, File targetDbfFile) {
+		DBFHeader header = DBFUtils.readHeader(dbfFile, this.sourceCharset);
+		for (DBFField field : header.fieldArray) {
+			if (DBFMemoCompactor.isMemoPointer(field)) {
+				throw new DBFException("The file has memo fields, the memo file should be transcoded too");
+			}
+		}
+		return transcodeRecords(dbfFile, header, targetDbfFile);
+	}
+
+	/**
+	 * Converts a dbf file and its memo file.
+	 * Target files are overwritten if they exist.
+	 * @param dbfFile the source file
+	 * @param memoFile the source memo file (DBT or FPT)
+	 * @param targetDbfFile the file to create
+	 * @param targetMemoFile the memo file to create
+	 * @return the number of records
+	 */
+	public int transcode(File dbfFile, File memoFile, File targetDbfFile, File targetMemoFile) {
+		DBFHeader header = DBFUtils.readHeader(dbfFile, this.sourceCharset);
+		File temp;
+		try {
+			temp = File.createTempFile("javadbf-transcode", ".dbf", targetDbfFile.getAbsoluteFile().getParentFile());
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		try {
+			// also sets the decoder used for the memo entries
+			int records = transcodeRecords(dbfFile, header, temp);
+			DBFMemoCompactor.compact(temp, memoFile, targetDbfFile, targetMemoFile, false, false,
+					new DBFMemoCompactor.MemoTextTransformer() {
+						@Override
+						public byte[] transform(byte[] text) {
+							return transcodeMemo(text);
+						}
+					});
+			return records;
+		}
+		finally {
+			temp.delete();
+		}
+	}
+
+	/**
+	 * Gets the number of values truncated because they didn't fit in their fields
+	 * @return the number of truncated values
+	 */
+	public int getTruncatedValues() {
+		return this.truncatedValues;
+	}
+
+	private int transcodeRecords(File dbfFile, DBFHeader header, File targetDbfFile) {
+		this.decoder = header.getUsedCharset().newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		TextField[] textFields = getTextFields(header.fieldArray);
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(dbfFile), BUFFER_SIZE));
+				OutputStream out = new BufferedOutputStream(new FileOutputStream(targetDbfFile), BUFFER_SIZE)) {
+			byte[] headerData = new byte[header.headerLength];
+			in.readFully(headerData);
+			headerData[29] = (byte) DBFCharsetHelper.getDBFCodeForCharset(this.targetCharset);
+			out.write(headerData);
+
+			byte[] record = new byte[header.recordLength];
+			byte[] target = new byte[header.recordLength];
+			for (int i = 0; i < header.numberOfRecords; i++) {
+				in.readFully(record);
+				System.arraycopy(record, 0, target, 0, record.length);
+				for (TextField field : textFields) {
+					if (field.varLengthBit < 0) {
+						transcodeCharacter(record, target, field, i);
+					}
+					else {
+						transcodeVarchar(record, target, field, i);
+					}
+				}
+				out.write(target);
+			}
+			out.write(DBFBase.END_OF_DATA);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		return header.numberOfRecords;
+	}
+
+	private void transcodeCharacter(byte[] record, byte[] target, TextField field, int row) {
+		int length = field.length;
+		while (length > 0 && record[field.offset + length - 1] == ' ') {
+			length--;
+		}
+		CharBuffer text = decode(record, field.offset, length);
+		this.encoder.write(text, target, field.offset, field.length, DBFAlignment.LEFT, (byte) ' ');
+		checkOverflow(field, row);
+	}
+
+	private void transcodeVarchar(byte[] record, byte[] target, TextField field, int row) {
+		boolean full = isBitSet(record, field.nullFlagsOffset, field.varLengthBit);
+		int length = full ? field.length : Math.min(record[field.offset + field.length - 1] & 0xFF, field.length - 1);
+		CharBuffer text = decode(record, field.offset, length);
+		int written = this.encoder.write(text, target, field.offset, field.length, DBFAlignment.LEFT, (byte) 0);
+		checkOverflow(field, row);
+		if (written == field.length) {
+			setBit(target, field.nullFlagsOffset, field.varLengthBit, true);
+		}
+		else {
+			target[field.offset + field.length - 1] = (byte) written;
+			setBit(target, field.nullFlagsOffset, field.varLengthBit, false);
+		}
+	}
+
+	/**
+	 * Converts the text of a memo entry. Memo entries have no fixed length, so
+	 * the buffer grows until the text fits and it is never truncated.
+	 */
+	private byte[] transcodeMemo(byte[] text) {
+		CharBuffer in = decode(text, 0, text.length);
+		int capacity = (int) Math.ceil(in.remaining() * (double) this.memoEncoder.maxBytesPerChar());
+		if (this.memoBytes.capacity() < capacity) {
+			this.memoBytes = ByteBuffer.allocate(capacity);
+		}
+		this.memoBytes.clear();
+		this.memoEncoder.reset();
+		CoderResult result = this.memoEncoder.encode(in, this.memoBytes, true);
+		while (result.isOverflow()) {
+			growMemoBytes();
+			result = this.memoEncoder.encode(in, this.memoBytes, true);
+		}
+		result = this.memoEncoder.flush(this.memoBytes);
+		while (result.isOverflow()) {
+			growMemoBytes();
+			result = this.memoEncoder.flush(this.memoBytes);
+		}
+		return Arrays.copyOf(this.memoBytes.array(), this.memoBytes.position());
+	}
+
+	private void growMemoBytes() {
+		ByteBuffer bigger = ByteBuffer.allocate(this.memoBytes.capacity() * 2);
+		this.memoBytes.flip();
+		bigger.put(this.memoBytes);
+		this.memoBytes = bigger;
+	}
+
+	private CharBuffer decode(byte[] data, int offset, int length) {
+		int capacity = (int) Math.ceil(length * (double) this.decoder.maxCharsPerByte());
+		if (this.chars.capacity() < capacity) {
+			this.chars = CharBuffer.allocate(Math.max(capacity, this.chars.capacity() * 2));
+		}
+		this.chars.clear();
+		this.decoder.reset();
+		this.decoder.decode(ByteBuffer.wrap(data, offset, length), this.chars, true);
+		this.decoder.flush(this.chars);
+		this.chars.flip();
+		return this.chars;
+	}
+
+	private void checkOverflow(TextField field, int row) {
+		if (this.encoder.isTruncated()) {
+			if (this.overflow == Overflow.FAIL) {
+				throw new DBFException("Value of field " + field.name + " of record " + row + " doesn't fit in "
+						+ field.length + " bytes with charset " + this.targetCharset);
+			}
+			this.truncatedValues++;
+		}
+	}
+
+	private static boolean isBitSet(byte[] record, int offset, int bit) {
+		return (record[offset + bit / 8] & (1 << (bit % 8))) != 0;
+	}
+
+	private static void setBit(byte[] record, int offset, int bit, boolean value) {
+		if (value) {
+			record[offset + bit / 8] |= (byte) (1 << (bit % 8));
+		}
+		else {
+			record[offset + bit / 8] &= (byte) ~(1 << (bit % 8));
+		}
+	}
+
+	/**
+	 * Finds the text fields, and the bits of the null flags with the length of the varchar fields
+	 */
+	private static TextField[] getTextFields(DBFField[] fields) {
+		int nullFlagsOffset = -1;
+		int offset = 1;
+		for (DBFField field : fields) {
+			if (field.getType() == DBFDataType.NULL_FLAGS) {
+				nullFlagsOffset = offset;
+			}
+			offset += field.getLength();
+		}
+
+		TextField[] textFields = new TextField[fields.length];
+		int count = 0;
+		int bit = -1;
+		offset = 1;
+		for (DBFField field : fields) {
+			if (field.isNullable()) {
+				bit++;
+			}
+			if (field.getType() == DBFDataType.VARCHAR || field.getType() == DBFDataType.VARBINARY) {
+				bit++;
+				if (field.getType() == DBFDataType.VARCHAR) {
+					if (nullFlagsOffset < 0) {
+						throw new DBFException("Varchar field " + field.getName() + " without null flags field");
+					}
+					textFields[count++] = new TextField(field.getName(), offset, field.getLength(), nullFlagsOffset, bit);
+				}
+			}
+			else if (field.getType() == DBFDataType.CHARACTER) {
+				textFields[count++] = new TextField(field.getName(), offset, field.getLength(), -1, -1);
+			}
+			offset += field.getLength();
+		}
+		return Arrays.copyOf(textFields, count);
+	}
+
+	private static final class TextField {
+		private final String name;
+		private final int offset;
+		private final int length;
+		private final int nullFlagsOffset;
+		private final int varLengthBit;
+
+		TextField(String name, int offset, int length, int nullFlagsOffset, int varLengthBit) {
+			this.name = name;
+			this.offset = offset;
+			this.length = length;
+			this.nullFlagsOffset = nullFlagsOffset;
+			this.varLengthBit = varLengthBit;
+		}
+	}
+}
@@ -0,0 +1,208 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Rollback journal of the updates done by {@link DBFUpdater}.
+ *
+ * Before a batch of updates is written to the dbf file, the previous contents
+ * of the modified byte ranges are written to a sidecar file, which is forced
+ * to disk once per batch. When the batch has been written (and forced) the
+ * journal is truncated, and the truncation is forced too: a committed batch
+ * must not be rolled back after a crash. If a complete journal is found when the file is opened
+ * again, the batch was interrupted and the previous contents are restored. An
+ * incomplete journal means the dbf file was not modified yet and it is discarded.
+ *
+ * Journal format: magic, number of ranges, length of the ranges section, the
+ * ranges (position, length and previous bytes) and a CRC32 of all the previous data.
+ */
+final class DBFUpdateJournal implements java.io.Closeable {
+
+	private static final int MAGIC = 0x44424a31; // DBJ1
+	private static final int HEADER_SIZE = 16;
+
+	private final File journalFile;
+	private final FileChannel channel;
+	private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+	DBFUpdateJournal(File journalFile) throws IOException {
+		this.journalFile = journalFile;
+		boolean created = !journalFile.exists();
+		this.channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		if (created) {
+			// the entry of the journal must survive a crash, or the batches written later couldn't be restored
+			DBFUtils.syncDirectory(journalFile.getAbsoluteFile().getParentFile());
+		}
+	}
+
+	/**
+	 * Gets the journal file used for a dbf file
+	 * @param dbfFile the dbf file
+	 * @return the journal file
+	 */
+	static File getJournalFile(File dbfFile) {
+		return new File(dbfFile.getPath() + "-journal");
+	}
+
+	/**
+	 * Saves the current contents of the ranges that will be updated, and forces the journal to disk
+	 * @param data channel of the dbf file
+	 * @param positions position of each range
+	 * @param lengths length of each range
+	 * @param count number of ranges
+	 * @throws IOException if some IO error happens
+	 */
+	void begin(FileChannel data, long[] positions, int[] lengths, int count) throws IOException {
+		long rangesSize = 0;
+		for (int i = 0; i < count; i++) {
+			rangesSize += 12 + lengths[i];
+		}
+		long total = HEADER_SIZE + rangesSize + 8;
+		if (total > Integer.MAX_VALUE) {
+			throw new DBFException("Batch too big for the journal: " + total + " bytes");
+		}
+		if (this.buffer.capacity() < total) {
+			this.buffer = ByteBuffer.allocate((int) total);
+		}
+		ByteBuffer journal = this.buffer;
+		journal.clear();
+		journal.putInt(MAGIC);
+		journal.putInt(count);
+		journal.putLong(rangesSize);
+		for (int i = 0; i < count; i++) {
+			journal.putLong(positions[i]);
+			journal.putInt(lengths[i]);
+			ByteBuffer range = journal.slice();
+			range.limit(lengths[i]);
+			DBFUtils.readFully(data, range, positions[i]);
+			journal.position(journal.position() + lengths[i]);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(journal.array(), 0, journal.position());
+		journal.putLong(crc.getValue());
+		journal.flip();
+
+		this.channel.truncate(0);
+		while (journal.hasRemaining()) {
+			this.channel.write(journal, journal.position());
+		}
+		this.channel.force(false);
+	}
+
+	/**
+	 * Marks the current batch as written, and forces the journal to disk
+	 * @throws IOException if some IO error happens
+	 */
+	void commit() throws IOException {
+		this.channel.truncate(0);
+		// the size is metadata of the file
+		this.channel.force(true);
+	}
+
+	/**
+	 * Restores the contents saved by the last batch not committed
+	 * @param data channel of the dbf file
+	 * @return the number of ranges restored
+	 * @throws IOException if some IO error happens
+	 */
+	int rollback(FileChannel data) throws IOException {
+		int restored = restore(this.channel, data);
+		data.force(false);
+		commit();
+		return restored;
+	}
+
+	/**
+	 * Restores a dbf file from the journal left by an interrupted batch, if any, and deletes the journal.
+	 * @param journalFile the journal
+	 * @param data channel of the dbf file
+	 * @return the number of ranges restored, 0 if the journal was empty or incomplete
+	 * @throws IOException if some IO error happens
+	 */
+	static int recover(File journalFile, FileChannel data) throws IOException {
+		if (!journalFile.exists()) {
+			return 0;
+		}
+		int restored;
+		try (FileChannel journal = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ)) {
+			restored = restore(journal, data);
+		}
+		if (restored > 0) {
+			data.force(false);
+		}
+		if (!journalFile.delete()) {
+			throw new IOException("Cannot delete journal file " + journalFile);
+		}
+		DBFUtils.syncDirectory(journalFile.getAbsoluteFile().getParentFile());
+		return restored;
+	}
+
+	private static int restore(FileChannel journal, FileChannel data) throws IOException {
+		long size = journal.size();
+		if (size < HEADER_SIZE + 8 || size > Integer.MAX_VALUE) {
+			return 0;
+		}
+		ByteBuffer contents = ByteBuffer.allocate((int) size);
+		DBFUtils.readFully(journal, contents, 0);
+		contents.flip();
+		int count = contents.getInt(4);
+		long rangesSize = contents.getLong(8);
+		if (contents.getInt(0) != MAGIC || count < 0 || rangesSize != size - HEADER_SIZE - 8) {
+			return 0;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(contents.array(), 0, (int) size - 8);
+		if (crc.getValue() != contents.getLong((int) size - 8)) {
+			return 0;
+		}
+		contents.position(HEADER_SIZE);
+		for (int i = 0; i < count; i++) {
+			long position = contents.getLong();
+			int length = contents.getInt();
+			ByteBuffer range = contents.slice();
+			range.limit(length);
+			while (range.hasRemaining()) {
+				data.write(range, position + range.position());
+			}
+			contents.position(contents.position() + length);
+		}
+		return count;
+	}
+
+	/**
+	 * Closes the journal, and deletes it if there is no batch to restore
+	 */
+	@Override
+	public void close() throws IOException {
+		boolean empty = this.channel.size() == 0;
+		this.channel.close();
+		if (empty && !this.journalFile.delete()) {
+			throw new IOException("Cannot delete journal file " + this.journalFile);
+		}
+	}
+}
@@ -0,0 +1,606 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+
+package com.linuxense.javadbf;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Updates the values of existing records of a dbf file in place.
+ *
+ * The file is kept open while the updater is open. Updates are encoded when
+ * added and kept in memory until {@link #flush()} is called (or the number of
+ * pending updates reaches the limit); then they are sorted by their position
+ * in the file and adjacent fields are written together.
+ *
+ * When the same field is updated several times before a flush, the last value is written.
+ * Records are deleted (and restored) in the same way, writing only their deleted flag.
+ *
+ * With a journal, each flush is atomic: the previous contents of the updated
+ * fields are saved in a sidecar file (the dbf file name followed by
+ * "-journal") before writing them, and restored when the file is opened again
+ * if the flush was interrupted. Files are always recovered on open, even if the
+ * updater does not use a journal.
+ *
+ * The file is locked while the updater is open, so it can't be opened by
+ * other updater (of this or other process) until it is closed.
+ */
+public class DBFUpdater extends DBFBase implements java.io.Closeable {
+
+	private static final int DEFAULT_MAX_PENDING_UPDATES = 65536;
+	private static final int BUFFER_SIZE = 1024 * 1024;
+
+	private final File dbfFile;
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+	private final DBFHeader header;
+	private final DBFRecordEncoder encoder;
+	private final Map<String, Integer> columns = new HashMap<>();
+	private final long dataStart;
+	private final int recordLength;
+	private final int maxPendingUpdates;
+	private final DBFUpdateJournal journal;
+
+	// pending updates: position in the file and position of the encoded value in pendingData
+	private long[] pendingPositions = new long[64];
+	private int[] pendingOffsets = new int[64];
+	private int[] pendingLengths = new int[64];
+	private byte[] pendingData = new byte[4096];
+	private int pendingCount = 0;
+	private int pendingDataSize = 0;
+
+	// runs of adjacent updates, built on flush
+	private long[] runPositions = new long[64];
+	private int[] runOffsets = new int[64];
+	private int[] runLengths = new int[64];
+	private byte[] runData = new byte[4096];
+	private int runCount = 0;
+	// indexes of the pending updates sorted by position
+	private int[] order = new int[0];
+	private int[] orderScratch = new int[0];
+	private final DBFStableSort byPosition = new DBFStableSort() {
+		@Override
+		int compare(int a, int b) {
+			return Long.compare(DBFUpdater.this.pendingPositions[a], DBFUpdater.this.pendingPositions[b]);
+		}
+	};
+
+	private long writeCount = 0;
+	private boolean closed = false;
+
+	/**
+	 * Opens a dbf file to update its records, using the charset of the header
+	 * (or iso-8859-1 if it is not set).
+	 * @param dbfFile the file
+	 */
+	public DBFUpdater(File dbfFile) {
+		this(dbfFile, null);
+	}
+
+	/**
+	 * Opens a dbf file to update its records
+	 * @param dbfFile the file
+	 * @param charset the charset to use, null to use the one of the header
+	 */
+	public DBFUpdater(File dbfFile, Charset charset) {
+		this(dbfFile, charset, DEFAULT_MAX_PENDING_UPDATES);
+	}
+
+	/**
+	 * Opens a dbf file to update its records
+	 * @param dbfFile the file
+	 * @param charset the charset to use, null to use the one of the header
+	 * @param maxPendingUpdates number of updates kept in memory before writing them to the file
+	 */
+	public DBFUpdater(File dbfFile, Charset charset, int maxPendingUpdates) {
+		this(dbfFile, charset, maxPendingUpdates, false);
+	}
+
+	/**
+	 * Opens a dbf file to update its records
+	 * @param dbfFile the file
+	 * @param charset the charset to use, null to use the one of the header
+	 * @param maxPendingUpdates number of updates kept in memory before writing them to the file
+	 * @param useJournal if the updates are written to a journal first, so each flush is atomic
+	 */
+	@SuppressWarnings("deprecation") // setCharset is the way subclasses of DBFBase set the charset
+	public DBFUpdater(File dbfFile, Charset charset, int maxPendingUpdates, boolean useJournal) {
+		super();
+		if (maxPendingUpdates <= 0) {
+			throw new IllegalArgumentException("Max pending updates must be a positive number");
+		}
+		this.dbfFile = dbfFile;
+		try {
+			this.raf = new RandomAccessFile(dbfFile, "rw");
+		}
+		catch (FileNotFoundException e) {
+			throw new DBFException("Specified file is not found. " + e.getMessage(), e);
+		}
+		File journalFile = DBFUpdateJournal.getJournalFile(dbfFile);
+		try {
+			// exclusive use of the file, before recovering an interrupted flush
+			if (!tryLock(this.raf.getChannel())) {
+				throw new DBFException("The file " + dbfFile + " is already being updated");
+			}
+			DBFUpdateJournal.recover(journalFile, this.raf.getChannel());
+			this.header = new DBFHeader();
+			this.header.read(this.raf, charset, false);
+			this.journal = useJournal ? new DBFUpdateJournal(journalFile) : null;
+		}
+		catch (IOException e) {
+			DBFUtils.close(this.raf);
+			throw new DBFException(e.getMessage() + " while opening file", e);
+		}
+		catch (RuntimeException e) {
+			DBFUtils.close(this.raf);
+			throw e;
+		}
+		setCharset(this.header.getUsedCharset());
+		this.channel = this.raf.getChannel();
+		this.encoder = new DBFRecordEncoder(this.header.fieldArray, getCharset());
+		this.dataStart = this.header.headerLength;
+		this.recordLength = this.header.recordLength;
+		this.maxPendingUpdates = maxPendingUpdates;
+		for (int i = 0; i < this.header.fieldArray.length; i++) {
+			String name = this.header.fieldArray[i].getName().toLowerCase();
+			if (!this.columns.containsKey(name)) {
+				this.columns.put(name, i);
+			}
+		}
+	}
+
+	/**
+	 * Gets the index of a column
+	 * @param columnName name of the column, case insensitive
+	 * @return the index of the column
+	 * @throws DBFException if there is no column with that name
+	 */
+	public int getColumnIndex(String columnName) {
+		if (columnName == null) {
+			throw new DBFException("Column name cannot be null");
+		}
+		Integer index = this.columns.get(columnName.toLowerCase());
+		if (index == null) {
+			throw new DBFException("Column " + columnName + " not found");
+		}
+		return index;
+	}
+
+	/**
+	 * Updates the value of a field
+	 * @param row index of the record, starting at 0
+	 * @param columnName name of the column, case insensitive
+	 * @param value the new value
+	 */
+	public void update(int row, String columnName, Object value) {
+		update(row, getColumnIndex(columnName), value);
+	}
+
+	/**
+	 * Updates the value of a field
+	 * @param row index of the record, starting at 0
+	 * @param column index of the column, starting at 0
+	 * @param value the new value
+	 */
+	public void update(int row, int column, Object value) {
+		checkRow(row);
+		if (column < 0 || column >= this.header.fieldArray.length) {
+			throw new DBFException("Invalid column " + column);
+		}
+		this.encoder.validateField(column, value);
+
+		int length = this.header.fieldArray[column].getLength();
+		int offset = addPending(this.dataStart + (long) row * this.recordLength + this.encoder.getOffset(column), length);
+		this.encoder.encodeField(column, value, this.pendingData, offset);
+		flushIfNeeded();
+	}
+
+	/**
+	 * Marks a record as deleted
+	 * @param row index of the record, starting at 0
+	 */
+	public void delete(int row) {
+		setDeletedFlag(row, (byte) '*');
+	}
+
+	/**
+	 * Restores a deleted record
+	 * @param row index of the record, starting at 0
+	 */
+	public void undelete(int row) {
+		setDeletedFlag(row, (byte) ' ');
+	}
+
+	/**
+	 * Marks as deleted the records accepted by a filter of their raw bytes.
+	 * The records are read in large chunks and are not decoded; only the
+	 * deleted flag of the selected ones is written. The pending updates are
+	 * written before reading the records. Records already deleted are not
+	 * passed to the filter.
+	 * @param filter the filter
+	 * @return the number of records deleted
+	 */
+	public int deleteWhere(DBFRecordFilter filter) {
+		if (this.closed) {
+			throw new IllegalStateException("You can update records a closed DBFUpdater");
+		}
+		flush();
+		int chunkRecords = Math.max(1, BUFFER_SIZE / this.recordLength);
+		ByteBuffer chunk = ByteBuffer.allocate(chunkRecords * this.recordLength);
+		byte[] data = chunk.array();
+		int deleted = 0;
+		int row = 0;
+		try {
+			while (row < this.header.numberOfRecords) {
+				int count = Math.min(chunkRecords, this.header.numberOfRecords - row);
+				chunk.clear();
+				chunk.limit(count * this.recordLength);
+				DBFUtils.readFully(this.channel, chunk, this.dataStart + (long) row * this.recordLength);
+				for (int i = 0; i < count; i++) {
+					int offset = i * this.recordLength;
+					if (data[offset] != '*' && filter.accept(data, offset)) {
+						delete(row + i);
+						deleted++;
+					}
+				}
+				row += count;
+			}
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		return deleted;
+	}
+
+	/**
+	 * Creates a filter of the records with a value in a field, comparing the
+	 * value encoded as it is written with the bytes stored in the file.
+	 * To be used with {@link #deleteWhere(DBFRecordFilter)}.
+	 * @param columnName name of the column
+	 * @param value the value
+	 * @return the filter
+	 */
+	public DBFRecordFilter fieldEquals(String columnName, Object value) {
+		int column = getColumnIndex(columnName);
+		this.encoder.validateField(column, value);
+		final byte[] key = new byte[this.header.fieldArray[column].getLength()];
+		this.encoder.encodeField(column, value, key, 0);
+		final int fieldOffset = this.encoder.getOffset(column);
+		return new DBFRecordFilter() {
+			@Override
+			public boolean accept(byte[] data, int offset) {
+				for (int i = 0; i < key.length; i++) {
+					if (data[offset + fieldOffset + i] != key[i]) {
+						return false;
+					}
+				}
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Gets the position of a field in a record, as passed to a {@link DBFRecordFilter}
+	 * (the deleted flag is at 0)
+	 * @param columnName name of the column
+	 * @return the position of the field
+	 */
+	public int getFieldOffset(String columnName) {
+		return this.encoder.getOffset(getColumnIndex(columnName));
+	}
+
+	/**
+	 * Marks as deleted the records accepted by a filter.
+	 * Every record not deleted is read and decoded to pass it to the filter, so
+	 * {@link #deleteWhere(DBFRecordFilter)} is faster for big files.
+	 * The pending updates are written before reading the records. Records already
+	 * deleted are not passed to the filter, and memo fields are not read.
+	 * @param filter the filter
+	 * @return the number of records deleted
+	 */
+	public int deleteWhere(DBFRowFilter filter) {
+		if (this.closed) {
+			throw new IllegalStateException("You can update records a closed DBFUpdater");
+		}
+		flush();
+		DBFReader reader = null;
+		int deleted = 0;
+		try {
+			reader = new DBFReader(new BufferedInputStream(new FileInputStream(this.dbfFile), 64 * 1024), getCharset(), true);
+			for (int row = 0; row < this.header.numberOfRecords; row++) {
+				DBFRow record = reader.nextRow();
+				if (record == null) {
+					break;
+				}
+				if (!record.isDeleted() && filter.accept(record)) {
+					delete(row);
+					deleted++;
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+		return deleted;
+	}
+
+	/**
+	 * Checks if a record is deleted, reading the file (pending updates are not written first)
+	 * @param row index of the record, starting at 0
+	 * @return true if the record is deleted
+	 */
+	public boolean isDeleted(int row) {
+		checkRow(row);
+		ByteBuffer flag = ByteBuffer.allocate(1);
+		try {
+			if (this.channel.read(flag, this.dataStart + (long) row * this.recordLength) != 1) {
+				throw new DBFException("Unexpected end of file");
+			}
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		return flag.get(0) == '*';
+	}
+
+	private void setDeletedFlag(int row, byte flag) {
+		checkRow(row);
+		int offset = addPending(this.dataStart + (long) row * this.recordLength, 1);
+		this.pendingData[offset] = flag;
+		flushIfNeeded();
+	}
+
+	private void checkRow(int row) {
+		if (this.closed) {
+			throw new IllegalStateException("You can update records a closed DBFUpdater");
+		}
+		if (row < 0 || row >= this.header.numberOfRecords) {
+			throw new DBFException("Invalid row " + row + ". Valid range is 0 to " + (this.header.numberOfRecords - 1));
+		}
+	}
+
+	/**
+	 * Adds a pending update
+	 * @param position position in the file
+	 * @param length length of the data
+	 * @return the position of pendingData where the data should be written
+	 */
+	private int addPending(long position, int length) {
+		ensurePendingCapacity(length);
+		int offset = this.pendingDataSize;
+		this.pendingPositions[this.pendingCount] = position;
+		this.pendingOffsets[this.pendingCount] = offset;
+		this.pendingLengths[this.pendingCount] = length;
+		this.pendingCount++;
+		this.pendingDataSize += length;
+		return offset;
+	}
+
+	private void flushIfNeeded() {
+		if (this.pendingCount >= this.maxPendingUpdates) {
+			flush();
+		}
+	}
+
+	/**
+	 * Gets the number of updates not written to the file yet
+	 * @return the number of pending updates
+	 */
+	public int getPendingUpdates() {
+		return this.pendingCount;
+	}
+
+	/**
+	 * Gets the number of writes done to the file. Adjacent updates are written together.
+	 * @return the number of writes
+	 */
+	public long getWriteCount() {
+		return this.writeCount;
+	}
+
+	/**
+	 * Gets the number of records of the file
+	 * @return the number of records
+	 */
+	public int getRecordCount() {
+		return this.header.numberOfRecords;
+	}
+
+	/**
+	 * Writes the pending updates to the file
+	 */
+	public void flush() {
+		if (this.pendingCount == 0) {
+			return;
+		}
+		try {
+			buildRuns();
+			if (this.journal == null) {
+				writeRuns();
+				return;
+			}
+			this.journal.begin(this.channel, this.runPositions, this.runLengths, this.runCount);
+			try {
+				writeRuns();
+				this.channel.force(false);
+			}
+			catch (IOException e) {
+				rollback();
+				throw e;
+			}
+			this.journal.commit();
+		}
+		catch (IOException e) {
+			throw new DBFException("Error occured while updating records. " + e.getMessage(), e);
+		}
+		finally {
+			this.pendingCount = 0;
+			this.pendingDataSize = 0;
+		}
+	}
+
+	/**
+	 * Writes the pending updates and closes the file
+	 */
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		try {
+			flush();
+		}
+		finally {
+			this.closed = true;
+			// releases the lock of the file too
+			DBFUtils.close(this.raf);
+			DBFUtils.close(this.journal);
+		}
+	}
+
+	/**
+	 * Locks the whole file, without waiting
+	 * @return false if the file is locked by other process or by other object of this one
+	 */
+	private static boolean tryLock(FileChannel channel) throws IOException {
+		try {
+			FileLock lock = channel.tryLock();
+			return lock != null;
+		}
+		catch (OverlappingFileLockException e) {
+			return false;
+		}
+	}
+
+	FileChannel getChannel() {
+		return this.channel;
+	}
+
+	private void rollback() {
+		try {
+			this.journal.rollback(this.channel);
+		}
+		catch (IOException e) {
+			// the journal is kept, the file is restored when opened again
+		}
+	}
+
+	/**
+	 * Sorts the pending updates by position and groups the adjacent ones in runs.
+	 * Updates of the same field are applied in order, so the last one wins.
+	 */
+	void buildRuns() {
+		if (this.order.length < this.pendingCount) {
+			this.order = new int[this.pendingPositions.length];
+			this.orderScratch = new int[this.pendingPositions.length];
+		}
+		for (int i = 0; i < this.pendingCount; i++) {
+			this.order[i] = i;
+		}
+		// stable sort, so the updates of the same field keep their order
+		this.byPosition.sort(this.order, this.orderScratch, this.pendingCount);
+
+		if (this.runData.length < this.pendingDataSize) {
+			this.runData = new byte[this.pendingDataSize];
+		}
+		this.runCount = 0;
+		int runDataSize = 0;
+		long runEnd = -1;
+		for (int i = 0; i < this.pendingCount; i++) {
+			int index = this.order[i];
+			long position = this.pendingPositions[index];
+			int length = this.pendingLengths[index];
+			if (this.runCount > 0 && position < runEnd) {
+				// the same field again
+				int current = this.runCount - 1;
+				int offset = this.runOffsets[current] + (int) (position - this.runPositions[current]);
+				System.arraycopy(this.pendingData, this.pendingOffsets[index], this.runData, offset, length);
+				continue;
+			}
+			if (this.runCount > 0 && position == runEnd) {
+				this.runLengths[this.runCount - 1] += length;
+			}
+			else {
+				ensureRunCapacity();
+				this.runPositions[this.runCount] = position;
+				this.runOffsets[this.runCount] = runDataSize;
+				this.runLengths[this.runCount] = length;
+				this.runCount++;
+			}
+			System.arraycopy(this.pendingData, this.pendingOffsets[index], this.runData, runDataSize, length);
+			runDataSize += length;
+			runEnd = position + length;
+		}
+	}
+
+	/**
+	 * Writes the runs built by {@link #buildRuns()} to the file
+	 * @throws IOException if some IO error happens
+	 */
+	void writeRuns() throws IOException {
+		for (int i = 0; i < this.runCount; i++) {
+			writeFully(ByteBuffer.wrap(this.runData, this.runOffsets[i], this.runLengths[i]), this.runPositions[i]);
+			this.writeCount++;
+		}
+	}
+
+	void writeFully(ByteBuffer buffer, long position) throws IOException {
+		long start = position - buffer.position();
+		while (buffer.hasRemaining()) {
+			this.channel.write(buffer, start + buffer.position());
+		}
+	}
+
+	private void ensurePendingCapacity(int length) {
+		if (this.pendingCount == this.pendingPositions.length) {
+			int size = this.pendingPositions.length * 2;
+			this.pendingPositions = Arrays.copyOf(this.pendingPositions, size);
+			this.pendingOffsets = Arrays.copyOf(this.pendingOffsets, size);
+			this.pendingLengths = Arrays.copyOf(this.pendingLengths, size);
+		}
+		if (this.pendingDataSize + length > this.pendingData.length) {
+			this.pendingData = Arrays.copyOf(this.pendingData, Math.max(this.pendingData.length * 2, this.pendingDataSize + length));
+		}
+	}
+
+	private void ensureRunCapacity() {
+		if (this.runCount == this.runPositions.length) {
+			int size = this.runPositions.length * 2;
+			this.runPositions = Arrays.copyOf(this.runPositions, size);
+			this.runOffsets = Arrays.copyOf(this.runOffsets, size);
+			this.runLengths = Arrays.copyOf(this.runLengths, size);
+		}
+	}
+}
@@ -26,15 +26,22 @@ import java.io.Closeable;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.Locale;
 
 
@@ -98,6 +105,21 @@ public final class DBFUtils {
 		return bigEndian;
 	}
 
+	/**
+	 * Read a littleEndian long(64 bits) from DataInput
+	 * @param in DataInput to read from
+	 * @return long value of next 64 bits as littleEndian
+	 * @throws IOException if an IO error happens
+	 * @throws EOFException if reached end of file before 8 bytes are readed
+	 */
+	public static long readLittleEndianLong(DataInput in) throws IOException {
+		long value = 0;
+		for (int shiftBy = 0; shiftBy < 64; shiftBy += 8) {
+			value |= (long) (in.readUnsignedByte() & 0xff) << shiftBy;
+		}
+		return value;
+	}
+
 	/**
 	 * Read a littleEndian short(16 bits) from DataInput
 	 * @param in DataInput to read from
@@ -203,12 +225,13 @@ public final class DBFUtils {
 	 */
 	public static byte[] textPadding(String text, Charset charset, int length, DBFAlignment alignment, byte paddingByte) {
 		byte response[] = new byte[length];
-		Arrays.fill(response, paddingByte);
 		byte[] stringBytes = text.getBytes(charset);
 
 		if (stringBytes.length > length) {
-			return textPadding(text.substring(0, text.length() - 1), charset, length, alignment, paddingByte);
+			new DBFTextEncoder(charset).write(text, response, 0, length, alignment, paddingByte);
+			return response;
 		}
+		Arrays.fill(response, paddingByte);
 
 		int t_offset = 0;
 		switch (alignment) {
@@ -373,4 +396,83 @@ public final class DBFUtils {
 		}
 	} 
 
+
+	/**
+	 * Reads from a channel until the buffer is full, with positional reads
+	 * @param channel the channel
+	 * @param buffer the buffer, filled from its position to its limit
+	 * @param position position in the channel of the current position of the buffer
+	 * @throws IOException if some IO error happens
+	 * @throws EOFException if the end of the channel is reached before the buffer is full
+	 */
+	static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		long start = position - buffer.position();
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, start + buffer.position()) < 0) {
+				throw new EOFException("Unexpected end of file");
+			}
+		}
+	}
+
+	/**
+	 * Reads the header of a dbf file
+	 * @param dbfFile the file
+	 * @return the header
+	 */
+	static DBFHeader readHeader(File dbfFile) {
+		return readHeader(dbfFile, null);
+	}
+
+	/**
+	 * Reads the header of a dbf file
+	 * @param dbfFile the file
+	 * @param charset the charset of the file, null to use the one of the header
+	 * @return the header
+	 */
+	static DBFHeader readHeader(File dbfFile, Charset charset) {
+		DBFHeader header = new DBFHeader();
+		try (RandomAccessFile raf = new RandomAccessFile(dbfFile, "r")) {
+			header.read(raf, charset, false);
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+		return header;
+	}
+
+	/**
+	 * Puts today's date as the date of last update of a dbf header (three
+	 * bytes: year since 1900, month and day)
+	 * @param buffer the buffer
+	 * @param index position of the date in the buffer
+	 */
+	static void putHeaderDate(ByteBuffer buffer, int index) {
+		Calendar calendar = new GregorianCalendar();
+		buffer.put(index, (byte) (calendar.get(Calendar.YEAR) - 1900));
+		buffer.put(index + 1, (byte) (calendar.get(Calendar.MONTH) + 1));
+		buffer.put(index + 2, (byte) calendar.get(Calendar.DAY_OF_MONTH));
+	}
+
+	/**
+	 * Forces to disk the entries of a directory, so files created, renamed or
+	 * deleted in it survive a crash. Does nothing in systems where directories
+	 * can't be opened, like Windows.
+	 * @param directory the directory
+	 * @throws IOException if some IO error happens while forcing the directory
+	 */
+	static void syncDirectory(File directory) throws IOException {
+		FileChannel channel;
+		try {
+			channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ);
+		}
+		catch (IOException e) {
+			return;
+		}
+		try {
+			channel.force(true);
+		}
+		finally {
+			channel.close();
+		}
+	}
 }
@@ -22,19 +22,23 @@ License along with this library.  If not, see <http://www.gnu.org/licenses/>.
 package com.linuxense.javadbf;
 
 
+import java.io.BufferedOutputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.GregorianCalendar;
 import java.util.List;
 
 /*
@@ -55,12 +59,36 @@ import java.util.List;
 public class DBFWriter extends DBFBase implements java.io.Closeable {
 
 	private DBFHeader header;
-	private List<Object[]> v_records = new ArrayList<>();
+	private List<byte[]> v_records = new ArrayList<>();
 	private int recordCount = 0;
 	//Open and append records to an existing DBF
 	private RandomAccessFile raf = null;
 	private OutputStream outputStream = null;
 
+	// Streaming mode: records are written as they are added
+	private boolean streaming = false;
+	private DataOutputStream streamOutput = null;
+	private SeekableByteChannel seekableChannel = null;
+	private long headerPosition = -1;
+	private int expectedRecordCount = -1;
+	private int headerRecordCount = 0;
+
+	private DBFRecordEncoder encoder = null;
+	private byte[] recordBuffer = null;
+	// Buffer for records appended to a file
+	private ByteBuffer writeBuffer = null;
+	private int bufferSize = 64 * 1024;
+
+	// Periodic update of the header when appending to a file
+	private DBFSyncPolicy syncPolicy = DBFSyncPolicy.RELAXED;
+	private int recordsSinceSync = 0;
+	private long lastSyncNanos = 0;
+	private long syncCount = 0;
+	private long syncTimeNanos = 0;
+
+	// Persisted indexes updated as records are appended to a file
+	private List<DBFIndexMaintainer> indexMaintainers = new ArrayList<>();
+
 	private boolean closed = false;
 
 	/**
@@ -99,11 +127,46 @@ public class DBFWriter extends DBFBase implements java.io.Closeable {
 	 * @param charset Encoding to use in resulting dbf file
 	 */
 	public DBFWriter(OutputStream out, Charset charset) {
+		this(out, charset, false);
+	}
+
+	/**
+	 * Creates a DBFWriter wich write data to the given OutputStream.
+	 *
+	 * In streaming mode every record is written to the stream as soon as it is
+	 * added, instead of keeping all of them in memory until close.
+	 * The header needs the number of records, so the stream must be a
+	 * FileOutputStream (the header is updated on close) or the number of
+	 * records must be set with {@link #setExpectedRecordCount(int)} before
+	 * adding records.
+	 *
+	 * @param out stream to write the data to.
+	 * @param charset Encoding to use in resulting dbf file
+	 * @param streaming if records should be written as they are added
+	 */
+	public DBFWriter(OutputStream out, Charset charset, boolean streaming) {
 		super();
 		setCharset(charset);
 		this.header = new DBFHeader();
 		this.header.setUsedCharset(charset);
 		this.outputStream = out;
+		this.streaming = streaming;
+		if (streaming && out instanceof FileOutputStream) {
+			this.seekableChannel = ((FileOutputStream) out).getChannel();
+		}
+	}
+
+	/**
+	 * Creates a DBFWriter which write data to the given channel in streaming mode.
+	 * Records are written as they are added, and the number of records in the
+	 * header is updated on close.
+	 *
+	 * @param channel channel to write the data to.
+	 * @param charset Encoding to use in resulting dbf file
+	 */
+	public DBFWriter(SeekableByteChannel channel, Charset charset) {
+		this(Channels.newOutputStream(channel), charset, true);
+		this.seekableChannel = channel;
 	}
 
 	/**
@@ -189,6 +252,33 @@ public class DBFWriter extends DBFBase implements java.io.Closeable {
 		if (this.header.fieldArray != null) {
 			throw new DBFException("Fields has already been set");
 		}
+		checkFields(fields);
+		this.header.setSignatureForFields(fields);
+		this.header.fieldArray = new DBFField[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			this.header.fieldArray[i] = new DBFField(fields[i]);
+		}
+		
+		
+		try {
+			if (this.raf != null && this.raf.length() > 0) {
+				throw new DBFException("You can not change fields on an existing file");
+			}
+			if (this.raf != null && this.raf.length() == 0) {
+				// this is a new/non-existent file. So write header before proceeding
+				this.header.write(this.raf);
+			}
+		} catch (IOException e) {
+			throw new DBFException("Error accesing file:" + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Checks that the fields definition can be written to a new file
+	 * @param fields fields definition
+	 * @throws DBFException if the fields are not valid
+	 */
+	static void checkFields(DBFField[] fields) {
 		if (fields == null || fields.length == 0) {
 			throw new DBFException("Should have at least one field");
 		}
@@ -215,33 +305,45 @@ public class DBFWriter extends DBFBase implements java.io.Closeable {
 				"Field " + field.getName() + " is of type " + field.getType() + " that is not supported for writting");
 			}
 		}
-		this.header.fieldArray = new DBFField[fields.length];
-		for (int i = 0; i < fields.length; i++) {
-			this.header.fieldArray[i] = new DBFField(fields[i]);
+	}
+
+	/**
+	 * Add a record.
+	 * @param values fields of the record
+	 */
+	public void addRecord(Object[] values) {
+		if (this.closed) {
+			throw new IllegalStateException("You can add records a closed DBFWriter");
 		}
-		
-		
+		checkRecord(values);
+
 		try {
-			if (this.raf != null && this.raf.length() > 0) {
-				throw new DBFException("You can not change fields on an existing file");
+			if (this.streaming) {
+				writeHeaderIfNeeded();
+				writeRecord(this.streamOutput, values);
 			}
-			if (this.raf != null && this.raf.length() == 0) {
-				// this is a new/non-existent file. So write header before proceeding
-				this.header.write(this.raf);
+			else if (this.raf == null) {
+				byte[] record = new byte[getEncoder().getRecordLength()];
+				getEncoder().encode(values, record, 0);
+				this.v_records.add(record);
+			} else {
+				bufferRecord(values);
+			}
+			this.recordCount++;
+			if (this.raf != null) {
+				syncIfNeeded();
 			}
 		} catch (IOException e) {
-			throw new DBFException("Error accesing file:" + e.getMessage(), e);
+			throw new DBFException("Error occured while writing record. " + e.getMessage(), e);
 		}
 	}
 
 	/**
-	 * Add a record.
+	 * Checks that a record can be added to this writer
 	 * @param values fields of the record
+	 * @throws DBFException if the record is not valid
 	 */
-	public void addRecord(Object[] values) {
-		if (this.closed) {
-			throw new IllegalStateException("You can add records a closed DBFWriter");
-		}
+	void checkRecord(Object[] values) {
 		if (this.header.fieldArray == null) {
 			throw new DBFException("Fields should be set before adding records");
 		}
@@ -254,58 +356,114 @@ public class DBFWriter extends DBFBase implements java.io.Closeable {
 			throw new DBFException("Invalid record. Invalid number of fields in row");
 		}
 
-		for (int i = 0; i < this.header.fieldArray.length; i++) {
-			Object value = values[i];
-			if (value == null) {
-				continue;
+		getEncoder().validate(values);
+	}
+
+	/**
+	 * Creates a builder to add records setting the values of the fields one by one,
+	 * without boxing primitive values or creating an array for every record.
+	 * Fields should be set before calling this method.
+	 * @return a new record builder for this writer
+	 */
+	public DBFRecordBuilder newRecordBuilder() {
+		if (this.closed) {
+			throw new IllegalStateException("You can add records a closed DBFWriter");
+		}
+		if (this.header.fieldArray == null) {
+			throw new DBFException("Fields should be set before adding records");
+		}
+		return new DBFRecordBuilder(this, new DBFRecordEncoder(this.header.fieldArray, getCharset()));
+	}
+
+	/**
+	 * Add a record already encoded by a {@link DBFRecordBuilder}
+	 * @param record the encoded record
+	 */
+	void addEncodedRecord(byte[] record) {
+		if (this.closed) {
+			throw new IllegalStateException("You can add records a closed DBFWriter");
+		}
+		try {
+			if (this.streaming) {
+				writeHeaderIfNeeded();
+				this.streamOutput.write(record);
 			}
+			else if (this.raf == null) {
+				this.v_records.add(record.clone());
+			} else {
+				bufferRecord(record);
+			}
+			this.recordCount++;
+			if (this.raf != null) {
+				syncIfNeeded();
+			}
+		} catch (IOException e) {
+			throw new DBFException("Error occured while writing record. " + e.getMessage(), e);
+		}
+	}
 
-			switch (this.header.fieldArray[i].getType()) {
 
-			case CHARACTER:
-				if (!(value instanceof String)) {
-					throw new DBFException("Invalid value for field " + i + ":" + value);
-				}
-				break;
 
-			case LOGICAL:
-				if (!(value instanceof Boolean)) {
-					throw new DBFException("Invalid value for field " + i + ":" + value);
-				}
-				break;
+	/**
+	 * Sets the number of records that will be added to this writer, in streaming mode.
+	 * The header is written with this number, so it is not needed to update it on close.
+	 * It must be called before adding any record.
+	 * @param expectedRecordCount number of records that will be added
+	 */
+	public void setExpectedRecordCount(int expectedRecordCount) {
+		if (!this.streaming) {
+			throw new IllegalStateException("Expected record count is only used in streaming mode");
+		}
+		if (this.streamOutput != null) {
+			throw new IllegalStateException("Expected record count must be set before adding records");
+		}
+		if (expectedRecordCount < 0) {
+			throw new IllegalArgumentException("Expected record count must be a positive number");
+		}
+		this.expectedRecordCount = expectedRecordCount;
+	}
+
+	private void writeHeaderIfNeeded() throws IOException {
+		if (this.streamOutput != null) {
+			return;
+		}
+		if (this.expectedRecordCount < 0 && this.seekableChannel == null && !this.closed) {
+			throw new DBFException("Streaming to a non seekable output requires the expected record count");
+		}
+		if (this.seekableChannel != null) {
+			this.headerPosition = this.seekableChannel.position();
+		}
+		this.streamOutput = new DataOutputStream(new BufferedOutputStream(this.outputStream, 64 * 1024));
+		this.headerRecordCount = this.closed ? this.recordCount : Math.max(this.expectedRecordCount, 0);
+		this.header.numberOfRecords = this.headerRecordCount;
+		this.header.write(this.streamOutput);
+	}
 
-			case DATE:
-				if (!(value instanceof Date)) {
-					throw new DBFException("Invalid value for field " + i + ":" + value);
+	private void closeStreaming() {
+		try {
+			writeHeaderIfNeeded();
+			this.streamOutput.write(END_OF_DATA);
+			this.streamOutput.flush();
+			if (this.headerRecordCount != this.recordCount) {
+				if (this.seekableChannel == null) {
+					throw new DBFException("Expected " + this.expectedRecordCount + " records, but " + this.recordCount + " were added");
 				}
-				break;
-			case NUMERIC:
-			case FLOATING_POINT:
-				if (!(value instanceof Number)) {
-					throw new DBFException("Invalid value for field " + i + ":" + value);
+				ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+				buffer.putInt(this.recordCount);
+				buffer.flip();
+				long position = this.seekableChannel.position();
+				this.seekableChannel.position(this.headerPosition + 4);
+				while (buffer.hasRemaining()) {
+					this.seekableChannel.write(buffer);
 				}
-				break;
-			default:
-				throw new DBFException("Unsupported writting of field type " + i + " "
-						+ this.header.fieldArray[i].getType());
+				this.seekableChannel.position(position);
 			}
-
 		}
-
-		if (this.raf == null) {
-			this.v_records.add(values);
-		} else {
-			try {
-				writeRecord(this.raf, values);
-				this.recordCount++;
-			} catch (IOException e) {
-				throw new DBFException("Error occured while writing record. " + e.getMessage(), e);
-			}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
 		}
 	}
 
-
-
 	private void writeToStream(OutputStream out) {
 		try {
 
@@ -314,8 +472,8 @@ public class DBFWriter extends DBFBase implements java.io.Closeable {
 			this.header.write(outStream);
 
 			/* Now write all the records */
-			for (Object[] record : this.v_records) {
-				writeRecord(outStream, record);
+			for (byte[] record : this.v_records) {
+				outStream.write(record);
 			}
 
 			outStream.write(END_OF_DATA);
@@ -340,17 +498,31 @@ public class DBFWriter extends DBFBase implements java.io.Closeable {
 			 * record count and the END_OF_DATA mark
 			 */
 			try {
+				flushBuffer();
 				this.header.numberOfRecords = this.recordCount;
 				this.raf.seek(0);
 				this.header.write(this.raf);
 				this.raf.seek(this.raf.length());
 				this.raf.writeByte(END_OF_DATA);
+				if (this.syncPolicy.isForce()) {
+					this.raf.getChannel().force(false);
+				}
+				flushIndexMaintainers();
 			}
 			catch (IOException e) {
 				throw new DBFException(e.getMessage(), e);
 			}
 			finally {
 				DBFUtils.close(this.raf);
+				closeIndexMaintainers();
+			}
+		}
+		else if (this.streaming) {
+			try {
+				closeStreaming();
+			}
+			finally {
+				DBFUtils.close(this.outputStream);
 			}
 		}
 		else if (this.outputStream != null) {
@@ -366,64 +538,268 @@ public class DBFWriter extends DBFBase implements java.io.Closeable {
 
 
 	private void writeRecord(DataOutput dataOutput, Object[] objectArray) throws IOException {
-		dataOutput.write((byte) ' ');
-		for (int j = 0; j < this.header.fieldArray.length; j++) {
-			/* iterate throught fields */
-			switch (this.header.fieldArray[j].getType()) {
-
-			case CHARACTER:
-				String strValue = "";
-				if (objectArray[j] != null) {
-					strValue = objectArray[j].toString();
-				}
-				dataOutput.write(DBFUtils.textPadding(strValue, getCharset(), this.header.fieldArray[j].getLength(), DBFAlignment.LEFT, (byte) ' '));
-
-				break;
-
-			case DATE:
-				if (objectArray[j] != null) {
-					GregorianCalendar calendar = new GregorianCalendar();
-					calendar.setTime((Date) objectArray[j]);
-					dataOutput.write(String.valueOf(calendar.get(Calendar.YEAR)).getBytes(StandardCharsets.US_ASCII));
-					dataOutput.write(DBFUtils.textPadding(String.valueOf(calendar.get(Calendar.MONTH) + 1),
-							StandardCharsets.US_ASCII, 2, DBFAlignment.RIGHT, (byte) '0'));
-					dataOutput.write(DBFUtils.textPadding(String.valueOf(calendar.get(Calendar.DAY_OF_MONTH)),
-							StandardCharsets.US_ASCII, 2, DBFAlignment.RIGHT, (byte) '0'));
-				} else {
-					dataOutput.write("        ".getBytes(StandardCharsets.US_ASCII));
-				}
+		DBFRecordEncoder recordEncoder = getEncoder();
+		if (this.recordBuffer == null) {
+			this.recordBuffer = new byte[recordEncoder.getRecordLength()];
+		}
+		recordEncoder.encode(objectArray, this.recordBuffer, 0);
+		dataOutput.write(this.recordBuffer);
+	}
 
-				break;
-			case NUMERIC:
-			case FLOATING_POINT:
+	private void bufferRecord(Object[] objectArray) throws IOException {
+		DBFRecordEncoder recordEncoder = getEncoder();
+		int recordLength = recordEncoder.getRecordLength();
+		if (this.writeBuffer == null) {
+			this.writeBuffer = ByteBuffer.allocate(Math.max(this.bufferSize, recordLength));
+		}
+		if (this.writeBuffer.remaining() < recordLength) {
+			flushBuffer();
+		}
+		recordEncoder.encode(objectArray, this.writeBuffer.array(), this.writeBuffer.position());
+		indexRecord(this.writeBuffer.array(), this.writeBuffer.position());
+		this.writeBuffer.position(this.writeBuffer.position() + recordLength);
+	}
 
-				if (objectArray[j] != null) {
-					dataOutput.write(DBFUtils.doubleFormating((Number) objectArray[j], getCharset(),
-							this.header.fieldArray[j].getLength(), this.header.fieldArray[j].getDecimalCount()));
-				} else {
-					dataOutput.write(DBFUtils.textPadding(" ", getCharset(), this.header.fieldArray[j].getLength(), DBFAlignment.RIGHT, (byte) ' '));
-				}
+	private void bufferRecord(byte[] record) throws IOException {
+		if (this.writeBuffer == null) {
+			this.writeBuffer = ByteBuffer.allocate(Math.max(this.bufferSize, record.length));
+		}
+		if (this.writeBuffer.remaining() < record.length) {
+			flushBuffer();
+		}
+		indexRecord(record, 0);
+		this.writeBuffer.put(record);
+	}
 
-				break;
+	private void flushBuffer() throws IOException {
+		if (this.writeBuffer == null || this.writeBuffer.position() == 0) {
+			return;
+		}
+		this.writeBuffer.flip();
+		FileChannel channel = this.raf.getChannel();
+		while (this.writeBuffer.hasRemaining()) {
+			channel.write(this.writeBuffer);
+		}
+		this.writeBuffer.clear();
+	}
 
-			case LOGICAL:
+	DBFRecordEncoder getEncoder() {
+		if (this.encoder == null) {
+			this.encoder = new DBFRecordEncoder(this.header.fieldArray, getCharset());
+		}
+		return this.encoder;
+	}
 
-				if (objectArray[j] instanceof Boolean) {
-					if ((Boolean) objectArray[j]) {
-						dataOutput.write((byte) 'T');
-					} else {
-						dataOutput.write((byte) 'F');
-					}
-				} else {
-					dataOutput.write((byte) '?');
-				}
+	/**
+	 * Writes to the underlying file or stream the records that are pending to be written.
+	 * Records added by the OutputStream constructor in non streaming mode are
+	 * only written on close.
+	 */
+	public void flush() {
+		if (this.closed) {
+			return;
+		}
+		try {
+			if (this.raf != null) {
+				flushBuffer();
+			}
+			else if (this.streamOutput != null) {
+				this.streamOutput.flush();
+			}
+		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
 
-				break;
+	/**
+	 * Sets when the pending records and the record count of the header are
+	 * written to the file, when appending records to a file.
+	 * By default the header is only updated on close ({@link DBFSyncPolicy#RELAXED}).
+	 * @param syncPolicy the sync policy
+	 */
+	public void setSyncPolicy(DBFSyncPolicy syncPolicy) {
+		if (this.raf == null) {
+			throw new IllegalStateException("Sync policy is only used when appending records to a file");
+		}
+		if (syncPolicy == null) {
+			throw new IllegalArgumentException("Sync policy can not be null");
+		}
+		this.syncPolicy = syncPolicy;
+		this.recordsSinceSync = 0;
+		this.lastSyncNanos = System.nanoTime();
+	}
 
-			default:
-				throw new DBFException("Unknown field type " + this.header.fieldArray[j].getType());
-			}
+	/**
+	 * Writes the pending records and the record count of the header to the file,
+	 * forcing them to the storage device if the sync policy says so.
+	 */
+	public void sync() {
+		if (this.closed || this.raf == null) {
+			return;
+		}
+		try {
+			syncHeader();
 		}
+		catch (IOException e) {
+			throw new DBFException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Gets the number of times the header has been updated before close
+	 * @return number of syncs
+	 */
+	public long getSyncCount() {
+		return this.syncCount;
+	}
+
+	/**
+	 * Gets the time spent updating the header (and forcing the file to disk) before close
+	 * @return time in nanoseconds
+	 */
+	public long getSyncTimeNanos() {
+		return this.syncTimeNanos;
+	}
+
+	private void syncIfNeeded() throws IOException {
+		if (this.syncPolicy.isRelaxed()) {
+			return;
+		}
+		this.recordsSinceSync++;
+		int recordInterval = this.syncPolicy.getRecordInterval();
+		long timeInterval = this.syncPolicy.getTimeInterval();
+		if ((recordInterval > 0 && this.recordsSinceSync >= recordInterval)
+				|| (timeInterval > 0 && System.nanoTime() - this.lastSyncNanos >= timeInterval * 1000000L)) {
+			syncHeader();
+		}
+	}
+
+	private void syncHeader() throws IOException {
+		long start = System.nanoTime();
+		flushBuffer();
+		FileChannel channel = this.raf.getChannel();
+		if (this.syncPolicy.isForce()) {
+			// the records must be on disk before a count that includes them
+			channel.force(false);
+		}
+		ByteBuffer count = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+		count.putInt(this.recordCount);
+		count.flip();
+		while (count.hasRemaining()) {
+			channel.write(count, 4 + count.position());
+		}
+		if (this.syncPolicy.isForce()) {
+			channel.force(false);
+		}
+		flushIndexMaintainers();
+		this.recordsSinceSync = 0;
+		this.lastSyncNanos = System.nanoTime();
+		this.syncCount++;
+		this.syncTimeNanos += this.lastSyncNanos - start;
+	}
+
+	/**
+	 * Sets the size of the buffer used to write records to the file, when
+	 * appending records to a file. By default 64KB.
+	 * Records are written to the file when the buffer is full, on {@link #flush()} and on close.
+	 * @param bufferSize size of the buffer in bytes
+	 */
+	public void setBufferSize(int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be a positive number");
+		}
+		flush();
+		this.bufferSize = bufferSize;
+		this.writeBuffer = null;
+	}
+
+	/**
+	 * Gets the sync policy used when appending records to a file
+	 * @return the sync policy
+	 */
+	public DBFSyncPolicy getSyncPolicy() {
+		return this.syncPolicy;
+	}
+
+	/**
+	 * Registers an index that is updated as records are appended to the file.
+	 * The index is updated every time the header is written (on close and on
+	 * every sync, see {@link #setSyncPolicy(DBFSyncPolicy)}), and it is closed
+	 * when this writer is closed.
+	 * It must be registered before adding records.
+	 * @param indexMaintainer the index maintainer, for example a {@link DBFHashIndexMaintainer}
+	 */
+	public void addIndexMaintainer(DBFIndexMaintainer indexMaintainer) {
+		if (this.raf == null) {
+			throw new IllegalStateException("Index maintainers are only used when appending records to a file");
+		}
+		if (this.closed) {
+			throw new IllegalStateException("You can not add index maintainers to a closed DBFWriter");
+		}
+		if (indexMaintainer == null) {
+			throw new IllegalArgumentException("Index maintainer can not be null");
+		}
+		if (this.recordCount != this.header.numberOfRecords) {
+			throw new IllegalStateException("Index maintainers must be added before adding records");
+		}
+		prepareIndexMaintainer(indexMaintainer);
+		this.indexMaintainers.add(indexMaintainer);
+	}
+
+	/**
+	 * Checks a new index maintainer against the file, before records are added
+	 * @param indexMaintainer the index maintainer
+	 */
+	void prepareIndexMaintainer(DBFIndexMaintainer indexMaintainer) {
+		indexMaintainer.beforeAppend();
+	}
+
+	/**
+	 * Gets the registered index maintainers
+	 * @return the index maintainers
+	 */
+	List<DBFIndexMaintainer> getIndexMaintainers() {
+		return this.indexMaintainers;
+	}
+
+	private void indexRecord(byte[] data, int offset) {
+		for (DBFIndexMaintainer indexMaintainer : this.indexMaintainers) {
+			indexMaintainer.recordAppended(this.recordCount, data, offset);
+		}
+	}
+
+	/**
+	 * Writes the pending updates of the indexes, after the header has been written
+	 */
+	void flushIndexMaintainers() {
+		for (DBFIndexMaintainer indexMaintainer : this.indexMaintainers) {
+			indexMaintainer.flush(this.syncPolicy.isForce());
+		}
+	}
+
+	private void closeIndexMaintainers() {
+		for (DBFIndexMaintainer indexMaintainer : this.indexMaintainers) {
+			DBFUtils.close(indexMaintainer);
+		}
+	}
+
+	/**
+	 * Gets the header of the file
+	 * @return the header
+	 */
+	DBFHeader getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * Closes the file without updating the header, for writers that
+	 * keep the header updated while adding records
+	 */
+	void closeWithoutHeaderUpdate() {
+		this.closed = true;
+		DBFUtils.close(this.raf);
+		closeIndexMaintainers();
 	}
 
 	/**
@@ -450,6 +826,9 @@ public class DBFWriter extends DBFBase implements java.io.Closeable {
 	 */
 	@Deprecated
 	public void write(OutputStream out) {
+		if (this.streaming) {
+			throw new IllegalStateException("Records are already written in streaming mode");
+		}
 		if (this.raf == null) {
 			writeToStream(out);
 		}
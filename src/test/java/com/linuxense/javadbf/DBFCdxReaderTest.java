@@ -0,0 +1,141 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFCdxReaderTest {
+
+	@Test
+	public void testTags() throws Exception {
+		try (DBFCdxReader index = DBFCdxReader.openStructuralIndex(new File("src/test/resources/fixtures/foxpro-xsource/employees.dbf"))) {
+			Assert.assertEquals(Arrays.asList("EMAILNAME", "LASTNAME", "POSTALCODE", "PRIMARYKEY"), index.getTagNames());
+			DBFCdxReader.Tag tag = index.getTag("lastname");
+			Assert.assertEquals("lastname", tag.getKeyExpression());
+			Assert.assertEquals("", tag.getForExpression());
+			Assert.assertFalse(tag.isDescending());
+			Assert.assertTrue(index.getTag("PRIMARYKEY").getKeyLength() == 4);
+		}
+	}
+
+	@Test
+	public void testNoStructuralIndex() throws Exception {
+		Assert.assertNull(DBFCdxReader.openStructuralIndex(new File("src/test/resources/fixtures/dbase_03.dbf")));
+	}
+
+	@Test(expected = DBFException.class)
+	public void testUnknownTag() throws Exception {
+		try (DBFCdxReader index = new DBFCdxReader(new File("src/test/resources/fixtures/foxprodb/types.CDX"))) {
+			index.getTag("unknown");
+		}
+	}
+
+	@Test
+	public void testLookups() throws Exception {
+		checkIndex("src/test/resources/fixtures/foxpro-xsource/employees.dbf");
+		checkIndex("src/test/resources/fixtures/foxpro-xsource/payments.dbf");
+		checkIndex("src/test/resources/fixtures/foxpro-xsource/foxref_ref.dbf");
+		checkIndex("src/test/resources/fixtures/foxprodb/calls.dbf");
+		checkIndex("src/test/resources/fixtures/foxprodb/contacts.dbf");
+		checkIndex("src/test/resources/fixtures/foxprodb/setup.dbf");
+	}
+
+	@Test
+	public void testRange() throws Exception {
+		File dbf = new File("src/test/resources/fixtures/foxpro-xsource/employees.dbf");
+		try (DBFCdxReader index = DBFCdxReader.openStructuralIndex(dbf);
+				DBFSeekableReader reader = new DBFSeekableReader(dbf)) {
+			DBFCdxReader.Tag tag = index.getTag("lastname");
+			String previous = "";
+			for (int record : tag.getAll()) {
+				String name = reader.getRow(record).getString("lastname");
+				Assert.assertTrue(previous.compareTo(name) <= 0);
+				previous = name;
+			}
+			int[] records = tag.findRange("D", "G");
+			Assert.assertEquals(2, records.length);
+			Assert.assertEquals("Davolio", reader.getRow(records[0]).getString("lastname"));
+			Assert.assertEquals("Fuller", reader.getRow(records[1]).getString("lastname"));
+
+			tag = index.getTag("primarykey");
+			records = tag.findRange(2, 4);
+			Assert.assertEquals(3, records.length);
+			Assert.assertEquals(2, reader.getRow(records[0]).getInt("employeeid"));
+			Assert.assertEquals(0, tag.find(100).length);
+		}
+	}
+
+	/**
+	 * Checks that the value of each record is found in the tags over a single field
+	 */
+	private void checkIndex(String fileName) throws Exception {
+		File dbf = new File(fileName);
+		List<DBFRow> rows = new ArrayList<>();
+		Set<String> fields = new HashSet<>();
+		DBFReader reader = new DBFReader(new FileInputStream(dbf));
+		try {
+			for (int i = 0; i < reader.getFieldCount(); i++) {
+				fields.add(reader.getField(i).getName().toLowerCase());
+			}
+			DBFRow row;
+			while ((row = reader.nextRow()) != null) {
+				rows.add(row);
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+
+		try (DBFCdxReader index = DBFCdxReader.openStructuralIndex(dbf)) {
+			Assert.assertFalse(index.getTagNames().isEmpty());
+			for (String name : index.getTagNames()) {
+				DBFCdxReader.Tag tag = index.getTag(name);
+				Assert.assertEquals(rows.size(), tag.getAll().length);
+				String field = tag.getKeyExpression().toLowerCase();
+				if (!fields.contains(field)) {
+					// expressions are not evaluated, and long names are truncated in the dbf
+					continue;
+				}
+				for (int i = 0; i < rows.size(); i++) {
+					Object value = rows.get(i).getObject(field);
+					if (value == null || (value instanceof String && ((String) value).isEmpty())) {
+						continue;
+					}
+					int[] records = tag.find(value);
+					Assert.assertTrue(fileName + " " + name + " " + value, Arrays.binarySearch(sorted(records), i) >= 0);
+				}
+			}
+		}
+	}
+
+	private int[] sorted(int[] records) {
+		int[] copy = records.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+}
@@ -0,0 +1,236 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFConcurrentAppenderTest {
+
+	@Test
+	public void testSeveralThreads() throws Exception {
+		File file = createFile(3);
+		final int threads = 4;
+		final int recordsPerThread = 2500;
+		final ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		try (final DBFConcurrentAppender appender = new DBFConcurrentAppender(file, null, 100)) {
+			List<Thread> producers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				final int thread = t;
+				Thread producer = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							for (int i = 0; i < recordsPerThread; i++) {
+								appender.addRecord(new Object[] { "T" + thread, thread * recordsPerThread + i });
+							}
+						}
+						catch (Throwable e) {
+							errors.add(e);
+						}
+					}
+				});
+				producers.add(producer);
+				producer.start();
+			}
+			for (Thread producer : producers) {
+				producer.join();
+			}
+			Assert.assertEquals(3 + threads * recordsPerThread, appender.getRecordCount());
+		}
+		Assert.assertTrue(errors.isEmpty());
+
+		int total = 3 + threads * recordsPerThread;
+		boolean[] found = new boolean[threads * recordsPerThread];
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			Assert.assertEquals(total, reader.getRecordCount());
+			for (int i = 0; i < 3; i++) {
+				Assert.assertEquals("Old", reader.nextRow().getString("name"));
+			}
+			DBFRow row;
+			while ((row = reader.nextRow()) != null) {
+				int code = row.getInt("code");
+				Assert.assertEquals("T" + (code / recordsPerThread), row.getString("name"));
+				Assert.assertFalse(found[code]);
+				found[code] = true;
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+		for (boolean f : found) {
+			Assert.assertTrue(f);
+		}
+		byte[] data = Files.readAllBytes(file.toPath());
+		Assert.assertEquals(DBFBase.END_OF_DATA, data[data.length - 1]);
+	}
+
+	@Test
+	public void testPublishWhileAdding() throws Exception {
+		File file = createFile(3);
+		final int threads = 4;
+		final int recordsPerThread = 2501;
+		final ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		try (final DBFConcurrentAppender appender = new DBFConcurrentAppender(file, null, 10)) {
+			List<Thread> producers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				Thread producer = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							for (int i = 0; i < recordsPerThread; i++) {
+								appender.addRecord(new Object[] { "New", i });
+							}
+						}
+						catch (Throwable e) {
+							errors.add(e);
+						}
+					}
+				});
+				producers.add(producer);
+				producer.start();
+			}
+			int lastCount = 3;
+			while (isAlive(producers)) {
+				int count = readRecordCount(file);
+				Assert.assertTrue(count >= lastCount);
+				lastCount = count;
+			}
+			for (Thread producer : producers) {
+				producer.join();
+			}
+			// published before close, and every record below the count is written
+			int count = readRecordCount(file);
+			Assert.assertTrue(count > 3);
+			DBFReader reader = new DBFReader(new FileInputStream(file));
+			try {
+				for (int i = 0; i < count; i++) {
+					Assert.assertEquals(i < 3 ? "Old" : "New", reader.nextRow().getString("name"));
+				}
+			}
+			finally {
+				DBFUtils.close(reader);
+			}
+		}
+		Assert.assertTrue(errors.isEmpty());
+		Assert.assertEquals(3 + threads * recordsPerThread, readRecordCount(file));
+	}
+
+	@Test
+	public void testWritersReused() throws Exception {
+		File file = createFile(0);
+		final ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		try (final DBFConcurrentAppender appender = new DBFConcurrentAppender(file, null, 10)) {
+			// short lived producers, one after another
+			for (int t = 0; t < 50; t++) {
+				final int thread = t;
+				Thread producer = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							appender.addRecord(new Object[] { "T" + thread, thread });
+						}
+						catch (Throwable e) {
+							errors.add(e);
+						}
+					}
+				});
+				producer.start();
+				producer.join();
+			}
+			Assert.assertEquals(1, appender.getWriterCount());
+		}
+		Assert.assertTrue(errors.isEmpty());
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			Assert.assertEquals(50, reader.getRecordCount());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testInvalidRecord() throws Exception {
+		File file = createFile(0);
+		try (DBFConcurrentAppender appender = new DBFConcurrentAppender(file)) {
+			appender.addRecord(new Object[] { "A", 1 });
+			try {
+				appender.addRecord(new Object[] { 1, "A" });
+				Assert.fail("Invalid record should be rejected");
+			}
+			catch (DBFException e) {
+				// expected
+			}
+			appender.addRecord(new Object[] { "B", 2 });
+		}
+		Assert.assertEquals(2, readRecordCount(file));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAddAfterClose() throws Exception {
+		File file = createFile(0);
+		DBFConcurrentAppender appender = new DBFConcurrentAppender(file);
+		appender.close();
+		appender.addRecord(new Object[] { "A", 1 });
+	}
+
+	@Test(expected = DBFException.class)
+	public void testEmptyFile() throws Exception {
+		File file = File.createTempFile("javadbf-concurrent", ".dbf");
+		new DBFConcurrentAppender(file).close();
+	}
+
+	private File createFile(int records) throws Exception {
+		File file = File.createTempFile("javadbf-concurrent", ".dbf");
+		file.delete();
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(new DBFField[] {
+				new DBFField("name", DBFDataType.CHARACTER, 10),
+				new DBFField("code", DBFDataType.NUMERIC, 10)
+			});
+			for (int i = 0; i < records; i++) {
+				writer.addRecord(new Object[] { "Old", -1 });
+			}
+		}
+		return file;
+	}
+
+	private static boolean isAlive(List<Thread> threads) {
+		for (Thread thread : threads) {
+			if (thread.isAlive()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int readRecordCount(File file) throws Exception {
+		byte[] data = Files.readAllBytes(file.toPath());
+		return (data[4] & 0xff) | (data[5] & 0xff) << 8 | (data[6] & 0xff) << 16 | (data[7] & 0xff) << 24;
+	}
+}
@@ -0,0 +1,139 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.linuxense.javadbf.testutils.DBFFileUtils;
+
+public class DBFDeduplicatorTest {
+
+	@Test
+	public void testKeepFirst() throws Exception {
+		File file = createFile(3000);
+		File target = File.createTempFile("javadbf-dedupe", ".dbf");
+
+		DBFDeduplicator deduplicator = new DBFDeduplicator("group");
+		Assert.assertEquals(97, deduplicator.deduplicate(file, target));
+		Assert.assertFalse(deduplicator.isSorted());
+
+		List<DBFRow> rows = DBFFileUtils.readAllRows(target);
+		Assert.assertEquals(97, rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			// first occurrences, in the original order
+			Assert.assertEquals(i, rows.get(i).getInt("code"));
+		}
+		Assert.assertEquals(97, DBFUtils.readHeader(target).numberOfRecords);
+	}
+
+	@Test
+	public void testKeepLast() throws Exception {
+		File file = createFile(3000);
+		File target = File.createTempFile("javadbf-dedupe", ".dbf");
+
+		DBFDeduplicator deduplicator = new DBFDeduplicator("GROUP");
+		deduplicator.setKeep(DBFDeduplicator.Keep.LAST);
+		Assert.assertEquals(97, deduplicator.deduplicate(file, target));
+
+		List<DBFRow> rows = DBFFileUtils.readAllRows(target);
+		for (int i = 0; i < rows.size(); i++) {
+			Assert.assertEquals(3000 - 97 + i, rows.get(i).getInt("code"));
+		}
+	}
+
+	@Test
+	public void testSortFallback() throws Exception {
+		File file = createFile(3000);
+		File target = File.createTempFile("javadbf-dedupe", ".dbf");
+		for (DBFDeduplicator.Keep keep : DBFDeduplicator.Keep.values()) {
+			DBFDeduplicator deduplicator = new DBFDeduplicator("group");
+			deduplicator.setKeep(keep);
+			deduplicator.setMemoryBudget(2048);
+			Assert.assertEquals(97, deduplicator.deduplicate(file, target));
+			Assert.assertTrue(deduplicator.isSorted());
+
+			List<DBFRow> rows = DBFFileUtils.readAllRows(target);
+			Assert.assertEquals(97, rows.size());
+			Set<String> groups = new HashSet<>();
+			for (int i = 0; i < rows.size(); i++) {
+				String group = rows.get(i).getString("group");
+				int code = rows.get(i).getInt("code");
+				Assert.assertTrue(groups.add(group));
+				Assert.assertEquals(group, "G" + (code % 97));
+				if (keep == DBFDeduplicator.Keep.FIRST) {
+					Assert.assertTrue(code < 97);
+				}
+				else {
+					Assert.assertTrue(code >= 3000 - 97);
+				}
+				if (i > 0) {
+					Assert.assertTrue(rows.get(i - 1).getString("group").compareTo(group) < 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testWholeRecordAndDeleted() throws Exception {
+		File file = File.createTempFile("javadbf-dedupe", ".dbf");
+		file.delete();
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(new DBFField[] {
+				new DBFField("name", DBFDataType.CHARACTER, 10),
+				new DBFField("code", DBFDataType.NUMERIC, 5)
+			});
+			writer.addRecord(new Object[] { "A", 1 });
+			writer.addRecord(new Object[] { "A", 2 });
+			writer.addRecord(new Object[] { "A", 1 });
+			writer.addRecord(new Object[] { "B", 1 });
+			writer.addRecord(new Object[] { "B", 1 });
+		}
+		try (DBFUpdater updater = new DBFUpdater(file)) {
+			updater.delete(0);
+		}
+		File target = File.createTempFile("javadbf-dedupe", ".dbf");
+
+		Assert.assertEquals(3, new DBFDeduplicator().deduplicate(file, target));
+
+		List<DBFRow> rows = DBFFileUtils.readAllRows(target);
+		Assert.assertEquals(2, rows.get(0).getInt("code"));
+		Assert.assertEquals("A", rows.get(1).getString("name"));
+		Assert.assertEquals(1, rows.get(1).getInt("code"));
+		Assert.assertEquals("B", rows.get(2).getString("name"));
+	}
+
+	private File createFile(int records) throws Exception {
+		DBFField[] fields = new DBFField[] {
+			new DBFField("code", DBFDataType.NUMERIC, 10),
+			new DBFField("group", DBFDataType.CHARACTER, 10)
+		};
+		return DBFFileUtils.createFile("javadbf-dedupe", fields, records, new DBFFileUtils.RowValues() {
+			@Override
+			public Object[] get(int index) {
+				return new Object[] { index, "G" + (index % 97) };
+			}
+		});
+	}
+}
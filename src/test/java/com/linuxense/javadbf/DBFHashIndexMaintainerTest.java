@@ -0,0 +1,171 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFHashIndexMaintainerTest {
+
+	private static final int RECORDS = 100;
+
+	@Test
+	public void testWriter() throws Exception {
+		File dbf = createFile();
+		new DBFHashIndexer("name").build(dbf);
+		DBFHashIndexMaintainer maintainer = new DBFHashIndexMaintainer(dbf, "name");
+		try (DBFWriter writer = new DBFWriter(dbf)) {
+			writer.addIndexMaintainer(maintainer);
+			// the table grows several times, and there are several batches
+			for (int i = RECORDS; i < 20000; i++) {
+				writer.addRecord(new Object[] { name(i), i });
+			}
+		}
+		Assert.assertTrue(maintainer.isMaintained());
+		checkIndex(dbf, 20000);
+	}
+
+	@Test
+	public void testSync() throws Exception {
+		File dbf = createFile();
+		new DBFHashIndexer("name").build(dbf);
+		try (DBFWriter writer = new DBFWriter(dbf)) {
+			writer.addIndexMaintainer(new DBFHashIndexMaintainer(dbf, "name"));
+			writer.setSyncPolicy(DBFSyncPolicy.everyRecords(50));
+			for (int i = RECORDS; i < RECORDS + 50; i++) {
+				writer.addRecord(new Object[] { name(i), i });
+			}
+			// the index is updated with the header
+			checkIndex(dbf, RECORDS + 50);
+			// still in the buffer of the writer, the file and the index don't change
+			writer.addRecord(new Object[] { name(0), 0 });
+			checkIndex(dbf, RECORDS + 50);
+		}
+		try (DBFHashIndex index = DBFHashIndex.open(dbf, "name")) {
+			int[] records = index.find(name(0));
+			Assert.assertEquals(RECORDS + 50, records[records.length - 1]);
+		}
+	}
+
+	@Test
+	public void testLockWriter() throws Exception {
+		File dbf = createFile();
+		new DBFHashIndexer("name").build(dbf);
+		DBFLockWriter first = new DBFLockWriter(dbf);
+		DBFLockWriter second = new DBFLockWriter(dbf);
+		try {
+			first.addIndexMaintainer(new DBFHashIndexMaintainer(dbf, "name"));
+			second.addIndexMaintainer(new DBFHashIndexMaintainer(dbf, "name"));
+			int record = RECORDS;
+			for (int batch = 0; batch < 20; batch++) {
+				DBFLockWriter writer = batch % 2 == 0 ? first : second;
+				List<Object[]> records = new ArrayList<>();
+				for (int i = 0; i < 100; i++, record++) {
+					records.add(new Object[] { name(record), record });
+				}
+				writer.addRecords(records);
+				checkIndex(dbf, record);
+			}
+			first.addRecord(new Object[] { name(record), record });
+			checkIndex(dbf, record + 1);
+		}
+		finally {
+			first.close();
+			second.close();
+		}
+	}
+
+	@Test
+	public void testOutOfDate() throws Exception {
+		File dbf = createFile();
+		new DBFHashIndexer("name").build(dbf);
+		DBFHashIndexMaintainer maintainer = new DBFHashIndexMaintainer(dbf, "name");
+		// records added without maintaining the index
+		try (DBFWriter writer = new DBFWriter(dbf)) {
+			writer.addRecord(new Object[] { name(RECORDS), RECORDS });
+		}
+		try (DBFLockWriter writer = new DBFLockWriter(dbf)) {
+			writer.addIndexMaintainer(maintainer);
+			writer.addRecord(new Object[] { name(RECORDS + 1), RECORDS + 1 });
+		}
+		Assert.assertFalse(maintainer.isMaintained());
+		Assert.assertFalse(DBFHashIndex.isCurrent(dbf, DBFHashIndex.getSidecarFile(dbf, "name")));
+		Assert.assertTrue(new DBFHashIndexer("name").buildIfNeeded(dbf));
+		checkIndex(dbf, RECORDS + 2);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStreamWriter() throws Exception {
+		File dbf = createFile();
+		new DBFHashIndexer("name").build(dbf);
+		try (DBFWriter writer = new DBFWriter(new ByteArrayOutputStream())) {
+			writer.addIndexMaintainer(new DBFHashIndexMaintainer(dbf, "name"));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAfterRecords() throws Exception {
+		File dbf = createFile();
+		new DBFHashIndexer("name").build(dbf);
+		try (DBFWriter writer = new DBFWriter(dbf)) {
+			writer.addRecord(new Object[] { name(RECORDS), RECORDS });
+			writer.addIndexMaintainer(new DBFHashIndexMaintainer(dbf, "name"));
+		}
+	}
+
+	private static String name(int i) {
+		return "K" + (i % 300);
+	}
+
+	/**
+	 * Checks that the index is current and finds every record
+	 */
+	private void checkIndex(File dbf, int records) {
+		try (DBFHashIndex index = DBFHashIndex.open(dbf, "name")) {
+			Assert.assertEquals(records, index.getRecordCount());
+			for (int key = 0; key < Math.min(records, 300); key++) {
+				int[] found = index.find(name(key));
+				Assert.assertEquals((records - key + 299) / 300, found.length);
+				for (int i = 0; i < found.length; i++) {
+					Assert.assertEquals(key + i * 300, found[i]);
+				}
+			}
+		}
+	}
+
+	private File createFile() throws Exception {
+		File file = File.createTempFile("javadbf-hix", ".dbf");
+		file.delete();
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(new DBFField[] {
+				new DBFField("name", DBFDataType.CHARACTER, 10),
+				new DBFField("code", DBFDataType.NUMERIC, 10)
+			});
+			for (int i = 0; i < RECORDS; i++) {
+				writer.addRecord(new Object[] { name(i), i });
+			}
+		}
+		return file;
+	}
+}
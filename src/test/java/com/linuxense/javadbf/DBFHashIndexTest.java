@@ -0,0 +1,137 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.linuxense.javadbf.testutils.DBFFileUtils;
+
+public class DBFHashIndexTest {
+
+	// more than one chunk of records, so several threads read the file
+	private static final int RECORDS = 120000;
+	private static final int SMALL_RECORDS = 5000;
+
+	@Test
+	public void testFind() throws Exception {
+		File dbf = createFile(RECORDS);
+		DBFHashIndexer indexer = new DBFHashIndexer("NAME");
+		indexer.setThreads(4);
+		File sidecar = indexer.build(dbf);
+		Assert.assertEquals(DBFHashIndex.getSidecarFile(dbf, "name"), sidecar);
+
+		try (DBFHashIndex index = DBFHashIndex.open(dbf, "name");
+				DBFSeekableReader reader = new DBFSeekableReader(dbf)) {
+			Assert.assertTrue("NAME".equalsIgnoreCase(index.getFieldName()));
+			Assert.assertEquals(RECORDS, index.getRecordCount());
+			int[] records = index.find("K007");
+			Assert.assertEquals(RECORDS / 50, records.length);
+			for (int i = 0; i < records.length; i++) {
+				Assert.assertEquals(7 + i * 50, records[i]);
+			}
+			Assert.assertEquals("K007", reader.getRow(records[records.length - 1]).getString("name"));
+			Assert.assertEquals(0, index.find("K0071").length);
+			Assert.assertEquals(0, index.find("").length);
+		}
+
+		new DBFHashIndexer("code").build(dbf);
+		try (DBFHashIndex index = DBFHashIndex.open(dbf, "CODE")) {
+			Assert.assertArrayEquals(new int[] { 12345 }, index.find(12345));
+			Assert.assertArrayEquals(new int[] { RECORDS - 1 }, index.find(RECORDS - 1));
+			Assert.assertEquals(0, index.find(-1).length);
+		}
+	}
+
+	@Test
+	public void testSequentialAndParallelAreEqual() throws Exception {
+		File dbf = createFile(RECORDS);
+		DBFHashIndexer indexer = new DBFHashIndexer("name");
+		indexer.setThreads(1);
+		File sequential = File.createTempFile("javadbf-hix", ".hix");
+		indexer.build(dbf, sequential);
+		indexer.setThreads(3);
+		File parallel = File.createTempFile("javadbf-hix", ".hix");
+		indexer.build(dbf, parallel);
+		Assert.assertArrayEquals(Files.readAllBytes(sequential.toPath()), Files.readAllBytes(parallel.toPath()));
+	}
+
+	@Test
+	public void testInvalidation() throws Exception {
+		File dbf = createFile(SMALL_RECORDS);
+		DBFHashIndexer indexer = new DBFHashIndexer("name");
+		File sidecar = DBFHashIndex.getSidecarFile(dbf, "name");
+		Assert.assertFalse(DBFHashIndex.isCurrent(dbf, sidecar));
+		Assert.assertTrue(indexer.buildIfNeeded(dbf));
+		Assert.assertTrue(DBFHashIndex.isCurrent(dbf, sidecar));
+		Assert.assertFalse(indexer.buildIfNeeded(dbf));
+
+		try (DBFUpdater updater = new DBFUpdater(dbf)) {
+			updater.delete(7);
+		}
+		// the size doesn't change, and the modification time may have a coarse resolution
+		dbf.setLastModified(dbf.lastModified() + 2000);
+		Assert.assertFalse(DBFHashIndex.isCurrent(dbf, sidecar));
+		try {
+			DBFHashIndex.open(dbf, "name");
+			Assert.fail("Out of date index opened");
+		}
+		catch (DBFException e) {
+			Assert.assertTrue(e.getMessage().contains("out of date"));
+		}
+
+		Assert.assertTrue(indexer.buildIfNeeded(dbf));
+		try (DBFHashIndex index = DBFHashIndex.open(dbf, "name")) {
+			// deleted records are not indexed
+			int[] records = index.find("K007");
+			Assert.assertEquals(SMALL_RECORDS / 50 - 1, records.length);
+			Assert.assertEquals(57, records[0]);
+		}
+	}
+
+	@Test(expected = DBFException.class)
+	public void testUnknownField() throws Exception {
+		new DBFHashIndexer("unknown").build(createFile(SMALL_RECORDS));
+	}
+
+	@Test(expected = DBFException.class)
+	public void testInvalidValue() throws Exception {
+		File dbf = createFile(SMALL_RECORDS);
+		new DBFHashIndexer("code").build(dbf);
+		try (DBFHashIndex index = DBFHashIndex.open(dbf, "code")) {
+			index.find("K007");
+		}
+	}
+
+	private File createFile(int records) throws Exception {
+		DBFField[] fields = new DBFField[] {
+			new DBFField("name", DBFDataType.CHARACTER, 10),
+			new DBFField("code", DBFDataType.NUMERIC, 10)
+		};
+		return DBFFileUtils.createFile("javadbf-hix", fields, records, new DBFFileUtils.RowValues() {
+			@Override
+			public Object[] get(int index) {
+				return new Object[] { String.format("K%03d", index % 50), index };
+			}
+		});
+	}
+}
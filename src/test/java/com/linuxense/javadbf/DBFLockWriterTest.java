@@ -1,9 +1,16 @@
 package com.linuxense.javadbf;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -63,6 +70,106 @@ public class DBFLockWriterTest {
         Assert.assertEquals(259L, outputFile.length());
 	}
 	
+	@Test
+	public void testCreatingEmptyFile() throws Exception {
+		File outputFile = File.createTempFile("example", ".dbf");
+		DBFLockWriter writer = new DBFLockWriter(outputFile);
+		writer.setFields(createFields());
+		writer.close();
+		byte[] data = Files.readAllBytes(outputFile.toPath());
+		int headerLength = (data[8] & 0xff) | (data[9] & 0xff) << 8;
+		Assert.assertEquals(headerLength + 1, data.length);
+		Assert.assertEquals(DBFWriter.END_OF_DATA, data[headerLength]);
+
+		// the date of last update is refreshed on close, the terminator is not repeated
+		try (RandomAccessFile raf = new RandomAccessFile(outputFile, "rw")) {
+			raf.seek(1);
+			raf.write(new byte[3]);
+		}
+		writer = new DBFLockWriter(outputFile);
+		writer.close();
+		data = Files.readAllBytes(outputFile.toPath());
+		Assert.assertEquals(headerLength + 1, data.length);
+		Assert.assertEquals(new GregorianCalendar().get(Calendar.YEAR) - 1900, data[1]);
+		Assert.assertTrue(data[2] >= 1 && data[2] <= 12);
+
+		DBFReader reader = new DBFReader(new FileInputStream(outputFile));
+		try {
+			Assert.assertEquals(0, reader.getRecordCount());
+			Assert.assertNull(reader.nextRecord());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testAddRecordsFromSeveralWriters() throws Exception {
+		DBFField[] fields = createFields();
+		File outputFile = File.createTempFile("example", ".dbf");
+		DBFLockWriter first = new DBFLockWriter(outputFile);
+		first.setFields(fields);
+		DBFLockWriter second = new DBFLockWriter(outputFile);
+		try {
+			first.addRecords(createRows(0, 10));
+			second.addRecords(createRows(10, 5));
+			first.addRecord(createRows(15, 1).get(0));
+			second.newRecordBuilder().setString(0, "16").setString(1, "John Smith 16").setDouble(2, 17000.25).commit();
+			first.addRecords(new ArrayList<Object[]>());
+		}
+		finally {
+			DBFUtils.close(first);
+			DBFUtils.close(second);
+		}
+		Assert.assertEquals(129L + 17 * 43 + 1, outputFile.length());
+
+		DBFReader reader = new DBFReader(new FileInputStream(outputFile));
+		try {
+			Assert.assertEquals(17, reader.getRecordCount());
+			for (int i = 0; i < 17; i++) {
+				Object[] row = reader.nextRecord();
+				Assert.assertEquals(Integer.toString(i), row[0]);
+				Assert.assertEquals("John Smith " + i, row[1]);
+			}
+			Assert.assertNull(reader.nextRecord());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testInvalidRecordInBatch() throws Exception {
+		DBFField[] fields = createFields();
+		File outputFile = File.createTempFile("example", ".dbf");
+		DBFLockWriter writer = new DBFLockWriter(outputFile);
+		try {
+			writer.setFields(fields);
+			List<Object[]> rows = createRows(0, 3);
+			rows.add(new Object[] { 1, 2, 3 });
+			try {
+				writer.addRecords(rows);
+				Assert.fail("Invalid record should be rejected");
+			}
+			catch (DBFException e) {
+				// expected, no record is written
+			}
+			writer.addRecords(createRows(0, 2));
+		}
+		finally {
+			DBFUtils.close(writer);
+		}
+		Assert.assertEquals(129L + 2 * 43 + 1, outputFile.length());
+	}
+
+	private List<Object[]> createRows(int first, int count) {
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = first; i < first + count; i++) {
+			rows.add(new Object[] { Integer.toString(i), "John Smith " + i, 1000 * (i + 1) + 0.25 });
+		}
+		return rows;
+	}
+
 	private DBFField[] createFields() {
 		DBFField[] fields = new DBFField[3];
 
@@ -0,0 +1,307 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFMdxReaderTest {
+
+	private static final int RECORDS = 200;
+	private static final int BLOCK_SIZE = 1024;
+
+	@Test
+	public void testTags() throws Exception {
+		File dbf = createFile(true);
+		try (DBFMdxReader index = DBFMdxReader.openStructuralIndex(dbf)) {
+			Assert.assertEquals(Arrays.asList("NAME", "CODE", "BORN"), index.getTagNames());
+			Assert.assertEquals(BLOCK_SIZE, index.getBlockSize());
+			DBFMdxReader.Tag tag = index.getTag("name");
+			Assert.assertEquals("NAME", tag.getKeyExpression());
+			Assert.assertEquals('C', tag.getKeyType());
+			Assert.assertEquals(10, tag.getKeyLength());
+			Assert.assertFalse(tag.isDescending());
+			Assert.assertTrue(index.getTag("code").isDescending());
+			Assert.assertEquals('D', index.getTag("BORN").getKeyType());
+		}
+	}
+
+	@Test
+	public void testNoStructuralIndex() throws Exception {
+		Assert.assertNull(DBFMdxReader.openStructuralIndex(createFile(false)));
+	}
+
+	@Test(expected = DBFException.class)
+	public void testUnknownTag() throws Exception {
+		try (DBFMdxReader index = DBFMdxReader.openStructuralIndex(createFile(true))) {
+			index.getTag("unknown");
+		}
+	}
+
+	@Test
+	public void testCharacterTag() throws Exception {
+		File dbf = createFile(true);
+		try (DBFMdxReader index = DBFMdxReader.openStructuralIndex(dbf);
+				DBFSeekableReader reader = new DBFSeekableReader(dbf)) {
+			DBFMdxReader.Tag tag = index.getTag("NAME");
+			Assert.assertArrayEquals(new int[] { 7, 57, 107, 157 }, tag.find("K007"));
+			Assert.assertEquals(0, tag.find("K0071").length);
+			int[] records = tag.findRange("K010", "K019");
+			Assert.assertEquals(40, records.length);
+			String previous = "";
+			for (int record : records) {
+				String name = reader.getRow(record).getString("name");
+				Assert.assertTrue(name.compareTo("K010") >= 0 && name.compareTo("K019") <= 0);
+				Assert.assertTrue(previous.compareTo(name) <= 0);
+				previous = name;
+			}
+			Assert.assertEquals(RECORDS, tag.getAll().length);
+			Assert.assertEquals(8, tag.findRange("K048", null).length);
+		}
+	}
+
+	@Test
+	public void testNumericTag() throws Exception {
+		File dbf = createFile(true);
+		try (DBFMdxReader index = DBFMdxReader.openStructuralIndex(dbf);
+				DBFSeekableReader reader = new DBFSeekableReader(dbf)) {
+			DBFMdxReader.Tag tag = index.getTag("CODE");
+			Assert.assertArrayEquals(new int[] { 5 }, tag.find(5 - RECORDS / 2));
+			Assert.assertArrayEquals(new int[] { 150 }, tag.find(50.0));
+			// descending tag
+			int[] records = tag.findRange(-1, 2);
+			Assert.assertArrayEquals(new int[] { 102, 101, 100, 99 }, records);
+			Assert.assertEquals(2, reader.getRow(records[0]).getInt("code"));
+			int[] all = tag.getAll();
+			Assert.assertEquals(RECORDS - 1, all[0]);
+			Assert.assertEquals(0, all[RECORDS - 1]);
+			Assert.assertEquals(0, tag.find(1000).length);
+		}
+	}
+
+	@Test
+	public void testDateTag() throws Exception {
+		File dbf = createFile(true);
+		try (DBFMdxReader index = DBFMdxReader.openStructuralIndex(dbf);
+				DBFSeekableReader reader = new DBFSeekableReader(dbf)) {
+			DBFMdxReader.Tag tag = index.getTag("BORN");
+			int[] records = tag.find(date(12));
+			Assert.assertArrayEquals(new int[] { 12 }, records);
+			Assert.assertEquals(date(12), reader.getRow(records[0]).getDate("born"));
+			Assert.assertArrayEquals(new int[] { 30, 31, 32 }, tag.findRange(date(30), date(32)));
+		}
+	}
+
+	@Test
+	public void testPageCache() throws Exception {
+		File dbf = createFile(true);
+		File mdx = DBFCdxReader.findSibling(dbf, "mdx");
+		try (DBFMdxReader index = new DBFMdxReader(mdx, null, 2)) {
+			DBFMdxReader.Tag tag = index.getTag("NAME");
+			tag.find("K001");
+			long misses = index.getPageCache().getMisses();
+			tag.find("K001");
+			Assert.assertEquals(misses, index.getPageCache().getMisses());
+		}
+	}
+
+	private static Date date(int day) {
+		return new GregorianCalendar(2020, Calendar.JANUARY, 1 + day).getTime();
+	}
+
+	private File createFile(boolean withIndex) throws Exception {
+		File file = File.createTempFile("javadbf-mdx", ".dbf");
+		file.delete();
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(new DBFField[] {
+				new DBFField("name", DBFDataType.CHARACTER, 10),
+				new DBFField("code", DBFDataType.NUMERIC, 10),
+				new DBFField("born", DBFDataType.DATE)
+			});
+			for (int i = 0; i < RECORDS; i++) {
+				writer.addRecord(new Object[] { String.format("K%03d", i % 50), i - RECORDS / 2, date(i) });
+			}
+		}
+		if (withIndex) {
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				raf.seek(28);
+				raf.write(1);
+			}
+			String name = file.getName();
+			createIndex(new File(file.getParentFile(), name.substring(0, name.length() - 4) + ".mdx"));
+		}
+		return file;
+	}
+
+	@Test
+	public void testCompareNumber() {
+		String[] values = { "0", "-0.00", "1", "-1", "2.000", "-5.5", "249.5", "250", "250.0000001", "-250",
+				"1E+25", "-1E-25", "123456789012345678901234567890", "0.001" };
+		for (int i = -300; i <= 300; i += 7) {
+			ByteBuffer key = ByteBuffer.wrap(bcd(i));
+			for (String value : values) {
+				BigDecimal number = new BigDecimal(value);
+				Assert.assertEquals(i + " " + value, DBFMdxReader.decodeNumber(key, 0).compareTo(number),
+						Integer.signum(DBFMdxReader.compareNumber(key, 0, new DBFMdxReader.NumericKey(number))));
+			}
+		}
+	}
+
+	/**
+	 * Writes an index with three tags, each one a two level tree
+	 */
+	private void createIndex(File mdx) throws Exception {
+		List<byte[]> names = new ArrayList<>();
+		List<byte[]> codes = new ArrayList<>();
+		List<byte[]> dates = new ArrayList<>();
+		for (int i = 0; i < RECORDS; i++) {
+			names.add(String.format("K%03d      ", i % 50).getBytes(StandardCharsets.US_ASCII));
+			codes.add(bcd(i - RECORDS / 2));
+			byte[] key = new byte[8];
+			ByteBuffer.wrap(key).order(ByteOrder.LITTLE_ENDIAN).putDouble(DBFNdxReader.toJulianDay(date(i)));
+			dates.add(key);
+		}
+
+		ByteBuffer file = ByteBuffer.allocate(BLOCK_SIZE * 32).order(ByteOrder.LITTLE_ENDIAN);
+		file.put(0, (byte) 2);
+		file.putShort(20, (short) (BLOCK_SIZE / 512));
+		file.putShort(22, (short) BLOCK_SIZE);
+		file.put(24, (byte) 1);
+		file.put(25, (byte) 47);
+		file.put(26, (byte) 32);
+		file.putShort(28, (short) 3);
+		// the header takes two blocks, then three tag headers
+		int next = 5;
+		next = writeTag(file, 0, 2, "NAME", 'C', names, false, next);
+		next = writeTag(file, 1, 3, "CODE", 'N', codes, true, next);
+		next = writeTag(file, 2, 4, "BORN", 'D', dates, false, next);
+
+		try (FileOutputStream out = new FileOutputStream(mdx)) {
+			out.write(file.array(), 0, next * BLOCK_SIZE);
+		}
+	}
+
+	private int writeTag(ByteBuffer file, int tagNumber, int headerBlock, String name, final char type,
+			final List<byte[]> keys, final boolean descending, int firstBlock) {
+		int entry = 544 + tagNumber * 32;
+		file.putInt(entry, headerBlock * BLOCK_SIZE / 512);
+		putBytes(file, entry + 4, name.getBytes(StandardCharsets.US_ASCII));
+		file.put(entry + 20, (byte) type);
+
+		List<Integer> records = new ArrayList<>();
+		for (int i = 0; i < keys.size(); i++) {
+			records.add(i);
+		}
+		Collections.sort(records, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				int result = compareKeys(keys.get(a), keys.get(b));
+				return (descending ? -result : result) != 0 ? (descending ? -result : result) : a - b;
+			}
+
+			private int compareKeys(byte[] a, byte[] b) {
+				if (type == 'N') {
+					return DBFMdxReader.decodeNumber(ByteBuffer.wrap(a), 0).compareTo(DBFMdxReader.decodeNumber(ByteBuffer.wrap(b), 0));
+				}
+				if (type == 'D') {
+					return Double.compare(ByteBuffer.wrap(a).order(ByteOrder.LITTLE_ENDIAN).getDouble(),
+							ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN).getDouble());
+				}
+				for (int i = 0; i < a.length; i++) {
+					if (a[i] != b[i]) {
+						return (a[i] & 0xFF) - (b[i] & 0xFF);
+					}
+				}
+				return 0;
+			}
+		});
+
+		int keyLength = keys.get(0).length;
+		int itemLength = 4 + (keyLength + 3) / 4 * 4;
+		int maxKeys = (BLOCK_SIZE - 12) / itemLength;
+		int leaves = (records.size() + maxKeys - 1) / maxKeys;
+		int root = firstBlock + leaves;
+
+		int header = headerBlock * BLOCK_SIZE;
+		file.putInt(header, root * BLOCK_SIZE / 512);
+		file.put(header + 8, (byte) (descending ? 0x08 : 0));
+		file.put(header + 9, (byte) type);
+		file.putShort(header + 12, (short) keyLength);
+		file.putShort(header + 14, (short) maxKeys);
+		file.putShort(header + 18, (short) itemLength);
+		putBytes(file, header + 24, name.getBytes(StandardCharsets.US_ASCII));
+
+		int rootOffset = root * BLOCK_SIZE;
+		for (int leaf = 0; leaf < leaves; leaf++) {
+			int block = (firstBlock + leaf) * BLOCK_SIZE;
+			int count = Math.min(maxKeys, records.size() - leaf * maxKeys);
+			file.putInt(block, count);
+			for (int i = 0; i < count; i++) {
+				int record = records.get(leaf * maxKeys + i);
+				file.putInt(block + 8 + i * itemLength, record + 1);
+				putBytes(file, block + 12 + i * itemLength, keys.get(record));
+			}
+			int pointer = rootOffset + 8 + leaf * itemLength;
+			file.putInt(pointer, (firstBlock + leaf) * BLOCK_SIZE / 512);
+			if (leaf < leaves - 1) {
+				// the highest key of the leaf
+				putBytes(file, pointer + 4, keys.get(records.get(leaf * maxKeys + count - 1)));
+			}
+		}
+		file.putInt(rootOffset, leaves - 1);
+		return root + 1;
+	}
+
+	/**
+	 * Numeric key: exponent, digit count and sign, 20 BCD digits
+	 */
+	private static byte[] bcd(int value) {
+		String digits = Integer.toString(Math.abs(value));
+		byte[] key = new byte[12];
+		key[0] = (byte) (0x34 + digits.length());
+		key[1] = (byte) ((digits.length() << 2) | (value < 0 ? 0x80 : 0));
+		for (int i = 0; i < digits.length(); i++) {
+			int digit = digits.charAt(i) - '0';
+			key[2 + i / 2] |= (byte) (i % 2 == 0 ? digit << 4 : digit);
+		}
+		return key;
+	}
+
+	private static void putBytes(ByteBuffer file, int offset, byte[] bytes) {
+		for (int i = 0; i < bytes.length; i++) {
+			file.put(offset + i, bytes[i]);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFMemoCompactorTest {
+
+	@Test
+	public void testCompactDBase3() throws Exception {
+		testCompact("dbase_83", ".dbt", false);
+	}
+
+	@Test
+	public void testCompactDBase4() throws Exception {
+		testCompact("dbase_8b", ".dbt", false);
+	}
+
+	@Test
+	public void testCompactFoxPro() throws Exception {
+		testCompact("dbase_f5", ".fpt", false);
+		testCompact("dbase_30", ".fpt", false);
+	}
+
+	@Test
+	public void testCompactDeduplicate() throws Exception {
+		testCompact("dbase_83", ".dbt", true);
+		testCompact("dbase_f5", ".fpt", true);
+		testCompact("dbase_30", ".fpt", true);
+	}
+
+	@Test
+	public void testTrackingTablesLimit() throws Exception {
+		DBFMemoCompactor.BlockTable blocks = new DBFMemoCompactor.BlockTable(1000);
+		DBFMemoCompactor.HashTable hashes = new DBFMemoCompactor.HashTable(1000);
+		for (int i = 1; i <= 1000; i++) {
+			Assert.assertTrue(blocks.put(i * 64, i + 7));
+			Assert.assertTrue(hashes.put(i * 64L, -i, i + 7));
+		}
+		// full: entries not seen before are not added, the rest are still found
+		Assert.assertFalse(blocks.put(1001 * 64, 5));
+		Assert.assertFalse(hashes.put(1001 * 64L, -1001, 5));
+		Assert.assertEquals(0, blocks.get(1001 * 64));
+		Assert.assertEquals(0, hashes.get(1001 * 64L, -1001));
+		for (int i = 1; i <= 1000; i++) {
+			Assert.assertEquals(i + 7, blocks.get(i * 64));
+			Assert.assertEquals(i + 7, hashes.get(i * 64L, -i));
+		}
+		Assert.assertEquals(0, blocks.get(65));
+		Assert.assertEquals(0, hashes.get(64L, 1));
+	}
+
+	private void testCompact(String name, String memoExtension, boolean deduplicate) throws Exception {
+		File dbf = new File("src/test/resources/fixtures/" + name + ".dbf");
+		File memo = new File("src/test/resources/fixtures/" + name + memoExtension);
+		File targetDbf = File.createTempFile("javadbf-compact", ".dbf");
+		File targetMemo = File.createTempFile("javadbf-compact", memoExtension);
+
+		DBFMemoCompactor.compact(dbf, memo, targetDbf, targetMemo, deduplicate);
+
+		Assert.assertTrue(targetMemo.length() <= memo.length());
+
+		List<Object[]> expected = readAll(dbf, memo);
+		List<Object[]> actual = readAll(targetDbf, targetMemo);
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertArrayEquals(expected.get(i), actual.get(i));
+		}
+	}
+
+	private List<Object[]> readAll(File dbf, File memo) throws Exception {
+		List<Object[]> rows = new ArrayList<>();
+		DBFReader reader = null;
+		try {
+			reader = new DBFReader(new BufferedInputStream(new FileInputStream(dbf)));
+			reader.setMemoFile(memo);
+			Object[] row = null;
+			while ((row = reader.nextRecord()) != null) {
+				rows.add(row);
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,123 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.linuxense.javadbf.testutils.DBFFileUtils;
+
+public class DBFMergerTest {
+
+	@Test
+	public void testMerge() throws Exception {
+		File a = createFile("A", 100, 20);
+		File b = createFile("B", 0, 20);
+		File c = createFile("C", 250, 20);
+		File target = File.createTempFile("javadbf-merge", ".dbf");
+
+		Assert.assertEquals(350, DBFMerger.merge(Arrays.asList(a, b, c), target));
+
+		List<String> names = readNames(target);
+		Assert.assertEquals(350, names.size());
+		Assert.assertEquals("A 0", names.get(0));
+		Assert.assertEquals("A 99", names.get(99));
+		Assert.assertEquals("C 0", names.get(100));
+		Assert.assertEquals("C 249", names.get(349));
+		DBFHeader header = DBFUtils.readHeader(target);
+		Assert.assertEquals(350, header.numberOfRecords);
+		Assert.assertEquals(header.headerLength + 350L * header.recordLength + 1, target.length());
+	}
+
+	@Test
+	public void testMergeSkipDeleted() throws Exception {
+		File a = createFile("A", 10, 20);
+		File b = createFile("B", 10, 20);
+		try (DBFUpdater updater = new DBFUpdater(a)) {
+			updater.delete(0);
+			updater.delete(4);
+			updater.delete(5);
+		}
+		try (DBFUpdater updater = new DBFUpdater(b)) {
+			updater.delete(9);
+		}
+		File target = File.createTempFile("javadbf-merge", ".dbf");
+
+		Assert.assertEquals(16, DBFMerger.merge(Arrays.asList(a, b), target, true));
+
+		List<String> names = readNames(target);
+		Assert.assertEquals(16, names.size());
+		Assert.assertEquals("A 1", names.get(0));
+		Assert.assertEquals("A 6", names.get(3));
+		Assert.assertEquals("B 0", names.get(7));
+		Assert.assertEquals("B 8", names.get(15));
+
+		// without skipping, the deleted records are copied with their flag
+		Assert.assertEquals(20, DBFMerger.merge(Arrays.asList(a, b), target));
+		Assert.assertEquals(16, readNames(target).size());
+	}
+
+	@Test(expected = DBFException.class)
+	public void testDifferentStructure() throws Exception {
+		File a = createFile("A", 10, 20);
+		File b = createFile("B", 10, 21);
+		DBFMerger.merge(Arrays.asList(a, b), File.createTempFile("javadbf-merge", ".dbf"));
+	}
+
+	@Test(expected = DBFException.class)
+	public void testMemoFields() throws Exception {
+		File dbf = new File("src/test/resources/fixtures/dbase_83.dbf");
+		DBFMerger.merge(Arrays.asList(dbf, dbf), File.createTempFile("javadbf-merge", ".dbf"));
+	}
+
+	private List<String> readNames(File file) throws Exception {
+		List<String> names = new ArrayList<>();
+		DBFReader reader = new DBFReader(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			DBFRow row;
+			while ((row = reader.nextRow()) != null) {
+				names.add(row.getString("name"));
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+		return names;
+	}
+
+	private File createFile(final String prefix, int records, int nameLength) throws Exception {
+		DBFField[] fields = new DBFField[] {
+			new DBFField("name", DBFDataType.CHARACTER, nameLength),
+			new DBFField("code", DBFDataType.NUMERIC, 10)
+		};
+		return DBFFileUtils.createFile("javadbf-merge", fields, records, new DBFFileUtils.RowValues() {
+			@Override
+			public Object[] get(int index) {
+				return new Object[] { prefix + " " + index, index };
+			}
+		});
+	}
+}
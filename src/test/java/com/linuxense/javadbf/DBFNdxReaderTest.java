@@ -0,0 +1,230 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFNdxReaderTest {
+
+	private static final int RECORDS = 200;
+
+	@Test
+	public void testCharacterIndex() throws Exception {
+		File dbf = createFile();
+		List<byte[]> keys = new ArrayList<>();
+		for (int i = 0; i < RECORDS; i++) {
+			keys.add(String.format("K%03d      ", i % 50).getBytes(StandardCharsets.US_ASCII));
+		}
+		File ndx = createIndex(keys, false, "NAME");
+
+		try (DBFNdxReader index = new DBFNdxReader(ndx);
+				DBFSeekableReader reader = new DBFSeekableReader(dbf)) {
+			Assert.assertEquals("NAME", index.getKeyExpression());
+			Assert.assertEquals(10, index.getKeyLength());
+			Assert.assertFalse(index.isNumeric());
+
+			int[] records = index.find("K007");
+			Assert.assertArrayEquals(new int[] { 7, 57, 107, 157 }, records);
+			for (int record : records) {
+				Assert.assertEquals("K007", reader.getRow(record).getString("name"));
+			}
+			Assert.assertEquals(0, index.find("K0071").length);
+			Assert.assertEquals(0, index.find("A").length);
+
+			records = index.findRange("K010", "K019");
+			Assert.assertEquals(40, records.length);
+			String previous = "";
+			for (int record : records) {
+				String name = reader.getRow(record).getString("name");
+				Assert.assertTrue(name.compareTo("K010") >= 0 && name.compareTo("K019") <= 0);
+				Assert.assertTrue(previous.compareTo(name) <= 0);
+				previous = name;
+			}
+			Assert.assertEquals(RECORDS, index.getAll().length);
+			Assert.assertEquals(8, index.findRange("K048", null).length);
+			Assert.assertEquals(8, index.findRange(null, "K001").length);
+		}
+	}
+
+	@Test
+	public void testNumericIndex() throws Exception {
+		File dbf = createFile();
+		List<byte[]> keys = new ArrayList<>();
+		for (int i = 0; i < RECORDS; i++) {
+			byte[] key = new byte[8];
+			ByteBuffer.wrap(key).order(ByteOrder.LITTLE_ENDIAN).putDouble(RECORDS - i);
+			keys.add(key);
+		}
+		File ndx = createIndex(keys, true, "CODE");
+
+		try (DBFNdxReader index = new DBFNdxReader(ndx, null, 2);
+				DBFSeekableReader reader = new DBFSeekableReader(dbf)) {
+			Assert.assertTrue(index.isNumeric());
+			Assert.assertArrayEquals(new int[] { RECORDS - 5 }, index.find(5));
+			int[] records = index.findRange(10, 12.5);
+			Assert.assertArrayEquals(new int[] { RECORDS - 10, RECORDS - 11, RECORDS - 12 }, records);
+			Assert.assertEquals(RECORDS - 11, reader.getRow(records[1]).getInt("code"));
+
+			// the root and the leaf are cached
+			long misses = index.getPageCache().getMisses();
+			index.find(5);
+			Assert.assertEquals(misses, index.getPageCache().getMisses());
+			// with two pages, another leaf evicts the first one
+			index.find(150);
+			index.find(5);
+			Assert.assertEquals(misses + 2, index.getPageCache().getMisses());
+		}
+	}
+
+	@Test
+	public void testSeekableReader() throws Exception {
+		File dbf = createFile();
+		try (DBFUpdater updater = new DBFUpdater(dbf)) {
+			updater.delete(10);
+		}
+		try (DBFSeekableReader reader = new DBFSeekableReader(dbf)) {
+			Assert.assertEquals(150, reader.getRow(150).getInt("code"));
+			Assert.assertNull(reader.getRow(10));
+			Assert.assertTrue(reader.isDeleted(10));
+			reader.seek(9);
+			Assert.assertEquals(9, reader.nextRow().getInt("code"));
+			// deleted records are skipped
+			Assert.assertEquals(11, reader.nextRow().getInt("code"));
+			reader.seek(RECORDS - 1);
+			Assert.assertNotNull(reader.nextRecord());
+			Assert.assertNull(reader.nextRecord());
+			Assert.assertEquals(3, ((Number) reader.getRecord(3)[1]).intValue());
+		}
+	}
+
+	@Test(expected = DBFException.class)
+	public void testInvalidRecordNumber() throws Exception {
+		try (DBFSeekableReader reader = new DBFSeekableReader(createFile())) {
+			reader.getRow(RECORDS);
+		}
+	}
+
+	private File createFile() throws Exception {
+		File file = File.createTempFile("javadbf-ndx", ".dbf");
+		file.delete();
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(new DBFField[] {
+				new DBFField("name", DBFDataType.CHARACTER, 10),
+				new DBFField("code", DBFDataType.NUMERIC, 10)
+			});
+			for (int i = 0; i < RECORDS; i++) {
+				writer.addRecord(new Object[] { String.format("K%03d", i % 50), i });
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Writes a two level NDX file, with the key of each record (in record order)
+	 */
+	private File createIndex(List<byte[]> recordKeys, final boolean numeric, String expression) throws Exception {
+		final List<byte[]> keys = new ArrayList<>(recordKeys);
+		List<Integer> records = new ArrayList<>();
+		for (int i = 0; i < keys.size(); i++) {
+			records.add(i);
+		}
+		Collections.sort(records, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				int result = compareKeys(keys.get(a), keys.get(b));
+				return result != 0 ? result : a - b;
+			}
+
+			private int compareKeys(byte[] a, byte[] b) {
+				if (numeric) {
+					return Double.compare(ByteBuffer.wrap(a).order(ByteOrder.LITTLE_ENDIAN).getDouble(),
+							ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN).getDouble());
+				}
+				for (int i = 0; i < a.length; i++) {
+					if (a[i] != b[i]) {
+						return (a[i] & 0xFF) - (b[i] & 0xFF);
+					}
+				}
+				return 0;
+			}
+		});
+
+		int keyLength = keys.get(0).length;
+		int entrySize = 8 + (keyLength + 3) / 4 * 4;
+		int maxKeys = (512 - 4) / entrySize;
+		int leaves = (records.size() + maxKeys - 1) / maxKeys;
+		ByteBuffer file = ByteBuffer.allocate((leaves + 2) * 512).order(ByteOrder.LITTLE_ENDIAN);
+		int root = leaves + 1;
+		file.putInt(0, root);
+		file.putInt(4, leaves + 2);
+		file.putShort(12, (short) keyLength);
+		file.putShort(14, (short) maxKeys);
+		file.putShort(16, (short) (numeric ? 1 : 0));
+		file.putShort(18, (short) entrySize);
+		byte[] expressionBytes = expression.getBytes(StandardCharsets.US_ASCII);
+		for (int i = 0; i < expressionBytes.length; i++) {
+			file.put(24 + i, expressionBytes[i]);
+		}
+
+		for (int leaf = 0; leaf < leaves; leaf++) {
+			int page = (leaf + 1) * 512;
+			int count = Math.min(maxKeys, records.size() - leaf * maxKeys);
+			file.putInt(page, count);
+			for (int i = 0; i < count; i++) {
+				int record = records.get(leaf * maxKeys + i);
+				int entry = page + 4 + i * entrySize;
+				file.putInt(entry + 4, record + 1);
+				putKey(file, entry + 8, keys.get(record));
+			}
+			if (leaf < leaves - 1) {
+				// branch entry with the highest key of the leaf
+				int entry = root * 512 + 4 + leaf * entrySize;
+				file.putInt(entry, leaf + 1);
+				putKey(file, entry + 8, keys.get(records.get(leaf * maxKeys + count - 1)));
+			}
+			else {
+				file.putInt(root * 512 + 4 + leaf * entrySize, leaf + 1);
+			}
+		}
+		file.putInt(root * 512, leaves - 1);
+
+		File ndx = File.createTempFile("javadbf-ndx", ".ndx");
+		try (FileOutputStream out = new FileOutputStream(ndx)) {
+			out.write(file.array());
+		}
+		return ndx;
+	}
+
+	private void putKey(ByteBuffer file, int offset, byte[] key) {
+		for (int i = 0; i < key.length; i++) {
+			file.put(offset + i, key[i]);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFNumberFormatterTest {
+
+	private static final int[][] FIELD_SIZES = {
+		{ 1, 0 }, { 3, 0 }, { 10, 0 }, { 20, 0 },
+		{ 3, 2 }, { 4, 2 }, { 5, 2 }, { 12, 2 }, { 19, 4 }, { 20, 10 }, { 20, 18 }, { 30, 20 }
+	};
+
+	@Test
+	public void testEdgeValues() {
+		Number[] values = {
+			0, 1, -1, 9, 10, 99, 100, 12345, -12345, Long.MAX_VALUE, Long.MIN_VALUE, Integer.MIN_VALUE,
+			0.0, -0.0, 0.5, 1.5, 2.5, -0.5, 0.125, 0.135, 0.145, 1.005, 2.675, -0.001, -0.004, -0.005,
+			0.01, 0.1, 0.7, 123.456, 999.995, 9.999, 1e14, 1e15, 1e16, 1e20, 1e-10, 123456789.123456789,
+			Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+			1.5f, 0.1f, (short) 12, (byte) -3,
+			new BigDecimal("0.125"), new BigDecimal("-0.001"), new BigDecimal("12345678901234567890.5"),
+			new BigDecimal("1E+3"), BigDecimal.ZERO, new BigInteger("123"), new BigInteger("123456789012345678901234")
+		};
+		for (Number value : values) {
+			assertSameFormat(value, StandardCharsets.ISO_8859_1);
+		}
+	}
+
+	@Test
+	public void testRandomDoubles() {
+		Random random = new Random(42);
+		for (int i = 0; i < 20000; i++) {
+			double value;
+			switch (i % 4) {
+			case 0:
+				value = random.nextDouble() * 1000;
+				break;
+			case 1:
+				value = (random.nextInt(2000000) - 1000000) / 1000.0;
+				break;
+			case 2:
+				value = random.nextGaussian() * Math.pow(10, random.nextInt(20) - 5);
+				break;
+			default:
+				value = (random.nextInt(200000) - 100000) / 8.0;
+				break;
+			}
+			assertSameFormat(value, StandardCharsets.ISO_8859_1);
+		}
+	}
+
+	@Test
+	public void testRandomLongs() {
+		Random random = new Random(42);
+		for (int i = 0; i < 5000; i++) {
+			long value = random.nextLong() >> random.nextInt(64);
+			assertSameFormat(value, StandardCharsets.ISO_8859_1);
+		}
+	}
+
+	@Test
+	public void testOtherCharsets() {
+		Number[] values = { 0, -12, 123.456, -0.001, new BigDecimal("3.14159") };
+		for (Number value : values) {
+			assertSameFormat(value, StandardCharsets.UTF_8);
+			assertSameFormat(value, StandardCharsets.UTF_16LE);
+		}
+	}
+
+	private void assertSameFormat(Number value, Charset charset) {
+		DBFNumberFormatter formatter = new DBFNumberFormatter(charset);
+		for (int[] size : FIELD_SIZES) {
+			byte[] expected = DBFUtils.doubleFormating(value, charset, size[0], size[1]);
+			byte[] actual = new byte[size[0] + 2];
+			actual[0] = 'x';
+			actual[actual.length - 1] = 'x';
+			formatter.format(value, actual, 1, size[0], size[1]);
+			Assert.assertEquals("value " + value + " size " + size[0] + "," + size[1],
+					new String(expected, charset), new String(actual, 1, size[0], charset));
+			Assert.assertEquals('x', actual[0]);
+			Assert.assertEquals('x', actual[actual.length - 1]);
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.linuxense.javadbf.testutils.DBFFileUtils;
+
+public class DBFPackerTest {
+
+	@Test
+	public void testPack() throws Exception {
+		File file = createFile(5000);
+		try (DBFUpdater updater = new DBFUpdater(file)) {
+			for (int i = 0; i < 5000; i++) {
+				// runs of deleted records of different lengths
+				if (i % 7 == 0 || i % 11 < 3) {
+					updater.delete(i);
+				}
+			}
+		}
+		List<Object[]> expected = DBFFileUtils.readAll(file);
+		File target = File.createTempFile("javadbf-pack", ".dbf");
+
+		int records = DBFPacker.packTo(file, target);
+
+		Assert.assertEquals(expected.size(), records);
+		assertSameRecords(expected, DBFFileUtils.readAll(target));
+		DBFReader reader = new DBFReader(new FileInputStream(target));
+		try {
+			Assert.assertEquals(records, reader.getRecordCount());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+		DBFHeader header = DBFUtils.readHeader(target);
+		Assert.assertEquals(header.headerLength + (long) records * header.recordLength + 1, target.length());
+	}
+
+	@Test
+	public void testPackInPlace() throws Exception {
+		File file = createFile(100);
+		try (DBFUpdater updater = new DBFUpdater(file)) {
+			updater.delete(0);
+			updater.delete(50);
+			updater.delete(99);
+		}
+		List<Object[]> expected = DBFFileUtils.readAll(file);
+		Assert.assertEquals(97, DBFPacker.pack(file));
+		assertSameRecords(expected, DBFFileUtils.readAll(file));
+		Assert.assertEquals(97, DBFUtils.readHeader(file).numberOfRecords);
+		// nothing to remove
+		Assert.assertEquals(97, DBFPacker.pack(file));
+		assertSameRecords(expected, DBFFileUtils.readAll(file));
+	}
+
+	@Test
+	public void testPackEmpty() throws Exception {
+		File file = createFile(10);
+		try (DBFUpdater updater = new DBFUpdater(file)) {
+			for (int i = 0; i < 10; i++) {
+				updater.delete(i);
+			}
+		}
+		Assert.assertEquals(0, DBFPacker.pack(file));
+		Assert.assertTrue(DBFFileUtils.readAll(file).isEmpty());
+	}
+
+	@Test
+	public void testPackWithMemo() throws Exception {
+		File dbf = File.createTempFile("javadbf-pack", ".dbf");
+		File memo = File.createTempFile("javadbf-pack", ".dbt");
+		Files.copy(new File("src/test/resources/fixtures/dbase_83.dbf").toPath(), dbf.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		Files.copy(new File("src/test/resources/fixtures/dbase_83.dbt").toPath(), memo.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		int total = DBFUtils.readHeader(dbf).numberOfRecords;
+		try (DBFUpdater updater = new DBFUpdater(dbf)) {
+			for (int i = 0; i < total; i += 2) {
+				updater.delete(i);
+			}
+		}
+		List<Object[]> expected = DBFFileUtils.readAll(dbf, memo);
+		long memoLength = memo.length();
+
+		Assert.assertEquals(expected.size(), DBFPacker.pack(dbf, memo));
+
+		assertSameRecords(expected, DBFFileUtils.readAll(dbf, memo));
+		Assert.assertTrue(memo.length() < memoLength);
+		Assert.assertFalse(new File(dbf.getPath() + ".pack").exists());
+		Assert.assertFalse(new File(memo.getPath() + ".pack").exists());
+	}
+
+	@Test
+	public void testRecoverInterruptedPack() throws Exception {
+		File dbf = File.createTempFile("javadbf-pack", ".dbf");
+		File memo = File.createTempFile("javadbf-pack", ".dbt");
+		Files.copy(new File("src/test/resources/fixtures/dbase_83.dbf").toPath(), dbf.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		Files.copy(new File("src/test/resources/fixtures/dbase_83.dbt").toPath(), memo.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		int total = DBFUtils.readHeader(dbf).numberOfRecords;
+		try (DBFUpdater updater = new DBFUpdater(dbf)) {
+			for (int i = 0; i < total; i += 2) {
+				updater.delete(i);
+			}
+		}
+		byte[] dbfData = Files.readAllBytes(dbf.toPath());
+		byte[] memoData = Files.readAllBytes(memo.toPath());
+		List<Object[]> expected = DBFFileUtils.readAll(dbf, memo);
+		File packedDbf = new File(dbf.getPath() + ".pack");
+		File packedMemo = new File(memo.getPath() + ".pack");
+
+		// died before replacing the dbf file: the pack is discarded
+		DBFPacker.packTo(dbf, memo, packedDbf, packedMemo);
+		Assert.assertFalse(DBFPacker.recover(dbf, memo));
+		Assert.assertFalse(packedDbf.exists());
+		Assert.assertFalse(packedMemo.exists());
+		Assert.assertArrayEquals(dbfData, Files.readAllBytes(dbf.toPath()));
+		Assert.assertArrayEquals(memoData, Files.readAllBytes(memo.toPath()));
+
+		// died after replacing the dbf file: the memo file is replaced too
+		DBFPacker.packTo(dbf, memo, packedDbf, packedMemo);
+		Files.move(packedDbf.toPath(), dbf.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		Assert.assertTrue(DBFPacker.recover(dbf, memo));
+		Assert.assertFalse(packedMemo.exists());
+		assertSameRecords(expected, DBFFileUtils.readAll(dbf, memo));
+		Assert.assertFalse(DBFPacker.recover(dbf, memo));
+	}
+
+	private void assertSameRecords(List<Object[]> expected, List<Object[]> actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertArrayEquals(expected.get(i), actual.get(i));
+		}
+	}
+
+	private File createFile(int records) throws Exception {
+		DBFField[] fields = new DBFField[] {
+			new DBFField("name", DBFDataType.CHARACTER, 20),
+			new DBFField("code", DBFDataType.NUMERIC, 10)
+		};
+		return DBFFileUtils.createFile("javadbf-pack", fields, records, new DBFFileUtils.RowValues() {
+			@Override
+			public Object[] get(int index) {
+				return new Object[] { "Name " + index, index };
+			}
+		});
+	}
+}
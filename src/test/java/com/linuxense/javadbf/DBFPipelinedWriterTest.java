@@ -0,0 +1,156 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.GregorianCalendar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFPipelinedWriterTest {
+
+	@Test
+	public void testSameOutputAsDBFWriter() throws Exception {
+		assertSameOutput(10000, 4, 100);
+		assertSameOutput(1234, 3, 1000);
+		assertSameOutput(5, 1, 1);
+		assertSameOutput(0, 2, 10);
+	}
+
+	@Test
+	public void testRead() throws Exception {
+		File file = File.createTempFile("javadbf-pipelined", ".dbf");
+		try (DBFPipelinedWriter writer = new DBFPipelinedWriter(file, createFields(), StandardCharsets.ISO_8859_1)) {
+			for (int i = 0; i < 5000; i++) {
+				writer.addRecord(createRecord(i));
+			}
+			Assert.assertEquals(5000, writer.getRecordCount());
+		}
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			Assert.assertEquals(5000, reader.getRecordCount());
+			for (int i = 0; i < 5000; i++) {
+				DBFRow row = reader.nextRow();
+				Assert.assertEquals("Name " + i, row.getString("name"));
+				Assert.assertEquals(i, row.getInt("code"));
+			}
+			Assert.assertNull(reader.nextRow());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testInvalidValue() throws Exception {
+		File file = File.createTempFile("javadbf-pipelined", ".dbf");
+		try (DBFPipelinedWriter writer = new DBFPipelinedWriter(file, createFields(), StandardCharsets.ISO_8859_1, 2, 10)) {
+			writer.addRecord(createRecord(1));
+			try {
+				writer.addRecord(new Object[] { 1, 2, 3.0, null, null });
+				Assert.fail("Invalid value should be rejected");
+			}
+			catch (DBFException e) {
+				// expected
+			}
+			writer.addRecord(createRecord(2));
+		}
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			Assert.assertEquals(2, reader.getRecordCount());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testInvalidArgumentsKeepFile() throws Exception {
+		File file = File.createTempFile("javadbf-pipelined", ".dbf");
+		byte[] contents = "existing contents".getBytes(StandardCharsets.ISO_8859_1);
+		Files.write(file.toPath(), contents);
+		DBFField[] fields = { new DBFField("name", DBFDataType.CHARACTER, 10) };
+		try {
+			new DBFPipelinedWriter(file, fields, StandardCharsets.ISO_8859_1, 0, 100);
+			Assert.fail("Invalid number of threads accepted");
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			new DBFPipelinedWriter(file, new DBFField[0], StandardCharsets.ISO_8859_1, 2, 100);
+			Assert.fail("Invalid fields accepted");
+		}
+		catch (DBFException e) {
+			// expected
+		}
+		Assert.assertArrayEquals(contents, Files.readAllBytes(file.toPath()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAddAfterClose() throws Exception {
+		File file = File.createTempFile("javadbf-pipelined", ".dbf");
+		DBFPipelinedWriter writer = new DBFPipelinedWriter(file, createFields(), StandardCharsets.ISO_8859_1);
+		writer.close();
+		writer.addRecord(createRecord(1));
+	}
+
+	private void assertSameOutput(int records, int threads, int batchSize) throws Exception {
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try (DBFWriter writer = new DBFWriter(expected, StandardCharsets.ISO_8859_1)) {
+			writer.setFields(createFields());
+			for (int i = 0; i < records; i++) {
+				writer.addRecord(createRecord(i));
+			}
+		}
+		File file = File.createTempFile("javadbf-pipelined", ".dbf");
+		try (DBFPipelinedWriter writer = new DBFPipelinedWriter(file, createFields(), StandardCharsets.ISO_8859_1, threads, batchSize)) {
+			for (int i = 0; i < records; i++) {
+				writer.addRecord(createRecord(i));
+			}
+		}
+		Assert.assertArrayEquals(expected.toByteArray(), Files.readAllBytes(file.toPath()));
+	}
+
+	private Object[] createRecord(int i) {
+		return new Object[] {
+			"Name " + i,
+			i,
+			new BigDecimal(i).movePointLeft(2),
+			new GregorianCalendar(2000, 0, 1 + i % 1000).getTime(),
+			i % 3 == 0 ? null : Boolean.valueOf(i % 2 == 0)
+		};
+	}
+
+	private DBFField[] createFields() {
+		DBFField[] fields = new DBFField[5];
+		fields[0] = new DBFField("name", DBFDataType.CHARACTER, 20);
+		fields[1] = new DBFField("code", DBFDataType.NUMERIC, 10);
+		fields[2] = new DBFField("amount", DBFDataType.NUMERIC, 12, 2);
+		fields[3] = new DBFField("day", DBFDataType.DATE);
+		fields[4] = new DBFField("flag", DBFDataType.LOGICAL);
+		return fields;
+	}
+}
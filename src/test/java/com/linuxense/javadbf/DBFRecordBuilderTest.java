@@ -0,0 +1,144 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.GregorianCalendar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFRecordBuilderTest {
+
+	@Test
+	public void testSameOutputAsAddRecord() {
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try (DBFWriter writer = new DBFWriter(expected, StandardCharsets.ISO_8859_1)) {
+			writer.setFields(createFields());
+			writer.addRecord(new Object[] { "Neo", 1, 10001.10, new GregorianCalendar(2020, 1, 29).getTime(), true });
+			writer.addRecord(new Object[] { null, null, null, null, null });
+			writer.addRecord(new Object[] { "Smith", -25, 0.5, new GregorianCalendar(1900, 0, 1).getTime(), false });
+		}
+
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		try (DBFWriter writer = new DBFWriter(actual, StandardCharsets.ISO_8859_1)) {
+			writer.setFields(createFields());
+			DBFRecordBuilder builder = writer.newRecordBuilder();
+			int name = builder.getColumn("NAME");
+			int code = builder.getColumn("code");
+			int salary = builder.getColumn("salary");
+			int hireDate = builder.getColumn("hire_date");
+			int human = builder.getColumn("human");
+
+			builder.setString(name, "Neo").setLong(code, 1).setDouble(salary, 10001.10).setDate(hireDate, 18321).setBoolean(human, true);
+			builder.commit();
+			builder.commit();
+			builder.setString(name, new StringBuilder("Smith")).setLong(code, -25).setDouble(salary, 0.5).setDate(hireDate, -25567);
+			builder.setBoolean(human, false);
+			builder.commit();
+		}
+		Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+	}
+
+	@Test
+	public void testAppendToFile() throws Exception {
+		File file = File.createTempFile("javadbf-builder", ".dbf");
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(createFields());
+			DBFRecordBuilder builder = writer.newRecordBuilder();
+			for (int i = 0; i < 1000; i++) {
+				builder.setString(0, "Name " + i);
+				builder.setLong(1, i);
+				builder.setDouble(2, i * 1.5);
+				builder.setDate(3, i);
+				builder.setBoolean(4, i % 2 == 0);
+				builder.commit();
+			}
+		}
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			Assert.assertEquals(1000, reader.getRecordCount());
+			for (int i = 0; i < 1000; i++) {
+				DBFRow row = reader.nextRow();
+				Assert.assertEquals("Name " + i, row.getString("name"));
+				Assert.assertEquals(i, row.getInt("code"));
+				Assert.assertEquals(i * 1.5, row.getDouble("salary"), 0.001);
+				Assert.assertEquals(new GregorianCalendar(1970, 0, 1 + i).getTime(), row.getDate("hire_date"));
+				Assert.assertEquals(i % 2 == 0, row.getBoolean("human"));
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testStreaming() {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (DBFWriter writer = new DBFWriter(baos, StandardCharsets.ISO_8859_1, true)) {
+			writer.setFields(createFields());
+			writer.setExpectedRecordCount(2);
+			DBFRecordBuilder builder = writer.newRecordBuilder();
+			builder.setString(0, "first").commit();
+			builder.setString(0, "second").setNull(0).commit();
+		}
+		DBFReader reader = new DBFReader(new ByteArrayInputStream(baos.toByteArray()));
+		try {
+			Assert.assertEquals("first", reader.nextRecord()[0]);
+			Object[] second = reader.nextRecord();
+			Assert.assertEquals("", second[0]);
+			Assert.assertNull(second[1]);
+			Assert.assertNull(reader.nextRecord());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test(expected = DBFException.class)
+	public void testInvalidType() {
+		try (DBFWriter writer = new DBFWriter(new ByteArrayOutputStream(), StandardCharsets.ISO_8859_1)) {
+			writer.setFields(createFields());
+			writer.newRecordBuilder().setLong(0, 1);
+		}
+	}
+
+	@Test(expected = DBFFieldNotFoundException.class)
+	public void testUnknownColumn() {
+		try (DBFWriter writer = new DBFWriter(new ByteArrayOutputStream(), StandardCharsets.ISO_8859_1)) {
+			writer.setFields(createFields());
+			writer.newRecordBuilder().getColumn("unknown");
+		}
+	}
+
+	private DBFField[] createFields() {
+		DBFField[] fields = new DBFField[5];
+		fields[0] = new DBFField("name", DBFDataType.CHARACTER, 20);
+		fields[1] = new DBFField("code", DBFDataType.NUMERIC, 10);
+		fields[2] = new DBFField("salary", DBFDataType.FLOATING_POINT, 12, 2);
+		fields[3] = new DBFField("hire_date", DBFDataType.DATE);
+		fields[4] = new DBFField("human", DBFDataType.LOGICAL);
+		return fields;
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.linuxense.javadbf.testutils.DBFFileUtils;
+
+public class DBFSorterTest {
+
+	@Test
+	public void testExternalSort() throws Exception {
+		File file = createFile(5000);
+		File target = File.createTempFile("javadbf-sort", ".dbf");
+		File tempDirectory = Files.createTempDirectory("javadbf-sort").toFile();
+
+		DBFSorter sorter = new DBFSorter("amount");
+		sorter.setMemoryBudget(32 * 1024);
+		sorter.setThreads(3);
+		sorter.setTempDirectory(tempDirectory);
+		Assert.assertEquals(5000, sorter.sort(file, target));
+
+		List<DBFRow> rows = DBFFileUtils.readAllRows(target);
+		Assert.assertEquals(5000, rows.size());
+		for (int i = 1; i < rows.size(); i++) {
+			BigDecimal previous = rows.get(i - 1).getBigDecimal("amount");
+			BigDecimal current = rows.get(i).getBigDecimal("amount");
+			if (previous != null && current != null) {
+				Assert.assertTrue(previous.compareTo(current) <= 0);
+				if (previous.compareTo(current) == 0) {
+					// stable
+					Assert.assertTrue(rows.get(i - 1).getInt("code") < rows.get(i).getInt("code"));
+				}
+			}
+			else {
+				// nulls go first
+				Assert.assertNull(previous);
+			}
+		}
+		Assert.assertEquals(0, tempDirectory.list().length);
+		Assert.assertEquals(DBFUtils.readHeader(file).numberOfRecords, DBFUtils.readHeader(target).numberOfRecords);
+	}
+
+	@Test
+	public void testFanIn() throws Exception {
+		Assert.assertEquals(2, DBFSorter.getFanIn(32 * 1024));
+		Assert.assertEquals(15, DBFSorter.getFanIn(1024 * 1024));
+		// limited by the number of open files
+		Assert.assertEquals(512, DBFSorter.getFanIn(64L * 1024 * 1024));
+	}
+
+	@Test
+	public void testSortInMemoryByTwoFields() throws Exception {
+		File file = createFile(1000);
+		File target = File.createTempFile("javadbf-sort", ".dbf");
+
+		new DBFSorter("NAME", "code").sort(file, target);
+
+		List<DBFRow> rows = DBFFileUtils.readAllRows(target);
+		Assert.assertEquals(1000, rows.size());
+		for (int i = 1; i < rows.size(); i++) {
+			int result = rows.get(i - 1).getString("name").compareTo(rows.get(i).getString("name"));
+			Assert.assertTrue(result <= 0);
+			if (result == 0) {
+				Assert.assertTrue(rows.get(i - 1).getInt("code") < rows.get(i).getInt("code"));
+			}
+		}
+	}
+
+	@Test
+	public void testNumericKeys() throws Exception {
+		DBFHeader header = new DBFHeader();
+		header.recordLength = 11;
+		header.fieldArray = new DBFField[] { new DBFField("n", DBFDataType.NUMERIC, 10, 2) };
+		DBFSortKey key = new DBFSortKey(header, new String[] { "n" });
+		String[] sorted = { "          ", "  -100.00", "    -2.50", "    -2.00", "     0.00", "     -0.00",
+				"     0.01", "      2.5", "     10.00", "    100.00" };
+		byte[] previous = null;
+		for (String value : sorted) {
+			byte[] record = (" " + value + "          ").substring(0, 11).getBytes("US-ASCII");
+			byte[] current = new byte[key.getLength()];
+			key.extract(record, 0, current, 0);
+			if (previous != null) {
+				Assert.assertTrue(value, DBFSortKey.compare(previous, 0, current, 0, current.length) <= 0);
+			}
+			previous = current;
+		}
+	}
+
+	@Test
+	public void testNumericKeysWithExponent() throws Exception {
+		DBFHeader header = new DBFHeader();
+		header.recordLength = 7;
+		header.fieldArray = new DBFField[] { new DBFField("n", DBFDataType.NUMERIC, 6) };
+		DBFSortKey key = new DBFSortKey(header, new String[] { "n" });
+		// values wider than the field go after (or before) every other value
+		String[] sorted = { "-1E+10", "-99999", "    -1", "     0", "  1E+3", " 99999", "999999", " 1E+10", "9E+200" };
+		byte[] previous = null;
+		for (String value : sorted) {
+			byte[] record = (" " + value).getBytes("US-ASCII");
+			byte[] current = new byte[key.getLength()];
+			key.extract(record, 0, current, 0);
+			if (previous != null) {
+				Assert.assertTrue(value, DBFSortKey.compare(previous, 0, current, 0, current.length) <= 0);
+			}
+			previous = current;
+		}
+	}
+
+	@Test(expected = DBFException.class)
+	public void testUnknownField() throws Exception {
+		new DBFSorter("unknown").sort(createFile(10), File.createTempFile("javadbf-sort", ".dbf"));
+	}
+
+	private File createFile(int records) throws Exception {
+		DBFField[] fields = new DBFField[] {
+			new DBFField("code", DBFDataType.NUMERIC, 10),
+			new DBFField("name", DBFDataType.CHARACTER, 10),
+			new DBFField("amount", DBFDataType.NUMERIC, 12, 2)
+		};
+		final Random random = new Random(44);
+		return DBFFileUtils.createFile("javadbf-sort", fields, records, new DBFFileUtils.RowValues() {
+			@Override
+			public Object[] get(int index) {
+				BigDecimal amount = index % 50 == 0 ? null : BigDecimal.valueOf(random.nextInt(20000) - 10000, 2);
+				return new Object[] { index, "N" + random.nextInt(100), amount };
+			}
+		});
+	}
+}
@@ -0,0 +1,113 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.linuxense.javadbf.testutils.DBFFileUtils;
+
+public class DBFSplitterTest {
+
+	@Test
+	public void testSplitByRange() throws Exception {
+		File file = createFile(1000);
+		File[] shards = createTargets(3);
+
+		int[] counts = DBFSplitter.splitByRange(file, shards);
+
+		Assert.assertArrayEquals(new int[] { 334, 333, 333 }, counts);
+		List<Object[]> all = new ArrayList<>();
+		for (int i = 0; i < shards.length; i++) {
+			List<Object[]> rows = DBFFileUtils.readAll(shards[i]);
+			Assert.assertEquals(counts[i], rows.size());
+			Assert.assertEquals(counts[i], DBFUtils.readHeader(shards[i]).numberOfRecords);
+			all.addAll(rows);
+		}
+		List<Object[]> expected = DBFFileUtils.readAll(file);
+		Assert.assertEquals(expected.size(), all.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertArrayEquals(expected.get(i), all.get(i));
+		}
+	}
+
+	@Test
+	public void testSplitByHash() throws Exception {
+		File file = createFile(1000);
+		File[] shards = createTargets(4);
+
+		int[] counts = DBFSplitter.splitByHash(file, "GROUP", shards);
+
+		Map<String, Integer> shardByGroup = new HashMap<>();
+		int total = 0;
+		for (int i = 0; i < shards.length; i++) {
+			Assert.assertEquals(counts[i], DBFUtils.readHeader(shards[i]).numberOfRecords);
+			List<Object[]> rows = DBFFileUtils.readAll(shards[i]);
+			Assert.assertEquals(counts[i], rows.size());
+			for (Object[] row : rows) {
+				Integer previous = shardByGroup.put((String) row[1], i);
+				Assert.assertTrue(previous == null || previous == i);
+			}
+			total += rows.size();
+		}
+		Assert.assertEquals(1000, total);
+		Assert.assertEquals(37, shardByGroup.size());
+	}
+
+	@Test
+	public void testSplitEmpty() throws Exception {
+		File file = createFile(0);
+		File[] shards = createTargets(2);
+		Assert.assertArrayEquals(new int[] { 0, 0 }, DBFSplitter.splitByRange(file, shards));
+		Assert.assertArrayEquals(new int[] { 0, 0 }, DBFSplitter.splitByHash(file, "group", shards));
+		Assert.assertTrue(DBFFileUtils.readAll(shards[0]).isEmpty());
+	}
+
+	@Test(expected = DBFException.class)
+	public void testUnknownField() throws Exception {
+		DBFSplitter.splitByHash(createFile(10), "unknown", createTargets(2));
+	}
+
+	private File[] createTargets(int count) throws Exception {
+		File[] files = new File[count];
+		for (int i = 0; i < count; i++) {
+			files[i] = File.createTempFile("javadbf-split", ".dbf");
+		}
+		return files;
+	}
+
+	private File createFile(int records) throws Exception {
+		DBFField[] fields = new DBFField[] {
+			new DBFField("code", DBFDataType.NUMERIC, 10),
+			new DBFField("group", DBFDataType.CHARACTER, 10)
+		};
+		return DBFFileUtils.createFile("javadbf-split", fields, records, new DBFFileUtils.RowValues() {
+			@Override
+			public Object[] get(int index) {
+				return new Object[] { index, "G" + (index % 37) };
+			}
+		});
+	}
+}
@@ -0,0 +1,54 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFStableSortTest {
+
+	@Test
+	public void testStable() {
+		Random random = new Random(42);
+		for (int count : new int[] { 0, 1, 2, 15, 16, 17, 100, 1000, 5000 }) {
+			final int[] values = new int[count];
+			int[] order = new int[count + 3];
+			for (int i = 0; i < count; i++) {
+				values[i] = random.nextInt(20);
+				order[i] = i;
+			}
+			new DBFStableSort() {
+				@Override
+				int compare(int a, int b) {
+					return Integer.compare(values[a], values[b]);
+				}
+			}.sort(order, new int[count], count);
+			for (int i = 1; i < count; i++) {
+				int previous = order[i - 1];
+				int current = order[i];
+				Assert.assertTrue(values[previous] <= values[current]);
+				if (values[previous] == values[current]) {
+					Assert.assertTrue(previous < current);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFSyncPolicyTest {
+
+	@Test
+	public void testRelaxed() throws Exception {
+		File file = createFile();
+		DBFWriter writer = new DBFWriter(file);
+		try {
+			addRecords(writer, 0, 25);
+			Assert.assertEquals(0, readRecordCount(file));
+			Assert.assertEquals(0, writer.getSyncCount());
+		}
+		finally {
+			writer.close();
+		}
+		Assert.assertEquals(25, readRecordCount(file));
+	}
+
+	@Test
+	public void testEveryRecords() throws Exception {
+		File file = createFile();
+		DBFWriter writer = new DBFWriter(file);
+		try {
+			writer.setSyncPolicy(DBFSyncPolicy.everyRecords(10));
+			addRecords(writer, 0, 25);
+			Assert.assertEquals(2, writer.getSyncCount());
+			Assert.assertTrue(writer.getSyncTimeNanos() > 0);
+			// the synced records can be read before the writer is closed
+			byte[] data = Files.readAllBytes(file.toPath());
+			Assert.assertEquals(20, readRecordCount(file));
+			DBFReader reader = new DBFReader(new ByteArrayInputStream(data));
+			try {
+				for (int i = 0; i < 20; i++) {
+					Assert.assertEquals("Name " + i, reader.nextRecord()[0]);
+				}
+				Assert.assertNull(reader.nextRecord());
+			}
+			finally {
+				DBFUtils.close(reader);
+			}
+		}
+		finally {
+			writer.close();
+		}
+		Assert.assertEquals(25, readRecordCount(file));
+	}
+
+	@Test
+	public void testEveryMillisWithForce() throws Exception {
+		File file = createFile();
+		DBFWriter writer = new DBFWriter(file);
+		try {
+			writer.setSyncPolicy(DBFSyncPolicy.everyMillis(1).withForce());
+			addRecords(writer, 0, 1);
+			Thread.sleep(5);
+			addRecords(writer, 1, 1);
+			Assert.assertTrue(writer.getSyncCount() >= 1);
+			Assert.assertEquals(2, readRecordCount(file));
+		}
+		finally {
+			writer.close();
+		}
+		Assert.assertEquals(2, readRecordCount(file));
+	}
+
+	@Test
+	public void testExplicitSync() throws Exception {
+		File file = createFile();
+		DBFWriter writer = new DBFWriter(file);
+		try {
+			addRecords(writer, 0, 3);
+			writer.sync();
+			Assert.assertEquals(3, readRecordCount(file));
+			Assert.assertEquals(1, writer.getSyncCount());
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	@Test
+	public void testAppendExistingFile() throws Exception {
+		File file = createFile();
+		try (DBFWriter writer = new DBFWriter(file)) {
+			addRecords(writer, 0, 5);
+		}
+		DBFWriter writer = new DBFWriter(file);
+		try {
+			writer.setSyncPolicy(new DBFSyncPolicy(2, 0, false));
+			addRecords(writer, 5, 3);
+			Assert.assertEquals(7, readRecordCount(file));
+		}
+		finally {
+			writer.close();
+		}
+		Assert.assertEquals(8, readRecordCount(file));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStreamWriter() {
+		try (DBFWriter writer = new DBFWriter(new ByteArrayOutputStream(), StandardCharsets.ISO_8859_1)) {
+			writer.setSyncPolicy(DBFSyncPolicy.everyRecords(10));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPolicy() {
+		DBFSyncPolicy.everyRecords(0);
+	}
+
+	private File createFile() throws Exception {
+		File file = File.createTempFile("javadbf-sync", ".dbf");
+		file.delete();
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(new DBFField[] { new DBFField("name", DBFDataType.CHARACTER, 20) });
+		}
+		return file;
+	}
+
+	private void addRecords(DBFWriter writer, int first, int count) {
+		for (int i = first; i < first + count; i++) {
+			writer.addRecord(new Object[] { "Name " + i });
+		}
+	}
+
+	private int readRecordCount(File file) throws Exception {
+		byte[] data = Files.readAllBytes(file.toPath());
+		return (data[4] & 0xff) | (data[5] & 0xff) << 8 | (data[6] & 0xff) << 16 | (data[7] & 0xff) << 24;
+	}
+}
@@ -0,0 +1,102 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFTextEncoderTest {
+
+	@Test
+	public void testPadding() {
+		DBFTextEncoder encoder = new DBFTextEncoder(StandardCharsets.ISO_8859_1);
+		byte[] dest = new byte[12];
+		Arrays.fill(dest, (byte) 'x');
+
+		Assert.assertEquals(3, encoder.write("abc", dest, 1, 10, DBFAlignment.LEFT, (byte) ' '));
+		Assert.assertEquals("xabc       x", new String(dest, StandardCharsets.ISO_8859_1));
+
+		Assert.assertEquals(3, encoder.write(new StringBuilder("abc"), dest, 1, 10, DBFAlignment.RIGHT, (byte) '0'));
+		Assert.assertEquals("x0000000abcx", new String(dest, StandardCharsets.ISO_8859_1));
+	}
+
+	@Test
+	public void testTruncateUTF8() {
+		DBFTextEncoder encoder = new DBFTextEncoder(StandardCharsets.UTF_8);
+		byte[] dest = new byte[6];
+		// each letter takes two bytes in UTF-8
+		Assert.assertEquals(4, encoder.write("ññññ", dest, 0, 5, DBFAlignment.LEFT, (byte) ' '));
+		Assert.assertEquals("ññ ", new String(dest, 0, 5, StandardCharsets.UTF_8));
+
+		Assert.assertEquals(4, encoder.write("ñññ", dest, 0, 5, DBFAlignment.RIGHT, (byte) ' '));
+		Assert.assertEquals(" ññ", new String(dest, 0, 5, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testTruncateGBK() {
+		Charset gbk = Charset.forName("GBK");
+		DBFTextEncoder encoder = new DBFTextEncoder(gbk);
+		byte[] dest = new byte[5];
+		Assert.assertEquals(4, encoder.write("中文字段", dest, 0, 5, DBFAlignment.LEFT, (byte) ' '));
+		Assert.assertEquals("中文 ", new String(dest, gbk));
+	}
+
+	@Test
+	public void testUnmappable() {
+		DBFTextEncoder encoder = new DBFTextEncoder(StandardCharsets.US_ASCII);
+		byte[] dest = new byte[4];
+		encoder.write("añb", dest, 0, 4, DBFAlignment.LEFT, (byte) ' ');
+		Assert.assertArrayEquals("a?b ".getBytes(StandardCharsets.US_ASCII), dest);
+	}
+
+	@Test
+	public void testSameAsTextPadding() {
+		String[] texts = { "", "a", "hello world", "ñandú", "中文字段", "a😀b" };
+		Charset[] charsets = { StandardCharsets.ISO_8859_1, StandardCharsets.UTF_8, Charset.forName("GBK"), Charset.forName("windows-1252") };
+		DBFAlignment[] alignments = { DBFAlignment.LEFT, DBFAlignment.RIGHT };
+		for (Charset charset : charsets) {
+			DBFTextEncoder encoder = new DBFTextEncoder(charset);
+			for (String text : texts) {
+				for (DBFAlignment alignment : alignments) {
+					for (int length = 0; length < 14; length++) {
+						byte[] expected = DBFUtils.textPadding(text, charset, length, alignment, (byte) ' ');
+						byte[] actual = new byte[length];
+						encoder.write(text, actual, 0, length, alignment, (byte) ' ');
+						Assert.assertArrayEquals(text + " " + charset + " " + length, expected, actual);
+					}
+				}
+			}
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testLongText() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000000; i++) {
+			sb.append('ñ');
+		}
+		String text = sb.toString();
+		byte[] data = DBFUtils.textPadding(text, StandardCharsets.UTF_8, 11, DBFAlignment.LEFT, (byte) ' ');
+		Assert.assertEquals("ñññññ ", new String(data, StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,186 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFTranscoderTest {
+
+	private static final Charset IBM850 = Charset.forName("IBM850");
+	private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+	@Test
+	public void testTranscode() throws Exception {
+		File source = createFile(IBM850, 20, "Ñandú", "Pingüino", "Canción");
+		File target = File.createTempFile("javadbf-transcode", ".dbf");
+
+		DBFTranscoder transcoder = new DBFTranscoder(null, WINDOWS_1252, DBFTranscoder.Overflow.FAIL);
+		Assert.assertEquals(3, transcoder.transcode(source, target));
+		Assert.assertEquals(0, transcoder.getTruncatedValues());
+
+		Assert.assertEquals(0x03, Files.readAllBytes(target.toPath())[29]);
+		Assert.assertEquals(source.length(), target.length());
+		List<Object[]> expected = readAll(source, null, null);
+		List<Object[]> actual = readAll(target, null, null);
+		assertSameRecords(expected, actual);
+		Assert.assertEquals("Ñandú", actual.get(0)[0]);
+	}
+
+	@Test
+	public void testTranscodeToUTF8() throws Exception {
+		File source = createFile(IBM850, 20, "Ñandú", "abc", null);
+		File target = File.createTempFile("javadbf-transcode", ".dbf");
+
+		new DBFTranscoder(IBM850, StandardCharsets.UTF_8, DBFTranscoder.Overflow.FAIL).transcode(source, target);
+
+		assertSameRecords(readAll(source, IBM850, null), readAll(target, StandardCharsets.UTF_8, null));
+	}
+
+	@Test
+	public void testTruncate() throws Exception {
+		File source = createFile(IBM850, 5, "ñññññ", "ñ", "abcde");
+		File target = File.createTempFile("javadbf-transcode", ".dbf");
+
+		DBFTranscoder transcoder = new DBFTranscoder(null, StandardCharsets.UTF_8, DBFTranscoder.Overflow.TRUNCATE);
+		transcoder.transcode(source, target);
+
+		Assert.assertEquals(1, transcoder.getTruncatedValues());
+		List<Object[]> rows = readAll(target, StandardCharsets.UTF_8, null);
+		Assert.assertEquals("ññ", rows.get(0)[0]);
+		Assert.assertEquals("ñ", rows.get(1)[0]);
+		Assert.assertEquals("abcde", rows.get(2)[0]);
+	}
+
+	@Test(expected = DBFException.class)
+	public void testFailOnOverflow() throws Exception {
+		File source = createFile(IBM850, 5, "abc", "ñññññ");
+		File target = File.createTempFile("javadbf-transcode", ".dbf");
+		new DBFTranscoder(null, StandardCharsets.UTF_8, DBFTranscoder.Overflow.FAIL).transcode(source, target);
+	}
+
+	@Test
+	public void testTranscodeVarchar() throws Exception {
+		File source = new File("src/test/resources/bug-56-index-out-of-bounds/56-testdata.dbf");
+		File target = File.createTempFile("javadbf-transcode", ".dbf");
+
+		new DBFTranscoder(null, StandardCharsets.UTF_8, DBFTranscoder.Overflow.FAIL).transcode(source, target);
+
+		assertSameRecords(readAll(source, null, null), readAll(target, StandardCharsets.UTF_8, null));
+	}
+
+	@Test
+	public void testTranscodeMemo() throws Exception {
+		testTranscodeMemo("dbase_83", ".dbt");
+		testTranscodeMemo("dbase_8b", ".dbt");
+		testTranscodeMemo("dbase_f5", ".fpt");
+	}
+
+	@Test(expected = DBFException.class)
+	public void testMemoFileRequired() throws Exception {
+		File target = File.createTempFile("javadbf-transcode", ".dbf");
+		new DBFTranscoder(null, StandardCharsets.UTF_8, DBFTranscoder.Overflow.FAIL)
+			.transcode(new File("src/test/resources/fixtures/dbase_83.dbf"), target);
+	}
+
+	private void testTranscodeMemo(String name, String memoExtension) throws Exception {
+		File dbf = new File("src/test/resources/fixtures/" + name + ".dbf");
+		File memo = new File("src/test/resources/fixtures/" + name + memoExtension);
+		File targetDbf = File.createTempFile("javadbf-transcode", ".dbf");
+		File targetMemo = File.createTempFile("javadbf-transcode", memoExtension);
+
+		new DBFTranscoder(null, StandardCharsets.UTF_8, DBFTranscoder.Overflow.TRUNCATE)
+			.transcode(dbf, memo, targetDbf, targetMemo);
+
+		List<Object[]> expected = readAll(dbf, null, memo);
+		List<Object[]> actual = readAll(targetDbf, StandardCharsets.UTF_8, targetMemo);
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			for (int j = 0; j < expected.get(i).length; j++) {
+				Object e = expected.get(i)[j];
+				Object a = actual.get(i)[j];
+				if (e instanceof String && a instanceof String) {
+					// the text can be truncated
+					Assert.assertTrue(((String) e).startsWith((String) a));
+				}
+				else if (e instanceof byte[]) {
+					Assert.assertArrayEquals((byte[]) e, (byte[]) a);
+				}
+				else {
+					Assert.assertEquals(e, a);
+				}
+			}
+		}
+	}
+
+	private void assertSameRecords(List<Object[]> expected, List<Object[]> actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertArrayEquals(expected.get(i), actual.get(i));
+		}
+	}
+
+	private List<Object[]> readAll(File dbf, Charset charset, File memo) throws Exception {
+		List<Object[]> rows = new ArrayList<>();
+		DBFReader reader = null;
+		try {
+			reader = new DBFReader(new BufferedInputStream(new FileInputStream(dbf)), charset);
+			if (memo != null) {
+				reader.setMemoFile(memo);
+			}
+			Object[] row = null;
+			while ((row = reader.nextRecord()) != null) {
+				rows.add(row);
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+		return rows;
+	}
+
+	private File createFile(Charset charset, int nameLength, String... names) throws Exception {
+		File file = File.createTempFile("javadbf-transcode", ".dbf");
+		file.delete();
+		try (DBFWriter writer = new DBFWriter(file, charset)) {
+			writer.setFields(new DBFField[] {
+				new DBFField("name", DBFDataType.CHARACTER, nameLength),
+				new DBFField("code", DBFDataType.NUMERIC, 10),
+				new DBFField("amount", DBFDataType.NUMERIC, 12, 2),
+				new DBFField("day", DBFDataType.DATE)
+			});
+			for (int i = 0; i < names.length; i++) {
+				writer.addRecord(new Object[] { names[i], i, new BigDecimal("12.5").add(BigDecimal.valueOf(i)),
+					new GregorianCalendar(2001, 1, i + 1).getTime() });
+			}
+		}
+		return file;
+	}
+}
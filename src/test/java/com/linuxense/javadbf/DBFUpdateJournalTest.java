@@ -0,0 +1,139 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFUpdateJournalTest {
+
+	@Test
+	public void testJournaledUpdates() throws Exception {
+		File file = createFile(10);
+		File journalFile = DBFUpdateJournal.getJournalFile(file);
+		try (DBFUpdater updater = new DBFUpdater(file, null, 100, true)) {
+			for (int i = 0; i < 10; i++) {
+				updater.update(i, "name", "Journaled " + i);
+			}
+			updater.flush();
+			Assert.assertTrue(journalFile.exists());
+			Assert.assertEquals(0, journalFile.length());
+			updater.update(3, "code", 33);
+		}
+		Assert.assertFalse(journalFile.exists());
+
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			for (int i = 0; i < 10; i++) {
+				DBFRow row = reader.nextRow();
+				Assert.assertEquals("Journaled " + i, row.getString("name"));
+				Assert.assertEquals(i == 3 ? 33 : i, row.getInt("code"));
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testRollbackInterruptedBatch() throws Exception {
+		File file = createFile(5);
+		byte[] original = Files.readAllBytes(file.toPath());
+		long position = namePosition(file, 2);
+		byte[] journalData = createJournal(file, position);
+
+		// the batch was partially written when the process died
+		writeAt(file, position, "Half written".getBytes(StandardCharsets.ISO_8859_1));
+		Files.write(DBFUpdateJournal.getJournalFile(file).toPath(), journalData);
+
+		new DBFUpdater(file).close();
+		Assert.assertArrayEquals(original, Files.readAllBytes(file.toPath()));
+		Assert.assertFalse(DBFUpdateJournal.getJournalFile(file).exists());
+	}
+
+	@Test
+	public void testDiscardIncompleteJournal() throws Exception {
+		File file = createFile(5);
+		long position = namePosition(file, 2);
+		byte[] journalData = createJournal(file, position);
+
+		// the journal was not completely written, so the file was not modified
+		writeAt(file, position, "Not journaled".getBytes(StandardCharsets.ISO_8859_1));
+		byte[] expected = Files.readAllBytes(file.toPath());
+		Files.write(DBFUpdateJournal.getJournalFile(file).toPath(), Arrays.copyOf(journalData, journalData.length - 3));
+
+		new DBFUpdater(file).close();
+		Assert.assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+		Assert.assertFalse(DBFUpdateJournal.getJournalFile(file).exists());
+	}
+
+	private byte[] createJournal(File file, long position) throws Exception {
+		File journalFile = DBFUpdateJournal.getJournalFile(file);
+		byte[] journalData;
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			DBFUpdateJournal journal = new DBFUpdateJournal(journalFile);
+			journal.begin(raf.getChannel(), new long[] { position }, new int[] { 20 }, 1);
+			journalData = Files.readAllBytes(journalFile.toPath());
+			journal.commit();
+			journal.close();
+		}
+		Assert.assertFalse(journalFile.exists());
+		return journalData;
+	}
+
+	private long namePosition(File file, int row) throws Exception {
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			DBFHeader header = reader.getHeader();
+			return header.headerLength + (long) row * header.recordLength + 1;
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	private void writeAt(File file, long position, byte[] data) throws Exception {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(position);
+			raf.write(data);
+		}
+	}
+
+	private File createFile(int records) throws Exception {
+		File file = File.createTempFile("javadbf-journal", ".dbf");
+		file.delete();
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(new DBFField[] {
+				new DBFField("name", DBFDataType.CHARACTER, 20),
+				new DBFField("code", DBFDataType.NUMERIC, 10)
+			});
+			for (int i = 0; i < records; i++) {
+				writer.addRecord(new Object[] { "Name " + i, i });
+			}
+		}
+		return file;
+	}
+}
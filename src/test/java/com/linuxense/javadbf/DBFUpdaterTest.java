@@ -0,0 +1,289 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.linuxense.javadbf.testutils.DBFFileUtils;
+
+public class DBFUpdaterTest {
+
+	@Test
+	public void testUpdate() throws Exception {
+		File file = createFile(100);
+		try (DBFUpdater updater = new DBFUpdater(file)) {
+			Assert.assertEquals(100, updater.getRecordCount());
+			// updated in reverse order, they are written sorted
+			for (int i = 99; i >= 0; i -= 2) {
+				updater.update(i, "NAME", "Updated " + i);
+				updater.update(i, "code", i * 10);
+			}
+			updater.update(5, 2, new GregorianCalendar(2020, 4, 17).getTime());
+			updater.update(7, "flag", null);
+			Assert.assertEquals(102, updater.getPendingUpdates());
+			updater.flush();
+			Assert.assertEquals(0, updater.getPendingUpdates());
+			// name, code and day are adjacent, flag of row 7 is not
+			Assert.assertEquals(51, updater.getWriteCount());
+		}
+
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			for (int i = 0; i < 100; i++) {
+				DBFRow row = reader.nextRow();
+				if (i % 2 == 1) {
+					Assert.assertEquals("Updated " + i, row.getString("name"));
+					Assert.assertEquals(i * 10, row.getInt("code"));
+				}
+				else {
+					Assert.assertEquals("Name " + i, row.getString("name"));
+					Assert.assertEquals(i, row.getInt("code"));
+				}
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+		reader = new DBFReader(new FileInputStream(file));
+		try {
+			reader.skipRecords(5);
+			Assert.assertEquals(new GregorianCalendar(2020, 4, 17).getTime(), reader.nextRow().getDate("day"));
+			reader.nextRow();
+			Assert.assertNull(reader.nextRow().getObject("flag"));
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testLastUpdateWins() throws Exception {
+		File file = createFile(3);
+		try (DBFUpdater updater = new DBFUpdater(file)) {
+			updater.update(1, "name", "First");
+			updater.update(2, "name", "Other");
+			updater.update(1, "name", "Second");
+			updater.update(1, "amount", new BigDecimal("12.34"));
+			updater.update(1, "name", "Third");
+		}
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			Assert.assertEquals("Name 0", reader.nextRow().getString("name"));
+			DBFRow row = reader.nextRow();
+			Assert.assertEquals("Third", row.getString("name"));
+			Assert.assertEquals(new BigDecimal("12.34"), row.getBigDecimal("amount"));
+			Assert.assertEquals("Other", reader.nextRow().getString("name"));
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testAutomaticFlush() throws Exception {
+		File file = createFile(10);
+		try (DBFUpdater updater = new DBFUpdater(file, null, 4)) {
+			for (int i = 0; i < 10; i++) {
+				updater.update(i, "code", 1000 + i);
+			}
+			Assert.assertEquals(2, updater.getPendingUpdates());
+			Assert.assertEquals(8, updater.getWriteCount());
+		}
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			for (int i = 0; i < 10; i++) {
+				Assert.assertEquals(1000 + i, reader.nextRow().getInt("code"));
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testInvalidUpdates() throws Exception {
+		File file = createFile(2);
+		try (DBFUpdater updater = new DBFUpdater(file)) {
+			try {
+				updater.update(2, "name", "A");
+				Assert.fail("Invalid row");
+			}
+			catch (DBFException e) {
+				// expected
+			}
+			try {
+				updater.update(0, "unknown", "A");
+				Assert.fail("Invalid column");
+			}
+			catch (DBFException e) {
+				// expected
+			}
+			try {
+				updater.update(0, "code", "A");
+				Assert.fail("Invalid value");
+			}
+			catch (DBFException e) {
+				// expected
+			}
+			Assert.assertEquals(0, updater.getPendingUpdates());
+		}
+	}
+
+	@Test
+	public void testDeleteAndUndelete() throws Exception {
+		File file = createFile(10);
+		try (DBFUpdater updater = new DBFUpdater(file)) {
+			updater.delete(2);
+			updater.delete(3);
+			updater.delete(7);
+			Assert.assertFalse(updater.isDeleted(2));
+			updater.flush();
+			Assert.assertTrue(updater.isDeleted(2));
+			Assert.assertFalse(updater.isDeleted(4));
+			updater.undelete(3);
+		}
+		Assert.assertEquals(8, readNames(file).size());
+		Assert.assertFalse(readNames(file).contains("Name 2"));
+		Assert.assertTrue(readNames(file).contains("Name 3"));
+		Assert.assertFalse(readNames(file).contains("Name 7"));
+	}
+
+	@Test
+	public void testDeleteWhere() throws Exception {
+		File file = createFile(100);
+		try (DBFUpdater updater = new DBFUpdater(file, null, 10)) {
+			updater.delete(1);
+			int deleted = updater.deleteWhere(new DBFRowFilter() {
+				@Override
+				public boolean accept(DBFRow row) {
+					return row.getInt("code") % 3 == 1;
+				}
+			});
+			// record 1 was already deleted
+			Assert.assertEquals(32, deleted);
+		}
+		List<String> names = readNames(file);
+		Assert.assertEquals(67, names.size());
+		for (String name : names) {
+			Assert.assertNotEquals(1, Integer.parseInt(name.substring(5)) % 3);
+		}
+	}
+
+	@Test
+	public void testDeleteWhereRawRecords() throws Exception {
+		File file = createFile(100);
+		try (DBFUpdater updater = new DBFUpdater(file, null, 10)) {
+			Assert.assertEquals(1, updater.deleteWhere(updater.fieldEquals("name", "Name 42")));
+			Assert.assertEquals(0, updater.deleteWhere(updater.fieldEquals("name", "Name 42")));
+			final int codeOffset = updater.getFieldOffset("code");
+			int deleted = updater.deleteWhere(new DBFRecordFilter() {
+				@Override
+				public boolean accept(byte[] data, int offset) {
+					// codes 90 to 99, right aligned in 10 bytes
+					return data[offset + codeOffset + 8] == '9';
+				}
+			});
+			Assert.assertEquals(10, deleted);
+		}
+		List<String> names = readNames(file);
+		Assert.assertEquals(89, names.size());
+		Assert.assertFalse(names.contains("Name 42"));
+		Assert.assertFalse(names.contains("Name 95"));
+		Assert.assertTrue(names.contains("Name 89"));
+	}
+
+	@Test
+	public void testFileLocked() throws Exception {
+		File file = createFile(3);
+		try (DBFUpdater updater = new DBFUpdater(file)) {
+			updater.update(0, "code", 7);
+			try {
+				new DBFUpdater(file).close();
+				Assert.fail("The file should be locked");
+			}
+			catch (DBFException e) {
+				// expected
+			}
+		}
+		// released on close
+		new DBFUpdater(file).close();
+	}
+
+	@Test
+	public void testReadAndWrite() throws Exception {
+		File file = createFile(5);
+		DBFReadAndWrite readAndWrite = new DBFReadAndWrite(new FileInputStream(file), file.getPath());
+		try {
+			readAndWrite.writeItem(3, "name", "Changed");
+			readAndWrite.writeItem(4, "code", 44);
+		}
+		finally {
+			readAndWrite.close();
+		}
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			reader.skipRecords(3);
+			Assert.assertEquals("Changed", reader.nextRow().getString("name"));
+			Assert.assertEquals(44, reader.nextRow().getInt("code"));
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	private List<String> readNames(File file) throws Exception {
+		List<String> names = new ArrayList<>();
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			DBFRow row;
+			while ((row = reader.nextRow()) != null) {
+				names.add(row.getString("name"));
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+		return names;
+	}
+
+	private File createFile(int records) throws Exception {
+		DBFField[] fields = new DBFField[] {
+			new DBFField("name", DBFDataType.CHARACTER, 20),
+			new DBFField("code", DBFDataType.NUMERIC, 10),
+			new DBFField("day", DBFDataType.DATE),
+			new DBFField("amount", DBFDataType.NUMERIC, 12, 2),
+			new DBFField("flag", DBFDataType.LOGICAL)
+		};
+		return DBFFileUtils.createFile("javadbf-updater", fields, records, new DBFFileUtils.RowValues() {
+			@Override
+			public Object[] get(int index) {
+				return new Object[] { "Name " + index, index, new GregorianCalendar(2000, 0, 1).getTime(),
+					BigDecimal.ONE, Boolean.TRUE };
+			}
+		});
+	}
+}
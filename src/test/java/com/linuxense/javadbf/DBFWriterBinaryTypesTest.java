@@ -0,0 +1,194 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DBFWriterBinaryTypesTest {
+
+	@Test
+	public void testVisualFoxProTypes() throws Exception {
+		Date timestamp = new GregorianCalendar(2021, 5, 15, 13, 45, 30).getTime();
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (DBFWriter writer = new DBFWriter(baos, StandardCharsets.ISO_8859_1)) {
+			writer.setFields(new DBFField[] {
+				new DBFField("name", DBFDataType.CHARACTER, 10),
+				new DBFField("counter", DBFDataType.LONG),
+				new DBFField("ratio", DBFDataType.DOUBLE),
+				new DBFField("price", DBFDataType.CURRENCY),
+				new DBFField("updated", DBFDataType.TIMESTAMP)
+			});
+			writer.addRecord(new Object[] { "first", 42, 1.25, new BigDecimal("12.3456"), timestamp });
+			writer.addRecord(new Object[] { "second", -7, -1e100, -99999999.99, null });
+			writer.addRecord(new Object[] { "third", null, null, null, null });
+		}
+		byte[] data = baos.toByteArray();
+		Assert.assertEquals(DBFHeader.SIG_VISUAL_FOXPRO, data[0]);
+		// 32 bytes of table header, 32 for each field, terminator and backlink
+		Assert.assertEquals(32 + 5 * 32 + 1 + 263, (data[8] & 0xff) | (data[9] & 0xff) << 8);
+		Assert.assertEquals(1 + 10 + 4 + 8 + 8 + 8, (data[10] & 0xff) | (data[11] & 0xff) << 8);
+
+		DBFReader reader = new DBFReader(new ByteArrayInputStream(data));
+		try {
+			Assert.assertEquals(DBFDataType.LONG, reader.getField(1).getType());
+			Assert.assertEquals(DBFDataType.TIMESTAMP, reader.getField(4).getType());
+
+			Object[] row = reader.nextRecord();
+			Assert.assertEquals("first", row[0]);
+			Assert.assertEquals(42, row[1]);
+			Assert.assertEquals(1.25, (Double) row[2], 0.0);
+			Assert.assertEquals(new BigDecimal("12.3456"), row[3]);
+			Assert.assertEquals(timestamp, row[4]);
+
+			row = reader.nextRecord();
+			Assert.assertEquals(-7, row[1]);
+			Assert.assertEquals(-1e100, (Double) row[2], 0.0);
+			Assert.assertEquals(new BigDecimal("-99999999.9900"), row[3]);
+			Assert.assertNull(row[4]);
+
+			row = reader.nextRecord();
+			Assert.assertEquals(0, row[1]);
+			Assert.assertEquals(BigDecimal.valueOf(0, 4), row[3]);
+			Assert.assertNull(row[4]);
+
+			Assert.assertNull(reader.nextRecord());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testDBase7Types() throws Exception {
+		File file = File.createTempFile("javadbf-dbase7", ".dbf");
+		file.delete();
+		Date timestamp = new GregorianCalendar(1999, 11, 31, 23, 59, 59).getTime();
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(new DBFField[] {
+				new DBFField("id", DBFDataType.AUTOINCREMENT),
+				new DBFField("created", DBFDataType.TIMESTAMP_DBASE7),
+				new DBFField("amount", DBFDataType.DOUBLE)
+			});
+			DBFRecordBuilder builder = writer.newRecordBuilder();
+			for (int i = 1; i <= 100; i++) {
+				builder.setLong(0, i).setTimestamp(1, timestamp.getTime() + i * 1000L).setDouble(2, i / 4.0).commit();
+			}
+		}
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			Assert.assertEquals(100, reader.getRecordCount());
+			Assert.assertEquals("created", reader.getField(1).getName());
+			Assert.assertEquals(DBFDataType.TIMESTAMP_DBASE7, reader.getField(1).getType());
+			for (int i = 1; i <= 100; i++) {
+				Object[] row = reader.nextRecord();
+				Assert.assertEquals(i, row[0]);
+				Assert.assertEquals(new Date(timestamp.getTime() + i * 1000L), row[1]);
+				Assert.assertEquals(i / 4.0, (Double) row[2], 0.0);
+			}
+			Assert.assertNull(reader.nextRecord());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test
+	public void testAppendToVisualFoxProFile() throws Exception {
+		File file = File.createTempFile("javadbf-vfp", ".dbf");
+		file.delete();
+		DBFField[] fields = new DBFField[] {
+			new DBFField("counter", DBFDataType.LONG),
+			new DBFField("price", DBFDataType.CURRENCY)
+		};
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(fields);
+			writer.addRecord(new Object[] { 1, 10 });
+		}
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.addRecord(new Object[] { 2, 20L });
+			writer.newRecordBuilder().setLong(0, 3).setDouble(1, 30.5).commit();
+		}
+		DBFReader reader = new DBFReader(new FileInputStream(file));
+		try {
+			Assert.assertEquals(3, reader.getRecordCount());
+			Assert.assertArrayEquals(new Object[] { 1, new BigDecimal("10.0000") }, reader.nextRecord());
+			Assert.assertArrayEquals(new Object[] { 2, new BigDecimal("20.0000") }, reader.nextRecord());
+			Assert.assertArrayEquals(new Object[] { 3, new BigDecimal("30.5000") }, reader.nextRecord());
+			Assert.assertNull(reader.nextRecord());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	@Test(expected = DBFException.class)
+	public void testMixedFormats() {
+		try (DBFWriter writer = new DBFWriter(new ByteArrayOutputStream(), StandardCharsets.ISO_8859_1)) {
+			writer.setFields(new DBFField[] {
+				new DBFField("price", DBFDataType.CURRENCY),
+				new DBFField("id", DBFDataType.AUTOINCREMENT)
+			});
+		}
+	}
+
+	@Test(expected = DBFException.class)
+	public void testLongOutOfRange() {
+		try (DBFWriter writer = new DBFWriter(new ByteArrayOutputStream(), StandardCharsets.ISO_8859_1)) {
+			writer.setFields(new DBFField[] { new DBFField("counter", DBFDataType.LONG) });
+			writer.addRecord(new Object[] { Long.MAX_VALUE });
+		}
+	}
+
+	@Test
+	public void testLongNotIntegral() {
+		DBFRecordEncoder encoder = new DBFRecordEncoder(new DBFField[] { new DBFField("counter", DBFDataType.LONG) },
+				StandardCharsets.ISO_8859_1);
+		for (Object value : new Object[] { 1.5, 2.9f, new BigDecimal("2.9"), Double.NaN, 1e10 }) {
+			try {
+				encoder.validateField(0, value);
+				Assert.fail("Accepted " + value);
+			}
+			catch (DBFException e) {
+				// expected
+			}
+		}
+		encoder.validateField(0, 2.0);
+		encoder.validateField(0, new BigDecimal("7.00"));
+		encoder.validateField(0, BigInteger.valueOf(-5));
+	}
+
+	@Test(expected = DBFException.class)
+	public void testInvalidCurrency() {
+		try (DBFWriter writer = new DBFWriter(new ByteArrayOutputStream(), StandardCharsets.ISO_8859_1)) {
+			writer.setFields(new DBFField[] { new DBFField("price", DBFDataType.CURRENCY) });
+			writer.addRecord(new Object[] { Double.NaN });
+		}
+	}
+}
@@ -19,6 +19,7 @@ License along with this library.  If not, see <http://www.gnu.org/licenses/>.
 package com.linuxense.javadbf;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -80,6 +81,41 @@ public class DBFWriterRandomAccesTest {
         Assert.assertEquals(259L, outputFile.length());
 	}
 	
+	@Test
+	public void testBufferedAppend() throws Exception {
+		DBFField[] fields = createFields();
+
+		File outputFile = File.createTempFile("example", ".dbf");
+		DBFWriter writer = new DBFWriter(outputFile);
+		writer.setFields(fields);
+		writer.setBufferSize(100);
+		long headerSize = outputFile.length();
+		for (int i = 0; i < 10; i++) {
+			writer.addRecord(new Object[] { Integer.toString(i), "John Smith " + i, 1000 * (i + 1) + 0.25 });
+		}
+		// 43 bytes per record, only two fits in the buffer
+		Assert.assertEquals(headerSize + 8 * 43, outputFile.length());
+		writer.flush();
+		Assert.assertEquals(headerSize + 10 * 43, outputFile.length());
+		writer.close();
+		Assert.assertEquals(headerSize + 10 * 43 + 1, outputFile.length());
+
+		DBFReader reader = new DBFReader(new FileInputStream(outputFile));
+		try {
+			Assert.assertEquals(10, reader.getRecordCount());
+			for (int i = 0; i < 10; i++) {
+				Object[] row = reader.nextRecord();
+				Assert.assertEquals(Integer.toString(i), row[0]);
+				Assert.assertEquals("John Smith " + i, row[1]);
+				Assert.assertEquals(1000 * (i + 1) + 0.25, ((Number) row[2]).doubleValue(), 0.001);
+			}
+			Assert.assertNull(reader.nextRecord());
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
 	private DBFField[] createFields() {
 		DBFField[] fields = new DBFField[3];
 
@@ -0,0 +1,147 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.linuxense.javadbf.mocks.NullOutputStream;
+
+public class DBFWriterStreamingTest {
+
+	@Test
+	public void testStreamingToFileOutputStream() throws IOException {
+		File outputFile = File.createTempFile("javadbf-streaming", ".dbf");
+		try (DBFWriter writer = new DBFWriter(new FileOutputStream(outputFile), StandardCharsets.ISO_8859_1, true)) {
+			writer.setFields(createFields());
+			for (int i = 0; i < 100; i++) {
+				writer.addRecord(new Object[] { "Name " + i, i });
+			}
+		}
+		assertContent(new FileInputStream(outputFile), 100);
+	}
+
+	@Test
+	public void testStreamingToChannel() throws IOException {
+		File outputFile = File.createTempFile("javadbf-streaming", ".dbf");
+		SeekableByteChannel channel = Files.newByteChannel(outputFile.toPath(), StandardOpenOption.WRITE);
+		try (DBFWriter writer = new DBFWriter(channel, StandardCharsets.ISO_8859_1)) {
+			writer.setFields(createFields());
+			for (int i = 0; i < 10; i++) {
+				writer.addRecord(new Object[] { "Name " + i, i });
+			}
+		}
+		Assert.assertFalse(channel.isOpen());
+		assertContent(new FileInputStream(outputFile), 10);
+	}
+
+	@Test
+	public void testStreamingWithExpectedRecordCount() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (DBFWriter writer = new DBFWriter(baos, StandardCharsets.ISO_8859_1, true)) {
+			writer.setFields(createFields());
+			writer.setExpectedRecordCount(3);
+			for (int i = 0; i < 3; i++) {
+				writer.addRecord(new Object[] { "Name " + i, i });
+			}
+		}
+		assertContent(new ByteArrayInputStream(baos.toByteArray()), 3);
+	}
+
+	@Test
+	public void testStreamingSameOutputAsBuffered() throws IOException {
+		ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+		ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+		DBFWriter streamWriter = new DBFWriter(streamed, StandardCharsets.ISO_8859_1, true);
+		DBFWriter bufferedWriter = new DBFWriter(buffered, StandardCharsets.ISO_8859_1);
+		streamWriter.setFields(createFields());
+		bufferedWriter.setFields(createFields());
+		streamWriter.setExpectedRecordCount(5);
+		for (int i = 0; i < 5; i++) {
+			streamWriter.addRecord(new Object[] { "Name " + i, i });
+			bufferedWriter.addRecord(new Object[] { "Name " + i, i });
+		}
+		streamWriter.close();
+		bufferedWriter.close();
+		Assert.assertArrayEquals(buffered.toByteArray(), streamed.toByteArray());
+	}
+
+	@Test
+	public void testEmptyStreamingWithoutExpectedCount() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (DBFWriter writer = new DBFWriter(baos, StandardCharsets.ISO_8859_1, true)) {
+			writer.setFields(createFields());
+		}
+		assertContent(new ByteArrayInputStream(baos.toByteArray()), 0);
+	}
+
+	@Test(expected = DBFException.class)
+	public void testNonSeekableRequiresExpectedCount() {
+		try (DBFWriter writer = new DBFWriter(new NullOutputStream(), StandardCharsets.ISO_8859_1, true)) {
+			writer.setFields(createFields());
+			writer.addRecord(new Object[] { "Name", 1 });
+		}
+	}
+
+	@Test(expected = DBFException.class)
+	public void testExpectedCountMismatch() {
+		DBFWriter writer = new DBFWriter(new NullOutputStream(), StandardCharsets.ISO_8859_1, true);
+		writer.setFields(createFields());
+		writer.setExpectedRecordCount(2);
+		writer.addRecord(new Object[] { "Name", 1 });
+		writer.close();
+	}
+
+	private void assertContent(InputStream in, int expectedRecords) {
+		DBFReader reader = new DBFReader(in);
+		try {
+			Assert.assertEquals(expectedRecords, reader.getRecordCount());
+			int count = 0;
+			Object[] row = null;
+			while ((row = reader.nextRecord()) != null) {
+				Assert.assertEquals("Name " + count, row[0]);
+				Assert.assertEquals(count, ((Number) row[1]).intValue());
+				count++;
+			}
+			Assert.assertEquals(expectedRecords, count);
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+	}
+
+	private DBFField[] createFields() {
+		DBFField[] fields = new DBFField[2];
+		fields[0] = new DBFField("name", DBFDataType.CHARACTER, 20);
+		fields[1] = new DBFField("counter", DBFDataType.NUMERIC, 10);
+		return fields;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+
+(C) Copyright 2026 Alberto Fernández <infjaf@gmail.com>
+
+This library is free software; you can redistribute it and/or
+modify it under the terms of the GNU Lesser General Public
+License as published by the Free Software Foundation; either
+version 3.0 of the License, or (at your option) any later version.
+
+This library is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public
+License along with this library.  If not, see <http://www.gnu.org/licenses/>.
+
+*/
+package com.linuxense.javadbf.testutils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.linuxense.javadbf.DBFField;
+import com.linuxense.javadbf.DBFReader;
+import com.linuxense.javadbf.DBFRow;
+import com.linuxense.javadbf.DBFUtils;
+import com.linuxense.javadbf.DBFWriter;
+
+public final class DBFFileUtils {
+
+	/**
+	 * Values of the records of a test file
+	 */
+	public interface RowValues {
+		Object[] get(int index);
+	}
+
+	private DBFFileUtils() {
+		throw new AssertionError("No instances allowed");
+	}
+
+	public static File createFile(String prefix, DBFField[] fields, int records, RowValues values) throws IOException {
+		File file = File.createTempFile(prefix, ".dbf");
+		file.delete();
+		try (DBFWriter writer = new DBFWriter(file)) {
+			writer.setFields(fields);
+			for (int i = 0; i < records; i++) {
+				writer.addRecord(values.get(i));
+			}
+		}
+		return file;
+	}
+
+	public static List<Object[]> readAll(File dbf) throws IOException {
+		return readAll(dbf, null);
+	}
+
+	public static List<Object[]> readAll(File dbf, File memo) throws IOException {
+		List<Object[]> rows = new ArrayList<>();
+		DBFReader reader = new DBFReader(new BufferedInputStream(new FileInputStream(dbf)));
+		try {
+			if (memo != null) {
+				reader.setMemoFile(memo);
+			}
+			Object[] row;
+			while ((row = reader.nextRecord()) != null) {
+				rows.add(row);
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+		return rows;
+	}
+
+	public static List<DBFRow> readAllRows(File dbf) throws IOException {
+		List<DBFRow> rows = new ArrayList<>();
+		DBFReader reader = new DBFReader(new BufferedInputStream(new FileInputStream(dbf)));
+		try {
+			DBFRow row;
+			while ((row = reader.nextRow()) != null) {
+				rows.add(row);
+			}
+		}
+		finally {
+			DBFUtils.close(reader);
+		}
+		return rows;
+	}
+}